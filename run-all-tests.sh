@@ -155,7 +155,7 @@ if [ "$RUN_UNIT" = true ]; then
     fi
     
     # Inclure uniquement les tests unitaires (exclure les tests d'intégration)
-    UNIT_TEST_CMD="$UNIT_TEST_CMD -Dtest='!**/*IntegrationTest' -DfailIfNoTests=false"
+    UNIT_TEST_CMD="$UNIT_TEST_CMD -Dtest='!**/*IntegrationTest,!**/loadtest/**' -DfailIfNoTests=false"
     
     if ! run_command "$UNIT_TEST_CMD" "Tests unitaires"; then
         echo -e "${RED}❌ Les tests unitaires ont échoué${NC}"
@@ -1,15 +1,22 @@
 package com.learn.kafka;
 
+import com.learn.kafka.config.NativeRuntimeHints;
+import com.learn.kafka.service.ApplicationCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
-@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class KafkaApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(KafkaApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(KafkaApplication.class, args);
+		// Commande ponctuelle (--migrate-index...) : arrêt avec le code qu'elle a rendu
+		if (context.getBeansOfType(ApplicationCommand.class).values().stream().anyMatch(ApplicationCommand::executed)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -1,5 +1,7 @@
 package com.learn.kafka;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
 import com.learn.kafka.producer.MessageProducer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnRole(Role.INGESTER)
 public class ProducerController {
 
     @Autowired
@@ -0,0 +1,121 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Étape d'alerte, dans son propre groupe de consommateurs sur {@code exchange-rates} :
+ * évalue {@link RateAlertEngine} sur chaque snapshot puis publie les alertes sur le topic
+ * des alertes, d'où {@link RateAlertFanOutConsumer} les pousse aux abonnés SSE de chaque
+ * instance reader.
+ *
+ * <p>À l'assignation, la lecture recule d'un snapshot pour retrouver la référence de
+ * comparaison ; ce snapshot déjà traité avant le redémarrage ne republie rien.
+ *
+ * <p>En mode exactly-once, les alertes partent par le producteur transactionnel des topics
+ * dérivés, dans la transaction qui porte l'offset du snapshot : un échec d'envoi annule la
+ * transaction et le snapshot relu republie les mêmes alertes.
+ */
+@Component
+@ConditionalOnRole(Role.INDEXER)
+@ConditionalOnProperty(name = "exchange-rates.alerts.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+@Slf4j
+public class RateAlertConsumer implements ConsumerSeekAware {
+
+    private final RateAlertEngine rateAlertEngine;
+    private final KafkaTemplate<String, RateAlert> rateAlertKafkaTemplate;
+    // Producteur transactionnel du mode exactly-once, absent sinon
+    private final ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplate;
+    private final RateAlertProperties properties;
+
+    // Position de reprise par partition : en dessous, référence de comparaison seulement
+    private final Map<TopicPartition, Long> resumeOffsets = new ConcurrentHashMap<>();
+    // Propre au groupe : à l'assignation, il relit en deçà du plus grand jeton vu par les autres
+    private final FencingTokens fencingTokens = new FencingTokens();
+    // Dernier snapshot évalué, pour qu'une relecture après annulation republie ses alertes
+    private Evaluated last;
+
+    @Autowired
+    public RateAlertConsumer(KafkaTemplate<String, RateAlert> rateAlertKafkaTemplate,
+                             ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplate,
+                             RateAlertProperties properties) {
+        this(new RateAlertEngine(properties), rateAlertKafkaTemplate, derivedKafkaTemplate, properties);
+    }
+
+    @KafkaListener(
+        topics = "exchange-rates",
+        groupId = "exchange-rate-alerts-group",
+        containerFactory = "derivedKafkaListenerContainerFactory"
+    )
+    public void consumeExchangeRate(ConsumerRecord<String, ExchangeRate> record) {
+        ExchangeRate exchangeRate = record.value();
+        if (exchangeRate == null || fencingTokens.isStale(exchangeRate)) {
+            return;
+        }
+        exchangeRate.setVersion(record.offset());
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        List<RateAlert> alerts = evaluate(partition, record);
+        Long resumeOffset = resumeOffsets.get(partition);
+        if (alerts.isEmpty() || (resumeOffset != null && record.offset() < resumeOffset)) {
+            return;
+        }
+
+        KafkaTemplate<String, Object> transactional = derivedKafkaTemplate.getIfAvailable();
+        if (transactional != null) {
+            // Pas de capture : l'échec doit annuler la transaction du listener
+            alerts.forEach(alert -> transactional.send(properties.getTopic(), alert.getCurrency(), alert));
+        }
+        for (RateAlert alert : alerts) {
+            log.info("{} alert on {} (snapshot {}): {} -> {}", alert.getType(), alert.getCurrency(),
+                    alert.getSnapshotId(), alert.getPreviousRate(), alert.getRate());
+            if (transactional == null) {
+                try {
+                    rateAlertKafkaTemplate.send(properties.getTopic(), alert.getCurrency(), alert);
+                } catch (Exception e) {
+                    log.warn("Failed to publish rate alert to {}: {}", properties.getTopic(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized List<RateAlert> evaluate(TopicPartition partition, ConsumerRecord<String, ExchangeRate> record) {
+        if (last != null && last.partition().equals(partition) && last.offset() == record.offset()) {
+            return last.alerts();
+        }
+        List<RateAlert> alerts = rateAlertEngine.evaluate(record.value());
+        last = new Evaluated(partition, record.offset(), alerts);
+        return alerts;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.forEach((partition, position) -> {
+            resumeOffsets.put(partition, position);
+            callback.seek(partition.topic(), partition.partition(), Math.max(0, position - 1));
+        });
+    }
+
+    private record Evaluated(TopicPartition partition, long offset, List<RateAlert> alerts) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import com.learn.kafka.store.CurrencyCodes;
+import com.learn.kafka.store.RateSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Règles d'alerte évaluées à chaque snapshot contre le précédent. Les règles sont indexées
+ * par ordinal de devise ({@link CurrencyCodes}) : un snapshot coûte une comparaison de taux
+ * par devise, puis seules les règles des devises dont le taux a changé, qui sont apparues ou
+ * qui ont disparu sont évaluées, quel que soit le nombre total de règles.
+ *
+ * <p>Les seuils sont évalués au franchissement : une devise restée au-dessus d'un seuil
+ * ne relève pas d'alerte à chaque snapshot. Les snapshots pas plus récents que le dernier
+ * évalué (rejeu Kafka, backfill historique) sont ignorés ; un changement de devise de base
+ * repart d'un snapshot de référence, sans alerte.
+ */
+public class RateAlertEngine {
+
+    private static final RateAlertProperties.Rule[] NO_RULES = new RateAlertProperties.Rule[0];
+
+    private final RateAlertProperties.Rule[][] rulesByOrdinal = new RateAlertProperties.Rule[CurrencyCodes.COUNT][];
+    // Règle MISSING sur "*" : toute devise disparue lève une alerte
+    private final boolean anyMissing;
+    private final int ruleCount;
+
+    private RateSnapshot previous;
+
+    public RateAlertEngine(RateAlertProperties properties) {
+        boolean wildcard = false;
+        int count = 0;
+        if (properties.isEnabled()) {
+            for (RateAlertProperties.Rule rule : properties.getRules()) {
+                if (rule.getType() == null || rule.getCurrency() == null) {
+                    throw new IllegalArgumentException("Alert rule without type or currency: " + rule);
+                }
+                if (RateAlertProperties.ANY_CURRENCY.equals(rule.getCurrency())) {
+                    if (rule.getType() != RateAlert.Type.MISSING) {
+                        throw new IllegalArgumentException("Only MISSING rules apply to any currency: " + rule);
+                    }
+                    wildcard = true;
+                } else {
+                    int ordinal = CurrencyCodes.ordinal(rule.getCurrency().toUpperCase());
+                    if (ordinal < 0) {
+                        throw new IllegalArgumentException("Unknown currency in alert rule: " + rule);
+                    }
+                    RateAlertProperties.Rule[] rules = Objects.requireNonNullElse(rulesByOrdinal[ordinal], NO_RULES);
+                    RateAlertProperties.Rule[] extended = Arrays.copyOf(rules, rules.length + 1);
+                    extended[rules.length] = rule;
+                    rulesByOrdinal[ordinal] = extended;
+                }
+                count++;
+            }
+        }
+        this.anyMissing = wildcard;
+        this.ruleCount = count;
+    }
+
+    /**
+     * @return les alertes levées par le passage du snapshot précédent à celui-ci, vide pour
+     * le premier snapshot ou un snapshot ignoré
+     */
+    public synchronized List<RateAlert> evaluate(ExchangeRate exchangeRate) {
+        if (ruleCount == 0 || exchangeRate.getTimestamp() == null || exchangeRate.getRates() == null) {
+            return List.of();
+        }
+        RateSnapshot last = previous;
+        RateSnapshot snapshot = RateSnapshot.of(exchangeRate, last);
+        if (last != null && snapshot.getEpochMillis() <= last.getEpochMillis()) {
+            return List.of();
+        }
+        previous = snapshot;
+        if (last == null || !Objects.equals(last.getBaseCurrency(), snapshot.getBaseCurrency())) {
+            return List.of();
+        }
+
+        List<RateAlert> alerts = new ArrayList<>();
+        int[] before = last.getOrdinals();
+        double[] beforeValues = last.getValues();
+        int[] after = snapshot.getOrdinals();
+        double[] afterValues = snapshot.getValues();
+
+        if (before == after) {
+            // Même ensemble de devises (tableau d'ordinaux partagé) : rien n'a disparu
+            for (int i = 0; i < after.length; i++) {
+                if (beforeValues[i] != afterValues[i]) {
+                    changed(after[i], beforeValues[i], afterValues[i], exchangeRate, alerts);
+                }
+            }
+            return alerts;
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < before.length || j < after.length) {
+            if (j == after.length || (i < before.length && before[i] < after[j])) {
+                missing(before[i], beforeValues[i], exchangeRate, alerts);
+                i++;
+            } else if (i == before.length || after[j] < before[i]) {
+                changed(after[j], Double.NaN, afterValues[j], exchangeRate, alerts);
+                j++;
+            } else {
+                if (beforeValues[i] != afterValues[j]) {
+                    changed(after[j], beforeValues[i], afterValues[j], exchangeRate, alerts);
+                }
+                i++;
+                j++;
+            }
+        }
+        return alerts;
+    }
+
+    /**
+     * @param previousRate NaN si la devise vient d'apparaître
+     */
+    private void changed(int ordinal, double previousRate, double rate, ExchangeRate exchangeRate, List<RateAlert> alerts) {
+        RateAlertProperties.Rule[] rules = rulesByOrdinal[ordinal];
+        if (rules == null) {
+            return;
+        }
+        boolean known = !Double.isNaN(previousRate);
+        for (RateAlertProperties.Rule rule : rules) {
+            double threshold = rule.getThreshold();
+            boolean triggered = switch (rule.getType()) {
+                case ABOVE -> rate > threshold && (!known || previousRate <= threshold);
+                case BELOW -> rate < threshold && (!known || previousRate >= threshold);
+                case CHANGE -> known && previousRate != 0 && Math.abs(rate / previousRate - 1) * 100 > threshold;
+                case MISSING -> false;
+            };
+            if (triggered) {
+                RateAlert alert = alert(rule.getType(), ordinal, exchangeRate);
+                alert.setThreshold(threshold);
+                alert.setRate(rate);
+                if (known) {
+                    alert.setPreviousRate(previousRate);
+                    alert.setChangePercent(previousRate == 0 ? null : (rate / previousRate - 1) * 100);
+                }
+                alerts.add(alert);
+            }
+        }
+    }
+
+    private void missing(int ordinal, double previousRate, ExchangeRate exchangeRate, List<RateAlert> alerts) {
+        boolean watched = anyMissing;
+        RateAlertProperties.Rule[] rules = rulesByOrdinal[ordinal];
+        if (rules != null) {
+            for (RateAlertProperties.Rule rule : rules) {
+                watched |= rule.getType() == RateAlert.Type.MISSING;
+            }
+        }
+        if (watched) {
+            RateAlert alert = alert(RateAlert.Type.MISSING, ordinal, exchangeRate);
+            alert.setPreviousRate(previousRate);
+            alerts.add(alert);
+        }
+    }
+
+    private static RateAlert alert(RateAlert.Type type, int ordinal, ExchangeRate exchangeRate) {
+        RateAlert alert = new RateAlert();
+        alert.setType(type);
+        alert.setCurrency(CurrencyCodes.code(ordinal));
+        alert.setBaseCurrency(exchangeRate.getBaseCurrency());
+        alert.setSnapshotId(exchangeRate.getId());
+        alert.setTimestamp(exchangeRate.getTimestamp());
+        alert.setVersion(exchangeRate.getVersion());
+        return alert;
+    }
+}
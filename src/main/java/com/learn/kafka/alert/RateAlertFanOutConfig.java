@@ -0,0 +1,60 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.RateAlert;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer broadcast du topic des alertes : un groupe propre à chaque instance reader (toutes
+ * reçoivent toutes les alertes), démarrage à la fin du topic et aucun commit d'offset. Seules
+ * les transactions validées sont lues, pour ne pas pousser l'alerte d'un snapshot relu.
+ */
+@Configuration
+@ConditionalOnRole(Role.READER)
+@ConditionalOnProperty(name = "exchange-rates.alerts.enabled", havingValue = "true", matchIfMissing = true)
+public class RateAlertFanOutConfig {
+
+  @Value("${spring.kafka.bootstrap-servers}")
+  String bootstrapServers;
+
+  @Value("${exchange-rates.alerts.group-id:exchange-rate-alerts-${random.uuid}}")
+  String groupId;
+
+  @Bean
+  public ConsumerFactory<String, RateAlert> rateAlertFanOutConsumerFactory() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+    configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+    configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+    configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, RateAlert.class.getName());
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    configProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+    return new DefaultKafkaConsumerFactory<>(configProps);
+  }
+
+  // Acquittement manuel jamais appelé : le groupe éphémère ne laisse pas d'offsets derrière lui
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, RateAlert> rateAlertFanOutKafkaListenerContainerFactory() {
+    ConcurrentKafkaListenerContainerFactory<String, RateAlert> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(rateAlertFanOutConsumerFactory());
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    return factory;
+  }
+}
@@ -0,0 +1,36 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.RateAlert;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diffusion des alertes aux abonnés SSE de chaque instance reader. Les alertes sont évaluées
+ * une seule fois, par {@link RateAlertConsumer} dans le groupe partagé, puis relues ici depuis
+ * le topic des alertes par toutes les instances.
+ */
+@Component
+@ConditionalOnRole(Role.READER)
+@ConditionalOnProperty(name = "exchange-rates.alerts.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RateAlertFanOutConsumer {
+
+    private final RateAlertPublisher rateAlertPublisher;
+
+    @KafkaListener(
+        topics = "${exchange-rates.alerts.topic:exchange-rate-alerts}",
+        containerFactory = "rateAlertFanOutKafkaListenerContainerFactory"
+    )
+    public void consumeRateAlert(RateAlert alert) {
+        if (alert == null) {
+            return;
+        }
+        rateAlertPublisher.publish(alert);
+    }
+}
@@ -0,0 +1,46 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.model.RateAlert;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Diffusion des alertes aux abonnés SSE. Contrairement aux snapshots, une alerte n'est
+ * pas remplacée par la suivante : chaque abonné garde les
+ * {@code exchange-rates.alerts.stream-buffer} dernières alertes non envoyées, les plus
+ * anciennes étant perdues au-delà.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateAlertPublisher {
+
+    private final RateAlertProperties properties;
+
+    // Pas de rejeu : un nouvel abonné ne reçoit que les alertes levées après son abonnement
+    private final Sinks.Many<RateAlert> sink = Sinks.many().multicast().directBestEffort();
+
+    public synchronized void publish(RateAlert alert) {
+        Sinks.EmitResult result = sink.tryEmitNext(alert);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Could not publish {} alert for {} to subscribers: {}", alert.getType(), alert.getCurrency(), result);
+        }
+    }
+
+    /**
+     * Flux des alertes pour un abonné, envoyées hors du thread du consumer Kafka.
+     */
+    public Flux<RateAlert> alerts() {
+        return sink.asFlux()
+                .onBackpressureBuffer(properties.getStreamBuffer(),
+                        dropped -> log.debug("Dropped {} alert for {} on slow subscriber", dropped.getType(), dropped.getCurrency()),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .publishOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,89 @@
+package com.learn.kafka.analytics;
+
+import com.learn.kafka.model.CurrencyStats;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * État glissant d'une devise : une fenêtre sur le taux et une sur les rendements
+ * logarithmiques par taille configurée, une EWMA par demi-vie. Tout est primitif ;
+ * seul {@link #toStats} alloue, pour la publication.
+ */
+final class CurrencyStatistics {
+
+    private final RollingWindow[] levels;
+    private final RollingWindow[] returns;
+    private final double[] alphas;
+    private final double[] ewma;
+    private double last = Double.NaN;
+    private long samples;
+    private long epochMillis;
+    private String timestamp;
+    private String baseCurrency;
+
+    CurrencyStatistics(int[] windows, double[] alphas) {
+        this.levels = new RollingWindow[windows.length];
+        this.returns = new RollingWindow[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            levels[i] = new RollingWindow(windows[i]);
+            returns[i] = new RollingWindow(windows[i]);
+        }
+        this.alphas = alphas;
+        this.ewma = new double[alphas.length];
+    }
+
+    void add(double rate, long epochMillis, String timestamp, String baseCurrency) {
+        boolean first = samples == 0;
+        double logReturn = first || last <= 0 || rate <= 0 ? Double.NaN : Math.log(rate / last);
+        for (int i = 0; i < levels.length; i++) {
+            levels[i].add(rate);
+            if (!Double.isNaN(logReturn)) {
+                returns[i].add(logReturn);
+            }
+        }
+        for (int i = 0; i < alphas.length; i++) {
+            ewma[i] = first ? rate : alphas[i] * rate + (1 - alphas[i]) * ewma[i];
+        }
+        last = rate;
+        samples++;
+        this.epochMillis = epochMillis;
+        this.timestamp = timestamp;
+        this.baseCurrency = baseCurrency;
+    }
+
+    CurrencyStats toStats(String currency, String[] ewmaKeys) {
+        CurrencyStats stats = new CurrencyStats();
+        stats.setId(currency + "-" + epochMillis);
+        stats.setCurrency(currency);
+        stats.setBaseCurrency(baseCurrency);
+        stats.setTimestamp(timestamp);
+        stats.setRate(last);
+        stats.setSamples(samples);
+        List<CurrencyStats.Window> windows = new ArrayList<>(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            CurrencyStats.Window window = new CurrencyStats.Window();
+            window.setSize(levels[i].size());
+            window.setCount(levels[i].count());
+            window.setMean(levels[i].mean());
+            window.setStddev(orNull(levels[i].stddev()));
+            window.setMin(levels[i].min());
+            window.setMax(levels[i].max());
+            window.setVolatility(orNull(returns[i].stddev()));
+            windows.add(window);
+        }
+        stats.setWindows(windows);
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for (int i = 0; i < ewmaKeys.length; i++) {
+            averages.put(ewmaKeys[i], ewma[i]);
+        }
+        stats.setEwma(averages);
+        return stats;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
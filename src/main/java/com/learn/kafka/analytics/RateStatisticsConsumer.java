@@ -0,0 +1,133 @@
+package com.learn.kafka.analytics;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.ElasticsearchService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Étape d'analyse, dans son propre groupe de consommateurs sur {@code exchange-rates} :
+ * met à jour {@link RollingRateStatistics} puis publie les statistiques de chaque devise
+ * sur le topic dérivé et dans l'index {@code exchange_rate_stats}.
+ *
+ * <p>Les fenêtres vivent en mémoire : à l'assignation, la lecture recule d'autant de
+ * snapshots que la plus grande fenêtre pour les reconstruire. Ces snapshots déjà traités
+ * avant le redémarrage mettent les fenêtres à jour sans être republiés.
+ *
+ * <p>Les fenêtres de l'étape lui sont propres : celles servies par {@code /stats} sont tenues
+ * par la synchronisation des readers, qui reçoit les mêmes snapshots sur chaque instance.
+ *
+ * <p>En mode exactly-once, les statistiques partent par le producteur transactionnel des
+ * topics dérivés, dans la transaction qui porte l'offset du snapshot : un échec d'envoi
+ * annule la transaction et le snapshot relu republie les mêmes statistiques.
+ */
+@Component
+@ConditionalOnRole(Role.INDEXER)
+@ConditionalOnProperty(name = "exchange-rates.stats.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+@Slf4j
+public class RateStatisticsConsumer implements ConsumerSeekAware {
+
+    private final RollingRateStatistics rollingRateStatistics;
+    private final KafkaTemplate<String, CurrencyStats> rateStatsKafkaTemplate;
+    // Producteur transactionnel du mode exactly-once, absent sinon
+    private final ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplate;
+    private final ElasticsearchService elasticsearchService;
+    private final RateStatsProperties properties;
+
+    // Position de reprise par partition : en dessous, réchauffage des fenêtres seulement
+    private final Map<TopicPartition, Long> resumeOffsets = new ConcurrentHashMap<>();
+    // Propre au groupe : à l'assignation, il relit en deçà du plus grand jeton vu par les autres
+    private final FencingTokens fencingTokens = new FencingTokens();
+    // Dernier snapshot traité, pour qu'une relecture après annulation republie ses statistiques
+    private Derived last;
+
+    @Autowired
+    public RateStatisticsConsumer(KafkaTemplate<String, CurrencyStats> rateStatsKafkaTemplate,
+                                  ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplate,
+                                  ElasticsearchService elasticsearchService,
+                                  RateStatsProperties properties) {
+        this(new RollingRateStatistics(properties), rateStatsKafkaTemplate, derivedKafkaTemplate,
+                elasticsearchService, properties);
+    }
+
+    @KafkaListener(
+        topics = "exchange-rates",
+        groupId = "exchange-rate-stats-group",
+        containerFactory = "derivedKafkaListenerContainerFactory"
+    )
+    public void consumeExchangeRate(ConsumerRecord<String, ExchangeRate> record) {
+        if (record.value() == null || fencingTokens.isStale(record.value())) {
+            return;
+        }
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        List<CurrencyStats> stats = update(partition, record);
+        Long resumeOffset = resumeOffsets.get(partition);
+        if (stats.isEmpty() || (resumeOffset != null && record.offset() < resumeOffset)) {
+            return;
+        }
+
+        KafkaTemplate<String, Object> transactional = derivedKafkaTemplate.getIfAvailable();
+        if (transactional != null) {
+            // Pas de capture : l'échec doit annuler la transaction du listener
+            stats.forEach(currencyStats -> transactional.send(properties.getTopic(), currencyStats.getCurrency(), currencyStats));
+        } else {
+            try {
+                for (CurrencyStats currencyStats : stats) {
+                    rateStatsKafkaTemplate.send(properties.getTopic(), currencyStats.getCurrency(), currencyStats);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to publish rate statistics to {}: {}", properties.getTopic(), e.getMessage());
+            }
+        }
+
+        if (properties.isIndexEnabled()) {
+            try {
+                elasticsearchService.saveCurrencyStats(stats);
+            } catch (Exception e) {
+                log.warn("Failed to index rate statistics: {}", e.getMessage());
+            }
+        }
+    }
+
+    private synchronized List<CurrencyStats> update(TopicPartition partition, ConsumerRecord<String, ExchangeRate> record) {
+        if (last != null && last.partition().equals(partition) && last.offset() == record.offset()) {
+            return last.stats();
+        }
+        List<CurrencyStats> stats = rollingRateStatistics.update(record.value());
+        last = new Derived(partition, record.offset(), stats);
+        return stats;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        long warmup = Collections.max(properties.getWindows()) + 1L;
+        assignments.forEach((partition, position) -> {
+            resumeOffsets.put(partition, position);
+            callback.seek(partition.topic(), partition.partition(), Math.max(0, position - warmup));
+        });
+    }
+
+    private record Derived(TopicPartition partition, long offset, List<CurrencyStats> stats) {
+    }
+}
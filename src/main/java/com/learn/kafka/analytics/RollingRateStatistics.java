@@ -0,0 +1,83 @@
+package com.learn.kafka.analytics;
+
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.store.CurrencyCodes;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statistiques glissantes de toutes les devises, tenues par ordinal
+ * ({@link CurrencyCodes}). Chaque snapshot coûte O(devises × fenêtres), indépendamment
+ * de la taille des fenêtres. Les snapshots pas plus récents que le dernier traité
+ * (rejeu Kafka, backfill historique) sont ignorés.
+ */
+@Component
+public class RollingRateStatistics {
+
+    private final int[] windows;
+    private final double[] alphas;
+    private final String[] ewmaKeys;
+    private final CurrencyStatistics[] byOrdinal = new CurrencyStatistics[CurrencyCodes.COUNT];
+
+    private long lastEpochMillis = Long.MIN_VALUE;
+
+    public RollingRateStatistics(RateStatsProperties properties) {
+        this.windows = properties.getWindows().stream().mapToInt(Integer::intValue).toArray();
+        List<Integer> halfLives = properties.getEwmaHalfLives();
+        this.alphas = new double[halfLives.size()];
+        this.ewmaKeys = new String[halfLives.size()];
+        for (int i = 0; i < alphas.length; i++) {
+            // Poids divisé par deux toutes les "demi-vie" observations
+            alphas[i] = 1 - Math.pow(0.5, 1.0 / halfLives.get(i));
+            ewmaKeys[i] = "hl" + halfLives.get(i);
+        }
+    }
+
+    /**
+     * @return les statistiques des devises du snapshot, vide s'il a été ignoré
+     */
+    public synchronized List<CurrencyStats> update(ExchangeRate exchangeRate) {
+        if (exchangeRate.getTimestamp() == null || exchangeRate.getRates() == null) {
+            return List.of();
+        }
+        long epochMillis = RateTimestamps.toEpochMillis(exchangeRate.getTimestamp());
+        if (epochMillis <= lastEpochMillis) {
+            return List.of();
+        }
+        lastEpochMillis = epochMillis;
+
+        List<CurrencyStats> updated = new ArrayList<>(exchangeRate.getRates().size());
+        for (Map.Entry<String, Double> entry : exchangeRate.getRates().entrySet()) {
+            int ordinal = CurrencyCodes.ordinal(entry.getKey());
+            if (ordinal < 0 || entry.getValue() == null) {
+                continue;
+            }
+            CurrencyStatistics statistics = byOrdinal[ordinal];
+            if (statistics == null) {
+                statistics = new CurrencyStatistics(windows, alphas);
+                byOrdinal[ordinal] = statistics;
+            }
+            statistics.add(entry.getValue(), epochMillis, exchangeRate.getTimestamp(), exchangeRate.getBaseCurrency());
+            updated.add(statistics.toStats(entry.getKey(), ewmaKeys));
+        }
+        return updated;
+    }
+
+    /**
+     * @return les statistiques de la devise au dernier snapshot où elle figurait
+     */
+    public synchronized Optional<CurrencyStats> get(String currency) {
+        int ordinal = CurrencyCodes.ordinal(currency);
+        if (ordinal < 0 || byOrdinal[ordinal] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(byOrdinal[ordinal].toStats(currency, ewmaKeys));
+    }
+}
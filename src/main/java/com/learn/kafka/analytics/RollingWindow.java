@@ -0,0 +1,135 @@
+package com.learn.kafka.analytics;
+
+/**
+ * Fenêtre glissante des {@code size} dernières valeurs, en O(1) par ajout et sans
+ * allocation : anneau de {@code double} pour les valeurs, moyenne et somme des carrés
+ * des écarts tenues à jour à l'entrée et à la sortie (Welford), deux files monotones
+ * de numéros de séquence pour le min et le max.
+ *
+ * <p>La mise à jour par retrait accumule de l'erreur d'arrondi : moyenne et somme des
+ * carrés sont recalculées sur l'anneau tous les {@code size} retraits, soit O(1) amorti.
+ */
+final class RollingWindow {
+
+    private final int size;
+    private final double[] values;
+    private long sequence = -1;
+    private int count;
+
+    private double mean;
+    private double m2;
+    private int evictionsSinceRecompute;
+
+    // Files monotones : numéros de séquence, valeurs lues dans l'anneau
+    private final long[] minQueue;
+    private int minHead;
+    private int minLength;
+    private final long[] maxQueue;
+    private int maxHead;
+    private int maxLength;
+
+    RollingWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.size = size;
+        this.values = new double[size];
+        this.minQueue = new long[size];
+        this.maxQueue = new long[size];
+    }
+
+    void add(double value) {
+        sequence++;
+        long oldest = sequence - size;
+        if (minLength > 0 && minQueue[minHead] <= oldest) {
+            minHead = (minHead + 1) % size;
+            minLength--;
+        }
+        if (maxLength > 0 && maxQueue[maxHead] <= oldest) {
+            maxHead = (maxHead + 1) % size;
+            maxLength--;
+        }
+
+        int slot = (int) (sequence % size);
+        if (count == size) {
+            remove(values[slot]);
+        }
+        values[slot] = value;
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (evictionsSinceRecompute >= size) {
+            recompute();
+        }
+
+        while (minLength > 0 && valueAt(minQueue[(minHead + minLength - 1) % size]) >= value) {
+            minLength--;
+        }
+        minQueue[(minHead + minLength++) % size] = sequence;
+        while (maxLength > 0 && valueAt(maxQueue[(maxHead + maxLength - 1) % size]) <= value) {
+            maxLength--;
+        }
+        maxQueue[(maxHead + maxLength++) % size] = sequence;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int count() {
+        return count;
+    }
+
+    double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return l'écart-type échantillon, NaN sous deux valeurs
+     */
+    double stddev() {
+        return count < 2 ? Double.NaN : Math.sqrt(Math.max(0, m2) / (count - 1));
+    }
+
+    double min() {
+        return minLength == 0 ? Double.NaN : valueAt(minQueue[minHead]);
+    }
+
+    double max() {
+        return maxLength == 0 ? Double.NaN : valueAt(maxQueue[maxHead]);
+    }
+
+    private void remove(double value) {
+        count--;
+        if (count == 0) {
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double previousMean = mean;
+        mean = (previousMean * (count + 1) - value) / count;
+        m2 -= (value - previousMean) * (value - mean);
+        evictionsSinceRecompute++;
+    }
+
+    private void recompute() {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        double exactMean = sum / count;
+        double squares = 0;
+        for (int i = 0; i < count; i++) {
+            double delta = values[i] - exactMean;
+            squares += delta * delta;
+        }
+        mean = exactMean;
+        m2 = squares;
+        evictionsSinceRecompute = 0;
+    }
+
+    private double valueAt(long sequenceNumber) {
+        return values[(int) (sequenceNumber % size)];
+    }
+}
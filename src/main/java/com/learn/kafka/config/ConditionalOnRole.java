@@ -0,0 +1,24 @@
+package com.learn.kafka.config;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bean actif seulement si l'instance a le rôle {@link #value()} et aucun des rôles
+ * {@link #without()} (voir {@code exchange-rates.roles}).
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnRoleCondition.class)
+public @interface ConditionalOnRole {
+
+    Role value();
+
+    Role[] without() default {};
+}
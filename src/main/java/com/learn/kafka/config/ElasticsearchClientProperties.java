@@ -0,0 +1,34 @@
+package com.learn.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Réglages du client Elasticsearch ({@code exchange-rates.elasticsearch.*}). Les hôtes,
+ * identifiants et timeouts restent ceux de {@code spring.elasticsearch.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.elasticsearch")
+public class ElasticsearchClientProperties {
+
+    // Le consumer et les lectures du proxy partagent ce pool
+    private int maxConnectionsPerRoute = 32;
+    private int maxConnectionsTotal = 64;
+
+    // Corps de requête gzip et Accept-Encoding: gzip
+    private boolean compression = true;
+
+    // Durée de réutilisation d'une connexion quand le serveur n'envoie pas d'en-tête Keep-Alive
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    // Indexation des snapshots par le client asynchrone, sans bloquer le thread du consumer
+    private boolean asyncWrites = true;
+    // Écritures asynchrones du consumer en attente de réponse, au-delà le consumer attend
+    private int maxInFlightWrites = 16;
+
+    // Regroupement des écritures en requêtes bulk pendant le mode backfill
+    private int bulkSize = 500;
+    private Duration bulkLinger = Duration.ofMillis(200);
+}
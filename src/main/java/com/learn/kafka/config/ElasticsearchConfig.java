@@ -1,28 +1,135 @@
 package com.learn.kafka.config;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.autoconfigure.elasticsearch.ElasticsearchProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
-import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchConfiguration;
 import org.springframework.data.elasticsearch.support.HttpHeaders;
+import org.springframework.util.StringUtils;
 
-import java.time.Duration;
+import java.net.URI;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * Client Elasticsearch configuré par {@code spring.elasticsearch.*} (hôtes, identifiants,
+ * timeouts) et {@link ElasticsearchClientProperties} (pool, compression, keep-alive).
+ *
+ * <p>Le pool de connexions est déclaré ici plutôt que laissé au {@code RestClient} pour
+ * en publier l'occupation ({@code elasticsearch.client.connections}). Les clients
+ * synchrone et asynchrone partagent le même transport, donc le même pool.
+ */
 @Configuration
+@EnableConfigurationProperties({ElasticsearchProperties.class, ElasticsearchClientProperties.class})
 public class ElasticsearchConfig extends ElasticsearchConfiguration {
 
+    private final ElasticsearchProperties elasticsearchProperties;
+    private final ElasticsearchClientProperties clientProperties;
+
+    public ElasticsearchConfig(ElasticsearchProperties elasticsearchProperties,
+                               ElasticsearchClientProperties clientProperties) {
+        this.elasticsearchProperties = elasticsearchProperties;
+        this.clientProperties = clientProperties;
+    }
+
     @Bean
     @Override
     public ClientConfiguration clientConfiguration() {
         HttpHeaders defaultHeaders = new HttpHeaders();
         defaultHeaders.add("X-Elastic-Product", "Elasticsearch");
 
-        return ClientConfiguration.builder()
-                .connectedTo("localhost:9200")
-                .withConnectTimeout(Duration.ofSeconds(1))
-                .withSocketTimeout(Duration.ofSeconds(30))
+        String[] hosts = elasticsearchProperties.getUris().stream()
+                .map(URI::create)
+                .map(uri -> uri.getHost() + ":" + (uri.getPort() > 0 ? uri.getPort() : 9200))
+                .toArray(String[]::new);
+        boolean ssl = elasticsearchProperties.getUris().stream().anyMatch(uri -> uri.startsWith("https"));
+
+        ClientConfiguration.MaybeSecureClientConfigurationBuilder builder = ClientConfiguration.builder()
+                .connectedTo(hosts);
+        ClientConfiguration.TerminalClientConfigurationBuilder configuration = ssl ? builder.usingSsl() : builder;
+        configuration = configuration
+                .withConnectTimeout(elasticsearchProperties.getConnectionTimeout())
+                .withSocketTimeout(elasticsearchProperties.getSocketTimeout())
                 .withDefaultHeaders(defaultHeaders)
+                .withClientConfigurer(ElasticsearchClients.ElasticsearchRestClientConfigurationCallback.from(
+                        restClientBuilder -> restClientBuilder.setCompressionEnabled(clientProperties.isCompression())))
+                .withClientConfigurer(ElasticsearchClients.ElasticsearchHttpClientConfigurationCallback.from(
+                        httpClientBuilder -> httpClientBuilder
+                                .setConnectionManager(elasticsearchConnectionManager())
+                                .setKeepAliveStrategy((response, context) -> clientProperties.getKeepAlive().toMillis())));
+        if (StringUtils.hasText(elasticsearchProperties.getUsername())) {
+            configuration = configuration.withBasicAuth(elasticsearchProperties.getUsername(),
+                    elasticsearchProperties.getPassword());
+        }
+        if (StringUtils.hasText(elasticsearchProperties.getPathPrefix())) {
+            configuration = configuration.withPathPrefix(elasticsearchProperties.getPathPrefix());
+        }
+        return configuration.build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingNHttpClientConnectionManager elasticsearchConnectionManager() {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout((int) elasticsearchProperties.getConnectionTimeout().toMillis())
+                .setSoTimeout((int) elasticsearchProperties.getSocketTimeout().toMillis())
+                .setSoKeepAlive(elasticsearchProperties.isSocketKeepAlive() || clientProperties.getKeepAlive().isPositive())
                 .build();
+        try {
+            PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig),
+                    RegistryBuilder.<SchemeIOSessionStrategy>create()
+                            .register("http", NoopIOSessionStrategy.INSTANCE)
+                            .register("https", SSLIOSessionStrategy.getSystemDefaultStrategy())
+                            .build());
+            connectionManager.setDefaultMaxPerRoute(clientProperties.getMaxConnectionsPerRoute());
+            connectionManager.setMaxTotal(clientProperties.getMaxConnectionsTotal());
+            return connectionManager;
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Could not create Elasticsearch I/O reactor", e);
+        }
+    }
+
+    /**
+     * Client asynchrone pour le chemin d'écriture, sur le même transport que le client synchrone.
+     */
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport elasticsearchTransport) {
+        return new ElasticsearchAsyncClient(elasticsearchTransport);
+    }
+
+    @Bean
+    public MeterBinder elasticsearchConnectionPoolMetrics(PoolingNHttpClientConnectionManager elasticsearchConnectionManager) {
+        return registry -> {
+            gauge(registry, elasticsearchConnectionManager, "leased", PoolStats::getLeased);
+            gauge(registry, elasticsearchConnectionManager, "pending", PoolStats::getPending);
+            gauge(registry, elasticsearchConnectionManager, "available", PoolStats::getAvailable);
+            gauge(registry, elasticsearchConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry,
+                              PoolingNHttpClientConnectionManager connectionManager,
+                              String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("elasticsearch.client.connections", connectionManager,
+                        manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .description("Connexions du pool du client Elasticsearch")
+                .register(registry);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.consumer.MessageConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+
+/**
+ * Démarrage rapide (profil {@code fast-start}) : les beans de démonstration listés dans
+ * {@code exchange-rates.startup.lazy-beans} ne sont créés qu'à leur premier usage, et le
+ * listener de {@link MessageConsumer} n'est démarré qu'après {@link ApplicationReadyEvent}.
+ *
+ * <p>Avec Spring AOT, le caractère lazy est figé dans les définitions générées : la liste
+ * prise en compte est celle du build ({@code mvn -Pfast-start package}).
+ */
+@Configuration
+@Slf4j
+public class FastStartConfig {
+
+    static final String LAZY_BEANS_PROPERTY = "exchange-rates.startup.lazy-beans";
+
+    @Value("${exchange-rates.startup.defer-message-consumer:false}")
+    private boolean deferMessageConsumer;
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyStartupBeans(Environment environment) {
+        List<String> names = Binder.get(environment)
+                .bind(LAZY_BEANS_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            for (String name : names) {
+                if (beanFactory instanceof BeanDefinitionRegistry registry && registry.containsBeanDefinition(name)) {
+                    registry.getBeanDefinition(name).setLazyInit(true);
+                    log.debug("Bean {} deferred to first use", name);
+                }
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDeferredListeners(ApplicationReadyEvent event) {
+        if (!deferMessageConsumer) {
+            return;
+        }
+        MessageListenerContainer container = event.getApplicationContext()
+                .getBean(KafkaListenerEndpointRegistry.class)
+                .getListenerContainer(MessageConsumer.LISTENER_ID);
+        if (container != null && !container.isRunning()) {
+            Thread.ofPlatform().name("deferred-listener-start").daemon().start(() -> {
+                container.start();
+                log.info("Deferred Kafka listener {} started", MessageConsumer.LISTENER_ID);
+            });
+        }
+    }
+}
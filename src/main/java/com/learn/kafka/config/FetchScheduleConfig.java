@@ -0,0 +1,23 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.service.TokenBucket;
+import com.learn.kafka.service.UpdateCadence;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnRole(Role.INGESTER)
+@EnableConfigurationProperties(FetchScheduleProperties.class)
+public class FetchScheduleConfig {
+
+    @Bean
+    public TokenBucket upstreamQuota(FetchScheduleProperties properties) {
+        return new TokenBucket(properties.getQuota().getCapacity(), properties.getQuota().getRefillInterval());
+    }
+
+    @Bean
+    public UpdateCadence updateCadence(FetchScheduleProperties properties) {
+        return new UpdateCadence(properties);
+    }
+}
@@ -0,0 +1,52 @@
+package com.learn.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cadence adaptative du fetch et quota amont ({@code exchange-rates.fetch.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.fetch")
+public class FetchScheduleProperties {
+
+    // Intervalle tant que la cadence du fournisseur n'est ni annoncée ni apprise
+    private long intervalMs = 120000;
+    private Duration minInterval = Duration.ofSeconds(30);
+    private Duration maxInterval = Duration.ofMinutes(30);
+    // Marge après l'heure de mise à jour attendue, le temps que le fournisseur publie
+    private Duration grace = Duration.ofSeconds(10);
+    // Délai ajouté, tiré entre 0 et jitter × délai, pour ne pas aligner les appels
+    private double jitter = 0.1;
+    // Poids d'un nouvel intervalle observé dans la moyenne mobile de la cadence
+    private double cadenceSmoothing = 0.3;
+    // Hors leadership, délai entre deux vérifications : le premier fetch suit de près l'élection
+    private Duration standbyPoll = Duration.ofSeconds(5);
+
+    private Quota quota = new Quota();
+    private Manual manual = new Manual();
+
+    /**
+     * Seau partagé par tous les fetchs (planifié, {@code /api/exchange-rates/fetch}).
+     */
+    @Data
+    public static class Quota {
+        private int capacity = 20;
+        private Duration refillInterval = Duration.ofMinutes(1);
+    }
+
+    /**
+     * {@code /api/exchange-rates/fetch} : seau par client et fraîcheur du dernier snapshot.
+     */
+    @Data
+    public static class Manual {
+        private int clientCapacity = 5;
+        private Duration clientRefillInterval = Duration.ofSeconds(10);
+        // Clients suivis au plus, les moins récents oubliés au-delà
+        private int maxClients = 10000;
+        // Dernier snapshot resservi tel quel pendant ce délai après son fetch
+        private Duration freshFor = Duration.ofSeconds(30);
+    }
+}
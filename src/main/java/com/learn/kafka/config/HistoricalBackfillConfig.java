@@ -0,0 +1,23 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.provider.HttpHistoricalRateSource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Source historique par défaut du backfill : l'endpoint {@code exchange-rates.history-backfill.base-url}.
+ */
+@Configuration
+@EnableConfigurationProperties(HistoricalBackfillProperties.class)
+public class HistoricalBackfillConfig {
+
+    @Bean
+    public HttpHistoricalRateSource httpHistoricalRateSource(HistoricalBackfillProperties properties, WebClient webClient) {
+        // Même pool de connexions et même décodeur en flux que le client amont
+        return new HttpHistoricalRateSource(webClient.mutate().baseUrl(properties.getBaseUrl()).build(),
+                properties.getPath(), properties.getBaseCurrency(), properties.getParallelism(),
+                properties.getTimeout(), properties.getRetries(), properties.getRetryBackoff());
+    }
+}
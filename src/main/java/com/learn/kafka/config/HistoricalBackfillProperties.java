@@ -0,0 +1,36 @@
+package com.learn.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Chargement de l'historique du fournisseur ({@code exchange-rates.history-backfill.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.history-backfill")
+public class HistoricalBackfillProperties {
+
+    // Endpoint historique : {date} au format ISO (2024-01-15), {base} la devise de base
+    private String baseUrl = "https://api.frankfurter.app";
+    private String path = "/{date}?from={base}";
+    private String baseCurrency = "USD";
+
+    // Requêtes historiques simultanées, sous le pool du client amont
+    private int parallelism = 4;
+    private Duration timeout = Duration.ofSeconds(10);
+    private int retries = 3;
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    // Snapshots envoyés puis acquittés avant chaque point de reprise
+    private int batchSize = 200;
+    private Path checkpointPath = Path.of("data/history-backfill.checkpoint");
+
+    // Producteur dédié : gros lots compressés, sans toucher au producteur du fetch courant
+    private String compression = "zstd";
+    private DataSize producerBatchSize = DataSize.ofKilobytes(512);
+    private Duration linger = Duration.ofMillis(100);
+}
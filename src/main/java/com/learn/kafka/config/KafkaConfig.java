@@ -1,6 +1,8 @@
 package com.learn.kafka.config;
 
+import com.learn.kafka.model.CurrencyStats;
 import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -39,6 +41,69 @@ public class KafkaConfig {
         return new KafkaTemplate<>(exchangeRateProducerFactory());
     }
 
+    /**
+     * Producteur du backfill historique : lots de plusieurs centaines de Ko compressés,
+     * attente de remplissage, accusé de tous les réplicas et idempotence pour qu'un
+     * renvoi ne duplique pas de snapshot.
+     */
+    @Bean
+    public ProducerFactory<String, ExchangeRate> backfillProducerFactory(HistoricalBackfillProperties properties) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompression());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) properties.getProducerBatchSize().toBytes());
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, (int) properties.getLinger().toMillis());
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    // Factory injectée plutôt qu'appelée avec argument : appel non supporté par le contexte AOT
+    @Bean
+    public KafkaTemplate<String, ExchangeRate> backfillKafkaTemplate(
+            ProducerFactory<String, ExchangeRate> backfillProducerFactory) {
+        return new KafkaTemplate<>(backfillProducerFactory);
+    }
+
+    /**
+     * Producteur du topic de statistiques : une rafale d'un enregistrement par devise
+     * à chaque snapshot, regroupée et compressée en lz4.
+     */
+    @Bean
+    public ProducerFactory<String, CurrencyStats> rateStatsProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, CurrencyStats> rateStatsKafkaTemplate() {
+        return new KafkaTemplate<>(rateStatsProducerFactory());
+    }
+
+    /**
+     * Producteur du topic d'alertes : envoi immédiat, sans attente de regroupement.
+     */
+    @Bean
+    public ProducerFactory<String, RateAlert> rateAlertProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, RateAlert> rateAlertKafkaTemplate() {
+        return new KafkaTemplate<>(rateAlertProducerFactory());
+    }
+
     @Bean
     public ProducerFactory<String, String> stringProducerFactory() {
         Map<String, Object> configProps = new HashMap<>();
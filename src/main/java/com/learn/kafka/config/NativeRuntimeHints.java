@@ -0,0 +1,51 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Hints de l'image native ({@code mvn -Pnative native:compile}) pour ce que l'analyse AOT
+ * ne peut pas déduire :
+ * <ul>
+ *     <li>binding Jackson de {@link ExchangeRate}, {@link CurrencyStats} et {@link RateAlert}
+ *     (corps de {@code ResponseEntity<?>} et d'évènements SSE, messages Kafka typés par
+ *     l'en-tête {@code __TypeId__}) ;</li>
+ *     <li>(dé)sérialiseurs Kafka, instanciés par nom de classe depuis la configuration ;</li>
+ *     <li>entités Spring Data Elasticsearch, lues champ par champ, et leurs fichiers
+ *     de mapping et de settings.</li>
+ * </ul>
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] DOCUMENTS = {ExchangeRate.class, CurrencyStats.class, CurrencyStats.Window.class};
+
+    private static final Class<?>[] KAFKA_SERDES = {
+            StringSerializer.class, StringDeserializer.class, JsonSerializer.class, JsonDeserializer.class};
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DOCUMENTS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), RateAlert.class);
+
+        for (Class<?> document : DOCUMENTS) {
+            hints.reflection().registerType(document,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (Class<?> serde : KAFKA_SERDES) {
+            hints.reflection().registerType(serde, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        hints.resources().registerPattern("elasticsearch/*.json");
+    }
+}
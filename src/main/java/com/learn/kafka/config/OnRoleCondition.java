@@ -0,0 +1,41 @@
+package com.learn.kafka.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+class OnRoleCondition extends SpringBootCondition {
+
+    static final String ROLES_PROPERTY = "exchange-rates.roles";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnRole.class.getName());
+        Role required = (Role) attributes.get("value");
+        Role[] excluded = (Role[]) attributes.get("without");
+
+        Set<Role> roles = roles(context);
+        if (!roles.contains(required)) {
+            return ConditionOutcome.noMatch("instance roles " + roles + " do not include " + required);
+        }
+        for (Role role : excluded) {
+            if (roles.contains(role)) {
+                return ConditionOutcome.noMatch("instance roles " + roles + " include " + role);
+            }
+        }
+        return ConditionOutcome.match("instance roles " + roles + " include " + required);
+    }
+
+    static Set<Role> roles(ConditionContext context) {
+        return Binder.get(context.getEnvironment())
+                .bind(ROLES_PROPERTY, Bindable.setOf(Role.class))
+                .orElseGet(() -> EnumSet.allOf(Role.class));
+    }
+}
@@ -0,0 +1,19 @@
+package com.learn.kafka.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Topic des alertes sur les taux, une partition comme {@code exchange-rates}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateAlertProperties.class)
+public class RateAlertConfig {
+
+    @Bean
+    public NewTopic exchangeRateAlertsTopic(RateAlertProperties properties) {
+        return new NewTopic(properties.getTopic(), 1, (short) 1);
+    }
+}
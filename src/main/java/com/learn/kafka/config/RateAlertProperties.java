@@ -0,0 +1,41 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.model.RateAlert;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Règles d'alerte sur les taux ({@code exchange-rates.alerts.*}), par exemple :
+ * <pre>
+ * exchange-rates.alerts.rules[0].currency=EUR
+ * exchange-rates.alerts.rules[0].type=CHANGE
+ * exchange-rates.alerts.rules[0].threshold=0.5
+ * exchange-rates.alerts.rules[1].currency=*
+ * exchange-rates.alerts.rules[1].type=MISSING
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.alerts")
+public class RateAlertProperties {
+
+    /** Devise d'une règle {@code MISSING} valant pour toutes les devises. */
+    public static final String ANY_CURRENCY = "*";
+
+    private boolean enabled = true;
+    private String topic = "exchange-rate-alerts";
+    private List<Rule> rules = new ArrayList<>();
+
+    // Alertes gardées pour un abonné SSE lent avant de perdre les plus anciennes
+    private int streamBuffer = 256;
+
+    @Data
+    public static class Rule {
+        private String currency;
+        private RateAlert.Type type;
+        // Taux pour ABOVE/BELOW, pourcentage pour CHANGE, ignoré pour MISSING
+        private double threshold;
+    }
+}
@@ -0,0 +1,45 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.provider.HttpRateProvider;
+import com.learn.kafka.provider.MultiSourceRateFetcher;
+import com.learn.kafka.provider.RateProvider;
+import com.learn.kafka.provider.RateProvidersProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+/**
+ * Fetch multi-sources, actif dès qu'au moins une source est déclarée :
+ * <pre>
+ * exchange-rates.providers.strategy=QUORUM
+ * exchange-rates.providers.base-currency=USD
+ * exchange-rates.providers.sources[0].name=exchangerate-api
+ * exchange-rates.providers.sources[0].base-url=https://api.exchangerate-api.com
+ * exchange-rates.providers.sources[0].path=/v4/latest/USD
+ * exchange-rates.providers.sources[0].timeout=2s
+ * </pre>
+ */
+@Configuration
+@EnableConfigurationProperties(RateProvidersProperties.class)
+public class RateProviderConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "exchange-rates.providers.sources[0]", name = "base-url")
+    public MultiSourceRateFetcher multiSourceRateFetcher(RateProvidersProperties properties,
+                                                         WebClient webClient,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        // Même pool de connexions et mêmes timeouts que le client amont par défaut
+        List<RateProvider> providers = properties.sources().stream()
+                .<RateProvider>map(source -> new HttpRateProvider(source.name(),
+                        webClient.mutate().baseUrl(source.baseUrl()).build(), source.path(), source.timeout()))
+                .toList();
+        return new MultiSourceRateFetcher(providers, properties.strategy(), properties.baseCurrency(),
+                properties.quorum(), properties.quorumTolerance(), meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,19 @@
+package com.learn.kafka.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Topic dérivé des statistiques glissantes, une partition comme {@code exchange-rates}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateStatsProperties.class)
+public class RateStatsConfig {
+
+    @Bean
+    public NewTopic exchangeRateStatsTopic(RateStatsProperties properties) {
+        return new NewTopic(properties.getTopic(), 1, (short) 1);
+    }
+}
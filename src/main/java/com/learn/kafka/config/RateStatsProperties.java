@@ -0,0 +1,22 @@
+package com.learn.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Statistiques glissantes par devise ({@code exchange-rates.stats.*}). Fenêtres et
+ * demi-vies sont en nombre de snapshots : à un fetch toutes les 2 minutes, 30 snapshots
+ * couvrent une heure et 720 une journée.
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.stats")
+public class RateStatsProperties {
+
+    private boolean enabled = true;
+    private List<Integer> windows = List.of(30, 720);
+    private List<Integer> ewmaHalfLives = List.of(30, 360);
+    private String topic = "exchange-rate-stats";
+    private boolean indexEnabled = true;
+}
@@ -0,0 +1,16 @@
+package com.learn.kafka.config;
+
+/**
+ * Rôles d'une instance, listés dans {@code exchange-rates.roles} (tous par défaut) :
+ * <ul>
+ *     <li>{@link #INGESTER} : fetch planifié et à la demande, publication sur {@code exchange-rates} ;</li>
+ *     <li>{@link #INDEXER} : consumer du topic vers Elasticsearch et topics dérivés ;</li>
+ *     <li>{@link #READER} : API de lecture servie depuis le journal local, synchronisé par un
+ *     consumer broadcast quand l'instance n'est pas aussi indexer.</li>
+ * </ul>
+ */
+public enum Role {
+    INGESTER,
+    INDEXER,
+    READER
+}
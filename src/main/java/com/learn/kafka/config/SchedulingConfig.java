@@ -0,0 +1,13 @@
+package com.learn.kafka.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Fetchs planifiés ; une instance sans rôle ingester n'a ni tâche planifiée ni scheduler.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnRole(Role.INGESTER)
+public class SchedulingConfig {
+}
@@ -0,0 +1,17 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.service.SnapshotCadence;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnRole(Role.READER)
+@EnableConfigurationProperties(FetchScheduleProperties.class)
+public class SnapshotCadenceConfig {
+
+    @Bean
+    public SnapshotCadence snapshotCadence(FetchScheduleProperties properties) {
+        return new SnapshotCadence(properties);
+    }
+}
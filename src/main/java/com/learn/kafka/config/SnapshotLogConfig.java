@@ -0,0 +1,36 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.store.SnapshotLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class SnapshotLogConfig {
+
+    @Value("${exchange-rates.snapshot-log.path:data/snapshots.log}")
+    private String path;
+
+    // Taille mappée initiale, doublée à chaque dépassement (~2 Ko par snapshot)
+    @Value("${exchange-rates.snapshot-log.initial-size:8388608}")
+    private int initialSize;
+
+    @Value("${exchange-rates.snapshot-log.index-interval:64}")
+    private int indexInterval;
+
+    // Parcours du journal hors du démarrage du contexte (profil fast-start)
+    @Value("${exchange-rates.snapshot-log.async-load:false}")
+    private boolean asyncLoad;
+
+    @Bean(destroyMethod = "close")
+    public SnapshotLog snapshotLog() throws IOException {
+        if (asyncLoad) {
+            return SnapshotLog.openAsync(Path.of(path), initialSize, indexInterval,
+                    task -> Thread.ofPlatform().name("snapshot-log-load").daemon().start(task));
+        }
+        return SnapshotLog.open(Path.of(path), initialSize, indexInterval);
+    }
+}
@@ -0,0 +1,35 @@
+package com.learn.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Client HTTP des fournisseurs amont ({@code exchange-rates.http.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rates.http")
+public class UpstreamHttpProperties {
+
+    private String baseUrl = "https://api.exchangerate-api.com";
+
+    // Pool partagé par tous les WebClient amont
+    private int maxConnections = 16;
+    private int pendingAcquireMaxCount = 64;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    // Sous le délai de fermeture côté serveur, pour ne pas réutiliser une connexion morte
+    private Duration maxIdleTime = Duration.ofSeconds(50);
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    // HTTP/2 négocié par ALPN sur HTTPS, HTTP/1.1 sinon
+    private boolean http2 = true;
+    private DataSize maxInMemorySize = DataSize.ofKilobytes(512);
+    private boolean metrics = true;
+}
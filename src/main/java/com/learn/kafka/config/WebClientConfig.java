@@ -1,16 +1,83 @@
 package com.learn.kafka.config;
 
+import com.learn.kafka.provider.StreamingRateDecoder;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Client HTTP amont : pool de connexions persistantes (keep-alive, TLS réutilisé),
+ * HTTP/2 si le serveur le propose, timeouts de connexion / lecture / réponse et
+ * limite du corps bufferisé. Avec {@code exchange-rates.http.metrics}, le pool publie
+ * ses métriques {@code reactor.netty.connection.provider.*} (dont le temps
+ * d'acquisition) et le client {@code reactor.netty.http.client.*}. Les réponses
+ * {@link com.learn.kafka.model.ExchangeRate} sont lues par {@link StreamingRateDecoder},
+ * en virgule fixe en plus des {@code double} avec {@code exchange-rates.fixed-point.enabled}.
+ *
+ * <p>Les autres clients amont (fournisseurs multiples) dérivent de {@link #webClient}
+ * par {@code mutate()} et partagent donc le même pool.
+ */
 @Configuration
+@EnableConfigurationProperties(UpstreamHttpProperties.class)
 public class WebClientConfig {
-    
+
+    private final UpstreamHttpProperties properties;
+
+    @Value("${exchange-rates.fixed-point.enabled:false}")
+    boolean fixedPoint;
+
+    public WebClientConfig(UpstreamHttpProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictInBackground())
+                .lifo()
+                .metrics(properties.isMetrics())
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider upstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .compress(true)
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+                // Chemins fixes par fournisseur : cardinalité bornée
+                .metrics(properties.isMetrics(), Function.identity());
+        if (properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
         return WebClient.builder()
-                .baseUrl("https://api.exchangerate-api.com")
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> {
+                    int maxInMemorySize = (int) properties.getMaxInMemorySize().toBytes();
+                    codecs.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                    codecs.customCodecs().register(new StreamingRateDecoder(maxInMemorySize, fixedPoint));
+                })
                 .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.controller.RateWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@ConditionalOnRole(Role.READER)
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final RateWebSocketHandler rateWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(rateWebSocketHandler, "/ws/rates").setAllowedOriginPatterns("*");
+    }
+}
@@ -0,0 +1,16 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.List;
+
+/**
+ * Enregistrements dérivés d'un snapshot consommé sur {@code exchange-rates}. En mode
+ * exactly-once, ils partent dans la même transaction Kafka que les offsets du lot :
+ * un lot rejoué ne les publie pas deux fois.
+ */
+public interface DerivedTopicProducer {
+
+    List<ProducerRecord<String, Object>> derive(ExchangeRate exchangeRate);
+}
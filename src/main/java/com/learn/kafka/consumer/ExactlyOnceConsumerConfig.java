@@ -0,0 +1,110 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.ExchangeRate;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mode exactly-once ({@code exchange-rates.consumer.exactly-once.enabled=true}) :
+ * listener par lots, sans auto-commit, dans une transaction Kafka par poll. Les offsets
+ * du lot ne sont envoyés à la transaction qu'à l'acquittement, après l'écriture
+ * Elasticsearch ; les enregistrements dérivés partent dans la même transaction.
+ * Un échec annule la transaction et le lot est relu après backoff.
+ */
+@Configuration
+@ConditionalOnRole(Role.INDEXER)
+@ConditionalOnProperty(name = "exchange-rates.consumer.exactly-once.enabled", havingValue = "true")
+public class ExactlyOnceConsumerConfig {
+
+  @Value("${spring.kafka.bootstrap-servers}")
+  String bootstrapServers;
+
+  @Value("${exchange-rates.consumer.exactly-once.max-poll-records:500}")
+  int maxPollRecords;
+
+  @Value("${exchange-rates.consumer.exactly-once.transaction-id-prefix:exchange-rates-tx-}")
+  String transactionIdPrefix;
+
+  // Relectures sans limite : un lot n'est jamais sauté, le backoff plafonne à max-backoff
+  @Value("${exchange-rates.consumer.exactly-once.backoff:1s}")
+  Duration backoff;
+
+  @Value("${exchange-rates.consumer.exactly-once.max-backoff:30s}")
+  Duration maxBackoff;
+
+  @Bean
+  public ProducerFactory<String, Object> derivedProducerFactory() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+    configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+    configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+    factory.setTransactionIdPrefix(transactionIdPrefix);
+    return factory;
+  }
+
+  @Bean
+  public KafkaTemplate<String, Object> derivedKafkaTemplate(ProducerFactory<String, Object> derivedProducerFactory) {
+    return new KafkaTemplate<>(derivedProducerFactory);
+  }
+
+  @Bean
+  public KafkaTransactionManager<String, Object> kafkaTransactionManager(ProducerFactory<String, Object> derivedProducerFactory) {
+    return new KafkaTransactionManager<>(derivedProducerFactory);
+  }
+
+  @Bean
+  public ConsumerFactory<String, ExchangeRate> exactlyOnceConsumerFactory() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "exchange-rate-group");
+    configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+    configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+    configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, ExchangeRate.class.getName());
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    configProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+    configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    return new DefaultKafkaConsumerFactory<>(configProps);
+  }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> exactlyOnceKafkaListenerContainerFactory(
+      KafkaTransactionManager<String, Object> kafkaTransactionManager) {
+    ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(exactlyOnceConsumerFactory());
+    factory.setBatchListener(true);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.getContainerProperties().setKafkaAwareTransactionManager(kafkaTransactionManager);
+    ExponentialBackOff backOff = new ExponentialBackOff(backoff.toMillis(), 2.0);
+    backOff.setMaxInterval(maxBackoff.toMillis());
+    factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(backOff));
+    return factory;
+  }
+}
@@ -0,0 +1,100 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.ElasticsearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumer du mode exactly-once, à la place de {@link ExchangeRateConsumer} : un lot par
+ * poll, indexé en une requête bulk. Les offsets ne sont acquittés que si tout le lot est
+ * écrit dans Elasticsearch ; sinon la transaction est annulée et le lot relu. Les ids
+ * des documents sont ceux des snapshots (ou topic-partition-offset à défaut), si bien
+ * qu'un lot relu remplace les documents déjà écrits au lieu de les dupliquer.
+ */
+@Component
+@ConditionalOnRole(Role.INDEXER)
+@ConditionalOnProperty(name = "exchange-rates.consumer.exactly-once.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ExactlyOnceExchangeRateConsumer {
+
+    private final ElasticsearchService elasticsearchService;
+    private final KafkaTemplate<String, Object> derivedKafkaTemplate;
+    private final ObjectProvider<DerivedTopicProducer> derivedTopicProducers;
+    private final FencingTokens fencingTokens;
+
+    @Value("${exchange-rates.consumer.exactly-once.index-timeout:30s}")
+    private Duration indexTimeout = Duration.ofSeconds(30);
+
+    @KafkaListener(
+        topics = "exchange-rates",
+        groupId = "exchange-rate-group",
+        containerFactory = "exactlyOnceKafkaListenerContainerFactory"
+    )
+    public void consumeExchangeRates(List<ConsumerRecord<String, ExchangeRate>> records, Acknowledgment acknowledgment) {
+        List<ExchangeRate> batch = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ExchangeRate> record : records) {
+            ExchangeRate exchangeRate = record.value();
+            if (exchangeRate == null || fencingTokens.isStale(exchangeRate)) {
+                continue;
+            }
+            if (exchangeRate.getId() == null) {
+                exchangeRate.setId(record.topic() + "-" + record.partition() + "-" + record.offset());
+            }
+            exchangeRate.setVersion(record.offset());
+            batch.add(exchangeRate);
+        }
+
+        awaitIndexed(batch);
+
+        // Topics dérivés une fois le lot durable
+        for (ExchangeRate exchangeRate : batch) {
+            derivedTopicProducers.orderedStream()
+                    .flatMap(producer -> producer.derive(exchangeRate).stream())
+                    .forEach(this::sendDerived);
+        }
+        acknowledgment.acknowledge();
+        log.debug("Batch of {} exchange rates indexed and acknowledged", batch.size());
+    }
+
+    private void awaitIndexed(List<ExchangeRate> batch) {
+        List<CompletableFuture<ExchangeRate>> writes = elasticsearchService.saveExchangeRatesAsync(batch);
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new))
+                    .get(indexTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch of " + batch.size() + " exchange rates not fully indexed: "
+                    + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Batch of " + batch.size() + " exchange rates not indexed within " + indexTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing exchange rates", e);
+        }
+    }
+
+    private void sendDerived(ProducerRecord<String, Object> record) {
+        derivedKafkaTemplate.send(record);
+    }
+}
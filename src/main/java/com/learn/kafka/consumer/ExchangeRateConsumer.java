@@ -1,32 +1,77 @@
 package com.learn.kafka.consumer;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.ElasticsearchClientProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
 import com.learn.kafka.model.ExchangeRate;
 import com.learn.kafka.service.ElasticsearchService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.Semaphore;
+
+/**
+ * Chemin d'écriture Elasticsearch, dans le groupe partagé {@code exchange-rate-group} : un seul
+ * indexeur reçoit chaque snapshot. Les vues locales des instances reader (journal, historique,
+ * versions, flux temps réel) sont tenues par {@link ReaderSyncConsumer}, qui reçoit tous les
+ * snapshots sur chaque instance.
+ *
+ * <p>Au plus {@code exchange-rates.elasticsearch.max-in-flight-writes} écritures asynchrones
+ * sont en attente de réponse : au-delà, le thread du listener attend qu'une se termine, ce qui
+ * ralentit la consommation au rythme d'Elasticsearch au lieu d'empiler les requêtes.
+ */
 @Component
+@ConditionalOnRole(Role.INDEXER)
+@ConditionalOnProperty(name = "exchange-rates.consumer.exactly-once.enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
-@RequiredArgsConstructor
 public class ExchangeRateConsumer {
 
     private final ElasticsearchService elasticsearchService;
+    private final FencingTokens fencingTokens;
+    private final Semaphore inFlightWrites;
+
+    public ExchangeRateConsumer(ElasticsearchService elasticsearchService, FencingTokens fencingTokens,
+                                ElasticsearchClientProperties clientProperties) {
+        this.elasticsearchService = elasticsearchService;
+        this.fencingTokens = fencingTokens;
+        this.inFlightWrites = new Semaphore(clientProperties.getMaxInFlightWrites());
+    }
 
     @KafkaListener(
         topics = "exchange-rates", 
         groupId = "exchange-rate-group",
         containerFactory = "exchangeRateKafkaListenerContainerFactory"
     )
-    public void consumeExchangeRate(ExchangeRate exchangeRate) {
+    public void consumeExchangeRate(ExchangeRate exchangeRate, @Header(KafkaHeaders.OFFSET) long offset) {
         log.info("Received exchange rate: {} with timestamp: {}", 
                  exchangeRate.getBaseCurrency(), exchangeRate.getTimestamp());
-        
+        if (fencingTokens.isStale(exchangeRate)) {
+            return;
+        }
+        exchangeRate.setVersion(offset);
+        try {
+            inFlightWrites.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Offset non commité : le snapshot sera relu
+            throw new IllegalStateException("Interrupted while waiting for an Elasticsearch write slot", e);
+        }
         try {
-            elasticsearchService.saveExchangeRate(exchangeRate);
-            log.info("Exchange rate saved to Elasticsearch successfully");
+            elasticsearchService.saveExchangeRateAsync(exchangeRate).whenComplete((saved, error) -> {
+                inFlightWrites.release();
+                if (error != null) {
+                    log.error("Failed to save exchange rate to Elasticsearch: {}", error.getMessage());
+                } else {
+                    log.info("Exchange rate saved to Elasticsearch successfully");
+                }
+            });
         } catch (Exception e) {
+            inFlightWrites.release();
             log.error("Failed to save exchange rate to Elasticsearch: {}", e.getMessage());
         }
     }
@@ -3,6 +3,7 @@ package com.learn.kafka.consumer;
 import com.learn.kafka.model.ExchangeRate;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +11,7 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.transaction.KafkaAwareTransactionManager;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -60,4 +62,18 @@ public class KafkaConsumerConfig {
     return factory;
   }
 
+  /**
+   * Étapes dérivées de {@code exchange-rates} (statistiques, alertes). En mode exactly-once,
+   * chaque enregistrement est traité dans une transaction Kafka du producteur dérivé, qui
+   * porte ses envois et son offset ; une transaction annulée relit l'enregistrement.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> derivedKafkaListenerContainerFactory(
+      ObjectProvider<KafkaAwareTransactionManager<?, ?>> kafkaTransactionManager) {
+    ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(exchangeRateConsumerFactory());
+    kafkaTransactionManager.ifAvailable(factory.getContainerProperties()::setKafkaAwareTransactionManager);
+    return factory;
+  }
+
 }
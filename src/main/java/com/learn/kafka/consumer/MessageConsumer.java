@@ -1,16 +1,24 @@
 package com.learn.kafka.consumer;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
 import lombok.extern.log4j.Log4j;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnRole(Role.INGESTER)
 @Slf4j
 public class MessageConsumer {
-  @KafkaListener(topics = "${spring.kafka.topic-name}", groupId = "${spring.kafka.consumer.group-id}")
+
+  public static final String LISTENER_ID = "message-consumer";
+
+  // Démarré après ApplicationReadyEvent par FastStartConfig quand le démarrage est différé
+  @KafkaListener(id = LISTENER_ID, topics = "${spring.kafka.topic-name}", groupId = "${spring.kafka.consumer.group-id}",
+      autoStartup = "#{!${exchange-rates.startup.defer-message-consumer:false}}")
   public void listen(String message) {
     log.info("Message receive : {}", message);
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.ExchangeRate;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer broadcast des instances reader, indexeurs compris : un groupe propre à chaque
+ * instance (toutes reçoivent tous les snapshots), démarrage à la fin du topic et aucun commit d'offset,
+ * la position étant recalculée à chaque assignation par {@link ReaderSyncConsumer}.
+ */
+@Configuration
+@ConditionalOnRole(Role.READER)
+public class ReaderSyncConfig {
+
+  @Value("${spring.kafka.bootstrap-servers}")
+  String bootstrapServers;
+
+  @Value("${exchange-rates.reader.group-id:exchange-rate-reader-${random.uuid}}")
+  String groupId;
+
+  @Bean
+  public ConsumerFactory<String, ExchangeRate> readerSyncConsumerFactory() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+    configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+    configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+    configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, ExchangeRate.class.getName());
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    return new DefaultKafkaConsumerFactory<>(configProps);
+  }
+
+  // Acquittement manuel jamais appelé : le groupe éphémère ne laisse pas d'offsets derrière lui
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> readerSyncKafkaListenerContainerFactory() {
+    ConcurrentKafkaListenerContainerFactory<String, ExchangeRate> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(readerSyncConsumerFactory());
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    return factory;
+  }
+}
@@ -0,0 +1,137 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.analytics.RollingRateStatistics;
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.RateUpdatePublisher;
+import com.learn.kafka.service.SnapshotCadence;
+import com.learn.kafka.store.RateHistory;
+import com.learn.kafka.store.SnapshotLog;
+import com.learn.kafka.store.SnapshotVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Synchronisation de chaque instance reader, qu'elle indexe ou non : chaque snapshot du topic
+ * met à jour le journal local, l'historique, les versions, les statistiques glissantes, la
+ * cadence des snapshots et le flux temps réel ; les alertes arrivent par leur propre topic.
+ * Rien n'est écrit dans Elasticsearch ni republié : ce chemin reste celui du groupe partagé
+ * de {@link ExchangeRateConsumer}, lu par une seule instance.
+ *
+ * <p>À l'assignation, la lecture recule de {@code exchange-rates.reader.replay} snapshots
+ * pour rattraper ceux publiés pendant l'arrêt ; les doublons sont ignorés par le journal
+ * et seuls les snapshots nouveaux sont poussés aux abonnés. Elle recule au moins de la plus
+ * grande fenêtre statistique pour que {@code /stats} ne parte pas de fenêtres vides : les
+ * snapshots en deçà du rejeu ne font que réchauffer les fenêtres.
+ */
+@Component
+@ConditionalOnRole(Role.READER)
+@Slf4j
+@RequiredArgsConstructor
+public class ReaderSyncConsumer implements ConsumerSeekAware {
+
+    private final SnapshotLog snapshotLog;
+    private final RateHistory rateHistory;
+    private final SnapshotVersions snapshotVersions;
+    private final RateUpdatePublisher rateUpdatePublisher;
+    private final RollingRateStatistics rollingRateStatistics;
+    private final FencingTokens fencingTokens;
+    private final RateStatsProperties statsProperties;
+    private final SnapshotCadence snapshotCadence;
+
+    // Premier offset rejoué par partition : en dessous, réchauffage des fenêtres seulement
+    private final Map<Integer, Long> replayOffsets = new ConcurrentHashMap<>();
+
+    @Value("${exchange-rates.reader.replay:1}")
+    private long replay;
+
+    @KafkaListener(
+        topics = "exchange-rates",
+        containerFactory = "readerSyncKafkaListenerContainerFactory"
+    )
+    public void consumeExchangeRate(ExchangeRate exchangeRate,
+                                    @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                    @Header(KafkaHeaders.OFFSET) long offset) {
+        if (fencingTokens.isStale(exchangeRate)) {
+            return;
+        }
+        exchangeRate.setVersion(offset);
+        if (offset < replayOffsets.getOrDefault(partition, 0L)) {
+            warmUp(exchangeRate);
+            return;
+        }
+        boolean appended = false;
+        try {
+            appended = snapshotLog.append(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to append exchange rate to snapshot log: {}", e.getMessage());
+        }
+
+        try {
+            rateHistory.add(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to index exchange rate in rate history: {}", e.getMessage());
+        }
+
+        boolean retained = false;
+        try {
+            retained = snapshotVersions.add(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to retain exchange rate version {}: {}", offset, e.getMessage());
+        }
+
+        try {
+            rollingRateStatistics.update(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to update rate statistics: {}", e.getMessage());
+        }
+
+        try {
+            snapshotCadence.observe(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to observe snapshot cadence: {}", e.getMessage());
+        }
+
+        // L'historique accepte aussi un snapshot plus ancien : seuls le journal et l'anneau
+        // disent si le snapshot est plus récent que le dernier poussé
+        if (appended || retained) {
+            try {
+                rateUpdatePublisher.publish(exchangeRate);
+            } catch (Exception e) {
+                log.warn("Failed to push exchange rate to stream subscribers: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void warmUp(ExchangeRate exchangeRate) {
+        try {
+            rollingRateStatistics.update(exchangeRate);
+            snapshotCadence.observe(exchangeRate);
+        } catch (Exception e) {
+            log.warn("Failed to warm up rate statistics: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        long warmup = Math.max(replay, Collections.max(statsProperties.getWindows()) + 1L);
+        assignments.forEach((partition, position) -> {
+            replayOffsets.put(partition.partition(), position - replay);
+            callback.seek(partition.topic(), partition.partition(), Math.max(0, position - warmup));
+        });
+    }
+}
@@ -1,9 +1,16 @@
 package com.learn.kafka.controller;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
 import com.learn.kafka.model.ExchangeRate;
 import com.learn.kafka.service.ElasticsearchService;
-import com.learn.kafka.service.ExchangeRateService;
+import com.learn.kafka.service.ClientRateLimitExceededException;
+import com.learn.kafka.service.ManualFetchService;
+import com.learn.kafka.service.UpstreamQuotaExceededException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,34 +18,47 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnRole(Role.INGESTER)
 @RequestMapping("/api/exchange-rates")
 @RequiredArgsConstructor
 public class ExchangeRateController {
 
-    private final ExchangeRateService exchangeRateService;
+    private final ManualFetchService manualFetchService;
     private final ElasticsearchService elasticsearchService;
 
+    // Limite du client ou quota amont épuisé : 429 avec Retry-After plutôt qu'un appel au fournisseur.
+    // Le client est l'adresse distante, résolue depuis X-Forwarded-For par Tomcat quand la requête
+    // vient d'un proxy de confiance (server.forward-headers-strategy=native) ; derrière un proxy
+    // non déclaré, ou un NAT, plusieurs clients partagent le même seau
     @GetMapping("/fetch")
-    public Mono<ResponseEntity<ExchangeRate>> fetchExchangeRates() {
-        return exchangeRateService.fetchAndPublishExchangeRates()
+    public Mono<ResponseEntity<ExchangeRate>> fetchExchangeRates(HttpServletRequest request) {
+        return manualFetchService.fetch(request.getRemoteAddr())
                 .map(ResponseEntity::ok)
+                .onErrorResume(ClientRateLimitExceededException.class, e -> Mono.just(tooManyRequests(e.getRetryAfter())))
+                .onErrorResume(UpstreamQuotaExceededException.class, e -> Mono.just(tooManyRequests(e.getRetryAfter())))
                 .onErrorReturn(ResponseEntity.internalServerError().build())
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    private static ResponseEntity<ExchangeRate> tooManyRequests(Duration retryAfter) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .build();
+    }
+
     @PostMapping("/test-elasticsearch")
     public ResponseEntity<String> testElasticsearch() {
         try {
             ExchangeRate testRate = new ExchangeRate();
             testRate.setId("test-" + System.currentTimeMillis());
             testRate.setBaseCurrency("USD");
-            testRate.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            testRate.setTimestamp(Instant.now().toString());
             
             Map<String, Double> testRates = new HashMap<>();
             testRates.put("EUR", 0.85);
@@ -1,7 +1,22 @@
 package com.learn.kafka.controller;
 
+import com.learn.kafka.analytics.RollingRateStatistics;
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.convert.Conversion;
+import com.learn.kafka.convert.ConversionService;
+import com.learn.kafka.model.CurrencyStats;
 import com.learn.kafka.model.ExchangeRate;
-import com.learn.kafka.service.ElasticsearchService;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.service.RateUpdatePublisher;
+import com.learn.kafka.service.SnapshotCadence;
+import com.learn.kafka.store.RateHistory;
+import com.learn.kafka.store.RateSnapshot;
+import com.learn.kafka.store.SnapshotLog;
+import com.learn.kafka.store.SnapshotVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
@@ -11,19 +26,50 @@ import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@ConditionalOnRole(Role.READER)
 @RequestMapping("/api/proxy")
 @RequiredArgsConstructor
 @Slf4j
 public class ProxyController {
 
     private final ElasticsearchOperations elasticsearchOperations;
+    private final SnapshotLog snapshotLog;
+    private final RateHistory rateHistory;
+    private final SnapshotVersions snapshotVersions;
+    private final ObjectMapper objectMapper;
+    private final RatePayloadCache ratePayloadCache;
+    private final RollingRateStatistics rollingRateStatistics;
+    private final ConversionService conversionService;
+    private final SnapshotCadence snapshotCadence;
+
+    private static final String GZIP_TAG_SUFFIX = "-gzip";
+
+    /** Version du snapshot servi, à repasser en {@code ?version=} pour relire le même snapshot. */
+    public static final String VERSION_HEADER = "X-Snapshot-Version";
+
+    private volatile RatePayloadCache.Payload gzipPayload;
     
     /**
      * Endpoint de test pour vérifier que le contrôleur fonctionne
@@ -61,11 +107,53 @@ public class ProxyController {
     }
     
     /**
-     * Endpoint principal pour les équipes internes - récupère les derniers taux de change
+     * Endpoint principal pour les équipes internes - récupère les derniers taux de change.
+     * ETag fort dérivé de l'identité du snapshot : un {@code If-None-Match} à jour reçoit
+     * un 304 sans lecture des taux, sans Elasticsearch ni Jackson. Avec {@code ?version=},
+     * le snapshot de cette version, lu dans {@link SnapshotVersions}.
      */
     @GetMapping("/latest-rates")
-    public ResponseEntity<ExchangeRate> getLatestExchangeRates() {
+    public ResponseEntity<?> getLatestExchangeRates(@RequestParam(value = "version", required = false) Long version,
+                                                    WebRequest request) {
+        if (version != null) {
+            SnapshotVersions.Version pinned = snapshotVersions.get(version);
+            if (pinned == null) {
+                return versionNotFound(version);
+            }
+            if (request.checkNotModified(pinned.tag())) {
+                return notModified(pinned.tag(), pinned.snapshot().getEpochMillis());
+            }
+            return cached(pinned.exchangeRate()).header(VERSION_HEADER, Long.toString(version)).body(pinned.exchangeRate());
+        }
+
         try {
+            // Lecture locale en priorité, Elasticsearch si le journal est vide ; ETag et corps
+            // sont lus dans la même vue du journal
+            SnapshotLog.Head head = snapshotLog.head();
+            if (head != null) {
+                String tag = head.tag();
+                boolean gzip = acceptsGzip(request);
+                if (request.checkNotModified(gzip ? tag + GZIP_TAG_SUFFIX : tag)) {
+                    return notModified(gzip ? tag + GZIP_TAG_SUFFIX : tag, head.epochNanos() / 1_000_000);
+                }
+                Long latestVersion = latestVersion(tag);
+                if (gzip) {
+                    RatePayloadCache.Payload payload = latestGzipPayload(head);
+                    return withVersion(ResponseEntity.ok(), latestVersion)
+                            .eTag(payload.tag() + GZIP_TAG_SUFFIX)
+                            .cacheControl(cacheControl(payload.epochMillis()))
+                            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(payload.bytes());
+                }
+                ExchangeRate localRate = head.exchangeRate();
+                log.debug("Returning latest exchange rate {} from snapshot log", localRate.getId());
+                // Le journal ne conserve pas la version : reprise de l'anneau si c'est le même snapshot
+                localRate.setVersion(latestVersion);
+                return withVersion(cached(localRate), latestVersion).varyBy(HttpHeaders.ACCEPT_ENCODING).body(localRate);
+            }
+
             log.info("Fetching latest exchange rates from Elasticsearch...");
             
             // Requête pour récupérer le document le plus récent, trié par timestamp descendant
@@ -80,7 +168,8 @@ public class ProxyController {
                 ExchangeRate latestRate = searchHits.getSearchHit(0).getContent();
                 log.info("Returning latest exchange rate with ID: {}, baseCurrency: {} and timestamp: {}", 
                         latestRate.getId(), latestRate.getBaseCurrency(), latestRate.getTimestamp());
-                return ResponseEntity.ok(latestRate);
+                // Spring répond 304 sans sérialiser le corps si l'ETag correspond
+                return withVersion(cached(latestRate), latestRate.getVersion()).body(latestRate);
             } else {
                 log.warn("No exchange rates found in Elasticsearch");
                 return ResponseEntity.notFound().build();
@@ -118,12 +207,48 @@ public class ProxyController {
     }
 
     /**
-     * Endpoint pour récupérer un taux spécifique par devise
+     * Endpoint pour récupérer un taux spécifique par devise, dans le dernier snapshot ou
+     * dans celui de {@code ?version=}
      */
     @GetMapping("/rate/{currency}")
-    public ResponseEntity<Double> getSpecificRate(@PathVariable String currency) {
+    public ResponseEntity<Double> getSpecificRate(@PathVariable String currency,
+                                                  @RequestParam(value = "version", required = false) Long version,
+                                                  WebRequest request) {
         try {
             log.info("Fetching rate for currency: {}", currency);
+
+            if (version != null) {
+                SnapshotVersions.Version pinned = snapshotVersions.get(version);
+                if (pinned == null) {
+                    return versionNotFound(version);
+                }
+                OptionalDouble rate = pinned.snapshot().rate(currency.toUpperCase());
+                if (rate.isEmpty()) {
+                    log.warn("Currency {} not found in snapshot version {}", currency, version);
+                    return ResponseEntity.notFound().build();
+                }
+                if (request.checkNotModified(pinned.tag())) {
+                    return notModified(pinned.tag(), pinned.snapshot().getEpochMillis());
+                }
+                return ResponseEntity.ok().eTag(pinned.tag()).cacheControl(cacheControl(pinned.snapshot().getEpochMillis()))
+                        .header(VERSION_HEADER, Long.toString(version)).body(rate.getAsDouble());
+            }
+
+            SnapshotLog.Head head = snapshotLog.head();
+            if (head != null) {
+                String tag = head.tag();
+                long epochMillis = head.epochNanos() / 1_000_000;
+                OptionalDouble localRate = head.rate(currency.toUpperCase());
+                if (localRate.isPresent()) {
+                    if (request.checkNotModified(tag)) {
+                        return notModified(tag, epochMillis);
+                    }
+                    return withVersion(ResponseEntity.ok(), latestVersion(tag))
+                            .eTag(tag).cacheControl(cacheControl(epochMillis)).body(localRate.getAsDouble());
+                }
+                log.warn("Currency {} not found in latest snapshot", currency);
+                return ResponseEntity.notFound().build();
+            }
             
             CriteriaQuery query = new CriteriaQuery(Criteria.where("id").exists());
             query.addSort(Sort.by(Sort.Direction.DESC, "timestamp"));
@@ -138,7 +263,7 @@ public class ProxyController {
                     
                     if (rate != null) {
                         log.info("Found rate for {}: {} (timestamp: {})", currency, rate, latestRate.getTimestamp());
-                        return ResponseEntity.ok(rate);
+                        return withVersion(cached(latestRate), latestRate.getVersion()).body(rate);
                     } else {
                         log.warn("Currency {} not found in rates", currency);
                         return ResponseEntity.notFound().build();
@@ -156,4 +281,311 @@ public class ProxyController {
             return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Endpoint pour récupérer plusieurs devises en une requête (?symbols=EUR,GBP,...),
+     * toutes lues dans le même snapshot. Les réponses des listes de devises fréquentes
+     * sont servies depuis {@link RatePayloadCache} sans nouvelle sérialisation ; celles
+     * d'une version antérieure ({@code ?version=}) sont sérialisées à chaque appel.
+     */
+    @GetMapping("/rates")
+    public ResponseEntity<byte[]> getRates(@RequestParam("symbols") String symbols,
+                                           @RequestParam(value = "version", required = false) Long version,
+                                           WebRequest request) {
+        Set<String> filter = new TreeSet<>(RateUpdatePublisher.parseSymbols(symbols));
+        if (filter.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String key = String.join(",", filter);
+
+        try {
+            if (version != null) {
+                SnapshotVersions.Version pinned = snapshotVersions.get(version);
+                if (pinned == null) {
+                    return versionNotFound(version);
+                }
+                if (request.checkNotModified(pinned.tag())) {
+                    return notModified(pinned.tag(), pinned.snapshot().getEpochMillis());
+                }
+                return ResponseEntity.ok()
+                        .eTag(pinned.tag())
+                        .cacheControl(cacheControl(pinned.snapshot().getEpochMillis()))
+                        .header(VERSION_HEADER, Long.toString(version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsBytes(pinned.exchangeRate().withRatesFor(filter)));
+            }
+
+            SnapshotLog.Head head = snapshotLog.head();
+            String tag = head == null ? null : head.tag();
+            if (tag != null && request.checkNotModified(tag)) {
+                return notModified(tag, head.epochNanos() / 1_000_000);
+            }
+
+            RatePayloadCache.Payload payload = tag == null ? null : ratePayloadCache.get(tag, key);
+            if (payload == null) {
+                ExchangeRate latest = head != null ? head.exchangeRate() : searchLatest();
+                if (latest == null) {
+                    log.warn("No exchange rates found for symbols {}", key);
+                    return ResponseEntity.notFound().build();
+                }
+                if (tag != null) {
+                    latest.setVersion(latestVersion(tag));
+                }
+                byte[] bytes = objectMapper.writeValueAsBytes(latest.withRatesFor(filter));
+                if (latest.getTimestamp() == null) {
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(bytes);
+                }
+                long nanos = RateTimestamps.toEpochNanos(latest.getTimestamp());
+                payload = new RatePayloadCache.Payload(SnapshotLog.tag(nanos, latest.getId()), nanos / 1_000_000, bytes);
+                ratePayloadCache.put(key, payload);
+            }
+
+            return withVersion(ResponseEntity.ok(), latestVersion(payload.tag()))
+                    .eTag(payload.tag())
+                    .cacheControl(cacheControl(payload.epochMillis()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(payload.bytes());
+        } catch (Exception e) {
+            log.error("Error fetching rates for symbols {}: {}", key, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Endpoint pour récupérer le taux d'une devise à un instant donné (?ts= en epoch millis ou ISO-8601).
+     * Historique en mémoire sur la fenêtre de rétention, puis journal local, puis Elasticsearch.
+     */
+    @GetMapping("/rate/{currency}/at")
+    public ResponseEntity<Double> getRateAt(@PathVariable String currency, @RequestParam("ts") String ts) {
+        Instant instant;
+        try {
+            instant = RateTimestamps.parseInstant(ts);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            log.warn("Invalid timestamp for point-in-time lookup: {}", ts);
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            String code = currency.toUpperCase();
+            log.info("Fetching rate for currency {} at {}", code, instant);
+
+            RateSnapshot snapshot = rateHistory.at(instant.toEpochMilli());
+            OptionalDouble rate;
+            if (snapshot != null) {
+                rate = snapshot.rate(code);
+            } else {
+                ExchangeRate exchangeRate = snapshotLog.at(instant);
+                if (exchangeRate == null) {
+                    exchangeRate = searchRateAt(instant);
+                }
+                if (exchangeRate == null || exchangeRate.getRates() == null) {
+                    log.warn("No exchange rate snapshot found at or before {}", instant);
+                    return ResponseEntity.notFound().build();
+                }
+                Double value = exchangeRate.getRates().get(code);
+                rate = value == null ? OptionalDouble.empty() : OptionalDouble.of(value);
+            }
+
+            if (rate.isEmpty()) {
+                log.warn("Currency {} not found in snapshot at {}", currency, instant);
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(rate.getAsDouble());
+        } catch (Exception e) {
+            log.error("Error fetching rate for currency {} at {}: {}", currency, ts, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Endpoint des statistiques glissantes d'une devise (moyennes, EWMA, écart-type,
+     * volatilité, min/max par fenêtre), tenues en mémoire par la synchronisation des readers.
+     */
+    @GetMapping("/stats/{currency}")
+    public ResponseEntity<CurrencyStats> getStats(@PathVariable String currency) {
+        return rollingRateStatistics.get(currency.toUpperCase())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    log.warn("No rolling statistics for currency {}", currency);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+    /**
+     * Endpoint de conversion d'un montant ({@code ?amount=100&from=EUR&to=JPY}), la devise
+     * de base comprise, contre le dernier snapshot ou celui de {@code ?version=}.
+     */
+    @GetMapping("/convert")
+    public ResponseEntity<Conversion> convert(@RequestParam("amount") double amount,
+                                              @RequestParam("from") String from,
+                                              @RequestParam("to") String to,
+                                              @RequestParam(value = "version", required = false) Long version) {
+        try {
+            SnapshotVersions.Version pinned = version == null ? snapshotVersions.latest() : snapshotVersions.get(version);
+            if (version != null && pinned == null) {
+                return versionNotFound(version);
+            }
+            RateSnapshot snapshot = pinned != null ? pinned.snapshot() : latestSnapshot();
+            if (snapshot == null) {
+                log.warn("No exchange rates found for conversion");
+                return ResponseEntity.notFound().build();
+            }
+            Conversion conversion = conversionService.convert(snapshot, amount, from.toUpperCase(), to.toUpperCase());
+            if (conversion == null) {
+                log.warn("Cannot convert {} to {}: currency not found in snapshot {}", from, to, snapshot.getId());
+                return ResponseEntity.notFound().build();
+            }
+            return withVersion(ResponseEntity.ok(), pinned == null ? null : pinned.version()).body(conversion);
+        } catch (Exception e) {
+            log.error("Error converting {} {} to {}: {}", amount, from, to, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Conversion en lot : corps {@code text/csv} d'une ligne {@code montant,source,cible} par
+     * conversion, lu et converti en flux contre un seul snapshot. La réponse compte une ligne
+     * par ligne reçue, dans le même ordre : le montant converti, vide si la ligne est invalide.
+     */
+    @PostMapping(value = "/convert", consumes = "text/csv", produces = "text/csv")
+    public void convertBatch(@RequestParam(value = "version", required = false) Long version,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SnapshotVersions.Version pinned = version == null ? snapshotVersions.latest() : snapshotVersions.get(version);
+        if (version != null && pinned == null) {
+            response.sendError(versionNotFound(version).getStatusCode().value());
+            return;
+        }
+        RateSnapshot snapshot = pinned != null ? pinned.snapshot() : latestSnapshot();
+        if (snapshot == null) {
+            log.warn("No exchange rates found for batch conversion");
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (pinned != null) {
+            response.setHeader(VERSION_HEADER, Long.toString(pinned.version()));
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            long rows = conversionService.convert(snapshot, request.getReader(), response.getWriter());
+            log.debug("Converted {} rows against snapshot {}", rows, snapshot.getId());
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch conversion: {}", e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Dernier snapshot en représentation primitive : historique en mémoire, puis journal
+     * local, puis Elasticsearch. Null si aucun snapshot daté n'est disponible.
+     */
+    private RateSnapshot latestSnapshot() {
+        RateSnapshot snapshot = rateHistory.latest();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        SnapshotLog.Head head = snapshotLog.head();
+        ExchangeRate latest = head != null ? head.exchangeRate() : searchLatest();
+        return latest == null || latest.getTimestamp() == null ? null : RateSnapshot.of(latest);
+    }
+
+    /**
+     * Version non retenue : 410 si elle a quitté l'anneau, 404 si elle n'a jamais été
+     * retenue (version future, ou snapshot rejoué ou plus ancien que le dernier retenu).
+     */
+    private <T> ResponseEntity<T> versionNotFound(long version) {
+        boolean evicted = snapshotVersions.isBeforeOldest(version);
+        log.warn("Snapshot version {} {}", version, evicted ? "no longer retained" : "not found");
+        return ResponseEntity.status(evicted ? HttpStatus.GONE : HttpStatus.NOT_FOUND).build();
+    }
+
+    /**
+     * @return la version du snapshot d'ETag {@code tag} s'il est le dernier retenu, null sinon
+     */
+    private Long latestVersion(String tag) {
+        SnapshotVersions.Version latest = snapshotVersions.latest();
+        return latest != null && latest.tag().equals(tag) ? latest.version() : null;
+    }
+
+    private static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder builder, Long version) {
+        return version == null ? builder : builder.header(VERSION_HEADER, Long.toString(version));
+    }
+
+    private ExchangeRate searchLatest() {
+        CriteriaQuery query = new CriteriaQuery(Criteria.where("id").exists());
+        query.addSort(Sort.by(Sort.Direction.DESC, "timestamp"));
+        query.setMaxResults(1);
+
+        SearchHits<ExchangeRate> searchHits = elasticsearchOperations.search(query, ExchangeRate.class);
+        return searchHits.hasSearchHits() ? searchHits.getSearchHit(0).getContent() : null;
+    }
+
+    private ExchangeRate searchRateAt(Instant instant) {
+        CriteriaQuery query = new CriteriaQuery(Criteria.where("timestamp").lessThanEqual(RateTimestamps.format(instant)));
+        query.addSort(Sort.by(Sort.Direction.DESC, "timestamp"));
+        query.setMaxResults(1);
+
+        SearchHits<ExchangeRate> searchHits = elasticsearchOperations.search(query, ExchangeRate.class);
+        return searchHits.hasSearchHits() ? searchHits.getSearchHit(0).getContent() : null;
+    }
+
+    /**
+     * En-têtes de cache d'une réponse construite à partir d'un snapshot : ETag fort si le
+     * snapshot est daté, {@code max-age} jusqu'au prochain fetch attendu.
+     */
+    private ResponseEntity.BodyBuilder cached(ExchangeRate exchangeRate) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (exchangeRate.getTimestamp() != null) {
+            long nanos = RateTimestamps.toEpochNanos(exchangeRate.getTimestamp());
+            builder.eTag(SnapshotLog.tag(nanos, exchangeRate.getId())).cacheControl(cacheControl(nanos / 1_000_000));
+        }
+        return builder;
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag, long epochMillis) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl(epochMillis)).build();
+    }
+
+    /**
+     * Le snapshot reste valable jusqu'au suivant : {@code max-age} est le temps restant
+     * avant le snapshot attendu d'après {@link SnapshotCadence}, 0 s'il est en retard ou si
+     * un snapshot plus récent est déjà connu.
+     */
+    CacheControl cacheControl(long snapshotEpochMillis) {
+        long maxAge = snapshotCadence.untilNext(snapshotEpochMillis, System.currentTimeMillis()).toSeconds();
+        return CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic();
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /**
+     * Corps compressé du dernier snapshot, sérialisé une seule fois par snapshot.
+     * Tomcat ne compresse pas les réponses portant un ETag fort : la compression est
+     * faite ici, avec un ETag propre à l'encodage gzip.
+     */
+    private RatePayloadCache.Payload latestGzipPayload(SnapshotLog.Head head) throws IOException {
+        RatePayloadCache.Payload cached = gzipPayload;
+        if (cached != null && cached.tag().equals(head.tag())) {
+            return cached;
+        }
+        ExchangeRate latest = head.exchangeRate();
+        latest.setVersion(latestVersion(head.tag()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, latest);
+        }
+        RatePayloadCache.Payload payload =
+                new RatePayloadCache.Payload(head.tag(), head.epochNanos() / 1_000_000, bytes.toByteArray());
+        gzipPayload = payload;
+        return payload;
+    }
+}
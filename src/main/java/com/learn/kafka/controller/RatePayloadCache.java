@@ -0,0 +1,67 @@
+package com.learn.kafka.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Petit cache LRU des réponses JSON déjà sérialisées de {@code /api/proxy/rates},
+ * indexé par liste de devises normalisée. Toutes les entrées appartiennent au même
+ * snapshot : le cache est vidé dès qu'un snapshot d'une autre identité est demandé.
+ */
+@Component
+public class RatePayloadCache {
+
+    private final int maxEntries;
+    private final Map<String, Payload> entries;
+    private String snapshotTag;
+
+    public RatePayloadCache(@Value("${exchange-rates.quotes.cache-size:256}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Payload> eldest) {
+                return size() > RatePayloadCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return la réponse en cache pour ce snapshot et ces devises, null sinon
+     */
+    public synchronized Payload get(String tag, String symbols) {
+        return tag.equals(snapshotTag) ? entries.get(symbols) : null;
+    }
+
+    /**
+     * Les réponses d'un snapshot antérieur au contenu du cache ne sont pas conservées.
+     */
+    public synchronized void put(String symbols, Payload payload) {
+        if (!payload.tag().equals(snapshotTag)) {
+            if (snapshotTag != null && payload.epochMillis() < entriesEpochMillis()) {
+                return;
+            }
+            entries.clear();
+            snapshotTag = payload.tag();
+        }
+        entries.put(symbols, payload);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        snapshotTag = null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private long entriesEpochMillis() {
+        return entries.isEmpty() ? Long.MIN_VALUE : entries.values().iterator().next().epochMillis();
+    }
+
+    public record Payload(String tag, long epochMillis, byte[] bytes) {
+    }
+}
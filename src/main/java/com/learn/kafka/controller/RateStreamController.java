@@ -0,0 +1,74 @@
+package com.learn.kafka.controller;
+
+import com.learn.kafka.alert.RateAlertPublisher;
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.RateAlert;
+import com.learn.kafka.service.RateUpdatePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Set;
+
+@RestController
+@ConditionalOnRole(Role.READER)
+@RequestMapping("/api/proxy")
+@RequiredArgsConstructor
+@Slf4j
+public class RateStreamController {
+
+    private final RateUpdatePublisher rateUpdatePublisher;
+    private final RateAlertPublisher rateAlertPublisher;
+
+    // Commentaire SSE périodique pour que les proxys ne coupent pas une connexion inactive
+    @Value("${exchange-rates.stream.heartbeat:15s}")
+    private Duration heartbeat;
+
+    /**
+     * Flux SSE des nouveaux snapshots, filtrable par devises (?symbols=EUR,GBP).
+     * Le dernier snapshot connu est envoyé dès l'abonnement.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamRates(@RequestParam(value = "symbols", required = false) String symbols) {
+        Set<String> filter = RateUpdatePublisher.parseSymbols(symbols);
+        log.info("New rate stream subscriber (symbols: {})", filter.isEmpty() ? "all" : filter);
+
+        Flux<ServerSentEvent<String>> updates = rateUpdatePublisher.updates()
+                .map(update -> ServerSentEvent.builder(update.payload(filter))
+                        .id(update.getTag())
+                        .event("rate")
+                        .build());
+        return Flux.merge(updates, heartbeats());
+    }
+
+    /**
+     * Flux SSE des alertes sur les taux, filtrable par devises (?symbols=EUR,GBP). Seules
+     * les alertes levées après l'abonnement sont envoyées.
+     */
+    @GetMapping(path = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<RateAlert>> streamAlerts(@RequestParam(value = "symbols", required = false) String symbols) {
+        Set<String> filter = RateUpdatePublisher.parseSymbols(symbols);
+        log.info("New alert stream subscriber (symbols: {})", filter.isEmpty() ? "all" : filter);
+
+        Flux<ServerSentEvent<RateAlert>> alerts = rateAlertPublisher.alerts()
+                .filter(alert -> filter.isEmpty() || filter.contains(alert.getCurrency()))
+                .map(alert -> ServerSentEvent.builder(alert)
+                        .event("alert")
+                        .build());
+        return Flux.merge(alerts, heartbeats());
+    }
+
+    private <T> Flux<ServerSentEvent<T>> heartbeats() {
+        return Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<T>builder().comment("keep-alive").build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.learn.kafka.controller;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.service.RateUpdatePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket {@code /ws/rates?symbols=EUR,GBP} : même diffusion que le flux SSE,
+ * un message texte JSON par nouveau snapshot.
+ */
+@Component
+@ConditionalOnRole(Role.READER)
+@RequiredArgsConstructor
+@Slf4j
+public class RateWebSocketHandler extends TextWebSocketHandler {
+
+    private final RateUpdatePublisher rateUpdatePublisher;
+    private final Map<String, Disposable> subscriptions = new ConcurrentHashMap<>();
+
+    // Au-delà, le client est jugé trop lent et la session est fermée
+    @Value("${exchange-rates.stream.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${exchange-rates.stream.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        String query = session.getUri() == null ? null : session.getUri().getRawQuery();
+        Set<String> filter = RateUpdatePublisher.parseSymbols(query == null ? null
+                : UriComponentsBuilder.newInstance().query(query).build().getQueryParams().getFirst("symbols"));
+        WebSocketSession concurrentSession =
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit);
+
+        Disposable subscription = rateUpdatePublisher.updates()
+                .subscribe(update -> send(concurrentSession, new TextMessage(update.payload(filter))));
+        subscriptions.put(session.getId(), subscription);
+        log.info("WebSocket session {} subscribed to rate updates (symbols: {})",
+                session.getId(), filter.isEmpty() ? "all" : filter);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Disposable subscription = subscriptions.remove(session.getId());
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        log.info("WebSocket session {} closed: {}", session.getId(), status);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void send(WebSocketSession session, TextMessage message) {
+        try {
+            session.sendMessage(message);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to send rate update to WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.learn.kafka.convert;
+
+/**
+ * Calcul d'un lot de conversions {@code amount × rates[to] / rates[from]} contre une
+ * seule table de taux. Deux implémentations aux résultats identiques : une boucle
+ * scalaire et une version vectorielle (Vector API, {@code jdk.incubator.vector}),
+ * choisie par {@link ConversionService} si le module est chargé.
+ */
+public interface BatchConverter {
+
+    void convert(double[] rates, ConversionBatch batch);
+}
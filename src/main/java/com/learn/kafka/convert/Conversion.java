@@ -0,0 +1,10 @@
+package com.learn.kafka.convert;
+
+/**
+ * Résultat d'une conversion unitaire, avec le snapshot dont viennent les taux.
+ *
+ * @param rate taux croisé {@code to / from}
+ */
+public record Conversion(double amount, String from, String to, double rate, double result,
+                         String snapshotId, String timestamp) {
+}
@@ -0,0 +1,47 @@
+package com.learn.kafka.convert;
+
+/**
+ * Lot de conversions en tableaux parallèles : montant, emplacements ({@link RateTable})
+ * des devises source et cible, résultat. Réutilisé d'un lot à l'autre sans allocation.
+ */
+public final class ConversionBatch {
+
+    final double[] amounts;
+    final int[] fromSlots;
+    final int[] toSlots;
+    final double[] results;
+    int size;
+
+    public ConversionBatch(int capacity) {
+        this.amounts = new double[capacity];
+        this.fromSlots = new int[capacity];
+        this.toSlots = new int[capacity];
+        this.results = new double[capacity];
+    }
+
+    public void add(double amount, int fromSlot, int toSlot) {
+        amounts[size] = amount;
+        fromSlots[size] = fromSlot;
+        toSlots[size] = toSlot;
+        size++;
+    }
+
+    public boolean isFull() {
+        return size == amounts.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return le montant converti, {@code NaN} si le montant ou l'une des devises était invalide
+     */
+    public double result(int index) {
+        return results[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
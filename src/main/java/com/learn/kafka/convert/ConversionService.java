@@ -0,0 +1,100 @@
+package com.learn.kafka.convert;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.store.RateSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Conversions de montants contre un seul snapshot. En lot, les lignes sont lues, calculées
+ * et réécrites par paquets de {@link #BATCH_SIZE} : le corps n'est jamais chargé en entier
+ * et les premiers résultats partent avant la fin de la lecture.
+ */
+@Service
+@ConditionalOnRole(Role.READER)
+@Slf4j
+public class ConversionService {
+
+    static final int BATCH_SIZE = 4096;
+
+    private final BatchConverter batchConverter;
+
+    public ConversionService(@Value("${exchange-rates.convert.vectorized:true}") boolean vectorized) {
+        this.batchConverter = select(vectorized);
+        log.info("Batch conversions computed by {}", batchConverter);
+    }
+
+    /**
+     * @return la version vectorielle si elle est demandée et que le module
+     * {@code jdk.incubator.vector} est chargé, la boucle scalaire sinon
+     */
+    static BatchConverter select(boolean vectorized) {
+        if (vectorized && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Chargée par son nom : absente de l'image native, où la boucle scalaire est retenue
+                return (BatchConverter) Class.forName("com.learn.kafka.convert.VectorBatchConverter")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector API unavailable, falling back to scalar conversions: {}", e.toString());
+            }
+        }
+        return ScalarBatchConverter.INSTANCE;
+    }
+
+    /**
+     * @return la conversion, null si l'une des devises est absente du snapshot
+     */
+    public Conversion convert(RateSnapshot snapshot, double amount, String from, String to) {
+        RateTable table = RateTable.of(snapshot);
+        double fromRate = table.rates()[table.slot(from)];
+        double toRate = table.rates()[table.slot(to)];
+        if (Double.isNaN(fromRate) || Double.isNaN(toRate)) {
+            return null;
+        }
+        return new Conversion(amount, from, to, toRate / fromRate, amount * toRate / fromRate,
+                snapshot.getId(), snapshot.getTimestamp());
+    }
+
+    /**
+     * Convertit chaque ligne {@code montant,source,cible} de {@code in} et écrit une ligne
+     * par ligne lue, dans le même ordre : le montant converti, ou une ligne vide si le
+     * montant ou l'une des devises est invalide.
+     *
+     * @return le nombre de lignes converties
+     * @throws IllegalArgumentException si une ligne dépasse la taille du tampon de lecture
+     */
+    public long convert(RateSnapshot snapshot, Reader in, Writer out) throws IOException {
+        RateTable table = RateTable.of(snapshot);
+        ConversionBatch batch = new ConversionBatch(BATCH_SIZE);
+        CsvConversionReader reader = new CsvConversionReader(in);
+        StringBuilder lines = new StringBuilder(BATCH_SIZE * 24);
+        char[] chars = new char[lines.capacity()];
+        long rows = 0;
+        while (reader.next(table, batch)) {
+            batchConverter.convert(table.rates(), batch);
+            lines.setLength(0);
+            for (int i = 0; i < batch.size(); i++) {
+                double result = batch.result(i);
+                if (!Double.isNaN(result)) {
+                    lines.append(result);
+                }
+                lines.append('\n');
+            }
+            if (chars.length < lines.length()) {
+                chars = new char[lines.capacity()];
+            }
+            lines.getChars(0, lines.length(), chars, 0);
+            out.write(chars, 0, lines.length());
+            rows += batch.size();
+        }
+        out.flush();
+        return rows;
+    }
+}
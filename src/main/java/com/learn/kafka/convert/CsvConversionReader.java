@@ -0,0 +1,150 @@
+package com.learn.kafka.convert;
+
+import com.learn.kafka.model.FixedPoint;
+import com.learn.kafka.store.CurrencyCodes;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lecture en flux de lignes {@code montant,source,cible} dans un {@link ConversionBatch},
+ * directement depuis un tampon de caractères : ni ligne ni champ recréé en chaîne. Une
+ * ligne d'en-tête (premier champ commençant par une lettre) est ignorée ; une ligne
+ * invalide reste une ligne, convertie en {@code NaN}.
+ */
+final class CsvConversionReader {
+
+    // Une ligne plus longue que le tampon est refusée plutôt que de le faire grossir sans borne
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int start;
+    private int end;
+    private boolean endOfInput;
+    private boolean firstLine = true;
+
+    CsvConversionReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Remplit le lot (vidé au préalable) jusqu'à sa capacité ou la fin du corps.
+     *
+     * @return false si plus aucune ligne n'a été lue
+     */
+    boolean next(RateTable table, ConversionBatch batch) throws IOException {
+        batch.clear();
+        while (!batch.isFull()) {
+            int lineEnd = indexOf('\n');
+            if (lineEnd >= 0) {
+                readRow(start, lineEnd, table, batch);
+                start = lineEnd + 1;
+            } else if (endOfInput) {
+                if (start < end) {
+                    readRow(start, end, table, batch);
+                    start = end;
+                }
+                break;
+            } else {
+                fill();
+            }
+        }
+        return batch.size() > 0;
+    }
+
+    private void readRow(int from, int to, RateTable table, ConversionBatch batch) {
+        if (to > from && buffer[to - 1] == '\r') {
+            to--;
+        }
+        int firstComma = indexOf(',', from, to);
+        int secondComma = firstComma < 0 ? -1 : indexOf(',', firstComma + 1, to);
+        int first = skipSpaces(from, to);
+        boolean header = firstLine && first < to && Character.isLetter(buffer[first]);
+        firstLine = false;
+        if (header) {
+            return;
+        }
+        if (secondComma < 0) {
+            batch.add(Double.NaN, 0, 0);
+            return;
+        }
+        double amount = parseAmount(from, firstComma);
+        int fromSlot = table.slot(currencyOrdinal(firstComma + 1, secondComma));
+        int toSlot = table.slot(currencyOrdinal(secondComma + 1, to));
+        batch.add(amount, fromSlot, toSlot);
+    }
+
+    private double parseAmount(int from, int to) {
+        from = skipSpaces(from, to);
+        to = trimSpaces(from, to);
+        if (from == to) {
+            return Double.NaN;
+        }
+        int scale = FixedPoint.scale(buffer, from, to - from);
+        long unscaled = FixedPoint.unscaled(buffer, from, to - from, scale);
+        if (unscaled != FixedPoint.NOT_REPRESENTABLE && Math.abs(unscaled) < 1L << 53) {
+            return FixedPoint.toDouble(unscaled, scale);
+        }
+        try {
+            return Double.parseDouble(new String(buffer, from, to - from));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int currencyOrdinal(int from, int to) {
+        from = skipSpaces(from, to);
+        to = trimSpaces(from, to);
+        return CurrencyCodes.ordinal(buffer, from, to - from);
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && buffer[from] == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimSpaces(int from, int to) {
+        while (to > from && buffer[to - 1] == ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private int indexOf(char c) {
+        return indexOf(c, start, end);
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Décale la ligne en cours en tête du tampon puis lit la suite.
+     *
+     * @throws IllegalArgumentException si la ligne en cours remplit tout le tampon
+     */
+    private void fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            throw new IllegalArgumentException("Conversion row longer than " + BUFFER_SIZE + " characters");
+        }
+        int read = reader.read(buffer, end, buffer.length - end);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            end += read;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.learn.kafka.convert;
+
+import com.learn.kafka.store.CurrencyCodes;
+import com.learn.kafka.store.RateSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Taux d'un snapshot indexés par emplacement, pour les lectures indexées des
+ * {@link BatchConverter} : les taux du snapshot dans l'ordre des ordinaux, puis la devise
+ * de base (1) et un emplacement {@code NaN} pour les devises inconnues. Tout emplacement
+ * est donc lisible et une ligne invalide donne simplement {@code NaN}.
+ */
+public final class RateTable {
+
+    private final RateSnapshot snapshot;
+    private final double[] rates;
+    private final int baseOrdinal;
+
+    private RateTable(RateSnapshot snapshot) {
+        this.snapshot = snapshot;
+        double[] values = snapshot.getValues();
+        this.rates = Arrays.copyOf(values, values.length + 2);
+        this.rates[baseSlot()] = 1.0;
+        this.rates[unknownSlot()] = Double.NaN;
+        this.baseOrdinal = CurrencyCodes.ordinal(snapshot.getBaseCurrency());
+    }
+
+    public static RateTable of(RateSnapshot snapshot) {
+        return new RateTable(snapshot);
+    }
+
+    public RateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public double[] rates() {
+        return rates;
+    }
+
+    /**
+     * @return l'emplacement de la devise, celui des devises inconnues si elle n'est pas dans le snapshot
+     */
+    public int slot(int ordinal) {
+        if (ordinal >= 0 && ordinal == baseOrdinal) {
+            return baseSlot();
+        }
+        int index = snapshot.indexOf(ordinal);
+        return index < 0 ? unknownSlot() : index;
+    }
+
+    public int slot(String currency) {
+        return slot(CurrencyCodes.ordinal(currency));
+    }
+
+    private int baseSlot() {
+        return rates.length - 2;
+    }
+
+    private int unknownSlot() {
+        return rates.length - 1;
+    }
+}
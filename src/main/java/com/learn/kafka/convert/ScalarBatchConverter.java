@@ -0,0 +1,25 @@
+package com.learn.kafka.convert;
+
+final class ScalarBatchConverter implements BatchConverter {
+
+    static final ScalarBatchConverter INSTANCE = new ScalarBatchConverter();
+
+    private ScalarBatchConverter() {
+    }
+
+    @Override
+    public void convert(double[] rates, ConversionBatch batch) {
+        double[] amounts = batch.amounts;
+        int[] fromSlots = batch.fromSlots;
+        int[] toSlots = batch.toSlots;
+        double[] results = batch.results;
+        for (int i = 0; i < batch.size; i++) {
+            results[i] = amounts[i] * rates[toSlots[i]] / rates[fromSlots[i]];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
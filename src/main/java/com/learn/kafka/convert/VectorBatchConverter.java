@@ -0,0 +1,37 @@
+package com.learn.kafka.convert;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Lectures indexées des taux ({@code fromArray} avec table d'index), multiplication et
+ * division sur toute la largeur des registres, puis reliquat scalaire. Mêmes opérations
+ * dans le même ordre que {@link ScalarBatchConverter} : résultats identiques au bit près.
+ */
+final class VectorBatchConverter implements BatchConverter {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void convert(double[] rates, ConversionBatch batch) {
+        double[] amounts = batch.amounts;
+        int[] fromSlots = batch.fromSlots;
+        int[] toSlots = batch.toSlots;
+        double[] results = batch.results;
+        int size = batch.size;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(size); i < upper; i += SPECIES.length()) {
+            DoubleVector to = DoubleVector.fromArray(SPECIES, rates, 0, toSlots, i);
+            DoubleVector from = DoubleVector.fromArray(SPECIES, rates, 0, fromSlots, i);
+            DoubleVector.fromArray(SPECIES, amounts, i).mul(to).div(from).intoArray(results, i);
+        }
+        for (; i < size; i++) {
+            results[i] = amounts[i] * rates[toSlots[i]] / rates[fromSlots[i]];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "vector(" + SPECIES + ")";
+    }
+}
@@ -0,0 +1,32 @@
+package com.learn.kafka.leader;
+
+import com.learn.kafka.model.ExchangeRate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plus grand jeton de fencing vu par les consumers de l'instance. Un snapshot dont le
+ * jeton est inférieur vient d'un leader déchu et est écarté ; les snapshots sans jeton
+ * (fetch manuel hors leader, backfill historique, élection désactivée) sont acceptés.
+ * Le plus grand jeton n'est pas persisté : après redémarrage, il est réappris au fil du topic.
+ */
+@Component
+@Slf4j
+public class FencingTokens {
+
+    private long highest = Long.MIN_VALUE;
+
+    public synchronized boolean isStale(ExchangeRate exchangeRate) {
+        Long token = exchangeRate.getFencingToken();
+        if (token == null) {
+            return false;
+        }
+        if (token < highest) {
+            log.warn("Discarding snapshot {} from deposed leader (fencing token {} < {})",
+                    exchangeRate.getId(), token, highest);
+            return true;
+        }
+        highest = token;
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.learn.kafka.leader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Élection du leader des instances ingester par groupe de consommateurs Kafka : toutes
+ * s'abonnent au topic à une partition {@code exchange-rates-leader} dans le même groupe,
+ * celle à qui la partition est assignée est leader.
+ *
+ * <p>À l'assignation, l'instance écrit une revendication sur ce topic et prend son offset
+ * comme jeton de fencing : l'offset d'une partition ne fait que croître, même si le groupe
+ * est supprimé puis recréé (sa génération repart alors de 1). Un ancien leader qui publie
+ * encore après une bascule porte donc un jeton plus petit que le nouveau (voir
+ * {@link FencingTokens}). Tant que la revendication n'est pas écrite, l'instance n'est pas
+ * leader ; en cas d'échec, elle demande un nouveau rééquilibrage.
+ *
+ * <p>Élection désactivée ({@code exchange-rates.leader-election.enabled=false}), l'instance
+ * est toujours leader et ne porte pas de jeton.
+ */
+@Slf4j
+public class LeaderElection implements ConsumerAwareRebalanceListener {
+
+    private final boolean enabled;
+    private final KafkaTemplate<String, String> claimTemplate;
+    private final Duration claimTimeout;
+
+    private volatile boolean leader;
+    private volatile Long fencingToken;
+
+    public LeaderElection(boolean enabled, KafkaTemplate<String, String> claimTemplate, Duration claimTimeout) {
+        this.enabled = enabled;
+        this.claimTemplate = claimTemplate;
+        this.claimTimeout = claimTimeout;
+    }
+
+    public boolean isLeader() {
+        return !enabled || leader;
+    }
+
+    /**
+     * @return l'offset de la revendication si l'instance est leader, {@code null} sinon
+     */
+    public Long fencingToken() {
+        return fencingToken;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        Long claimed = claim(consumer);
+        if (claimed == null) {
+            consumer.enforceRebalance();
+            return;
+        }
+        fencingToken = claimed;
+        leader = true;
+        log.info("Elected fetch leader with fencing token {}", fencingToken);
+    }
+
+    private Long claim(Consumer<?, ?> consumer) {
+        try {
+            return claimTemplate.send(LeaderElectionConfig.LEADER_TOPIC, consumer.groupMetadata().memberId())
+                    .get(claimTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .getRecordMetadata()
+                    .offset();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Could not claim fetch leadership, rebalancing: {}", e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        resign(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        resign(partitions);
+    }
+
+    private void resign(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty() || !leader) {
+            return;
+        }
+        leader = false;
+        fencingToken = null;
+        log.info("Lost fetch leadership");
+    }
+}
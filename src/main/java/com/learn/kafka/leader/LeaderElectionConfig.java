@@ -0,0 +1,90 @@
+package com.learn.kafka.leader;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Élection du leader des instances ingester ({@code exchange-rates.leader-election.enabled=true}).
+ * La bascule est immédiate quand le leader s'arrête proprement (il quitte le groupe) et
+ * prend au plus {@code session-timeout} s'il disparaît.
+ */
+@Configuration
+@ConditionalOnRole(Role.INGESTER)
+public class LeaderElectionConfig {
+
+  public static final String LEADER_TOPIC = "exchange-rates-leader";
+
+  @Value("${spring.kafka.bootstrap-servers}")
+  String bootstrapServers;
+
+  @Value("${exchange-rates.leader-election.enabled:false}")
+  boolean enabled;
+
+  @Value("${exchange-rates.leader-election.group-id:exchange-rate-leader}")
+  String groupId;
+
+  // Minimum accepté par défaut par le broker (group.min.session.timeout.ms)
+  @Value("${exchange-rates.leader-election.session-timeout:6s}")
+  Duration sessionTimeout;
+
+  @Bean
+  public LeaderElection leaderElection() {
+    if (!enabled) {
+      return new LeaderElection(false, null, sessionTimeout);
+    }
+    // Revendications de leadership : leur offset sert de jeton de fencing
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+    return new LeaderElection(true, new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps)), sessionTimeout);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "exchange-rates.leader-election.enabled", havingValue = "true")
+  public NewTopic leaderElectionTopic() {
+    return new NewTopic(LEADER_TOPIC, 1, (short) 1);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "exchange-rates.leader-election.enabled", havingValue = "true")
+  public KafkaMessageListenerContainer<String, String> leaderElectionContainer(LeaderElection leaderElection) {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+    configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) sessionTimeout.toMillis());
+    configProps.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, (int) sessionTimeout.toMillis() / 3);
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+    ContainerProperties containerProperties = new ContainerProperties(LEADER_TOPIC);
+    containerProperties.setConsumerRebalanceListener(leaderElection);
+    containerProperties.setMessageListener((MessageListener<String, String>) record -> { });
+    containerProperties.setPollTimeout(1000);
+    KafkaMessageListenerContainer<String, String> container = new KafkaMessageListenerContainer<>(
+        new DefaultKafkaConsumerFactory<>(configProps), containerProperties);
+    container.setBeanName("leaderElectionContainer");
+    return container;
+  }
+}
@@ -0,0 +1,72 @@
+package com.learn.kafka.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.WriteTypeHint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques glissantes d'une devise après un snapshot, publiées sur le topic
+ * {@code exchange-rate-stats} et indexées dans {@code exchange_rate_stats}. L'id
+ * ({@code EUR-1705312800000}) est déterministe : un snapshot retraité remplace le document.
+ */
+@Data
+@Document(indexName = "exchange_rate_stats", writeTypeHint = WriteTypeHint.FALSE)
+public class CurrencyStats {
+    @Id
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String currency;
+
+    @Field(type = FieldType.Keyword)
+    @JsonProperty("base")
+    private String baseCurrency;
+
+    // Timestamp du snapshot source
+    @Field(type = FieldType.Date, format = DateFormat.date_optional_time)
+    private String timestamp;
+
+    @Field(type = FieldType.Double)
+    private double rate;
+
+    // Snapshots vus depuis le démarrage de l'étape
+    @Field(type = FieldType.Long)
+    private long samples;
+
+    @Field(type = FieldType.Object)
+    private List<Window> windows;
+
+    // Clé "hl" + demi-vie en snapshots, ex. hl30
+    @Field(type = FieldType.Object)
+    private Map<String, Double> ewma;
+
+    /**
+     * Statistiques sur les {@code size} derniers snapshots. {@code volatility} est l'écart-type
+     * des rendements logarithmiques successifs ; les écarts-types sont null sous deux valeurs.
+     */
+    @Data
+    public static class Window {
+        @Field(type = FieldType.Integer)
+        private int size;
+        @Field(type = FieldType.Integer)
+        private int count;
+        @Field(type = FieldType.Double)
+        private double mean;
+        @Field(type = FieldType.Double)
+        private Double stddev;
+        @Field(type = FieldType.Double)
+        private double min;
+        @Field(type = FieldType.Double)
+        private double max;
+        @Field(type = FieldType.Double)
+        private Double volatility;
+    }
+}
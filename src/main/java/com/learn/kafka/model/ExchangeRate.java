@@ -1,17 +1,33 @@
 package com.learn.kafka.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Dynamic;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.annotations.WriteTypeHint;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Snapshot de taux de change. Le mapping Elasticsearch est explicite
+ * (voir {@code elasticsearch/exchange-rates-mapping.json}) et appliqué via
+ * l'index template géré par {@link com.learn.kafka.service.ExchangeRateIndexService}.
+ */
 @Data
-@Document(indexName = "exchange_rates")
+@Document(indexName = "exchange_rates", createIndex = false,
+        writeTypeHint = WriteTypeHint.FALSE, dynamic = Dynamic.FALSE)
+@Mapping(mappingPath = "/elasticsearch/exchange-rates-mapping.json")
+@Setting(settingPath = "/elasticsearch/exchange-rates-settings.json")
 public class ExchangeRate {
     @Id
     private String id;
@@ -20,9 +36,115 @@ public class ExchangeRate {
     @JsonProperty("base")
     private String baseCurrency;
     
-    @Field(type = FieldType.Object)
+    // Un seul champ "flattened" quel que soit le nombre de devises
+    @Field(type = FieldType.Flattened)
     private Map<String, Double> rates;
     
-    @Field(type = FieldType.Text)
+    // Taux en virgule fixe (exchange-rates.fixed-point.enabled) : mantisse et nombre de
+    // décimales par devise, taux = scaledRates × 10^-rateScales (voir FixedPoint)
+    @Field(type = FieldType.Flattened)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Long> scaledRates;
+
+    @Field(type = FieldType.Flattened)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Integer> rateScales;
+
+    // Mappé en "date" (doc_values) par le fichier de mapping, reste une chaîne ISO côté Java
     private String timestamp;
-} 
\ No newline at end of file
+
+    // Fournisseur retenu pour chaque devise, renseigné par le fetch multi-sources
+    @Field(type = FieldType.Flattened)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> sources;
+
+    // Latence du fetch (ms) de chaque fournisseur ayant répondu
+    @Field(type = FieldType.Flattened)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Long> providerLatencies;
+
+    // Génération du leader qui a publié le snapshot (voir LeaderElection), absente hors élection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long fencingToken;
+
+    // Offset du snapshot dans le topic exchange-rates, renseigné à la consommation :
+    // croissant et identique sur toutes les instances (voir SnapshotVersions)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    // Dernière et prochaine mise à jour annoncées par le fournisseur (epoch s) : lues dans
+    // la réponse amont pour la cadence du fetch, ni publiées ni indexées
+    @Transient
+    @JsonProperty(value = "time_last_update_unix", access = JsonProperty.Access.WRITE_ONLY)
+    @JsonAlias("time_last_updated")
+    private Long providerLastUpdate;
+
+    @Transient
+    @JsonProperty(value = "time_next_update_unix", access = JsonProperty.Access.WRITE_ONLY)
+    private Long providerNextUpdate;
+
+    /**
+     * Copie du snapshot réduite aux devises demandées ; les devises absentes sont ignorées.
+     */
+    public ExchangeRate withRatesFor(Collection<String> symbols) {
+        Map<String, Double> selected = new HashMap<>(symbols.size() * 2);
+        if (rates != null) {
+            for (String symbol : symbols) {
+                Double rate = rates.get(symbol);
+                if (rate != null) {
+                    selected.put(symbol, rate);
+                }
+            }
+        }
+        ExchangeRate copy = new ExchangeRate();
+        copy.setId(id);
+        copy.setBaseCurrency(baseCurrency);
+        copy.setTimestamp(timestamp);
+        copy.setVersion(version);
+        copy.setRates(selected);
+        if (scaledRates != null && rateScales != null) {
+            Map<String, Long> selectedScaled = new HashMap<>(symbols.size() * 2);
+            Map<String, Integer> selectedScales = new HashMap<>(symbols.size() * 2);
+            for (String symbol : symbols) {
+                Long unscaled = scaledRates.get(symbol);
+                Integer scale = rateScales.get(symbol);
+                if (unscaled != null && scale != null) {
+                    selectedScaled.put(symbol, unscaled);
+                    selectedScales.put(symbol, scale);
+                }
+            }
+            copy.setScaledRates(selectedScaled);
+            copy.setRateScales(selectedScales);
+        }
+        return copy;
+    }
+
+    /**
+     * Conversion exacte en virgule fixe entre deux devises du snapshot, la devise de base
+     * valant 1 ; voir {@link FixedPoint#convert}.
+     *
+     * @return la mantisse du montant converti, à {@code resultScale} décimales
+     * @throws IllegalArgumentException si l'une des devises n'a pas de taux en virgule fixe
+     */
+    public long convert(long amount, int amountScale, String from, String to, int resultScale) {
+        Long fromRate = fixedPointRate(from);
+        Long toRate = fixedPointRate(to);
+        if (fromRate == null || toRate == null) {
+            throw new IllegalArgumentException("No fixed-point rate for " + (fromRate == null ? from : to));
+        }
+        return FixedPoint.convert(amount, amountScale, fromRate, fixedPointScale(from),
+                toRate, fixedPointScale(to), resultScale);
+    }
+
+    private Long fixedPointRate(String currency) {
+        if (currency.equals(baseCurrency)) {
+            return 1L;
+        }
+        return scaledRates != null && rateScales != null && rateScales.containsKey(currency)
+                ? scaledRates.get(currency) : null;
+    }
+
+    private int fixedPointScale(String currency) {
+        return currency.equals(baseCurrency) ? 0 : rateScales.get(currency);
+    }
+}
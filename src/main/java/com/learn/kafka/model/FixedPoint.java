@@ -0,0 +1,251 @@
+package com.learn.kafka.model;
+
+/**
+ * Décimaux en virgule fixe : une mantisse {@code long} et un nombre de décimales
+ * ({@code scale}), la valeur étant {@code unscaled × 10^-scale}. Chaque devise garde
+ * la précision publiée par le fournisseur ({@code 146.37} → {@code 14637}, 2).
+ *
+ * <p>Toutes les opérations sont exactes et sans allocation : produits sur 128 bits,
+ * un seul arrondi (au pair le plus proche) sur le résultat final, et
+ * {@link ArithmeticException} plutôt qu'un résultat approché quand il ne tient pas
+ * dans un {@code long}.
+ */
+public final class FixedPoint {
+
+    /** Nombre maximal de décimales, 10^18 étant la plus grande puissance de dix d'un {@code long}. */
+    public static final int MAX_SCALE = 18;
+
+    /** Renvoyé par {@link #unscaled} quand le nombre n'a pas de représentation exacte. */
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Nombre de décimales d'un nombre JSON ({@code 0.912}, {@code 7.9E-1}, {@code 12}),
+     * exposant compris.
+     *
+     * @return entre 0 et {@link #MAX_SCALE}, -1 si le nombre a plus de décimales ou n'est pas valide
+     */
+    public static int scale(char[] text, int offset, int length) {
+        int fractionDigits = 0;
+        boolean fraction = false;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.') {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                int exponent = parseExponent(text, i + 1, end);
+                if (exponent == Integer.MIN_VALUE) {
+                    return -1;
+                }
+                int scale = fractionDigits - exponent;
+                return scale > MAX_SCALE ? -1 : Math.max(scale, 0);
+            } else if (c != '-' || i != offset) {
+                return -1;
+            }
+        }
+        return fractionDigits > MAX_SCALE ? -1 : fractionDigits;
+    }
+
+    /**
+     * Mantisse d'un nombre JSON à {@code scale} décimales, {@code scale} venant de {@link #scale}.
+     *
+     * @return la mantisse, {@link #NOT_REPRESENTABLE} si elle dépasse un {@code long}
+     */
+    public static long unscaled(char[] text, int offset, int length, int scale) {
+        if (scale < 0) {
+            return NOT_REPRESENTABLE;
+        }
+        boolean negative = length > 0 && text[offset] == '-';
+        int end = offset + length;
+        int fractionDigits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        long unscaled = 0;
+        for (int i = negative ? offset + 1 : offset; i < end; i++) {
+            char c = text[i];
+            if (c == '.') {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                // scale() a validé l'exposant
+                exponent = parseExponent(text, i + 1, end);
+                break;
+            } else {
+                if (unscaled > (Long.MAX_VALUE - (c - '0')) / 10) {
+                    return NOT_REPRESENTABLE;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (fraction) {
+                    fractionDigits++;
+                }
+            }
+        }
+        // Exposant positif au-delà des décimales écrites : zéros implicites
+        int padding = scale - fractionDigits + exponent;
+        if (padding > 0) {
+            if (padding > MAX_SCALE || unscaled > Long.MAX_VALUE / POW10[padding]) {
+                return NOT_REPRESENTABLE;
+            }
+            unscaled *= POW10[padding];
+        }
+        return negative ? -unscaled : unscaled;
+    }
+
+    /**
+     * Valeur {@code double} la plus proche : identique à celle du parseur JSON sur le même
+     * texte tant que la mantisse tient sur 53 bits.
+     */
+    public static double toDouble(long unscaled, int scale) {
+        return unscaled / (double) POW10[scale];
+    }
+
+    /**
+     * Conversion croisée {@code amount × to / from} où {@code from} et {@code to} sont les taux
+     * des deux devises contre la même base, arrondie une seule fois au pair le plus proche
+     * à {@code resultScale} décimales.
+     *
+     * @param amount      montant en virgule fixe, signé
+     * @param fromRate    taux de la devise source, strictement positif
+     * @param toRate      taux de la devise cible, strictement positif
+     * @param resultScale décimales du résultat
+     * @return la mantisse du montant converti
+     * @throws ArithmeticException si le résultat ne tient pas dans un {@code long}, ou si
+     *                             {@code from × 10^-shift} ne tient pas dans un {@code long}
+     */
+    public static long convert(long amount, int amountScale, long fromRate, int fromScale,
+                               long toRate, int toScale, int resultScale) {
+        if (fromRate <= 0 || toRate <= 0) {
+            throw new IllegalArgumentException("Rates must be positive");
+        }
+        if (amount == Long.MIN_VALUE) {
+            throw new ArithmeticException("Amount out of range");
+        }
+        if (amount == 0) {
+            return 0;
+        }
+        long magnitude = Math.abs(amount);
+        int shift = resultScale - amountScale - toScale + fromScale;
+
+        // Numérateur |amount| × to × 10^shift sur 128 bits (hi, lo), diviseur from × 10^-shift
+        long hi = Math.multiplyHigh(magnitude, toRate);
+        long lo = magnitude * toRate;
+        long divisor = fromRate;
+        for (int remaining = shift; remaining > 0; remaining -= MAX_SCALE) {
+            long factor = POW10[Math.min(remaining, MAX_SCALE)];
+            long carry = Math.unsignedMultiplyHigh(lo, factor);
+            long high = hi * factor;
+            if (Math.unsignedMultiplyHigh(hi, factor) != 0 || Long.compareUnsigned(high + carry, high) < 0) {
+                throw new ArithmeticException("Conversion overflow");
+            }
+            hi = high + carry;
+            lo = lo * factor;
+        }
+        if (shift < 0) {
+            if (shift < -MAX_SCALE) {
+                throw new ArithmeticException("Scale difference out of range: " + shift);
+            }
+            divisor = Math.multiplyExact(fromRate, POW10[-shift]);
+        }
+
+        long quotient = divideRoundHalfEven(hi, lo, divisor);
+        return amount < 0 ? -quotient : quotient;
+    }
+
+    /**
+     * Division non signée de (hi, lo) par {@code divisor} &gt; 0, arrondie au pair le plus proche.
+     */
+    private static long divideRoundHalfEven(long hi, long lo, long divisor) {
+        if (Long.compareUnsigned(hi, divisor) >= 0) {
+            throw new ArithmeticException("Conversion overflow");
+        }
+        long quotient = hi == 0 ? Long.divideUnsigned(lo, divisor) : divide128(hi, lo, divisor);
+        long remainder = lo - quotient * divisor;
+        // remainder < divisor < 2^63 : le double tient en non signé
+        int half = Long.compareUnsigned(remainder << 1, divisor);
+        if (half > 0 || (half == 0 && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        if (quotient < 0) {
+            throw new ArithmeticException("Conversion overflow");
+        }
+        return quotient;
+    }
+
+    /**
+     * Division 128 / 64 bits non signée, hi &lt; divisor (Hacker's Delight, divlu) :
+     * deux chiffres de 32 bits par l'algorithme D de Knuth.
+     */
+    private static long divide128(long hi, long lo, long divisor) {
+        final long base = 1L << 32;
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vn1 = v >>> 32;
+        long vn0 = v & 0xFFFFFFFFL;
+
+        long un32 = shift == 0 ? hi : (hi << shift) | (lo >>> (64 - shift));
+        long un10 = lo << shift;
+        long un1 = un10 >>> 32;
+        long un0 = un10 & 0xFFFFFFFFL;
+
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (Long.compareUnsigned(q1, base) >= 0 || Long.compareUnsigned(q1 * vn0, rhat * base + un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+
+        long un21 = un32 * base + un1 - q1 * v;
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (Long.compareUnsigned(q0, base) >= 0 || Long.compareUnsigned(q0 * vn0, rhat * base + un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+        return q1 * base + q0;
+    }
+
+    /**
+     * @return l'exposant, {@link Integer#MIN_VALUE} s'il est vide, invalide ou hors bornes
+     */
+    private static int parseExponent(char[] text, int from, int end) {
+        boolean negative = false;
+        int i = from;
+        if (i < end && (text[i] == '+' || text[i] == '-')) {
+            negative = text[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            return Integer.MIN_VALUE;
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9' || exponent > 1000) {
+                return Integer.MIN_VALUE;
+            }
+            exponent = exponent * 10 + (c - '0');
+        }
+        return negative ? -exponent : exponent;
+    }
+}
@@ -0,0 +1,51 @@
+package com.learn.kafka.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * Alerte levée par une règle sur le passage d'un snapshot au suivant, publiée sur le
+ * topic {@code exchange-rate-alerts} (clé : la devise) et sur le flux SSE des alertes.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RateAlert {
+
+    /**
+     * Condition surveillée par une règle.
+     */
+    public enum Type {
+        /** Le taux franchit le seuil par le haut. */
+        ABOVE,
+        /** Le taux franchit le seuil par le bas. */
+        BELOW,
+        /** Variation d'un snapshot au suivant supérieure à {@code threshold} %, dans un sens ou l'autre. */
+        CHANGE,
+        /** La devise figurait dans le snapshot précédent et plus dans le nouveau. */
+        MISSING
+    }
+
+    private Type type;
+
+    private String currency;
+
+    @JsonProperty("base")
+    private String baseCurrency;
+
+    // Seuil de la règle : taux pour ABOVE/BELOW, pourcentage pour CHANGE, absent pour MISSING
+    private Double threshold;
+
+    private Double previousRate;
+
+    // Absent pour MISSING
+    private Double rate;
+
+    // Variation en % depuis le snapshot précédent, absente pour MISSING
+    private Double changePercent;
+
+    // Snapshot qui a levé l'alerte
+    private String snapshotId;
+    private String timestamp;
+    private Long version;
+}
@@ -0,0 +1,70 @@
+package com.learn.kafka.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Conversions du timestamp ISO ({@link ExchangeRate#getTimestamp()}) vers une
+ * représentation numérique. Les snapshots sont horodatés en instant UTC
+ * ({@code 2025-06-04T14:03:00.123Z}) ; un timestamp sans fuseau (snapshot ancien, backfill
+ * historique) est interprété en UTC, comme le fait Elasticsearch pour un champ {@code date}.
+ */
+public final class RateTimestamps {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private RateTimestamps() {
+    }
+
+    public static long toEpochNanos(String timestamp) {
+        return toEpochNanos(parseIso(timestamp));
+    }
+
+    public static long toEpochMillis(String timestamp) {
+        return parseIso(timestamp).toEpochMilli();
+    }
+
+    public static long toEpochNanos(Instant instant) {
+        return instant.getEpochSecond() * NANOS_PER_SECOND + instant.getNano();
+    }
+
+    public static String format(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                        (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC)
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Interprète un instant passé en paramètre de requête : epoch millis, date ISO avec
+     * fuseau ({@code 2025-06-04T14:03:00Z}) ou date ISO locale (lue en UTC).
+     *
+     * @throws java.time.format.DateTimeParseException si le format n'est pas reconnu
+     */
+    public static Instant parseInstant(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Instant.ofEpochMilli(Long.parseLong(value));
+        }
+        return parseIso(value);
+    }
+
+    /**
+     * @return vrai si le timestamp porte un fuseau ({@code Z} ou un décalage)
+     */
+    public static boolean hasZone(String value) {
+        return value.endsWith("Z") || value.lastIndexOf('+') > 0 || value.lastIndexOf('-') > 9;
+    }
+
+    private static Instant parseIso(String value) {
+        if (hasZone(value)) {
+            return OffsetDateTime.parse(value).toInstant();
+        }
+        return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+    }
+
+    public static String format(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
@@ -1,10 +1,13 @@
 package com.learn.kafka.producer;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnRole(Role.INGESTER)
 public class MessageProducer {
 
   @Autowired
@@ -0,0 +1,98 @@
+package com.learn.kafka.provider;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Export local, lu ligne à ligne sans être chargé en mémoire :
+ * <ul>
+ *     <li>NDJSON : un objet par ligne, au format des réponses amont avec un champ
+ *     {@code date}, ex. {@code {"date":"2024-01-15","base":"USD","rates":{"EUR":0.91}}}</li>
+ *     <li>CSV ({@code .csv}) : en-tête {@code date,EUR,GBP,...} puis une ligne par jour,
+ *     cellule vide pour une devise absente ce jour-là</li>
+ * </ul>
+ * Les lignes doivent être triées par date croissante.
+ */
+public class FileHistoricalRateSource implements HistoricalRateSource {
+
+    private static final ResolvableType RATE_VECTOR = ResolvableType.forClass(RateVector.class);
+
+    private final Path path;
+    private final StreamingRateDecoder decoder;
+
+    public FileHistoricalRateSource(Path path, StreamingRateDecoder decoder) {
+        this.path = path;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public String id() {
+        return "file:" + path.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Flux<DatedRates> read(LocalDate from, LocalDate to) {
+        return Flux.using(() -> Files.lines(path, StandardCharsets.UTF_8),
+                        lines -> Flux.fromStream(parse(lines)),
+                        Stream::close)
+                .filter(rates -> !rates.date().isBefore(from) && !rates.date().isAfter(to))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Stream<DatedRates> parse(Stream<String> lines) {
+        Stream<String> content = lines.filter(line -> !line.isBlank());
+        if (!path.getFileName().toString().toLowerCase().endsWith(".csv")) {
+            return content.map(this::parseJson);
+        }
+        CsvRows rows = new CsvRows();
+        return content.map(rows::parse).filter(Objects::nonNull);
+    }
+
+    private DatedRates parseJson(String line) {
+        RateVector rates = (RateVector) decoder.decode(
+                DefaultDataBufferFactory.sharedInstance.wrap(line.getBytes(StandardCharsets.UTF_8)),
+                RATE_VECTOR, null, Map.of());
+        if (rates == null || rates.getDate() == null) {
+            throw new DecodingException("NDJSON line without date in " + path);
+        }
+        return new DatedRates(LocalDate.parse(rates.getDate()), rates);
+    }
+
+    /**
+     * La première ligne lue est l'en-tête ; les suivantes sont des jours.
+     */
+    private static final class CsvRows {
+
+        private String[] currencies;
+
+        DatedRates parse(String line) {
+            String[] cells = line.split(",", -1);
+            if (currencies == null) {
+                currencies = new String[cells.length];
+                for (int i = 1; i < cells.length; i++) {
+                    currencies[i] = cells[i].trim().toUpperCase();
+                }
+                return null;
+            }
+            RateVector rates = new RateVector(currencies.length - 1);
+            for (int i = 1; i < cells.length && i < currencies.length; i++) {
+                String cell = cells[i].trim();
+                if (!cell.isEmpty()) {
+                    rates.add(currencies[i], Double.parseDouble(cell));
+                }
+            }
+            return new DatedRates(LocalDate.parse(cells[0].trim()), rates);
+        }
+    }
+}
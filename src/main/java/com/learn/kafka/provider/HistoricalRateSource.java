@@ -0,0 +1,26 @@
+package com.learn.kafka.provider;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Source de taux historiques pour le backfill : endpoint du fournisseur
+ * ({@link HttpHistoricalRateSource}) ou export local ({@link FileHistoricalRateSource}).
+ */
+public interface HistoricalRateSource {
+
+    /**
+     * Identifiant stable de la source, clé des points de reprise.
+     */
+    String id();
+
+    /**
+     * @return les taux de chaque jour disponible de {@code from} à {@code to} inclus,
+     * par date strictement croissante ; les jours sans données sont absents
+     */
+    Flux<DatedRates> read(LocalDate from, LocalDate to);
+
+    record DatedRates(LocalDate date, RateVector rates) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.learn.kafka.provider;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Endpoint historique du fournisseur, une requête par jour ({@code /{date}?from={base}}
+ * pour frankfurter). Au plus {@code parallelism} requêtes en vol ; les réponses sont
+ * réémises dans l'ordre des dates. Un jour inconnu (404) est sauté, les autres erreurs
+ * sont retentées avec backoff puis interrompent la lecture.
+ *
+ * <p>Pour un jour sans publication (week-end, jour férié), frankfurter répond avec les
+ * taux du dernier jour ouvré et sa {@code date} : ce jour est sauté aussi, pour ne pas
+ * publier deux fois les mêmes taux sous deux dates.
+ */
+@Slf4j
+public class HttpHistoricalRateSource implements HistoricalRateSource {
+
+    private final WebClient webClient;
+    private final String path;
+    private final String baseCurrency;
+    private final int parallelism;
+    private final Duration timeout;
+    private final int retries;
+    private final Duration retryBackoff;
+
+    public HttpHistoricalRateSource(WebClient webClient, String path, String baseCurrency, int parallelism,
+                                    Duration timeout, int retries, Duration retryBackoff) {
+        this.webClient = webClient;
+        this.path = path;
+        this.baseCurrency = baseCurrency;
+        this.parallelism = Math.max(1, parallelism);
+        this.timeout = timeout;
+        this.retries = retries;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Override
+    public String id() {
+        return "http:" + path + ":" + baseCurrency;
+    }
+
+    @Override
+    public Flux<DatedRates> read(LocalDate from, LocalDate to) {
+        return Flux.fromStream(() -> from.datesUntil(to.plusDays(1)))
+                .flatMapSequential(this::fetch, parallelism, 1);
+    }
+
+    Mono<DatedRates> fetch(LocalDate date) {
+        return webClient.get()
+                .uri(path, Map.of("date", date.toString(), "base", baseCurrency))
+                .retrieve()
+                .bodyToMono(RateVector.class)
+                .timeout(timeout)
+                .retryWhen(Retry.backoff(retries, retryBackoff).filter(HttpHistoricalRateSource::isTransient))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    log.warn("No historical rates for {}, skipping", date);
+                    return Mono.empty();
+                })
+                .filter(rates -> rates.size() > 0 && isPublishedOn(rates, date))
+                .map(rates -> new DatedRates(date, rates));
+    }
+
+    private static boolean isPublishedOn(RateVector rates, LocalDate date) {
+        if (rates.getDate() == null || LocalDate.parse(rates.getDate()).equals(date)) {
+            return true;
+        }
+        log.debug("No rates published on {} (provider answered with {}), skipping", date, rates.getDate());
+        return false;
+    }
+
+    // Erreurs client définitives, sauf 429
+    private static boolean isTransient(Throwable error) {
+        return !(error instanceof WebClientResponseException response)
+                || !response.getStatusCode().is4xxClientError()
+                || response.getStatusCode().value() == 429;
+    }
+}
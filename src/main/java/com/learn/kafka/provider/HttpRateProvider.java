@@ -0,0 +1,44 @@
+package com.learn.kafka.provider;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Fournisseur HTTP dont la réponse JSON porte un objet {@code rates} (format
+ * exchangerate-api, open.er-api, frankfurter...). Les champs inconnus sont ignorés.
+ */
+public class HttpRateProvider implements RateProvider {
+
+    private final String name;
+    private final WebClient webClient;
+    private final String path;
+    private final Duration timeout;
+
+    public HttpRateProvider(String name, WebClient webClient, String path, Duration timeout) {
+        this.name = name;
+        this.webClient = webClient;
+        this.path = path;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Duration timeout() {
+        return timeout;
+    }
+
+    @Override
+    public Mono<ExchangeRate> fetchLatest() {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .bodyToMono(ExchangeRate.class);
+    }
+}
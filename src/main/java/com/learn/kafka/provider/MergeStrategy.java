@@ -0,0 +1,23 @@
+package com.learn.kafka.provider;
+
+/**
+ * Fusion des réponses des fournisseurs interrogés en parallèle.
+ */
+public enum MergeStrategy {
+
+    /**
+     * Première réponse valide ; les requêtes encore en cours sont annulées.
+     */
+    FIRST,
+
+    /**
+     * Médiane par devise de toutes les réponses reçues avant timeout.
+     */
+    MEDIAN,
+
+    /**
+     * Médiane par devise, retenue seulement si au moins {@code quorum} fournisseurs
+     * s'accordent à la tolérance près ; sinon la devise est écartée.
+     */
+    QUORUM
+}
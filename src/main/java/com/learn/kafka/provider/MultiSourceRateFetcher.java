@@ -0,0 +1,187 @@
+package com.learn.kafka.provider;
+
+import com.learn.kafka.model.ExchangeRate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interroge tous les {@link RateProvider} en parallèle, chacun borné par son timeout,
+ * et fusionne les réponses selon la {@link MergeStrategy} configurée.
+ *
+ * <p>Le snapshot produit garde la trace du fournisseur retenu pour chaque devise
+ * ({@code sources}) et de la latence de chaque fournisseur ayant répondu
+ * ({@code providerLatencies}) ; les latences sont aussi publiées dans le timer
+ * {@code exchange.provider.fetch}.
+ *
+ * <p>Toutes les sources doivent coter contre la même devise de base : une réponse dont la
+ * base diffère de celle configurée est écartée (issue {@code rejected}) plutôt que de
+ * fausser les médianes. Une réponse sans base déclarée est supposée conforme.
+ */
+@Slf4j
+public class MultiSourceRateFetcher {
+
+    private final List<RateProvider> providers;
+    private final MergeStrategy strategy;
+    private final String baseCurrency;
+    private final int quorum;
+    private final double quorumTolerance;
+    private final MeterRegistry meterRegistry;
+
+    public MultiSourceRateFetcher(List<RateProvider> providers, MergeStrategy strategy, String baseCurrency,
+                                  int quorum, double quorumTolerance, MeterRegistry meterRegistry) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one rate provider is required");
+        }
+        this.providers = List.copyOf(providers);
+        this.strategy = strategy;
+        this.baseCurrency = Objects.requireNonNull(baseCurrency, "baseCurrency").toUpperCase();
+        this.quorum = Math.max(1, quorum);
+        this.quorumTolerance = quorumTolerance;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<ExchangeRate> fetch() {
+        if (strategy == MergeStrategy.FIRST) {
+            return Mono.firstWithValue(providers.stream().map(this::timedFetch).toList())
+                    .map(quote -> merge(List.of(quote)));
+        }
+        return Flux.merge(providers.stream()
+                        .map(provider -> timedFetch(provider).onErrorResume(e -> Mono.empty()))
+                        .toList())
+                .collectList()
+                .flatMap(quotes -> {
+                    if (quotes.isEmpty()) {
+                        return Mono.error(new IllegalStateException("No rate provider answered within its timeout"));
+                    }
+                    ExchangeRate merged = merge(quotes);
+                    return merged.getRates().isEmpty()
+                            ? Mono.error(new IllegalStateException("No currency reached a quorum of " + quorum + " providers"))
+                            : Mono.just(merged);
+                });
+    }
+
+    private Mono<Quote> timedFetch(RateProvider provider) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return provider.fetchLatest()
+                    .timeout(provider.timeout())
+                    .filter(rate -> rate.getRates() != null && !rate.getRates().isEmpty())
+                    .filter(rate -> {
+                        if (rate.getBaseCurrency() == null || baseCurrency.equalsIgnoreCase(rate.getBaseCurrency())) {
+                            return true;
+                        }
+                        record(provider, start, "rejected");
+                        log.warn("Rate provider {} quotes against {} instead of {}, ignored",
+                                provider.name(), rate.getBaseCurrency(), baseCurrency);
+                        return false;
+                    })
+                    .map(rate -> new Quote(provider.name(), rate, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                    .doOnNext(quote -> record(provider, start, "success"))
+                    .doOnError(e -> {
+                        record(provider, start, "error");
+                        log.warn("Rate provider {} failed: {}", provider.name(), e.toString());
+                    })
+                    .doOnCancel(() -> record(provider, start, "cancelled"));
+        });
+    }
+
+    private void record(RateProvider provider, long start, String outcome) {
+        if (meterRegistry != null) {
+            Timer.builder("exchange.provider.fetch")
+                    .tag("provider", provider.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Par devise : valeur unique, ou médiane basse (toujours une valeur réellement publiée,
+     * donc attribuable à un fournisseur), filtrée par le quorum le cas échéant.
+     */
+    ExchangeRate merge(List<Quote> quotes) {
+        Map<String, List<Quote>> byCurrency = new LinkedHashMap<>();
+        for (Quote quote : quotes) {
+            quote.rate().getRates().forEach((currency, value) -> {
+                if (value != null) {
+                    byCurrency.computeIfAbsent(currency, key -> new ArrayList<>(quotes.size())).add(quote);
+                }
+            });
+        }
+
+        Map<String, Double> rates = new HashMap<>(byCurrency.size() * 2);
+        Map<String, String> sources = new HashMap<>(byCurrency.size() * 2);
+        // Virgule fixe : mantisse et décimales du fournisseur retenu, comme le double
+        boolean fixedPoint = quotes.stream().anyMatch(quote -> quote.rate().getScaledRates() != null);
+        Map<String, Long> scaledRates = fixedPoint ? new HashMap<>(byCurrency.size() * 2) : null;
+        Map<String, Integer> rateScales = fixedPoint ? new HashMap<>(byCurrency.size() * 2) : null;
+        byCurrency.forEach((currency, candidates) -> {
+            candidates.sort((a, b) -> Double.compare(a.value(currency), b.value(currency)));
+            Quote median = candidates.get((candidates.size() - 1) / 2);
+            double value = median.value(currency);
+            if (strategy == MergeStrategy.QUORUM && agreeing(candidates, currency, value) < quorum) {
+                log.debug("Dropping {}: fewer than {} providers agree around {}", currency, quorum, value);
+                return;
+            }
+            rates.put(currency, value);
+            sources.put(currency, median.provider());
+            ExchangeRate chosen = median.rate();
+            if (fixedPoint && chosen.getScaledRates() != null && chosen.getScaledRates().containsKey(currency)) {
+                scaledRates.put(currency, chosen.getScaledRates().get(currency));
+                rateScales.put(currency, chosen.getRateScales().get(currency));
+            }
+        });
+
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        quotes.forEach(quote -> latencies.put(quote.provider(), quote.latencyMillis()));
+
+        ExchangeRate merged = new ExchangeRate();
+        merged.setBaseCurrency(baseCurrency);
+        merged.setRates(rates);
+        merged.setScaledRates(scaledRates);
+        merged.setRateScales(rateScales);
+        merged.setSources(sources);
+        merged.setProviderLatencies(latencies);
+        // Dernière mise à jour la plus récente publiée par l'un des fournisseurs
+        quotes.stream()
+                .map(quote -> quote.rate().getProviderLastUpdate())
+                .filter(Objects::nonNull)
+                .max(Long::compare)
+                .ifPresent(merged::setProviderLastUpdate);
+        // Au plus tôt la prochaine mise à jour annoncée par l'un des fournisseurs
+        quotes.stream()
+                .map(quote -> quote.rate().getProviderNextUpdate())
+                .filter(Objects::nonNull)
+                .min(Long::compare)
+                .ifPresent(merged::setProviderNextUpdate);
+        return merged;
+    }
+
+    private int agreeing(List<Quote> candidates, String currency, double reference) {
+        int count = 0;
+        for (Quote candidate : candidates) {
+            if (Math.abs(candidate.value(currency) - reference) <= Math.abs(reference) * quorumTolerance) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    record Quote(String provider, ExchangeRate rate, long latencyMillis) {
+
+        double value(String currency) {
+            return rate.getRates().get(currency);
+        }
+    }
+}
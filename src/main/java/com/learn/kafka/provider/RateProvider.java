@@ -0,0 +1,22 @@
+package com.learn.kafka.provider;
+
+import com.learn.kafka.model.ExchangeRate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Source amont de taux de change. Les implémentations sont interrogées en parallèle
+ * par {@link MultiSourceRateFetcher}, chacune avec son propre timeout.
+ */
+public interface RateProvider {
+
+    String name();
+
+    Duration timeout();
+
+    /**
+     * @return les derniers taux publiés par le fournisseur, sans id ni timestamp
+     */
+    Mono<ExchangeRate> fetchLatest();
+}
@@ -0,0 +1,24 @@
+package com.learn.kafka.provider;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Fournisseurs amont ({@code exchange-rates.providers.*}). Sans source déclarée,
+ * {@link com.learn.kafka.service.ExchangeRateService} garde son fournisseur unique.
+ * Toutes les sources cotent contre {@code base-currency}.
+ */
+@ConfigurationProperties(prefix = "exchange-rates.providers")
+public record RateProvidersProperties(
+        @DefaultValue("MEDIAN") MergeStrategy strategy,
+        @DefaultValue("USD") String baseCurrency,
+        @DefaultValue("2") int quorum,
+        @DefaultValue("0.005") double quorumTolerance,
+        @DefaultValue List<Source> sources) {
+
+    public record Source(String name, String baseUrl, String path, @DefaultValue("3s") Duration timeout) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.learn.kafka.provider;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.FixedPoint;
+import com.learn.kafka.store.CurrencyCodes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Taux d'une réponse amont en représentation primitive, dans l'ordre de lecture :
+ * ordinaux de devises ({@link CurrencyCodes}) et taux dans deux tableaux parallèles.
+ * Rempli par {@link StreamingRateDecoder} sans passer par une {@code Map} boxée.
+ *
+ * <p>En virgule fixe, chaque taux garde aussi sa mantisse et son nombre de décimales
+ * ({@link FixedPoint}), lus dans le texte JSON plutôt que dans le {@code double}.
+ */
+public final class RateVector {
+
+    private String baseCurrency;
+    // Date publiée par le fournisseur ({@code date} de la réponse), null si absente
+    private String date;
+    // time_last_update_unix / time_next_update_unix de la réponse (epoch s), 0 si absents
+    private long lastUpdate;
+    private long nextUpdate;
+    private int[] ordinals;
+    // Références aux noms canonicalisés par le parseur : aucune chaîne recréée
+    private String[] currencies;
+    private double[] values;
+    // Mantisses et décimales, null hors virgule fixe ; décimales à -1 si le taux n'est pas représentable
+    private long[] unscaledValues;
+    private byte[] scales;
+    private int size;
+
+    public RateVector(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    public RateVector(int expectedSize, boolean fixedPoint) {
+        this.ordinals = new int[Math.max(expectedSize, 8)];
+        this.currencies = new String[ordinals.length];
+        this.values = new double[ordinals.length];
+        if (fixedPoint) {
+            this.unscaledValues = new long[ordinals.length];
+            this.scales = new byte[ordinals.length];
+        }
+    }
+
+    /**
+     * Les codes qui ne sont pas trois lettres majuscules sont ignorés, comme dans
+     * {@link com.learn.kafka.store.RateSnapshot}.
+     */
+    public void add(String currency, double value) {
+        add(currency, value, FixedPoint.NOT_REPRESENTABLE, -1);
+    }
+
+    /**
+     * @param unscaled mantisse, ou {@link FixedPoint#NOT_REPRESENTABLE} ; ignorée hors virgule fixe
+     * @param scale    décimales de la mantisse, -1 si elle n'est pas représentable
+     */
+    public void add(String currency, double value, long unscaled, int scale) {
+        int ordinal = CurrencyCodes.ordinal(currency);
+        if (ordinal < 0) {
+            CurrencyCodes.unsupported(currency, "provider");
+            return;
+        }
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+            currencies = Arrays.copyOf(currencies, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            if (scales != null) {
+                unscaledValues = Arrays.copyOf(unscaledValues, size * 2);
+                scales = Arrays.copyOf(scales, size * 2);
+            }
+        }
+        ordinals[size] = ordinal;
+        currencies[size] = currency;
+        values[size] = value;
+        if (scales != null) {
+            boolean representable = unscaled != FixedPoint.NOT_REPRESENTABLE && scale >= 0;
+            unscaledValues[size] = unscaled;
+            scales[size] = (byte) (representable ? scale : -1);
+        }
+        size++;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    public void setLastUpdate(long lastUpdate) {
+        this.lastUpdate = lastUpdate;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public void setNextUpdate(long nextUpdate) {
+        this.nextUpdate = nextUpdate;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int ordinal(int index) {
+        return ordinals[index];
+    }
+
+    public String currency(int index) {
+        return currencies[index];
+    }
+
+    public double value(int index) {
+        return values[index];
+    }
+
+    public boolean isFixedPoint() {
+        return scales != null;
+    }
+
+    public long unscaled(int index) {
+        return unscaledValues[index];
+    }
+
+    /**
+     * @return les décimales du taux en virgule fixe, -1 s'il n'est pas représentable
+     */
+    public int scale(int index) {
+        return scales[index];
+    }
+
+    /**
+     * Conversion vers le modèle publié sur Kafka : une seule map, dimensionnée d'emblée.
+     */
+    public ExchangeRate toExchangeRate() {
+        Map<String, Double> rates = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            rates.put(currencies[i], values[i]);
+        }
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setBaseCurrency(baseCurrency);
+        exchangeRate.setRates(rates);
+        if (scales != null) {
+            Map<String, Long> scaledRates = new HashMap<>((int) (size / 0.75f) + 1);
+            Map<String, Integer> rateScales = new HashMap<>((int) (size / 0.75f) + 1);
+            for (int i = 0; i < size; i++) {
+                if (scales[i] >= 0) {
+                    scaledRates.put(currencies[i], unscaledValues[i]);
+                    rateScales.put(currencies[i], (int) scales[i]);
+                }
+            }
+            exchangeRate.setScaledRates(scaledRates);
+            exchangeRate.setRateScales(rateScales);
+        }
+        exchangeRate.setProviderLastUpdate(lastUpdate > 0 ? lastUpdate : null);
+        exchangeRate.setProviderNextUpdate(nextUpdate > 0 ? nextUpdate : null);
+        return exchangeRate;
+    }
+}
@@ -0,0 +1,244 @@
+package com.learn.kafka.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.FixedPoint;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Décodeur des réponses amont en flux de tokens : chaque {@link DataBuffer} est passé
+ * au parseur non bloquant de Jackson dès réception puis libéré, et l'objet {@code rates}
+ * est lu directement dans un {@link RateVector}. Ni corps agrégé, ni {@code TokenBuffer},
+ * ni binding réflexif ; les champs inconnus sont ignorés à mesure.
+ *
+ * <p>Cible {@link RateVector} ou {@link ExchangeRate} ; enregistré en codec personnalisé
+ * du WebClient amont, il passe avant le décodeur Jackson générique.
+ *
+ * <p>En virgule fixe, la mantisse et les décimales de chaque taux sont lues dans le texte
+ * du nombre tel que reçu, sans passer par le {@code double} ni allouer de chaîne.
+ */
+public class StreamingRateDecoder implements Decoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    // Nombre de devises d'une réponse usuelle, pour dimensionner le vecteur d'emblée
+    private static final int EXPECTED_CURRENCIES = 192;
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+    private final int maxBodySize;
+    private final boolean fixedPoint;
+
+    /**
+     * @param maxBodySize taille maximale du corps en octets, -1 pour ne pas la borner
+     */
+    public StreamingRateDecoder(int maxBodySize) {
+        this(maxBodySize, false);
+    }
+
+    /**
+     * @param fixedPoint renseigne aussi les taux en virgule fixe ({@link FixedPoint})
+     */
+    public StreamingRateDecoder(int maxBodySize, boolean fixedPoint) {
+        this.maxBodySize = maxBodySize;
+        this.fixedPoint = fixedPoint;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> target = elementType.toClass();
+        return (target == RateVector.class || target == ExchangeRate.class)
+                && (mimeType == null || MIME_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType)));
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                               MimeType mimeType, Map<String, Object> hints) {
+        return decodeToMono(inputStream, elementType, mimeType, hints).flux();
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                     MimeType mimeType, Map<String, Object> hints) {
+        return Flux.from(inputStream)
+                .collect(this::newParser, RateParser::feed)
+                .flatMap(parser -> Mono.justOrEmpty(parser.finish(elementType.toClass())))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    @Override
+    public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+        RateParser parser = newParser();
+        parser.feed(buffer);
+        return parser.finish(targetType.toClass());
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    private RateParser newParser() {
+        try {
+            return new RateParser(jsonFactory.createNonBlockingByteBufferParser(), maxBodySize, fixedPoint);
+        } catch (IOException e) {
+            throw new DecodingException("Could not create JSON parser", e);
+        }
+    }
+
+    /**
+     * Automate sur les tokens : seuls la devise de base, la date publiée, les heures de
+     * mise à jour annoncées et les taux du premier niveau sont retenus, tout le reste n'est suivi qu'en profondeur.
+     */
+    static final class RateParser {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final int maxBodySize;
+        private final RateVector vector;
+
+        private long bodySize;
+        private int depth;
+        private boolean inRates;
+        private boolean complete;
+        private String field;
+
+        RateParser(JsonParser parser, int maxBodySize, boolean fixedPoint) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.maxBodySize = maxBodySize;
+            this.vector = new RateVector(EXPECTED_CURRENCIES, fixedPoint);
+        }
+
+        void feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer byteBuffer = iterator.next();
+                    bodySize += byteBuffer.remaining();
+                    if (maxBodySize >= 0 && bodySize > maxBodySize) {
+                        throw new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + maxBodySize);
+                    }
+                    feeder.feedInput(byteBuffer);
+                    drain();
+                }
+            } catch (IOException e) {
+                throw decodingException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        /**
+         * @return le vecteur ou le modèle selon la cible, null si le corps était vide
+         */
+        Object finish(Class<?> target) {
+            try {
+                feeder.endOfInput();
+                drain();
+                parser.close();
+            } catch (IOException e) {
+                throw decodingException(e);
+            }
+            if (bodySize == 0) {
+                return null;
+            }
+            if (!complete) {
+                throw new DecodingException("Incomplete upstream JSON response");
+            }
+            return target == RateVector.class ? vector : vector.toExchangeRate();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT -> {
+                        inRates = depth == 1 && isRatesField(field);
+                        depth++;
+                    }
+                    case START_ARRAY -> depth++;
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        if (depth == 1) {
+                            inRates = false;
+                        } else if (depth == 0) {
+                            complete = true;
+                        }
+                    }
+                    case FIELD_NAME -> field = parser.currentName();
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                        if (inRates && depth == 2 && vector.isFixedPoint()) {
+                            addFixedPoint();
+                        } else if (inRates && depth == 2) {
+                            vector.add(field, parser.getDoubleValue());
+                        } else if (depth == 1 && isLastUpdateField(field)) {
+                            vector.setLastUpdate(parser.getLongValue());
+                        } else if (depth == 1 && "time_next_update_unix".equals(field)) {
+                            vector.setNextUpdate(parser.getLongValue());
+                        }
+                    }
+                    case VALUE_STRING -> {
+                        if (depth == 1 && isBaseField(field)) {
+                            vector.setBaseCurrency(parser.getText());
+                        } else if (depth == 1 && "date".equals(field)) {
+                            vector.setDate(parser.getText());
+                        }
+                    }
+                    default -> {
+                        // null, booléens : rien à retenir
+                    }
+                }
+            }
+        }
+
+        // Texte du nombre dans le tampon du parseur : ni chaîne, ni BigDecimal
+        private void addFixedPoint() throws IOException {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            int scale = FixedPoint.scale(text, offset, length);
+            vector.add(field, parser.getDoubleValue(), FixedPoint.unscaled(text, offset, length, scale), scale);
+        }
+
+        private static boolean isRatesField(String name) {
+            return "rates".equals(name) || "conversion_rates".equals(name);
+        }
+
+        // v6 / open.er-api, puis v4 d'exchangerate-api
+        private static boolean isLastUpdateField(String name) {
+            return "time_last_update_unix".equals(name) || "time_last_updated".equals(name);
+        }
+
+        private static boolean isBaseField(String name) {
+            return "base".equals(name) || "base_code".equals(name);
+        }
+
+        private static DecodingException decodingException(IOException e) {
+            String message = e instanceof JsonProcessingException jsonException
+                    ? jsonException.getOriginalMessage() : e.getMessage();
+            return new DecodingException("JSON decoding error: " + message, e);
+        }
+    }
+}
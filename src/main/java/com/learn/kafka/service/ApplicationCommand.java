@@ -0,0 +1,16 @@
+package com.learn.kafka.service;
+
+import org.springframework.boot.ExitCodeGenerator;
+
+/**
+ * Commande ponctuelle lancée par une option de la ligne de commande ({@code --migrate-index}...).
+ * La commande ne termine pas la JVM elle-même : {@code main} arrête l'application une fois
+ * le contexte démarré si une commande a été exécutée, avec le code qu'elle a rendu.
+ */
+public interface ApplicationCommand extends ExitCodeGenerator {
+
+    /**
+     * @return {@code true} si l'option de la commande était présente et qu'elle a été exécutée
+     */
+    boolean executed();
+}
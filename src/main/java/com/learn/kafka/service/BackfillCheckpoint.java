@@ -0,0 +1,60 @@
+package com.learn.kafka.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Points de reprise du backfill historique : dernière date publiée et acquittée par
+ * Kafka, par source et date de début. Le fichier est réécrit à côté puis renommé
+ * atomiquement, une interruption ne laisse jamais de point de reprise tronqué.
+ */
+class BackfillCheckpoint {
+
+    private final Path path;
+
+    BackfillCheckpoint(Path path) {
+        this.path = path;
+    }
+
+    synchronized Optional<LocalDate> lastCompleted(String key) {
+        return Optional.ofNullable(load().getProperty(key)).map(LocalDate::parse);
+    }
+
+    synchronized void save(String key, LocalDate date) {
+        Properties properties = load();
+        properties.setProperty(key, date.toString());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Historical backfill checkpoints");
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write backfill checkpoint " + path, e);
+        }
+    }
+
+    private Properties load() {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read backfill checkpoint " + path, e);
+            }
+        }
+        return properties;
+    }
+}
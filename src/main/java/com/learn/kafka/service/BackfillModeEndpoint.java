@@ -0,0 +1,40 @@
+package com.learn.kafka.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/backfill} : état du mode ;
+ * {@code POST /actuator/backfill {"enabled": true|false}} : entrée ou sortie.
+ */
+@Component
+@Endpoint(id = "backfill")
+@RequiredArgsConstructor
+public class BackfillModeEndpoint {
+
+    private final BackfillModeService backfillModeService;
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("active", backfillModeService.isActive());
+        return info;
+    }
+
+    @WriteOperation
+    public Map<String, Object> toggle(boolean enabled) throws IOException {
+        Map<String, BackfillModeService.LiveSettings> indices = enabled
+                ? backfillModeService.enter()
+                : backfillModeService.exit();
+        Map<String, Object> info = info();
+        info.put(enabled ? "liveSettings" : "restored", indices);
+        return info;
+    }
+}
@@ -0,0 +1,34 @@
+package com.learn.kafka.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code java -jar kafka.jar --backfill-mode} : démarre en mode backfill. La sortie se fait
+ * par {@code POST /actuator/backfill {"enabled": false}}, ou à l'arrêt de l'application
+ * (réglages rétablis, sans force-merge).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillModeRunner implements ApplicationRunner {
+
+    static final String BACKFILL_OPTION = "backfill-mode";
+
+    private final BackfillModeService backfillModeService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(BACKFILL_OPTION)) {
+            return;
+        }
+        try {
+            backfillModeService.enter();
+        } catch (Exception e) {
+            log.error("Could not enable backfill mode: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.learn.kafka.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.ForcemergeRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.TranslogDurability;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Mode « backfill » de l'index {@code exchange_rates} : le temps d'un chargement massif,
+ * pas de refresh périodique, translog asynchrone et aucun réplica. À la sortie, les
+ * écritures encore en tampon sont envoyées et attendues, puis les réglages relevés à
+ * l'entrée sont rétablis, l'index est rafraîchi puis force-mergé en tâche de fond.
+ *
+ * <p>Pendant le mode, {@link ElasticsearchService} regroupe les écritures en requêtes bulk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillModeService {
+
+    // Réglages Elasticsearch par défaut, rétablis quand l'index ne les fixait pas explicitement
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+    private static final TranslogDurability DEFAULT_DURABILITY = TranslogDurability.Request;
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    // ElasticsearchService dépend lui-même de ce service : résolu à la sortie du mode
+    private final ObjectProvider<ElasticsearchService> elasticsearchService;
+
+    // Réglages de service par index concret derrière l'alias, relevés à l'entrée
+    private Map<String, LiveSettings> liveSettings = Map.of();
+    private volatile boolean active;
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return les index passés en mode backfill
+     */
+    public synchronized Map<String, LiveSettings> enter() throws IOException {
+        if (active) {
+            return liveSettings;
+        }
+        Map<String, IndexState> indices = elasticsearchClient.indices()
+                .getSettings(GetIndicesSettingsRequest.of(request -> request.index(ExchangeRateIndexService.ALIAS)))
+                .result();
+        Map<String, LiveSettings> captured = new LinkedHashMap<>();
+        indices.forEach((index, state) -> captured.put(index, LiveSettings.of(state.settings())));
+
+        elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(request -> request
+                .index(ExchangeRateIndexService.ALIAS)
+                .settings(settings -> settings
+                        .refreshInterval(time -> time.time("-1"))
+                        .numberOfReplicas("0")
+                        .translog(translog -> translog.durability(TranslogDurability.Async)))));
+        liveSettings = captured;
+        active = true;
+        log.info("Backfill mode enabled on {}", captured.keySet());
+        return captured;
+    }
+
+    /**
+     * Vide le tampon bulk, rétablit les réglages de service puis lance le force-merge
+     * sans l'attendre.
+     */
+    public synchronized Map<String, LiveSettings> exit() throws IOException {
+        if (!active) {
+            return Map.of();
+        }
+        // Les écritures suivantes partent directement, hors tampon
+        active = false;
+        awaitBufferedWrites();
+        Map<String, LiveSettings> restored;
+        try {
+            restored = restore();
+        } catch (IOException | RuntimeException e) {
+            // Réglages toujours à rétablir, par un nouvel appel ou à l'arrêt
+            active = true;
+            throw e;
+        }
+        elasticsearchClient.indices().refresh(RefreshRequest.of(request -> request.index(ExchangeRateIndexService.ALIAS)));
+        elasticsearchAsyncClient.indices()
+                .forcemerge(ForcemergeRequest.of(request -> request.index(ExchangeRateIndexService.ALIAS).maxNumSegments(1L)))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Force-merge of {} failed: {}", ExchangeRateIndexService.ALIAS, error.getMessage());
+                    } else {
+                        log.info("Force-merge of {} done", ExchangeRateIndexService.ALIAS);
+                    }
+                });
+        return restored;
+    }
+
+    /**
+     * Ne laisse pas l'index sans refresh ni réplica si l'application s'arrête en plein backfill.
+     */
+    @PreDestroy
+    public synchronized void restoreOnShutdown() {
+        if (!active) {
+            return;
+        }
+        try {
+            restore();
+        } catch (Exception e) {
+            log.error("Could not restore live settings of {} on shutdown: {}", liveSettings.keySet(), e.getMessage());
+        }
+    }
+
+    private void awaitBufferedWrites() {
+        ElasticsearchService service = elasticsearchService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        try {
+            service.flushBulk().get(FLUSH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Buffered bulk writes not all done before leaving backfill mode: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for buffered bulk writes");
+        }
+    }
+
+    private Map<String, LiveSettings> restore() throws IOException {
+        for (Map.Entry<String, LiveSettings> entry : liveSettings.entrySet()) {
+            LiveSettings live = entry.getValue();
+            elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(request -> request
+                    .index(entry.getKey())
+                    .settings(settings -> settings
+                            .refreshInterval(time -> time.time(live.refreshInterval()))
+                            .numberOfReplicas(live.numberOfReplicas())
+                            .translog(translog -> translog.durability(live.durability())))));
+        }
+        Map<String, LiveSettings> restored = liveSettings;
+        liveSettings = Map.of();
+        active = false;
+        log.info("Backfill mode disabled, live settings restored on {}", restored.keySet());
+        return restored;
+    }
+
+    public record LiveSettings(String refreshInterval, String numberOfReplicas, TranslogDurability durability) {
+
+        static LiveSettings of(IndexSettings settings) {
+            // Les réglages de l'index sont imbriqués sous "index" dans la réponse non aplatie
+            IndexSettings index = settings != null && settings.index() != null ? settings.index() : settings;
+            String refreshInterval = index != null && index.refreshInterval() != null
+                    ? index.refreshInterval().time() : DEFAULT_REFRESH_INTERVAL;
+            String replicas = index != null && index.numberOfReplicas() != null ? index.numberOfReplicas() : "1";
+            TranslogDurability durability = index != null && index.translog() != null && index.translog().durability() != null
+                    ? index.translog().durability() : DEFAULT_DURABILITY;
+            return new LiveSettings(refreshInterval, replicas, durability);
+        }
+    }
+}
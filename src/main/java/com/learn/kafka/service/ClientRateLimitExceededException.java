@@ -0,0 +1,20 @@
+package com.learn.kafka.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Appel refusé par la limite de débit du client ; {@link #getRetryAfter()} donne le
+ * délai avant son prochain jeton.
+ */
+@Getter
+public class ClientRateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ClientRateLimitExceededException(String client, Duration retryAfter) {
+        super("Rate limit exceeded for " + client + ", next call allowed in " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+}
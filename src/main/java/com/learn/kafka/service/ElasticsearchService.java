@@ -1,16 +1,201 @@
 package com.learn.kafka.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.learn.kafka.config.ElasticsearchClientProperties;
+import com.learn.kafka.model.CurrencyStats;
 import com.learn.kafka.model.ExchangeRate;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ElasticsearchService {
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final ElasticsearchClientProperties clientProperties;
+    private final BackfillModeService backfillModeService;
+
+    private final Object bulkLock = new Object();
+    private List<PendingWrite> bulkBuffer = new ArrayList<>();
+    // Requêtes bulk envoyées et pas encore terminées
+    private final Set<CompletableFuture<?>> bulksInFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean statsIndexReady;
 
     public ExchangeRate saveExchangeRate(ExchangeRate exchangeRate) {
         return elasticsearchOperations.save(exchangeRate);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Indexation non bloquante par le client asynchrone : le document est produit par le
+     * même convertisseur que {@link #saveExchangeRate}, dans l'index de l'entité. Retombe
+     * sur l'écriture synchrone si {@code exchange-rates.elasticsearch.async-writes=false}.
+     * En mode backfill, les écritures sont regroupées en requêtes bulk.
+     */
+    public CompletableFuture<ExchangeRate> saveExchangeRateAsync(ExchangeRate exchangeRate) {
+        if (!clientProperties.isAsyncWrites()) {
+            try {
+                return CompletableFuture.completedFuture(saveExchangeRate(exchangeRate));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (backfillModeService.isActive()) {
+            return enqueueBulk(exchangeRate);
+        }
+        Document document = elasticsearchOperations.getElasticsearchConverter().mapObject(exchangeRate);
+        String index = indexName();
+        return elasticsearchAsyncClient.index(request -> request
+                        .index(index)
+                        .id(exchangeRate.getId())
+                        .document(document))
+                .thenApply(response -> {
+                    if (exchangeRate.getId() == null) {
+                        exchangeRate.setId(response.id());
+                    }
+                    return exchangeRate;
+                });
+    }
+
+    /**
+     * Indexe un lot de snapshots en une requête bulk, hors du tampon du mode backfill.
+     * Chaque snapshot doit porter son id : un lot rejoué remplace les mêmes documents.
+     *
+     * @return un futur par snapshot, dans l'ordre du lot
+     */
+    public List<CompletableFuture<ExchangeRate>> saveExchangeRatesAsync(List<ExchangeRate> exchangeRates) {
+        if (!clientProperties.isAsyncWrites()) {
+            return exchangeRates.stream().map(this::saveExchangeRateAsync).toList();
+        }
+        List<PendingWrite> batch = new ArrayList<>(exchangeRates.size());
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            if (exchangeRate.getId() == null) {
+                throw new IllegalArgumentException("Batch-indexed exchange rates need an id");
+            }
+            batch.add(new PendingWrite(exchangeRate, new CompletableFuture<>()));
+        }
+        if (!batch.isEmpty()) {
+            sendBulk(batch);
+        }
+        return batch.stream().map(PendingWrite::future).toList();
+    }
+
+    /**
+     * Indexe les statistiques d'un snapshot en une requête bulk. L'index est créé avec
+     * son mapping à la première écriture.
+     */
+    public void saveCurrencyStats(List<CurrencyStats> stats) {
+        if (!statsIndexReady) {
+            IndexOperations indexOperations = elasticsearchOperations.indexOps(CurrencyStats.class);
+            if (!indexOperations.exists()) {
+                indexOperations.createWithMapping();
+            }
+            statsIndexReady = true;
+        }
+        elasticsearchOperations.save(stats);
+    }
+
+    /**
+     * Envoie le lot bulk en cours, s'il y en a un.
+     *
+     * @return terminé quand ce lot et toutes les requêtes bulk déjà parties ont abouti,
+     * avec ou sans erreur d'écriture
+     */
+    public CompletableFuture<Void> flushBulk() {
+        List<PendingWrite> batch;
+        synchronized (bulkLock) {
+            batch = bulkBuffer;
+            bulkBuffer = new ArrayList<>();
+        }
+        if (!batch.isEmpty()) {
+            sendBulk(batch);
+        }
+        return CompletableFuture.allOf(bulksInFlight.stream()
+                .map(bulk -> bulk.handle((response, error) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<ExchangeRate> enqueueBulk(ExchangeRate exchangeRate) {
+        PendingWrite write = new PendingWrite(exchangeRate, new CompletableFuture<>());
+        List<PendingWrite> batch = null;
+        boolean firstOfBatch = false;
+        synchronized (bulkLock) {
+            bulkBuffer.add(write);
+            if (bulkBuffer.size() >= clientProperties.getBulkSize()) {
+                batch = bulkBuffer;
+                bulkBuffer = new ArrayList<>();
+            } else {
+                firstOfBatch = bulkBuffer.size() == 1;
+            }
+        }
+        if (batch != null) {
+            sendBulk(batch);
+        } else if (firstOfBatch) {
+            // Un lot incomplet part au plus tard après bulk-linger
+            CompletableFuture.delayedExecutor(clientProperties.getBulkLinger().toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(this::flushBulk);
+        }
+        return write.future();
+    }
+
+    private void sendBulk(List<PendingWrite> batch) {
+        try {
+            ElasticsearchConverter converter = elasticsearchOperations.getElasticsearchConverter();
+            String index = indexName();
+            BulkRequest.Builder request = new BulkRequest.Builder();
+            for (PendingWrite write : batch) {
+                Document document = converter.mapObject(write.exchangeRate());
+                request.operations(operation -> operation.index(indexOperation -> indexOperation
+                        .index(index)
+                        .id(write.exchangeRate().getId())
+                        .document(document)));
+            }
+            CompletableFuture<?> bulk = elasticsearchAsyncClient.bulk(request.build()).whenComplete((response, error) -> {
+                if (error != null) {
+                    batch.forEach(write -> write.future().completeExceptionally(error));
+                    return;
+                }
+                List<BulkResponseItem> items = response.items();
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingWrite write = batch.get(i);
+                    BulkResponseItem item = items.get(i);
+                    if (item.error() != null) {
+                        write.future().completeExceptionally(new IllegalStateException(
+                                "Bulk index of " + item.id() + " failed: " + item.error().reason()));
+                    } else {
+                        if (write.exchangeRate().getId() == null) {
+                            write.exchangeRate().setId(item.id());
+                        }
+                        write.future().complete(write.exchangeRate());
+                    }
+                }
+                log.debug("Bulk of {} exchange rates indexed in {} ms", batch.size(), response.took());
+            });
+            bulksInFlight.add(bulk);
+            bulk.whenComplete((response, error) -> bulksInFlight.remove(bulk));
+        } catch (RuntimeException e) {
+            batch.forEach(write -> write.future().completeExceptionally(e));
+        }
+    }
+
+    private String indexName() {
+        return elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class).getIndexName();
+    }
+
+    private record PendingWrite(ExchangeRate exchangeRate, CompletableFuture<ExchangeRate> future) {
+    }
+}
@@ -0,0 +1,239 @@
+package com.learn.kafka.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import com.learn.kafka.model.ExchangeRate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.PutIndexTemplateRequest;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.reindex.ReindexRequest;
+import org.springframework.data.elasticsearch.core.reindex.ReindexResponse;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * Gère l'index template de {@code exchange_rates} et la migration des index
+ * existants vers un index versionné exposé derrière l'alias {@code exchange_rates}.
+ *
+ * <p>Le template est installé dans une phase du cycle de vie antérieure à celle des
+ * containers Kafka : aucun listener ne peut écrire dans {@code exchange_rates*} avant lui.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateIndexService implements SmartLifecycle {
+
+    public static final String ALIAS = "exchange_rates";
+    public static final String TEMPLATE_NAME = "exchange_rates_template";
+    // Retire l'ancien type hint Spring Data des documents migrés
+    private static final String STRIP_TYPE_HINT_SCRIPT = "ctx._source.remove('_class')";
+    // Timestamp sans fuseau écrit à l'heure locale de l'hôte : converti en instant UTC
+    private static final String LEGACY_TIMESTAMP_SCRIPT = "; def ts = ctx._source.timestamp;"
+            + " if (ts instanceof String && !ts.endsWith('Z') && ts.lastIndexOf('+') < 0 && ts.lastIndexOf('-') <= 9) {"
+            + " ctx._source.timestamp = ZonedDateTime.of(LocalDateTime.parse(ts), ZoneId.of('%s')).toInstant().toString(); }";
+
+    // Démarré avant les listeners Kafka, arrêté après eux
+    static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    private volatile boolean running;
+
+    @Value("${exchange-rates.index.version:2}")
+    private int indexVersion;
+
+    @Value("${exchange-rates.index.manage-template:true}")
+    private boolean manageTemplate;
+
+    @Value("${exchange-rates.index.install-template-async:false}")
+    private boolean installTemplateAsync;
+
+    // Fuseau des hôtes qui écrivaient des timestamps locaux sans fuseau, vide si aucun
+    @Value("${exchange-rates.index.legacy-timestamp-zone:}")
+    private String legacyTimestampZone;
+
+    @Override
+    public void start() {
+        installTemplateOnStartup();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Installe le template au démarrage, pour que tout index {@code exchange_rates*}
+     * créé ensuite (y compris par auto-création) reçoive le bon mapping. En mode
+     * asynchrone ({@code install-template-async}), les listeners peuvent démarrer avant
+     * la fin de l'installation.
+     */
+    public void installTemplateOnStartup() {
+        if (!manageTemplate) {
+            return;
+        }
+        if (installTemplateAsync) {
+            Thread.ofPlatform().name("index-template-install").daemon().start(this::installTemplateQuietly);
+        } else {
+            installTemplateQuietly();
+        }
+    }
+
+    private void installTemplateQuietly() {
+        try {
+            putIndexTemplate();
+        } catch (Exception e) {
+            log.warn("Could not install Elasticsearch index template {}: {}", TEMPLATE_NAME, e.getMessage());
+        }
+    }
+
+    public boolean putIndexTemplate() {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(ExchangeRate.class);
+        PutIndexTemplateRequest request = PutIndexTemplateRequest.builder()
+                .withName(TEMPLATE_NAME)
+                .withIndexPatterns(ALIAS + "*")
+                .withSettings(indexOps.createSettings(ExchangeRate.class))
+                .withMapping(indexOps.createMapping(ExchangeRate.class))
+                .build();
+        boolean acknowledged = indexOps.putIndexTemplate(request);
+        log.info("Index template {} installed (acknowledged: {})", TEMPLATE_NAME, acknowledged);
+        return acknowledged;
+    }
+
+    public String targetIndexName() {
+        return ALIAS + "_v" + indexVersion;
+    }
+
+    /**
+     * Migre les données vers l'index versionné courant puis bascule l'alias.
+     * Chaque index source est réindexé une première fois sans interrompre les écritures,
+     * puis passé en {@code index.blocks.write} : la seconde passe rattrape les écritures
+     * concurrentes et plus rien ne peut s'y ajouter avant la bascule. Un index concret
+     * legacy {@code exchange_rates} est supprimé dans la même action atomique que la
+     * création de l'alias. Une écriture tentée pendant ce court blocage échoue, journalisée
+     * par le consumer, au lieu d'être perdue sans trace ; en cas d'échec avant la bascule,
+     * le blocage est levé. Avec {@code exchange-rates.index.legacy-timestamp-zone}, les
+     * timestamps sans fuseau sont lus dans ce fuseau et réécrits en instants UTC.
+     *
+     * @return le nombre de documents copiés
+     */
+    public long migrate() {
+        String script = reindexScript();
+        putIndexTemplate();
+
+        String target = targetIndexName();
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS));
+        IndexOperations targetOps = elasticsearchOperations.indexOps(IndexCoordinates.of(target));
+
+        // Index concret legacy -> clé "exchange_rates" ; alias -> clés des index versionnés
+        Set<String> current = aliasOps.exists()
+                ? aliasOps.getAliasesForIndex(ALIAS).keySet()
+                : Set.of();
+        if (current.contains(target)) {
+            log.info("Alias {} already points to {}, nothing to migrate", ALIAS, target);
+            return 0;
+        }
+
+        if (!targetOps.exists()) {
+            targetOps.create();
+        }
+
+        long copied = 0;
+        Set<String> sources = current.contains(ALIAS) ? Set.of(ALIAS) : current;
+        AliasActions actions = new AliasActions();
+        for (String source : sources) {
+            copied += reindex(source, target, script);
+            if (source.equals(ALIAS)) {
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                        .withIndices(ALIAS).build()));
+            } else {
+                // Ancienne version derrière l'alias : on recopie puis on déplace l'alias
+                actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                        .withIndices(source).withAliases(ALIAS).build()));
+            }
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(target).withAliases(ALIAS).withIsWriteIndex(true).build()));
+
+        for (String source : sources) {
+            blockWrites(source, true);
+        }
+        try {
+            for (String source : sources) {
+                copied += reindex(source, target, script);
+            }
+            aliasOps.alias(actions);
+        } catch (RuntimeException e) {
+            for (String source : sources) {
+                blockWrites(source, false);
+            }
+            throw e;
+        }
+
+        log.info("Migration to {} done: {} documents copied, alias {} switched", target, copied, ALIAS);
+        return copied;
+    }
+
+    private void blockWrites(String index, boolean blocked) {
+        try {
+            elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(request -> request
+                    .index(index)
+                    .settings(settings -> settings.blocks(blocks -> blocks.write(blocked)))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not " + (blocked ? "set" : "lift") + " write block on " + index, e);
+        }
+        log.info("Write block on {} {}", index, blocked ? "set" : "lifted");
+    }
+
+    private String reindexScript() {
+        if (legacyTimestampZone == null || legacyTimestampZone.isBlank()) {
+            return STRIP_TYPE_HINT_SCRIPT;
+        }
+        // Validé avant toute écriture : un fuseau inconnu fait échouer la migration d'emblée
+        String zone = ZoneId.of(legacyTimestampZone).getId();
+        return STRIP_TYPE_HINT_SCRIPT + LEGACY_TIMESTAMP_SCRIPT.formatted(zone);
+    }
+
+    private long reindex(String source, String target, String script) {
+        ReindexRequest request = ReindexRequest.builder(IndexCoordinates.of(source), IndexCoordinates.of(target))
+                .withConflicts(ReindexRequest.Conflicts.PROCEED)
+                .withDestOpType(IndexQuery.OpType.CREATE)
+                .withScript(script, "painless")
+                .withRefresh(true)
+                .build();
+        ReindexResponse response = elasticsearchOperations.reindex(request);
+        if (!response.getFailures().isEmpty()) {
+            throw new IllegalStateException("Reindex " + source + " -> " + target + " failed: "
+                    + response.getFailures().get(0).getCause());
+        }
+        log.info("Reindexed {} -> {}: {} created, {} conflicts skipped",
+                source, target, response.getCreated(), response.getVersionConflicts());
+        return response.getCreated();
+    }
+}
@@ -1,33 +1,73 @@
 package com.learn.kafka.service;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.LeaderElection;
 import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.provider.MultiSourceRateFetcher;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
 import java.util.UUID;
 
 @Service
+@ConditionalOnRole(Role.INGESTER)
 @RequiredArgsConstructor
 public class ExchangeRateService {
     private final WebClient webClient;
     private final KafkaTemplate<String, ExchangeRate> exchangeRateKafkaTemplate;
+    private final LeaderElection leaderElection;
+    private final TokenBucket upstreamQuota;
+    private final UpdateCadence updateCadence;
+
+    // Dernier snapshot publié par cette instance, tous chemins de fetch confondus
+    private volatile ExchangeRate latestPublished;
     private static final String EXCHANGE_RATE_TOPIC = "exchange-rates";
     private static final String API_PATH = "/v4/latest/USD";
 
+    // Présent seulement si exchange-rates.providers.sources est configuré
+    private MultiSourceRateFetcher multiSourceRateFetcher;
+
+    @Autowired(required = false)
+    public void setMultiSourceRateFetcher(MultiSourceRateFetcher multiSourceRateFetcher) {
+        this.multiSourceRateFetcher = multiSourceRateFetcher;
+    }
+
+    /**
+     * @return le dernier snapshot publié par cette instance, null avant le premier fetch
+     */
+    public ExchangeRate getLatestPublished() {
+        return latestPublished;
+    }
+
+    /**
+     * Chaque appel consomme un jeton du quota amont, qu'il vienne du scheduler ou de
+     * {@code /api/exchange-rates/fetch} ; sans jeton, échoue en
+     * {@link UpstreamQuotaExceededException} sans appeler le fournisseur.
+     */
     public Mono<ExchangeRate> fetchAndPublishExchangeRates() {
-        return webClient.get()
-                .uri(API_PATH)
-                .retrieve()
-                .bodyToMono(ExchangeRate.class)
+        if (!upstreamQuota.tryAcquire()) {
+            return Mono.error(new UpstreamQuotaExceededException(upstreamQuota.timeUntilAvailable()));
+        }
+        Mono<ExchangeRate> upstream = multiSourceRateFetcher != null
+                ? multiSourceRateFetcher.fetch()
+                : webClient.get()
+                        .uri(API_PATH)
+                        .retrieve()
+                        .bodyToMono(ExchangeRate.class);
+        return upstream
+                .doOnNext(rate -> updateCadence.observe(rate, System.currentTimeMillis()))
                 .map(rate -> {
                     rate.setId(UUID.randomUUID().toString());
-                    rate.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                    rate.setTimestamp(Instant.now().toString());
+                    rate.setFencingToken(leaderElection.fencingToken());
                     exchangeRateKafkaTemplate.send(EXCHANGE_RATE_TOPIC, rate);
+                    latestPublished = rate;
                     return rate;
                 });
     }
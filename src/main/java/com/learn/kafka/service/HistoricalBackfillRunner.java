@@ -0,0 +1,88 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.config.UpstreamHttpProperties;
+import com.learn.kafka.provider.FileHistoricalRateSource;
+import com.learn.kafka.provider.HistoricalRateSource;
+import com.learn.kafka.provider.StreamingRateDecoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Commande de backfill historique ; l'application s'arrête une fois la plage publiée,
+ * avec le code 1 en cas d'échec (voir {@link ApplicationCommand}) :
+ * <pre>
+ * java -jar kafka.jar --backfill-history --from=2020-01-01 --to=2024-12-31
+ * java -jar kafka.jar --backfill-history --from=2020-01-01 --to=2024-12-31 --history-file=rates.csv
+ * </pre>
+ * {@code --to} vaut la veille par défaut. Relancée avec la même source et le même
+ * {@code --from}, la commande reprend après le dernier point de reprise.
+ */
+@Component
+@ConditionalOnRole(Role.INGESTER)
+@RequiredArgsConstructor
+@Slf4j
+public class HistoricalBackfillRunner implements ApplicationRunner, ApplicationCommand {
+
+    static final String BACKFILL_OPTION = "backfill-history";
+    static final String FROM_OPTION = "from";
+    static final String TO_OPTION = "to";
+    static final String FILE_OPTION = "history-file";
+
+    private final HistoricalBackfillService historicalBackfillService;
+    private final UpstreamHttpProperties upstreamHttpProperties;
+
+    private volatile boolean executed;
+    private volatile int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(BACKFILL_OPTION)) {
+            return;
+        }
+        executed = true;
+        try {
+            LocalDate from = LocalDate.parse(single(args, FROM_OPTION));
+            LocalDate to = args.containsOption(TO_OPTION) ? LocalDate.parse(single(args, TO_OPTION)) : LocalDate.now().minusDays(1);
+            HistoricalBackfillService.Result result = args.containsOption(FILE_OPTION)
+                    ? historicalBackfillService.run(fileSource(Path.of(single(args, FILE_OPTION))), from, to)
+                    : historicalBackfillService.run(from, to);
+            log.info("Historical backfill finished: {} snapshots published from {} to {} in {}",
+                    result.published(), result.resumedFrom(), result.lastCompleted(), result.elapsed());
+        } catch (Exception e) {
+            log.error("Historical backfill failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public boolean executed() {
+        return executed;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private HistoricalRateSource fileSource(Path path) {
+        return new FileHistoricalRateSource(path,
+                new StreamingRateDecoder((int) upstreamHttpProperties.getMaxInMemorySize().toBytes()));
+    }
+
+    private static String single(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        if (values == null || values.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one --" + option + "=<value>");
+        }
+        return values.get(0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.HistoricalBackfillProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.provider.HistoricalRateSource;
+import com.learn.kafka.provider.HistoricalRateSource.DatedRates;
+import com.learn.kafka.provider.HttpHistoricalRateSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Backfill historique : parcourt une plage de dates sur une {@link HistoricalRateSource},
+ * publie un snapshot par jour sur {@code exchange-rates} et laisse le consumer habituel
+ * l'indexer dans Elasticsearch (à combiner avec le mode backfill).
+ *
+ * <p>Les snapshots partent par lots de {@code batch-size} sur le producteur compressé
+ * {@code backfillKafkaTemplate} ; la date du dernier jour d'un lot n'est enregistrée
+ * comme point de reprise qu'une fois tout le lot acquitté. Pendant ce temps les jours
+ * suivants sont déjà en cours de lecture. Une relance reprend au lendemain du point
+ * de reprise ; les ids déterministes ({@code USD-2024-01-15}) rendent un lot rejoué
+ * idempotent côté Elasticsearch.
+ */
+@Service
+@ConditionalOnRole(Role.INGESTER)
+@Slf4j
+public class HistoricalBackfillService {
+
+    static final String TOPIC = "exchange-rates";
+
+    private final HttpHistoricalRateSource httpHistoricalRateSource;
+    private final KafkaTemplate<String, ExchangeRate> backfillKafkaTemplate;
+    private final HistoricalBackfillProperties properties;
+    private final BackfillCheckpoint checkpoint;
+
+    public HistoricalBackfillService(HttpHistoricalRateSource httpHistoricalRateSource,
+                                     KafkaTemplate<String, ExchangeRate> backfillKafkaTemplate,
+                                     HistoricalBackfillProperties properties) {
+        this.httpHistoricalRateSource = httpHistoricalRateSource;
+        this.backfillKafkaTemplate = backfillKafkaTemplate;
+        this.properties = properties;
+        this.checkpoint = new BackfillCheckpoint(properties.getCheckpointPath());
+    }
+
+    public Result run(LocalDate from, LocalDate to) {
+        return run(httpHistoricalRateSource, from, to);
+    }
+
+    public Result run(HistoricalRateSource source, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Backfill range ends before it starts: " + from + " > " + to);
+        }
+        String key = source.id() + "|" + from;
+        LocalDate resumeFrom = checkpoint.lastCompleted(key)
+                .map(date -> date.plusDays(1))
+                .filter(date -> date.isAfter(from))
+                .orElse(from);
+        if (resumeFrom.isAfter(to)) {
+            log.info("Historical backfill {} already completed up to {}", source.id(), to);
+            return new Result(resumeFrom, to, 0, Duration.ZERO);
+        }
+        if (!resumeFrom.equals(from)) {
+            log.info("Resuming historical backfill {} from {}", source.id(), resumeFrom);
+        }
+
+        long start = System.nanoTime();
+        AtomicLong published = new AtomicLong();
+        AtomicReference<LocalDate> previous = new AtomicReference<>();
+        AtomicReference<LocalDate> completed = new AtomicReference<>(resumeFrom.minusDays(1));
+        source.read(resumeFrom, to)
+                .doOnNext(rates -> checkOrder(previous, rates.date()))
+                // Envois Kafka et écriture du point de reprise hors des threads réseau
+                .publishOn(Schedulers.boundedElastic())
+                .buffer(Math.max(1, properties.getBatchSize()))
+                .concatMap(batch -> publish(batch).thenReturn(batch), 0)
+                .doOnNext(batch -> {
+                    LocalDate last = batch.get(batch.size() - 1).date();
+                    checkpoint.save(key, last);
+                    completed.set(last);
+                    log.info("Historical backfill {}: {} snapshots published, checkpoint {}",
+                            source.id(), published.addAndGet(batch.size()), last);
+                })
+                .blockLast();
+        return new Result(resumeFrom, completed.get(), published.get(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private Mono<Void> publish(List<DatedRates> batch) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < sends.length; i++) {
+            ExchangeRate exchangeRate = toExchangeRate(batch.get(i));
+            sends[i] = backfillKafkaTemplate.send(TOPIC, exchangeRate.getId(), exchangeRate);
+        }
+        return Mono.fromFuture(CompletableFuture.allOf(sends));
+    }
+
+    ExchangeRate toExchangeRate(DatedRates dated) {
+        ExchangeRate exchangeRate = dated.rates().toExchangeRate();
+        if (exchangeRate.getBaseCurrency() == null) {
+            exchangeRate.setBaseCurrency(properties.getBaseCurrency());
+        }
+        // Date publiée par le fournisseur, à défaut celle de la ligne ou de la requête
+        LocalDate date = dated.rates().getDate() != null ? LocalDate.parse(dated.rates().getDate()) : dated.date();
+        exchangeRate.setId(exchangeRate.getBaseCurrency() + "-" + date);
+        exchangeRate.setTimestamp(date.atStartOfDay(ZoneOffset.UTC).toInstant().toString());
+        return exchangeRate;
+    }
+
+    // Le point de reprise suppose des dates croissantes
+    private static void checkOrder(AtomicReference<LocalDate> previous, LocalDate date) {
+        LocalDate last = previous.getAndSet(date);
+        if (last != null && !date.isAfter(last)) {
+            throw new IllegalStateException("Historical rates out of order: " + date + " after " + last);
+        }
+    }
+
+    /**
+     * @param lastCompleted dernier jour publié et acquitté, veille de {@code resumedFrom} si rien n'a été publié
+     */
+    public record Result(LocalDate resumedFrom, LocalDate lastCompleted, long published, Duration elapsed) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.learn.kafka.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Commande de migration : {@code java -jar kafka.jar --migrate-index}
+ * réindexe {@code exchange_rates} vers l'index versionné ; l'application s'arrête ensuite
+ * avec le code 1 si la migration a échoué (voir {@link ApplicationCommand}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexMigrationRunner implements ApplicationRunner, ApplicationCommand {
+
+    static final String MIGRATE_OPTION = "migrate-index";
+
+    private final ExchangeRateIndexService exchangeRateIndexService;
+
+    private volatile boolean executed;
+    private volatile int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(MIGRATE_OPTION)) {
+            return;
+        }
+        executed = true;
+        try {
+            long copied = exchangeRateIndexService.migrate();
+            log.info("Index migration finished, {} documents copied", copied);
+        } catch (Exception e) {
+            log.error("Index migration failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public boolean executed() {
+        return executed;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,93 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fetch à la demande ({@code /api/exchange-rates/fetch}), dans l'ordre :
+ * <ol>
+ *     <li>un seau à jetons par client ;</li>
+ *     <li>le dernier snapshot publié, resservi sans appel amont s'il est frais : fetché
+ *     depuis moins de {@code fresh-for}, ou avant la prochaine mise à jour annoncée par
+ *     le fournisseur ;</li>
+ *     <li>un seul fetch en vol (single-flight) : les appels concurrents reçoivent le même
+ *     résultat. Le fetch n'est pas annulé si les clients se déconnectent.</li>
+ * </ol>
+ */
+@Service
+@ConditionalOnRole(Role.INGESTER)
+@Slf4j
+public class ManualFetchService {
+
+    private final ExchangeRateService exchangeRateService;
+    private final FetchScheduleProperties.Manual properties;
+    private final Map<String, TokenBucket> clients;
+    private final AtomicReference<Mono<ExchangeRate>> inFlight = new AtomicReference<>();
+
+    public ManualFetchService(ExchangeRateService exchangeRateService, FetchScheduleProperties properties) {
+        this.exchangeRateService = exchangeRateService;
+        this.properties = properties.getManual();
+        int maxClients = this.properties.getMaxClients();
+        this.clients = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    public Mono<ExchangeRate> fetch(String client) {
+        TokenBucket bucket = bucketFor(client);
+        if (!bucket.tryAcquire()) {
+            return Mono.error(new ClientRateLimitExceededException(client, bucket.timeUntilAvailable()));
+        }
+        ExchangeRate latest = exchangeRateService.getLatestPublished();
+        if (latest != null && isFresh(latest, System.currentTimeMillis())) {
+            log.debug("Serving fresh snapshot {} without upstream fetch", latest.getId());
+            return Mono.just(latest);
+        }
+        return coalesced();
+    }
+
+    boolean isFresh(ExchangeRate exchangeRate, long nowMillis) {
+        Long nextUpdate = exchangeRate.getProviderNextUpdate();
+        if (nextUpdate != null && nowMillis < nextUpdate * 1000) {
+            return true;
+        }
+        return exchangeRate.getTimestamp() != null
+                && nowMillis - RateTimestamps.toEpochMillis(exchangeRate.getTimestamp()) < properties.getFreshFor().toMillis();
+    }
+
+    private Mono<ExchangeRate> coalesced() {
+        while (true) {
+            Mono<ExchangeRate> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+            Sinks.One<ExchangeRate> result = Sinks.one();
+            Mono<ExchangeRate> shared = result.asMono();
+            if (inFlight.compareAndSet(null, shared)) {
+                exchangeRateService.fetchAndPublishExchangeRates()
+                        .doFinally(signal -> inFlight.compareAndSet(shared, null))
+                        .subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+                return shared;
+            }
+        }
+    }
+
+    private synchronized TokenBucket bucketFor(String client) {
+        return clients.computeIfAbsent(client,
+                key -> new TokenBucket(properties.getClientCapacity(), properties.getClientRefillInterval()));
+    }
+}
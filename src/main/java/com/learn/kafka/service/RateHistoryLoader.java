@@ -0,0 +1,68 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.store.RateHistory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge au démarrage la fenêtre de rétention de {@link RateHistory} depuis Elasticsearch ;
+ * le consumer l'alimente ensuite au fil de l'eau. Avec {@code exchange-rates.history.load-async},
+ * le chargement se fait dans un thread dédié et ne retarde plus le passage en readiness.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateHistoryLoader {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final RateHistory rateHistory;
+
+    @Value("${exchange-rates.history.load-async:false}")
+    private boolean loadAsync;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (loadAsync) {
+            Thread.ofPlatform().name("rate-history-load").daemon().start(this::loadQuietly);
+        } else {
+            loadQuietly();
+        }
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.warn("Could not load rate history from Elasticsearch: {}", e.getMessage());
+        }
+    }
+
+    public int load() {
+        String since = RateTimestamps.format(Instant.now().minus(rateHistory.getRetention()));
+        CriteriaQuery query = new CriteriaQuery(Criteria.where("timestamp").greaterThanEqual(since));
+        query.addSort(Sort.by(Sort.Direction.ASC, "timestamp"));
+
+        List<ExchangeRate> rates = new ArrayList<>();
+        try (SearchHitsIterator<ExchangeRate> hits = elasticsearchOperations.searchForStream(query, ExchangeRate.class)) {
+            hits.forEachRemaining(hit -> rates.add(hit.getContent()));
+        }
+        int added = rateHistory.addAll(rates);
+        log.info("Rate history loaded from Elasticsearch: {} snapshots since {}", added, since);
+        return added;
+    }
+}
@@ -0,0 +1,111 @@
+package com.learn.kafka.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.store.SnapshotLog;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diffusion des nouveaux snapshots aux abonnés SSE et WebSocket.
+ *
+ * <p>Un seul sink multicast partagé par tous les abonnés. Chaque mise à jour est
+ * sérialisée une fois, puis une fois par filtre de devises distinct : 10k abonnés
+ * sur le même filtre partagent la même chaîne JSON.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateUpdatePublisher {
+
+    private final ObjectMapper objectMapper;
+
+    // replay().latest() : un nouvel abonné reçoit immédiatement le dernier snapshot
+    private final Sinks.Many<RateUpdate> sink = Sinks.many().replay().latest();
+
+    public synchronized void publish(ExchangeRate exchangeRate) {
+        RateUpdate update;
+        try {
+            update = new RateUpdate(exchangeRate, objectMapper.writeValueAsString(exchangeRate));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize exchange rate {} for streaming: {}", exchangeRate.getId(), e.getMessage());
+            return;
+        }
+        Sinks.EmitResult result = sink.tryEmitNext(update);
+        if (result.isFailure()) {
+            log.warn("Could not publish exchange rate {} to subscribers: {}", exchangeRate.getId(), result);
+        }
+    }
+
+    /**
+     * Flux des mises à jour pour un abonné. Les envois se font hors du thread du consumer
+     * Kafka ; un abonné lent ne reçoit que la mise à jour la plus récente.
+     */
+    public Flux<RateUpdate> updates() {
+        return sink.asFlux()
+                .onBackpressureLatest()
+                .publishOn(Schedulers.boundedElastic(), 1);
+    }
+
+    /**
+     * @param symbols liste séparée par des virgules, null ou vide pour toutes les devises
+     */
+    public static Set<String> parseSymbols(String symbols) {
+        if (symbols == null || symbols.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(symbols.split(","))
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Snapshot publié avec son JSON complet et les JSON filtrés déjà calculés.
+     */
+    public final class RateUpdate {
+
+        @Getter
+        private final ExchangeRate exchangeRate;
+        @Getter
+        private final String tag;
+        private final String payload;
+        private final ConcurrentMap<Set<String>, String> filteredPayloads = new ConcurrentHashMap<>();
+
+        private RateUpdate(ExchangeRate exchangeRate, String payload) {
+            this.exchangeRate = exchangeRate;
+            this.payload = payload;
+            this.tag = exchangeRate.getTimestamp() == null ? exchangeRate.getId()
+                    : SnapshotLog.tag(RateTimestamps.toEpochNanos(exchangeRate.getTimestamp()), exchangeRate.getId());
+        }
+
+        /**
+         * @param symbols devises à conserver, vide pour le snapshot complet
+         */
+        public String payload(Set<String> symbols) {
+            return symbols.isEmpty() ? payload : filteredPayloads.computeIfAbsent(symbols, this::serialize);
+        }
+
+        private String serialize(Set<String> symbols) {
+            try {
+                return objectMapper.writeValueAsString(exchangeRate.withRatesFor(symbols));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize filtered exchange rate " + exchangeRate.getId(), e);
+            }
+        }
+    }
+}
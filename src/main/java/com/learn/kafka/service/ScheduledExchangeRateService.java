@@ -1,39 +1,87 @@
 package com.learn.kafka.service;
 
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.LeaderElection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fetch planifié à cadence adaptative : chaque fetch terminé, le suivant est programmé
+ * d'après {@link UpdateCadence}, retardé d'un jitter et jamais avant qu'un jeton du
+ * quota amont soit disponible. Le premier part au démarrage.
+ *
+ * <p>Une instance qui n'est pas leader vérifie son statut toutes les
+ * {@code exchange-rates.fetch.standby-poll} : élue, elle fetche au déclenchement suivant
+ * au lieu d'attendre un intervalle complet.
+ */
 @Service
+@ConditionalOnRole(Role.INGESTER)
 @RequiredArgsConstructor
 @Slf4j
-public class ScheduledExchangeRateService {
+public class ScheduledExchangeRateService implements SchedulingConfigurer {
 
     private final ExchangeRateService exchangeRateService;
+    private final LeaderElection leaderElection;
+    private final UpdateCadence updateCadence;
+    private final TokenBucket upstreamQuota;
+    private final FetchScheduleProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addTriggerTask(this::fetchExchangeRatesAutomatically, this::nextExecution);
+    }
 
-    // Exécute toutes les 30 minutes (1800000 ms)
-    @Scheduled(fixedRate = 1800000)
     public void fetchExchangeRatesAutomatically() {
+        if (!leaderElection.isLeader()) {
+            log.debug("Not the fetch leader, skipping scheduled fetch");
+            return;
+        }
         log.info("Starting scheduled fetch of exchange rates...");
-        
-        exchangeRateService.fetchAndPublishExchangeRates()
-            .subscribe(
-                exchangeRate -> log.info("Successfully fetched and published exchange rates for base currency: {}", 
-                                       exchangeRate.getBaseCurrency()),
-                error -> log.error("Error fetching exchange rates: {}", error.getMessage())
-            );
+
+        // Attendu sur le thread du scheduler : la cadence doit avoir vu la réponse avant
+        // le calcul du prochain déclenchement
+        try {
+            exchangeRateService.fetchAndPublishExchangeRates()
+                .doOnNext(exchangeRate -> log.info("Successfully fetched and published exchange rates for base currency: {}",
+                                       exchangeRate.getBaseCurrency()))
+                .doOnError(error -> log.error("Error fetching exchange rates: {}", error.getMessage()))
+                .onErrorComplete()
+                .block(properties.getMaxInterval());
+        } catch (RuntimeException e) {
+            log.error("Scheduled fetch did not complete: {}", e.getMessage());
+        }
+    }
+
+    Instant nextExecution(TriggerContext triggerContext) {
+        Instant now = triggerContext.getClock().instant();
+        if (triggerContext.lastCompletion() == null) {
+            return now;
+        }
+        if (!leaderElection.isLeader()) {
+            return now.plus(properties.getStandbyPoll());
+        }
+        Duration delay = updateCadence.nextDelay(now.toEpochMilli());
+        delay = delay.plus(jitter(delay));
+        Duration quotaWait = upstreamQuota.timeUntilAvailable();
+        if (quotaWait.compareTo(delay) > 0) {
+            delay = quotaWait;
+        }
+        log.debug("Next scheduled fetch in {}", delay);
+        return now.plus(delay);
     }
 
-    // Pour test - exécute toutes les 2 minutes
-    @Scheduled(fixedRate = 120000)
-    public void fetchExchangeRatesForTesting() {
-        log.info("Test fetch of exchange rates...");
-        
-        exchangeRateService.fetchAndPublishExchangeRates()
-            .subscribe(
-                exchangeRate -> log.info("Test fetch successful - ID: {}", exchangeRate.getId()),
-                error -> log.error("Test fetch error: {}", error.getMessage())
-            );
+    private Duration jitter(Duration delay) {
+        long bound = (long) (delay.toMillis() * properties.getJitter());
+        return bound > 0 ? Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound + 1)) : Duration.ZERO;
     }
-} 
\ No newline at end of file
+}
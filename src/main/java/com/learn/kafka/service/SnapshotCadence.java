@@ -0,0 +1,54 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+
+import java.time.Duration;
+
+/**
+ * Cadence des snapshots vue d'une instance reader, apprise des snapshots reçus par
+ * {@link UpdateCadence} : chaque snapshot compte comme un fetch daté par son timestamp.
+ * Les heures de mise à jour annoncées par le fournisseur ne sont pas publiées dans les
+ * snapshots : seule la cadence des changements de taux est apprise, l'intervalle de base
+ * servant tant qu'elle est inconnue. Toutes les instances reader, ingester ou non,
+ * calculent donc la même échéance pour un même snapshot.
+ */
+public class SnapshotCadence {
+
+    private final UpdateCadence cadence;
+
+    private long lastEpochMillis = -1;
+
+    public SnapshotCadence(FetchScheduleProperties properties) {
+        this.cadence = new UpdateCadence(properties);
+    }
+
+    /**
+     * Ignore les snapshots sans timestamp ou pas plus récents que le dernier observé (rejeu).
+     */
+    public synchronized void observe(ExchangeRate exchangeRate) {
+        if (exchangeRate.getTimestamp() == null) {
+            return;
+        }
+        long epochMillis = RateTimestamps.toEpochMillis(exchangeRate.getTimestamp());
+        if (epochMillis <= lastEpochMillis) {
+            return;
+        }
+        cadence.observe(exchangeRate, epochMillis);
+        lastEpochMillis = epochMillis;
+    }
+
+    /**
+     * @return le temps restant avant le snapshot attendu après celui daté
+     *         {@code snapshotEpochMillis}, zéro s'il est en retard ou si un snapshot plus
+     *         récent est déjà connu
+     */
+    public synchronized Duration untilNext(long snapshotEpochMillis, long nowMillis) {
+        if (snapshotEpochMillis < lastEpochMillis) {
+            return Duration.ZERO;
+        }
+        long next = snapshotEpochMillis + cadence.nextDelay(snapshotEpochMillis).toMillis();
+        return Duration.ofMillis(Math.max(0, next - nowMillis));
+    }
+}
@@ -0,0 +1,66 @@
+package com.learn.kafka.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Seau à jetons : au plus {@code capacity} jetons, un jeton rendu toutes les
+ * {@code refillInterval}. Le remplissage est calculé à la demande, sans tâche de fond.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final long refillNanos;
+    private final LongSupplier nanoClock;
+
+    private long tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, Duration refillInterval) {
+        this(capacity, refillInterval, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, Duration refillInterval, LongSupplier nanoClock) {
+        if (capacity < 1 || refillInterval.isNegative() || refillInterval.isZero()) {
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and refill interval");
+        }
+        this.capacity = capacity;
+        this.refillNanos = refillInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    public synchronized long available() {
+        refill();
+        return tokens;
+    }
+
+    /**
+     * @return le délai avant qu'un jeton soit disponible, zéro s'il y en a un
+     */
+    public synchronized Duration timeUntilAvailable() {
+        refill();
+        return tokens > 0 ? Duration.ZERO : Duration.ofNanos(lastRefill + refillNanos - nanoClock.getAsLong());
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long refilled = (now - lastRefill) / refillNanos;
+        if (refilled == 0) {
+            return;
+        }
+        tokens = Math.min(capacity, tokens + refilled);
+        // Seau plein : le prochain jeton compte à partir de maintenant, pas d'un crédit accumulé
+        lastRefill = tokens == capacity ? now : lastRefill + refilled * refillNanos;
+    }
+}
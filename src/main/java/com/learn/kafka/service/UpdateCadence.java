@@ -0,0 +1,94 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.model.ExchangeRate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cadence de mise à jour du fournisseur, apprise des fetchs. Le prochain fetch vise, dans
+ * l'ordre : l'heure annoncée ({@code time_next_update_unix}) ; la dernière mise à jour
+ * observée plus l'intervalle moyen entre mises à jour ; l'intervalle de base tant que rien
+ * n'est connu. Une mise à jour attendue mais pas encore vue est recherchée à l'intervalle
+ * minimal.
+ *
+ * <p>Une mise à jour est datée par {@code time_last_update_unix} quand le fournisseur le
+ * donne, sinon par un changement des taux, daté au milieu des deux fetchs qui l'encadrent.
+ */
+public class UpdateCadence {
+
+    private final long baseMillis;
+    private final long minMillis;
+    private final long maxMillis;
+    private final long graceMillis;
+    private final double smoothing;
+
+    private Map<String, Double> lastRates;
+    private long lastProviderUpdate;
+    private long lastFetchMillis = -1;
+    private long lastChangeMillis = -1;
+    private double intervalMillis = -1;
+    private long nextUpdateMillis = -1;
+
+    public UpdateCadence(FetchScheduleProperties properties) {
+        this.baseMillis = properties.getIntervalMs();
+        this.minMillis = properties.getMinInterval().toMillis();
+        this.maxMillis = properties.getMaxInterval().toMillis();
+        this.graceMillis = properties.getGrace().toMillis();
+        this.smoothing = properties.getCadenceSmoothing();
+    }
+
+    public synchronized void observe(ExchangeRate exchangeRate, long nowMillis) {
+        Long nextUpdate = exchangeRate.getProviderNextUpdate();
+        nextUpdateMillis = nextUpdate != null ? nextUpdate * 1000 : -1;
+
+        Long lastUpdate = exchangeRate.getProviderLastUpdate();
+        long changeMillis = -1;
+        if (lastUpdate != null) {
+            if (lastUpdate != lastProviderUpdate) {
+                changeMillis = lastUpdate * 1000;
+                lastProviderUpdate = lastUpdate;
+            }
+        } else if (lastRates != null && !Objects.equals(lastRates, exchangeRate.getRates())) {
+            changeMillis = (lastFetchMillis + nowMillis) / 2;
+        }
+        lastRates = exchangeRate.getRates();
+        lastFetchMillis = nowMillis;
+
+        if (changeMillis < 0) {
+            return;
+        }
+        if (lastChangeMillis >= 0 && changeMillis > lastChangeMillis) {
+            double sample = changeMillis - lastChangeMillis;
+            intervalMillis = intervalMillis < 0 ? sample : intervalMillis + smoothing * (sample - intervalMillis);
+        }
+        lastChangeMillis = Math.max(lastChangeMillis, changeMillis);
+    }
+
+    /**
+     * @return le délai avant le prochain fetch, sans jitter, borné par les intervalles minimal et maximal
+     */
+    public synchronized Duration nextDelay(long nowMillis) {
+        long target;
+        if (nextUpdateMillis > nowMillis) {
+            target = nextUpdateMillis + graceMillis;
+        } else if (nextUpdateMillis > 0) {
+            target = nowMillis + minMillis;
+        } else if (intervalMillis > 0) {
+            long expected = lastChangeMillis + (long) intervalMillis + graceMillis;
+            target = expected > nowMillis ? expected : nowMillis + minMillis;
+        } else {
+            target = nowMillis + baseMillis;
+        }
+        return Duration.ofMillis(Math.clamp(target - nowMillis, minMillis, maxMillis));
+    }
+
+    /**
+     * @return l'intervalle moyen appris entre deux mises à jour, null tant qu'il n'est pas connu
+     */
+    public synchronized Duration learnedInterval() {
+        return intervalMillis > 0 ? Duration.ofMillis((long) intervalMillis) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.learn.kafka.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Fetch refusé faute de jeton dans le quota amont ; {@link #getRetryAfter()} donne
+ * le délai avant le prochain jeton.
+ */
+@Getter
+public class UpstreamQuotaExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamQuotaExceededException(Duration retryAfter) {
+        super("Upstream quota exhausted, next call allowed in " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,96 @@
+package com.learn.kafka.store;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ordinal stable d'un code devise ISO 4217 : les trois lettres A-Z sont codées
+ * en base 26, ce qui donne un entier dans {@code [0, COUNT)} sans registre à persister.
+ *
+ * <p>Seuls ces codes sont stockés : un taux dont la clé n'est pas faite de trois
+ * majuscules A-Z (code en minuscules, "BTC-USD", "XAU1"...) n'a pas d'ordinal et
+ * n'entre ni dans le journal local, ni dans les snapshots en mémoire, ni dans les
+ * vecteurs des providers. Ces taux écartés sont signalés par {@link #unsupported} :
+ * un avertissement par code et le compteur {@value #UNSUPPORTED_METRIC}.
+ */
+@Slf4j
+public final class CurrencyCodes {
+
+    public static final int COUNT = 26 * 26 * 26;
+
+    static final String UNSUPPORTED_METRIC = "exchange.currency.unsupported";
+
+    private static final Set<String> REPORTED = ConcurrentHashMap.newKeySet();
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * @return l'ordinal du code, ou -1 si ce n'est pas un code de trois lettres majuscules
+     */
+    public static int ordinal(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int ordinal = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            ordinal = ordinal * 26 + (c - 'A');
+        }
+        return ordinal;
+    }
+
+    /**
+     * Variante sur un tampon de caractères, sans chaîne intermédiaire ; les minuscules sont acceptées.
+     *
+     * @return l'ordinal du code, ou -1 si ce n'est pas un code de trois lettres
+     */
+    public static int ordinal(char[] chars, int offset, int length) {
+        if (length != 3) {
+            return -1;
+        }
+        int ordinal = 0;
+        for (int i = offset; i < offset + 3; i++) {
+            char c = chars[i];
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            } else if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            ordinal = ordinal * 26 + (c - 'A');
+        }
+        return ordinal;
+    }
+
+    public static String code(int ordinal) {
+        if (ordinal < 0 || ordinal >= COUNT) {
+            throw new IllegalArgumentException("Invalid currency ordinal: " + ordinal);
+        }
+        char[] chars = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            chars[i] = (char) ('A' + ordinal % 26);
+            ordinal /= 26;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Signale un taux écarté faute d'ordinal pour {@code code}. Le compteur est incrémenté
+     * à chaque fois ; l'avertissement n'est journalisé qu'une fois par code.
+     *
+     * @param store structure qui écarte le taux ({@code snapshot-log}, {@code rate-snapshot}...)
+     */
+    public static void unsupported(String code, String store) {
+        Metrics.counter(UNSUPPORTED_METRIC, "store", store).increment();
+        if (REPORTED.add(String.valueOf(code))) {
+            log.warn("Dropping rate for unsupported currency code '{}' in {}: only three letters A-Z are stored",
+                    code, store);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Historique en mémoire des snapshots sur une fenêtre de rétention glissante,
+ * trié par timestamp : {@code long[]} des timestamps (epoch millis) et tableau
+ * parallèle de {@link RateSnapshot}. Les lectures "à un instant donné" sont une
+ * recherche dichotomique sur le tableau de timestamps.
+ *
+ * <p>Un seul écrivain (méthodes synchronisées), lecteurs sans verrou sur un
+ * {@link State} immuable. Les ajouts en fin de tableau écrivent au-delà de la zone
+ * publiée puis publient un nouvel état ; une insertion au milieu ou une compaction
+ * recopie les tableaux.
+ */
+@Component
+@Slf4j
+public class RateHistory {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    @Getter
+    private final Duration retention;
+    private volatile State state = State.empty(INITIAL_CAPACITY);
+
+    public RateHistory(@Value("${exchange-rates.history.retention:7d}") Duration retention) {
+        this.retention = retention;
+    }
+
+    /**
+     * @return {@code false} si le snapshot est déjà présent ou hors de la fenêtre de rétention
+     */
+    public synchronized boolean add(ExchangeRate exchangeRate) {
+        if (exchangeRate.getTimestamp() == null) {
+            throw new IllegalArgumentException("Exchange rate without timestamp cannot be indexed");
+        }
+        State current = state;
+        RateSnapshot latest = current.latest();
+        RateSnapshot snapshot = RateSnapshot.of(exchangeRate, latest);
+        long millis = snapshot.getEpochMillis();
+
+        if (latest != null && millis < latest.getEpochMillis() - retention.toMillis()) {
+            return false;
+        }
+        int position = current.upperBound(millis);
+        if (position > current.start && current.times[position - 1] == millis
+                && snapshot.getId() != null && snapshot.getId().equals(current.snapshots[position - 1].getId())) {
+            return false;
+        }
+
+        State next = position == current.end ? current.append(millis, snapshot) : current.insert(position, millis, snapshot);
+        state = next.evictBefore(next.latest().getEpochMillis() - retention.toMillis());
+        return true;
+    }
+
+    /**
+     * Chargement initial : les snapshots peuvent arriver dans n'importe quel ordre.
+     *
+     * @return le nombre de snapshots ajoutés
+     */
+    public synchronized int addAll(Collection<ExchangeRate> exchangeRates) {
+        int added = 0;
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            if (exchangeRate.getTimestamp() != null && add(exchangeRate)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * @return le dernier snapshot de timestamp inférieur ou égal à {@code epochMillis},
+     * ou null si l'instant précède le plus ancien snapshot retenu
+     */
+    public RateSnapshot at(long epochMillis) {
+        State current = state;
+        int position = current.upperBound(epochMillis);
+        return position == current.start ? null : current.snapshots[position - 1];
+    }
+
+    public RateSnapshot latest() {
+        return state.latest();
+    }
+
+    public int size() {
+        State current = state;
+        return current.end - current.start;
+    }
+
+    private record State(long[] times, RateSnapshot[] snapshots, int start, int end) {
+
+        static State empty(int capacity) {
+            return new State(new long[capacity], new RateSnapshot[capacity], 0, 0);
+        }
+
+        RateSnapshot latest() {
+            return end == start ? null : snapshots[end - 1];
+        }
+
+        /**
+         * Première position dont le timestamp est strictement supérieur à {@code millis}.
+         */
+        int upperBound(long millis) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        State append(long millis, RateSnapshot snapshot) {
+            State target = end < times.length ? this : compact(Math.max(INITIAL_CAPACITY, (end - start) * 2));
+            target.times[target.end] = millis;
+            target.snapshots[target.end] = snapshot;
+            return new State(target.times, target.snapshots, target.start, target.end + 1);
+        }
+
+        State insert(int position, long millis, RateSnapshot snapshot) {
+            int size = end - start;
+            int capacity = Math.max(INITIAL_CAPACITY, (size + 1) * 2);
+            long[] newTimes = new long[capacity];
+            RateSnapshot[] newSnapshots = new RateSnapshot[capacity];
+            int before = position - start;
+            System.arraycopy(times, start, newTimes, 0, before);
+            System.arraycopy(snapshots, start, newSnapshots, 0, before);
+            newTimes[before] = millis;
+            newSnapshots[before] = snapshot;
+            System.arraycopy(times, position, newTimes, before + 1, end - position);
+            System.arraycopy(snapshots, position, newSnapshots, before + 1, end - position);
+            return new State(newTimes, newSnapshots, 0, size + 1);
+        }
+
+        State evictBefore(long cutoffMillis) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < cutoffMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == start ? this : new State(times, snapshots, low, end);
+        }
+
+        private State compact(int capacity) {
+            return new State(Arrays.copyOfRange(times, start, start + capacity),
+                    Arrays.copyOfRange(snapshots, start, start + capacity), 0, end - start);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Snapshot immuable en représentation primitive : ordinaux de devises triés
+ * ({@link CurrencyCodes}) et taux correspondants dans deux tableaux parallèles.
+ * Le tableau d'ordinaux est partagé avec le snapshot précédent quand l'ensemble
+ * des devises n'a pas changé, ce qui est le cas courant.
+ */
+@Getter
+public final class RateSnapshot {
+
+    private final String id;
+    private final String baseCurrency;
+    private final String timestamp;
+    private final long epochMillis;
+    private final int[] ordinals;
+    private final double[] values;
+
+    private RateSnapshot(String id, String baseCurrency, String timestamp, long epochMillis,
+                         int[] ordinals, double[] values) {
+        this.id = id;
+        this.baseCurrency = baseCurrency;
+        this.timestamp = timestamp;
+        this.epochMillis = epochMillis;
+        this.ordinals = ordinals;
+        this.values = values;
+    }
+
+    public static RateSnapshot of(ExchangeRate exchangeRate) {
+        return of(exchangeRate, null);
+    }
+
+    /**
+     * @param previous snapshot dont on réutilise le tableau d'ordinaux s'il est identique, peut être null
+     */
+    public static RateSnapshot of(ExchangeRate exchangeRate, RateSnapshot previous) {
+        Map<String, Double> rates = exchangeRate.getRates() == null ? Map.of() : exchangeRate.getRates();
+
+        // Tri par ordinal sans boxing : ordinal dans les 32 bits hauts, position dans les bas
+        long[] keys = new long[rates.size()];
+        double[] unsorted = new double[rates.size()];
+        int count = 0;
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            int ordinal = CurrencyCodes.ordinal(entry.getKey());
+            if (ordinal < 0) {
+                CurrencyCodes.unsupported(entry.getKey(), "rate-snapshot");
+            } else if (entry.getValue() != null) {
+                keys[count] = ((long) ordinal << 32) | count;
+                unsorted[count] = entry.getValue();
+                count++;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        int[] ordinals = new int[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            ordinals[i] = (int) (keys[i] >>> 32);
+            values[i] = unsorted[(int) keys[i]];
+        }
+        if (previous != null && Arrays.equals(previous.ordinals, ordinals)) {
+            ordinals = previous.ordinals;
+        }
+
+        return new RateSnapshot(exchangeRate.getId(), exchangeRate.getBaseCurrency(), exchangeRate.getTimestamp(),
+                RateTimestamps.toEpochMillis(exchangeRate.getTimestamp()), ordinals, values);
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    public OptionalDouble rate(String currency) {
+        int index = indexOf(CurrencyCodes.ordinal(currency));
+        return index < 0 ? OptionalDouble.empty() : OptionalDouble.of(values[index]);
+    }
+
+    public int indexOf(int ordinal) {
+        return ordinal < 0 ? -1 : Math.max(-1, Arrays.binarySearch(ordinals, ordinal));
+    }
+
+    public ExchangeRate toExchangeRate() {
+        Map<String, Double> rates = new HashMap<>(ordinals.length * 2);
+        for (int i = 0; i < ordinals.length; i++) {
+            rates.put(CurrencyCodes.code(ordinals[i]), values[i]);
+        }
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId(id);
+        exchangeRate.setBaseCurrency(baseCurrency);
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(rates);
+        return exchangeRate;
+    }
+}
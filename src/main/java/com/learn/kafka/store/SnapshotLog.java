@@ -0,0 +1,497 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Journal local, append-only et mappé en mémoire, des snapshots de taux de change.
+ *
+ * <p>Chaque snapshot est un en-tête de {@value #HEADER_SIZE} octets suivi de
+ * {@code count} entrées de {@value #ENTRY_SIZE} octets (ordinal devise + double),
+ * triées par ordinal :
+ * <pre>
+ *  0  int    magic (écrit en dernier : marque le snapshot comme complet)
+ *  4  int    nombre d'entrées
+ *  8  long   timestamp en nanosecondes epoch (UTC)
+ *  16 int    ordinal de la devise de base (-1 si inconnue)
+ *  20 byte   longueur de l'id
+ *  21 byte[] id ASCII ({@value #MAX_ID_LENGTH} octets max)
+ * </pre>
+ * Un index temporel creux (un snapshot sur {@code indexInterval}) est reconstruit
+ * à l'ouverture et permet les lectures "à un instant donné" par recherche dichotomique.
+ * Les lectures se font directement dans le buffer mappé, sans copie.
+ *
+ * <p>Un seul écrivain à la fois : les méthodes d'écriture sont synchronisées sur
+ * l'instance. Les lecteurs travaillent sur une {@link View} immuable publiée après
+ * chaque ajout. Un octet déjà publié n'est jamais réécrit : {@link #replaceWith} installe
+ * un nouveau fichier plutôt que de réécrire l'ancien.
+ *
+ * <p>{@link #openAsync} rend la main avant le parcours du fichier : les lecteurs voient
+ * un journal vide jusqu'à la fin du chargement, et la première écriture éventuelle
+ * termine le chargement elle-même.
+ */
+@Slf4j
+public class SnapshotLog implements Closeable {
+
+    static final int MAGIC = 0x52415445;
+    static final int HEADER_SIZE = 64;
+    static final int ENTRY_SIZE = 12;
+    static final int MAX_ID_LENGTH = 43;
+
+    private static final int COUNT_OFFSET = 4;
+    private static final int NANOS_OFFSET = 8;
+    private static final int BASE_OFFSET = 16;
+    private static final int ID_LENGTH_OFFSET = 20;
+    private static final int ID_OFFSET = 21;
+
+    private final Path path;
+    private FileChannel channel;
+    private final int initialCapacity;
+    private final int indexInterval;
+
+    private MappedByteBuffer buffer;
+    private int writeOffset;
+    private String lastId;
+    private volatile View view = View.empty();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+
+    private SnapshotLog(Path path, FileChannel channel, int initialCapacity, int indexInterval) {
+        this.path = path;
+        this.channel = channel;
+        this.initialCapacity = initialCapacity;
+        this.indexInterval = indexInterval;
+    }
+
+    public static SnapshotLog open(Path path, int initialCapacity, int indexInterval) throws IOException {
+        SnapshotLog snapshotLog = create(path, initialCapacity, indexInterval);
+        snapshotLog.ensureLoaded();
+        return snapshotLog;
+    }
+
+    /**
+     * Ouvre le journal et délègue son parcours à {@code executor}.
+     */
+    public static SnapshotLog openAsync(Path path, int initialCapacity, int indexInterval, Executor executor)
+            throws IOException {
+        SnapshotLog snapshotLog = create(path, initialCapacity, indexInterval);
+        executor.execute(() -> {
+            try {
+                snapshotLog.ensureLoaded();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not load snapshot log {}: {}", path, e.toString());
+            }
+        });
+        return snapshotLog;
+    }
+
+    private static SnapshotLog create(Path path, int initialCapacity, int indexInterval) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        return new SnapshotLog(path, openChannel(path), initialCapacity, Math.max(1, indexInterval));
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Terminé une fois le fichier parcouru, en erreur si ce parcours a échoué.
+     */
+    public CompletableFuture<Void> loaded() {
+        return loaded;
+    }
+
+    private synchronized void ensureLoaded() throws IOException {
+        if (buffer == null) {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                loaded.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        int capacity = (int) Math.max(initialCapacity, channel.size());
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        View current = View.empty();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= capacity && buffer.getInt(offset) == MAGIC) {
+            long nanos = buffer.getLong(offset + NANOS_OFFSET);
+            lastId = readId(buffer, offset);
+            current = current.append(buffer, offset, nanos, indexInterval, tag(nanos, lastId));
+            offset += recordSize(buffer, offset);
+        }
+        writeOffset = offset;
+        view = current;
+        loaded.complete(null);
+        log.info("Snapshot log {} opened with {} snapshots ({} bytes)", path, current.size, writeOffset);
+    }
+
+    /**
+     * Ajoute un snapshot. Les snapshots plus anciens que le dernier enregistré, ou
+     * identiques à celui-ci (rejeu Kafka), sont ignorés pour garder le journal trié.
+     *
+     * @return {@code true} si le snapshot a été écrit
+     */
+    public synchronized boolean append(ExchangeRate exchangeRate) throws IOException {
+        if (exchangeRate.getTimestamp() == null) {
+            throw new IllegalArgumentException("Exchange rate without timestamp cannot be logged");
+        }
+        ensureLoaded();
+        long nanos = RateTimestamps.toEpochNanos(exchangeRate.getTimestamp());
+        View current = view;
+        if (current.size > 0) {
+            long lastNanos = buffer.getLong(current.lastOffset + NANOS_OFFSET);
+            if (nanos < lastNanos || (nanos == lastNanos && exchangeRate.getId() != null
+                    && exchangeRate.getId().equals(lastId))) {
+                log.debug("Skipping out-of-order or duplicate snapshot {}", exchangeRate.getId());
+                return false;
+            }
+        }
+
+        byte[] id = exchangeRate.getId() == null ? new byte[0] : exchangeRate.getId().getBytes(StandardCharsets.US_ASCII);
+        if (id.length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Snapshot id longer than " + MAX_ID_LENGTH + " bytes: " + exchangeRate.getId());
+        }
+
+        TreeMap<Integer, Double> entries = new TreeMap<>();
+        if (exchangeRate.getRates() != null) {
+            exchangeRate.getRates().forEach((code, value) -> {
+                int ordinal = CurrencyCodes.ordinal(code);
+                if (ordinal < 0) {
+                    CurrencyCodes.unsupported(code, "snapshot-log");
+                } else if (value != null) {
+                    entries.put(ordinal, value);
+                }
+            });
+        }
+
+        int size = HEADER_SIZE + entries.size() * ENTRY_SIZE;
+        ensureCapacity(writeOffset + size);
+
+        int offset = writeOffset;
+        int entryOffset = offset + HEADER_SIZE;
+        for (Map.Entry<Integer, Double> entry : entries.entrySet()) {
+            buffer.putInt(entryOffset, entry.getKey());
+            buffer.putDouble(entryOffset + 4, entry.getValue());
+            entryOffset += ENTRY_SIZE;
+        }
+        buffer.putInt(offset + COUNT_OFFSET, entries.size());
+        buffer.putLong(offset + NANOS_OFFSET, nanos);
+        buffer.putInt(offset + BASE_OFFSET, CurrencyCodes.ordinal(exchangeRate.getBaseCurrency()));
+        buffer.put(offset + ID_LENGTH_OFFSET, (byte) id.length);
+        buffer.put(offset + ID_OFFSET, id);
+        writeOffset = offset + size;
+        buffer.putInt(offset, MAGIC);
+        // Seules les pages du snapshot écrit sont synchronisées, pas tout le mapping
+        buffer.force(offset, size);
+
+        lastId = exchangeRate.getId();
+        view = current.append(buffer, offset, nanos, indexInterval, tag(nanos, lastId));
+        return true;
+    }
+
+    /**
+     * Ouvre un journal vide à côté de celui-ci ({@code <fichier>.<suffix>}), à remplir
+     * puis à installer avec {@link #replaceWith}, ou à abandonner avec {@link #discard}.
+     */
+    public SnapshotLog openSibling(String suffix) throws IOException {
+        Path sibling = path.resolveSibling(path.getFileName() + "." + suffix);
+        Files.deleteIfExists(sibling);
+        return open(sibling, initialCapacity, indexInterval);
+    }
+
+    /**
+     * Remplace le contenu du journal par celui de {@code rebuilt}, ouvert par
+     * {@link #openSibling}. Les snapshots ajoutés ici pendant sa construction et plus
+     * récents que son dernier snapshot y sont d'abord recopiés, puis son fichier remplace
+     * l'ancien par renommage atomique. Les lecteurs qui tiennent encore une vue continuent
+     * de lire l'ancien mapping, que les ajouts suivants ne touchent pas.
+     * {@code rebuilt} ne doit plus être utilisé ensuite.
+     */
+    public synchronized void replaceWith(SnapshotLog rebuilt) throws IOException {
+        ensureLoaded();
+        synchronized (rebuilt) {
+            long rebuiltNanos = rebuilt.latestEpochNanos();
+            int offset = 0;
+            while (offset < writeOffset) {
+                if (buffer.getLong(offset + NANOS_OFFSET) >= rebuiltNanos) {
+                    rebuilt.append(materialize(buffer, offset));
+                }
+                offset += recordSize(buffer, offset);
+            }
+            rebuilt.ensureLoaded();
+            Files.move(rebuilt.path, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // L'ancien mapping reste valide après la fermeture de son canal
+            channel.close();
+            channel = rebuilt.channel;
+            buffer = rebuilt.buffer;
+            writeOffset = rebuilt.writeOffset;
+            lastId = rebuilt.lastId;
+            view = rebuilt.view;
+        }
+    }
+
+    /**
+     * Ferme et supprime un journal ouvert par {@link #openSibling} qui ne sera pas installé.
+     */
+    public synchronized void discard() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot log " + path + " is full");
+        }
+        long capacity = Math.min(Integer.MAX_VALUE, Math.max(required, (long) buffer.capacity() * 2));
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    public int size() {
+        return view.size;
+    }
+
+    public long sizeInBytes() {
+        View current = view;
+        return current.size == 0 ? 0 : current.lastOffset + recordSize(current.buffer, current.lastOffset);
+    }
+
+    /**
+     * Identité du dernier snapshot (timestamp et id), calculée une fois à l'écriture :
+     * permet de répondre aux requêtes conditionnelles sans relire les taux.
+     *
+     * @return null si le journal est vide
+     */
+    public String latestTag() {
+        return view.lastTag;
+    }
+
+    /**
+     * @return le timestamp du dernier snapshot en epoch nanos, -1 si le journal est vide
+     */
+    public long latestEpochNanos() {
+        View current = view;
+        return current.size == 0 ? -1 : current.buffer.getLong(current.lastOffset + NANOS_OFFSET);
+    }
+
+    /**
+     * Dernier snapshot lu dans une seule vue : l'identité, la date et les taux rendus sont
+     * ceux du même snapshot, même si un ajout a lieu entre deux appels.
+     *
+     * @return null si le journal est vide
+     */
+    public Head head() {
+        View current = view;
+        return current.size == 0 ? null : current;
+    }
+
+    public static String tag(long epochNanos, String id) {
+        return id == null ? Long.toHexString(epochNanos) : Long.toHexString(epochNanos) + '-' + id;
+    }
+
+    public ExchangeRate latest() {
+        View current = view;
+        return current.size == 0 ? null : materialize(current.buffer, current.lastOffset);
+    }
+
+    /**
+     * @return le dernier snapshot dont le timestamp est inférieur ou égal à {@code instant}
+     */
+    public ExchangeRate at(Instant instant) {
+        View current = view;
+        int offset = current.floorOffset(RateTimestamps.toEpochNanos(instant));
+        return offset < 0 ? null : materialize(current.buffer, offset);
+    }
+
+    public OptionalDouble latestRate(String currency) {
+        View current = view;
+        return current.size == 0 ? OptionalDouble.empty() : rate(current.buffer, current.lastOffset, currency);
+    }
+
+    public OptionalDouble rateAt(String currency, Instant instant) {
+        View current = view;
+        int offset = current.floorOffset(RateTimestamps.toEpochNanos(instant));
+        return offset < 0 ? OptionalDouble.empty() : rate(current.buffer, offset, currency);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    private static OptionalDouble rate(MappedByteBuffer buffer, int offset, String currency) {
+        int ordinal = CurrencyCodes.ordinal(currency);
+        if (ordinal < 0) {
+            return OptionalDouble.empty();
+        }
+        int entries = offset + HEADER_SIZE;
+        int low = 0;
+        int high = buffer.getInt(offset + COUNT_OFFSET) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrdinal = buffer.getInt(entries + mid * ENTRY_SIZE);
+            if (midOrdinal < ordinal) {
+                low = mid + 1;
+            } else if (midOrdinal > ordinal) {
+                high = mid - 1;
+            } else {
+                return OptionalDouble.of(buffer.getDouble(entries + mid * ENTRY_SIZE + 4));
+            }
+        }
+        return OptionalDouble.empty();
+    }
+
+    private static ExchangeRate materialize(MappedByteBuffer buffer, int offset) {
+        int count = buffer.getInt(offset + COUNT_OFFSET);
+        Map<String, Double> rates = new HashMap<>(count * 2);
+        int entry = offset + HEADER_SIZE;
+        for (int i = 0; i < count; i++, entry += ENTRY_SIZE) {
+            rates.put(CurrencyCodes.code(buffer.getInt(entry)), buffer.getDouble(entry + 4));
+        }
+        int base = buffer.getInt(offset + BASE_OFFSET);
+
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId(readId(buffer, offset));
+        exchangeRate.setBaseCurrency(base < 0 ? null : CurrencyCodes.code(base));
+        exchangeRate.setTimestamp(RateTimestamps.format(buffer.getLong(offset + NANOS_OFFSET)));
+        exchangeRate.setRates(rates);
+        return exchangeRate;
+    }
+
+    private static String readId(MappedByteBuffer buffer, int offset) {
+        int length = buffer.get(offset + ID_LENGTH_OFFSET);
+        if (length == 0) {
+            return null;
+        }
+        byte[] id = new byte[length];
+        buffer.get(offset + ID_OFFSET, id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static int recordSize(MappedByteBuffer buffer, int offset) {
+        return HEADER_SIZE + buffer.getInt(offset + COUNT_OFFSET) * ENTRY_SIZE;
+    }
+
+    /**
+     * Dernier snapshot d'une vue du journal, voir {@link #head()}.
+     */
+    public interface Head {
+
+        String tag();
+
+        long epochNanos();
+
+        ExchangeRate exchangeRate();
+
+        OptionalDouble rate(String currency);
+    }
+
+    /**
+     * État publié aux lecteurs : buffer courant, index creux et position du dernier snapshot.
+     * Les tableaux de l'index sont partagés entre vues successives mais seules les
+     * {@code indexSize} premières cases sont lues.
+     */
+    private record View(MappedByteBuffer buffer, long[] indexNanos, int[] indexOffsets, int indexSize,
+                        int lastOffset, int size, String lastTag) implements Head {
+
+        static View empty() {
+            return new View(null, new long[16], new int[16], 0, -1, 0, null);
+        }
+
+        @Override
+        public String tag() {
+            return lastTag;
+        }
+
+        @Override
+        public long epochNanos() {
+            return buffer.getLong(lastOffset + NANOS_OFFSET);
+        }
+
+        @Override
+        public ExchangeRate exchangeRate() {
+            return materialize(buffer, lastOffset);
+        }
+
+        @Override
+        public OptionalDouble rate(String currency) {
+            return SnapshotLog.rate(buffer, lastOffset, currency);
+        }
+
+        View append(MappedByteBuffer buffer, int offset, long nanos, int indexInterval, String tag) {
+            long[] nanosIndex = indexNanos;
+            int[] offsetIndex = indexOffsets;
+            int entries = indexSize;
+            if (size % indexInterval == 0) {
+                if (entries == nanosIndex.length) {
+                    nanosIndex = Arrays.copyOf(nanosIndex, entries * 2);
+                    offsetIndex = Arrays.copyOf(offsetIndex, entries * 2);
+                }
+                nanosIndex[entries] = nanos;
+                offsetIndex[entries] = offset;
+                entries++;
+            }
+            return new View(buffer, nanosIndex, offsetIndex, entries, offset, size + 1, tag);
+        }
+
+        int floorOffset(long nanos) {
+            if (size == 0) {
+                return -1;
+            }
+            int low = 0;
+            int high = indexSize - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (indexNanos[mid] <= nanos) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0) {
+                return -1;
+            }
+            int candidate = indexOffsets[found];
+            while (candidate < lastOffset) {
+                int next = candidate + recordSize(buffer, candidate);
+                if (buffer.getLong(next + NANOS_OFFSET) > nanos) {
+                    break;
+                }
+                candidate = next;
+            }
+            return candidate;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/snapshotlog} : état du journal local ;
+ * {@code POST /actuator/snapshotlog} : reconstruction depuis le topic.
+ */
+@Component
+@Endpoint(id = "snapshotlog")
+@RequiredArgsConstructor
+public class SnapshotLogEndpoint {
+
+    private final SnapshotLog snapshotLog;
+    private final SnapshotLogRebuilder snapshotLogRebuilder;
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        ExchangeRate latest = snapshotLog.latest();
+        info.put("snapshots", snapshotLog.size());
+        info.put("bytes", snapshotLog.sizeInBytes());
+        info.put("latestTimestamp", latest == null ? null : latest.getTimestamp());
+        return info;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() throws IOException {
+        int rebuilt = snapshotLogRebuilder.rebuild();
+        Map<String, Object> info = info();
+        info.put("rebuilt", rebuilt);
+        return info;
+    }
+}
@@ -0,0 +1,78 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reconstruit le {@link SnapshotLog} en relisant le topic {@code exchange-rates}
+ * depuis le début, sans commiter d'offsets pour le groupe du consumer principal.
+ * Le rejeu remplit un fichier à part, installé seulement s'il va jusqu'au bout :
+ * un rejeu en échec laisse le journal en service intact.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotLogRebuilder {
+
+    private static final String EXCHANGE_RATE_TOPIC = "exchange-rates";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final SnapshotLog snapshotLog;
+    private final ConsumerFactory<String, ExchangeRate> exchangeRateConsumerFactory;
+
+    /**
+     * @return le nombre de snapshots réécrits
+     */
+    public int rebuild() throws IOException {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        try (Consumer<String, ExchangeRate> consumer =
+                     exchangeRateConsumerFactory.createConsumer(null, "snapshot-log-rebuild", null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(EXCHANGE_RATE_TOPIC).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            // Le journal en service reste lisible et alimenté pendant le rejeu
+            SnapshotLog rebuilt = snapshotLog.openSibling("rebuild");
+            try {
+                int appended = 0;
+                while (!reachedEnd(consumer, endOffsets)) {
+                    for (ConsumerRecord<String, ExchangeRate> record : consumer.poll(POLL_TIMEOUT)) {
+                        if (record.value() != null && record.value().getTimestamp() != null
+                                && rebuilt.append(record.value())) {
+                            appended++;
+                        }
+                    }
+                }
+                snapshotLog.replaceWith(rebuilt);
+                log.info("Snapshot log rebuilt from topic {}: {} snapshots", EXCHANGE_RATE_TOPIC, appended);
+                return appended;
+            } catch (IOException | RuntimeException e) {
+                rebuilt.discard();
+                throw e;
+            }
+        }
+    }
+
+    private static boolean reachedEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+}
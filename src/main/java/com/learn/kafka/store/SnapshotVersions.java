@@ -0,0 +1,109 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Anneau en mémoire des derniers snapshots versionnés, pour des lectures cohérentes sur
+ * plusieurs appels ({@code ?version=}). La version est l'offset du snapshot dans le topic
+ * {@code exchange-rates} : le topic n'a qu'une partition, elle croît donc avec l'ordre de
+ * publication et vaut la même chose sur toutes les instances.
+ *
+ * <p>Seuls les snapshots qui font avancer le dernier retenu sont conservés : un snapshot
+ * rejoué ou plus ancien (rattrapage historique) garde sa version mais n'entre pas dans
+ * l'anneau. Un seul écrivain (méthode synchronisée), lecteurs sans verrou sur un tableau
+ * immuable trié par version, recopié à chaque ajout.
+ */
+@Component
+public class SnapshotVersions {
+
+    private final int capacity;
+    private volatile Version[] versions = new Version[0];
+
+    public SnapshotVersions(@Value("${exchange-rates.versions.capacity:64}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Version capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return {@code false} si la version n'est pas supérieure à la dernière retenue ou si
+     * le snapshot est plus ancien que le dernier retenu
+     */
+    public synchronized boolean add(ExchangeRate exchangeRate) {
+        if (exchangeRate.getVersion() == null || exchangeRate.getTimestamp() == null) {
+            throw new IllegalArgumentException("Exchange rate without version or timestamp cannot be retained");
+        }
+        Version[] current = versions;
+        Version latest = current.length == 0 ? null : current[current.length - 1];
+        long version = exchangeRate.getVersion();
+        long nanos = RateTimestamps.toEpochNanos(exchangeRate.getTimestamp());
+        if (latest != null && (version <= latest.version() || nanos / 1_000_000 < latest.snapshot().getEpochMillis())) {
+            return false;
+        }
+
+        RateSnapshot snapshot = RateSnapshot.of(exchangeRate, latest == null ? null : latest.snapshot());
+        int kept = Math.min(current.length, capacity - 1);
+        Version[] next = Arrays.copyOfRange(current, current.length - kept, current.length + 1);
+        next[kept] = new Version(version, SnapshotLog.tag(nanos, exchangeRate.getId()), exchangeRate, snapshot);
+        versions = next;
+        return true;
+    }
+
+    /**
+     * @return le snapshot de cette version, null si elle n'est pas (ou plus) retenue
+     */
+    public Version get(long version) {
+        Version[] current = versions;
+        int low = 0;
+        int high = current.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midVersion = current[mid].version();
+            if (midVersion < version) {
+                low = mid + 1;
+            } else if (midVersion > version) {
+                high = mid - 1;
+            } else {
+                return current[mid];
+            }
+        }
+        return null;
+    }
+
+    public Version latest() {
+        Version[] current = versions;
+        return current.length == 0 ? null : current[current.length - 1];
+    }
+
+    /**
+     * @return {@code true} si la version précède le plus ancien snapshot retenu : elle a
+     * quitté l'anneau et ne sera plus servie
+     */
+    public boolean isBeforeOldest(long version) {
+        Version[] current = versions;
+        return current.length > 0 && version < current[0].version();
+    }
+
+    public int size() {
+        return versions.length;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Snapshot retenu, sous ses deux formes : le document publié (qui porte sa version) et
+     * sa représentation primitive. Aucun des deux n'est modifié après l'ajout.
+     *
+     * @param tag ETag du snapshot, identique à celui du journal local ({@link SnapshotLog#tag})
+     */
+    public record Version(long version, String tag, ExchangeRate exchangeRate, RateSnapshot snapshot) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.config.ConditionalOnRole;
+import com.learn.kafka.config.Role;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Recharge au démarrage l'anneau {@link SnapshotVersions} depuis la fin du topic
+ * {@code exchange-rates} : le journal local ne conserve pas la version des snapshots, et un
+ * consumer qui reprend à son offset commité ne relit rien. Sans ce rechargement, le dernier
+ * snapshot servi n'aurait pas d'en-tête {@code X-Snapshot-Version} jusqu'au suivant.
+ *
+ * <p>Lecture sans commit d'offsets, avant le passage en readiness. Un snapshot déjà ajouté
+ * par le consumer en cours de route l'emporte : l'anneau refuse les versions plus anciennes.
+ */
+@Service
+@ConditionalOnRole(Role.READER)
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotVersionsLoader {
+
+    private static final String EXCHANGE_RATE_TOPIC = "exchange-rates";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final SnapshotVersions snapshotVersions;
+    private final ConsumerFactory<String, ExchangeRate> exchangeRateConsumerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.warn("Could not load snapshot versions from topic {}: {}", EXCHANGE_RATE_TOPIC, e.getMessage());
+        }
+    }
+
+    /**
+     * @return le nombre de snapshots retenus
+     */
+    public int load() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        try (Consumer<String, ExchangeRate> consumer =
+                     exchangeRateConsumerFactory.createConsumer(null, "snapshot-versions-load", null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(EXCHANGE_RATE_TOPIC).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            partitions.forEach(partition -> consumer.seek(partition,
+                    Math.max(beginningOffsets.get(partition), endOffsets.get(partition) - snapshotVersions.capacity())));
+
+            // Jetons vus dans l'ordre du topic : un leader déchu reste écarté, comme par les consumers
+            FencingTokens fencingTokens = new FencingTokens();
+            int retained = 0;
+            while (!reachedEnd(consumer, endOffsets)) {
+                for (ConsumerRecord<String, ExchangeRate> record : consumer.poll(POLL_TIMEOUT)) {
+                    ExchangeRate exchangeRate = record.value();
+                    if (exchangeRate == null || exchangeRate.getTimestamp() == null || fencingTokens.isStale(exchangeRate)) {
+                        continue;
+                    }
+                    exchangeRate.setVersion(record.offset());
+                    if (snapshotVersions.add(exchangeRate)) {
+                        retained++;
+                    }
+                }
+            }
+            log.info("Snapshot versions loaded from topic {}: {} snapshots", EXCHANGE_RATE_TOPIC, retained);
+            return retained;
+        }
+    }
+
+    private static boolean reachedEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+}
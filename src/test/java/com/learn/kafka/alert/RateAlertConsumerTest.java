@@ -0,0 +1,144 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour RateAlertConsumer")
+class RateAlertConsumerTest {
+
+    @Mock
+    private KafkaTemplate<String, RateAlert> rateAlertKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> derivedKafkaTemplate;
+
+    @Mock
+    private ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplateProvider;
+
+    @Mock
+    private ConsumerSeekAware.ConsumerSeekCallback seekCallback;
+
+    private RateAlertConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        RateAlertProperties properties = new RateAlertProperties();
+        RateAlertProperties.Rule rule = new RateAlertProperties.Rule();
+        rule.setCurrency("EUR");
+        rule.setType(RateAlert.Type.CHANGE);
+        rule.setThreshold(0.5);
+        properties.getRules().add(rule);
+        consumer = new RateAlertConsumer(new RateAlertEngine(properties), rateAlertKafkaTemplate,
+                derivedKafkaTemplateProvider, properties);
+    }
+
+    @Test
+    @DisplayName("Alerte publiée sur le topic d'alertes, clé = devise")
+    void consume_PublishesAlerts() {
+        // When
+        consumer.consumeExchangeRate(record(0, "2024-01-15T10:00:00", 0.91));
+        consumer.consumeExchangeRate(record(1, "2024-01-15T10:02:00", 0.92));
+
+        // Then
+        ArgumentCaptor<RateAlert> alert = ArgumentCaptor.forClass(RateAlert.class);
+        verify(rateAlertKafkaTemplate).send(eq("exchange-rate-alerts"), eq("EUR"), alert.capture());
+        assertThat(alert.getValue().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Assignation : recul d'un snapshot pour la référence, sans republier ses alertes")
+    void assignment_RebuildsReferenceWithoutRepublishing() {
+        // Given
+        TopicPartition partition = new TopicPartition("exchange-rates", 0);
+        consumer.onPartitionsAssigned(Map.of(partition, 50L), seekCallback);
+
+        // When
+        consumer.consumeExchangeRate(record(48, "2024-01-15T10:00:00", 0.80));
+        consumer.consumeExchangeRate(record(49, "2024-01-15T10:02:00", 0.91));
+
+        // Then
+        verify(seekCallback).seek("exchange-rates", 0, 49L);
+        verifyNoInteractions(rateAlertKafkaTemplate);
+
+        // When
+        consumer.consumeExchangeRate(record(50, "2024-01-15T10:04:00", 0.95));
+
+        // Then
+        verify(rateAlertKafkaTemplate).send(eq("exchange-rate-alerts"), eq("EUR"), any(RateAlert.class));
+    }
+
+    @Test
+    @DisplayName("Mode exactly-once : envoi transactionnel, un échec est propagé et la relecture republie")
+    void consume_TransactionalSendFailureIsReplayed() {
+        // Given
+        when(derivedKafkaTemplateProvider.getIfAvailable()).thenReturn(derivedKafkaTemplate);
+        consumer.consumeExchangeRate(record(0, "2024-01-15T10:00:00", 0.91));
+        when(derivedKafkaTemplate.send(eq("exchange-rate-alerts"), eq("EUR"), any(RateAlert.class)))
+                .thenThrow(new IllegalStateException("transaction aborted"))
+                .thenReturn(null);
+        ConsumerRecord<String, ExchangeRate> record = record(1, "2024-01-15T10:02:00", 0.92);
+
+        // When
+        assertThatThrownBy(() -> consumer.consumeExchangeRate(record)).hasMessage("transaction aborted");
+        consumer.consumeExchangeRate(record);
+
+        // Then
+        verify(derivedKafkaTemplate, times(2)).send(eq("exchange-rate-alerts"), eq("EUR"), any(RateAlert.class));
+        verifyNoInteractions(rateAlertKafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Snapshot d'un leader déchu : écarté avant l'évaluation des règles")
+    void consume_DiscardsDeposedLeaderSnapshot() {
+        // Given
+        ConsumerRecord<String, ExchangeRate> current = record(0, "2024-01-15T10:00:00", 0.91);
+        current.value().setFencingToken(5L);
+        ConsumerRecord<String, ExchangeRate> deposed = record(1, "2024-01-15T10:02:00", 0.99);
+        deposed.value().setFencingToken(3L);
+
+        // When
+        consumer.consumeExchangeRate(current);
+        consumer.consumeExchangeRate(deposed);
+        consumer.consumeExchangeRate(record(2, "2024-01-15T10:04:00", 0.92));
+
+        // Then
+        ArgumentCaptor<RateAlert> alert = ArgumentCaptor.forClass(RateAlert.class);
+        verify(rateAlertKafkaTemplate).send(eq("exchange-rate-alerts"), eq("EUR"), alert.capture());
+        assertThat(alert.getValue().getPreviousRate()).isEqualTo(0.91);
+        assertThat(alert.getValue().getVersion()).isEqualTo(2L);
+    }
+
+    private static ConsumerRecord<String, ExchangeRate> record(long offset, String timestamp, double eur) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + offset);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(Map.of("EUR", eur, "GBP", 0.79));
+        return new ConsumerRecord<>("exchange-rates", 0, offset, null, exchangeRate);
+    }
+}
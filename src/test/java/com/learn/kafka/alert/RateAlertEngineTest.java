@@ -0,0 +1,150 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Tests unitaires pour RateAlertEngine")
+class RateAlertEngineTest {
+
+    private static RateAlertProperties properties(Object... rules) {
+        RateAlertProperties properties = new RateAlertProperties();
+        for (int i = 0; i < rules.length; i += 3) {
+            RateAlertProperties.Rule rule = new RateAlertProperties.Rule();
+            rule.setCurrency((String) rules[i]);
+            rule.setType((RateAlert.Type) rules[i + 1]);
+            rule.setThreshold(((Number) rules[i + 2]).doubleValue());
+            properties.getRules().add(rule);
+        }
+        return properties;
+    }
+
+    private static ExchangeRate snapshot(String timestamp, Object... rates) {
+        Map<String, Double> values = new HashMap<>();
+        for (int i = 0; i < rates.length; i += 2) {
+            values.put((String) rates[i], ((Number) rates[i + 1]).doubleValue());
+        }
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + timestamp);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(values);
+        exchangeRate.setVersion(7L);
+        return exchangeRate;
+    }
+
+    @Test
+    @DisplayName("evaluate - Variation en % contre le snapshot précédent, premier snapshot sans alerte")
+    void evaluate_Change() {
+        // Given
+        RateAlertEngine engine = new RateAlertEngine(properties("EUR", RateAlert.Type.CHANGE, 0.5));
+
+        // When
+        List<RateAlert> first = engine.evaluate(snapshot("2025-06-04T12:00:00", "EUR", 0.90, "GBP", 0.75));
+        List<RateAlert> small = engine.evaluate(snapshot("2025-06-04T12:02:00", "EUR", 0.903, "GBP", 0.70));
+        List<RateAlert> large = engine.evaluate(snapshot("2025-06-04T12:04:00", "EUR", 0.8975, "GBP", 0.70));
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(small).isEmpty();
+        assertThat(large).singleElement().satisfies(alert -> {
+            assertThat(alert.getType()).isEqualTo(RateAlert.Type.CHANGE);
+            assertThat(alert.getCurrency()).isEqualTo("EUR");
+            assertThat(alert.getPreviousRate()).isEqualTo(0.903);
+            assertThat(alert.getRate()).isEqualTo(0.8975);
+            assertThat(alert.getChangePercent()).isCloseTo(-0.609, offset(0.001));
+            assertThat(alert.getSnapshotId()).isEqualTo("id-2025-06-04T12:04:00");
+            assertThat(alert.getVersion()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    @DisplayName("evaluate - Seuils levés au franchissement seulement, devise apparue comprise")
+    void evaluate_Thresholds() {
+        // Given
+        RateAlertEngine engine = new RateAlertEngine(properties(
+                "JPY", RateAlert.Type.ABOVE, 150, "gbp", RateAlert.Type.BELOW, 0.75));
+        engine.evaluate(snapshot("2025-06-04T12:00:00", "JPY", 149.5, "EUR", 0.9));
+
+        // When
+        List<RateAlert> crossed = engine.evaluate(snapshot("2025-06-04T12:02:00", "JPY", 150.2, "GBP", 0.74, "EUR", 0.9));
+        List<RateAlert> stillAbove = engine.evaluate(snapshot("2025-06-04T12:04:00", "JPY", 151.0, "GBP", 0.73, "EUR", 0.9));
+
+        // Then
+        assertThat(crossed).extracting(RateAlert::getCurrency, RateAlert::getType)
+                .containsExactlyInAnyOrder(
+                        tuple("JPY", RateAlert.Type.ABOVE),
+                        tuple("GBP", RateAlert.Type.BELOW));
+        assertThat(crossed).filteredOn(alert -> alert.getCurrency().equals("GBP"))
+                .singleElement().satisfies(alert -> assertThat(alert.getPreviousRate()).isNull());
+        assertThat(stillAbove).isEmpty();
+    }
+
+    @Test
+    @DisplayName("evaluate - Devise disparue signalée par la règle \"*\" ou par sa propre règle")
+    void evaluate_Missing() {
+        // Given
+        RateAlertEngine anyCurrency = new RateAlertEngine(properties("*", RateAlert.Type.MISSING, 0));
+        RateAlertEngine eurOnly = new RateAlertEngine(properties("EUR", RateAlert.Type.MISSING, 0));
+        for (RateAlertEngine engine : List.of(anyCurrency, eurOnly)) {
+            engine.evaluate(snapshot("2025-06-04T12:00:00", "EUR", 0.9, "GBP", 0.75, "JPY", 150));
+        }
+        ExchangeRate next = snapshot("2025-06-04T12:02:00", "JPY", 150);
+
+        // When
+        List<RateAlert> any = anyCurrency.evaluate(next);
+        List<RateAlert> eur = eurOnly.evaluate(next);
+
+        // Then
+        assertThat(any).extracting(RateAlert::getCurrency).containsExactly("EUR", "GBP");
+        assertThat(any).allSatisfy(alert -> {
+            assertThat(alert.getType()).isEqualTo(RateAlert.Type.MISSING);
+            assertThat(alert.getRate()).isNull();
+        });
+        assertThat(eur).singleElement().satisfies(alert -> assertThat(alert.getPreviousRate()).isEqualTo(0.9));
+    }
+
+    @Test
+    @DisplayName("evaluate - Snapshot rejoué ou plus ancien ignoré, changement de base sans alerte")
+    void evaluate_IgnoresReplayAndBaseChange() {
+        // Given
+        RateAlertEngine engine = new RateAlertEngine(properties("EUR", RateAlert.Type.CHANGE, 0.5));
+        engine.evaluate(snapshot("2025-06-04T12:02:00", "EUR", 0.90));
+        ExchangeRate otherBase = snapshot("2025-06-04T12:04:00", "USD", 1.11);
+        otherBase.setBaseCurrency("EUR");
+
+        // Then
+        assertThat(engine.evaluate(snapshot("2025-06-04T12:00:00", "EUR", 0.80))).isEmpty();
+        assertThat(engine.evaluate(snapshot("2025-06-04T12:02:00", "EUR", 0.80))).isEmpty();
+        assertThat(engine.evaluate(otherBase)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Règles invalides refusées au démarrage, alertes désactivées sans évaluation")
+    void rules_Validation() {
+        assertThatThrownBy(() -> new RateAlertEngine(properties("*", RateAlert.Type.CHANGE, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateAlertEngine(properties("EURO", RateAlert.Type.ABOVE, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Given
+        RateAlertProperties disabled = properties("EUR", RateAlert.Type.CHANGE, 0.5);
+        disabled.setEnabled(false);
+        RateAlertEngine engine = new RateAlertEngine(disabled);
+        engine.evaluate(snapshot("2025-06-04T12:00:00", "EUR", 0.90));
+
+        // Then
+        assertThat(engine.evaluate(snapshot("2025-06-04T12:02:00", "EUR", 0.80))).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.learn.kafka.alert;
+
+import com.learn.kafka.model.RateAlert;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour RateAlertFanOutConsumer")
+class RateAlertFanOutConsumerTest {
+
+    @Mock
+    private RateAlertPublisher rateAlertPublisher;
+
+    @InjectMocks
+    private RateAlertFanOutConsumer consumer;
+
+    @Test
+    @DisplayName("Alerte du topic poussée aux abonnés SSE de l'instance")
+    void consume_PushesAlertToSubscribers() {
+        // Given
+        RateAlert alert = new RateAlert();
+        alert.setCurrency("EUR");
+
+        // When
+        consumer.consumeRateAlert(alert);
+
+        // Then
+        verify(rateAlertPublisher).publish(alert);
+    }
+
+    @Test
+    @DisplayName("Enregistrement sans valeur ignoré")
+    void consume_IgnoresNullAlert() {
+        // When
+        consumer.consumeRateAlert(null);
+
+        // Then
+        verifyNoInteractions(rateAlertPublisher);
+    }
+}
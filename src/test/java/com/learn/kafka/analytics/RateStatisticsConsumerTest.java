@@ -0,0 +1,160 @@
+package com.learn.kafka.analytics;
+
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.ElasticsearchService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour RateStatisticsConsumer")
+class RateStatisticsConsumerTest {
+
+    @Mock
+    private KafkaTemplate<String, CurrencyStats> rateStatsKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> derivedKafkaTemplate;
+
+    @Mock
+    private ObjectProvider<KafkaTemplate<String, Object>> derivedKafkaTemplateProvider;
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @Mock
+    private ConsumerSeekAware.ConsumerSeekCallback seekCallback;
+
+    private RateStatsProperties properties;
+    private RateStatisticsConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateStatsProperties();
+        properties.setWindows(List.of(3, 10));
+        consumer = new RateStatisticsConsumer(new RollingRateStatistics(properties), rateStatsKafkaTemplate,
+                derivedKafkaTemplateProvider, elasticsearchService, properties);
+    }
+
+    @Test
+    @DisplayName("Statistiques publiées sur le topic dérivé, par devise, puis indexées")
+    void consume_PublishesAndIndexes() {
+        // When
+        consumer.consumeExchangeRate(record(0, "2024-01-15T10:00:00"));
+
+        // Then
+        verify(rateStatsKafkaTemplate).send(eq("exchange-rate-stats"), eq("EUR"), any(CurrencyStats.class));
+        verify(rateStatsKafkaTemplate).send(eq("exchange-rate-stats"), eq("GBP"), any(CurrencyStats.class));
+        verify(elasticsearchService).saveCurrencyStats(anyList());
+    }
+
+    @Test
+    @DisplayName("Assignation : recul de la plus grande fenêtre, snapshots déjà traités non republiés")
+    void assignment_WarmsUpWithoutRepublishing() {
+        // Given
+        TopicPartition partition = new TopicPartition("exchange-rates", 0);
+        consumer.onPartitionsAssigned(Map.of(partition, 50L), seekCallback);
+
+        // When
+        consumer.consumeExchangeRate(record(49, "2024-01-15T10:00:00"));
+
+        // Then
+        verify(seekCallback).seek("exchange-rates", 0, 39L);
+        verifyNoInteractions(rateStatsKafkaTemplate, elasticsearchService);
+
+        // When
+        consumer.consumeExchangeRate(record(50, "2024-01-15T10:02:00"));
+
+        // Then
+        verify(elasticsearchService).saveCurrencyStats(anyList());
+    }
+
+    @Test
+    @DisplayName("Index désactivé ou en échec : le topic reste alimenté")
+    void consume_IndexFailureIsIsolated() {
+        // Given
+        doThrow(new IllegalStateException("es down")).when(elasticsearchService).saveCurrencyStats(anyList());
+
+        // When
+        consumer.consumeExchangeRate(record(0, "2024-01-15T10:00:00"));
+        properties.setIndexEnabled(false);
+        consumer.consumeExchangeRate(record(1, "2024-01-15T10:02:00"));
+
+        // Then
+        verify(rateStatsKafkaTemplate, times(4)).send(eq("exchange-rate-stats"), any(), any(CurrencyStats.class));
+        verify(elasticsearchService, times(1)).saveCurrencyStats(anyList());
+    }
+
+    @Test
+    @DisplayName("Mode exactly-once : envoi transactionnel, un échec est propagé et la relecture republie")
+    void consume_TransactionalSendFailureIsReplayed() {
+        // Given
+        when(derivedKafkaTemplateProvider.getIfAvailable()).thenReturn(derivedKafkaTemplate);
+        when(derivedKafkaTemplate.send(eq("exchange-rate-stats"), any(), any(CurrencyStats.class)))
+                .thenThrow(new IllegalStateException("transaction aborted"))
+                .thenReturn(null);
+        ConsumerRecord<String, ExchangeRate> record = record(0, "2024-01-15T10:00:00");
+
+        // When
+        assertThatThrownBy(() -> consumer.consumeExchangeRate(record)).hasMessage("transaction aborted");
+        consumer.consumeExchangeRate(record);
+
+        // Then
+        verify(derivedKafkaTemplate, times(3)).send(eq("exchange-rate-stats"), any(), any(CurrencyStats.class));
+        verify(derivedKafkaTemplate, atLeastOnce()).send(eq("exchange-rate-stats"), eq("EUR"), any(CurrencyStats.class));
+        verify(derivedKafkaTemplate, atLeastOnce()).send(eq("exchange-rate-stats"), eq("GBP"), any(CurrencyStats.class));
+        verifyNoInteractions(rateStatsKafkaTemplate);
+        verify(elasticsearchService).saveCurrencyStats(anyList());
+    }
+
+    @Test
+    @DisplayName("Snapshot d'un leader déchu : écarté avant la mise à jour des fenêtres")
+    void consume_DiscardsDeposedLeaderSnapshot() {
+        // Given
+        ConsumerRecord<String, ExchangeRate> current = record(0, "2024-01-15T10:00:00");
+        current.value().setFencingToken(5L);
+        ConsumerRecord<String, ExchangeRate> deposed = record(1, "2024-01-15T10:02:00");
+        deposed.value().setFencingToken(3L);
+
+        // When
+        consumer.consumeExchangeRate(current);
+        consumer.consumeExchangeRate(deposed);
+
+        // Then
+        verify(rateStatsKafkaTemplate, times(2)).send(eq("exchange-rate-stats"), any(), any(CurrencyStats.class));
+        verify(elasticsearchService, times(1)).saveCurrencyStats(anyList());
+    }
+
+    private static ConsumerRecord<String, ExchangeRate> record(long offset, String timestamp) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + offset);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(Map.of("EUR", 0.91, "GBP", 0.79));
+        return new ConsumerRecord<>("exchange-rates", 0, offset, null, exchangeRate);
+    }
+}
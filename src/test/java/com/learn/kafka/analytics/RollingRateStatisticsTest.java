@@ -0,0 +1,97 @@
+package com.learn.kafka.analytics;
+
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Tests unitaires pour RollingRateStatistics")
+class RollingRateStatisticsTest {
+
+    private RollingRateStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        RateStatsProperties properties = new RateStatsProperties();
+        properties.setWindows(List.of(2, 3));
+        properties.setEwmaHalfLives(List.of(1));
+        statistics = new RollingRateStatistics(properties);
+    }
+
+    @Test
+    @DisplayName("Fenêtres, volatilité et EWMA mises à jour à chaque snapshot")
+    void update_ComputesRollingStatistics() {
+        // Given
+        statistics.update(snapshot("2024-01-15T10:00:00", 1.0));
+        statistics.update(snapshot("2024-01-15T10:02:00", 2.0));
+
+        // When
+        List<CurrencyStats> updated = statistics.update(snapshot("2024-01-15T10:04:00", 8.0));
+
+        // Then
+        assertThat(updated).hasSize(1);
+        CurrencyStats eur = updated.get(0);
+        assertThat(eur.getId()).isEqualTo("EUR-1705313040000");
+        assertThat(eur.getBaseCurrency()).isEqualTo("USD");
+        assertThat(eur.getRate()).isEqualTo(8.0);
+        assertThat(eur.getSamples()).isEqualTo(3);
+
+        CurrencyStats.Window two = eur.getWindows().get(0);
+        assertThat(two.getSize()).isEqualTo(2);
+        assertThat(two.getMean()).isEqualTo(5.0);
+        assertThat(two.getMin()).isEqualTo(2.0);
+        assertThat(two.getMax()).isEqualTo(8.0);
+        // Rendements ln 2 puis ln 4
+        assertThat(two.getVolatility()).isCloseTo(Math.log(2) / Math.sqrt(2), within(1e-12));
+
+        CurrencyStats.Window three = eur.getWindows().get(1);
+        assertThat(three.getCount()).isEqualTo(3);
+        assertThat(three.getMean()).isCloseTo(11.0 / 3, within(1e-12));
+        assertThat(three.getMin()).isEqualTo(1.0);
+        assertThat(three.getStddev()).isNotNull();
+
+        // Demi-vie 1 : alpha = 0.5
+        assertThat(eur.getEwma()).containsEntry("hl1", 4.75);
+    }
+
+    @Test
+    @DisplayName("Snapshot rejoué ou plus ancien ignoré")
+    void update_IgnoresReplays() {
+        // Given
+        statistics.update(snapshot("2024-01-15T10:02:00", 1.0));
+
+        // When / Then
+        assertThat(statistics.update(snapshot("2024-01-15T10:02:00", 1.0))).isEmpty();
+        assertThat(statistics.update(snapshot("2024-01-15T10:00:00", 9.0))).isEmpty();
+        assertThat(statistics.get("EUR")).hasValueSatisfying(stats -> assertThat(stats.getSamples()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Devise inconnue ou jamais vue : aucune statistique")
+    void get_UnknownCurrency() {
+        // Given
+        statistics.update(snapshot("2024-01-15T10:00:00", 1.0));
+
+        // When / Then
+        assertThat(statistics.get("GBP")).isEmpty();
+        assertThat(statistics.get("not-a-code")).isEmpty();
+        assertThat(statistics.get("EUR")).isPresent();
+    }
+
+    private static ExchangeRate snapshot(String timestamp, double eur) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + timestamp);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(Map.of("EUR", eur));
+        return exchangeRate;
+    }
+}
@@ -0,0 +1,75 @@
+package com.learn.kafka.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Tests unitaires pour RollingWindow")
+class RollingWindowTest {
+
+    @Test
+    @DisplayName("Fenêtre partielle : statistiques des seules valeurs reçues")
+    void partialWindow() {
+        // Given
+        RollingWindow window = new RollingWindow(5);
+
+        // When
+        window.add(2.0);
+
+        // Then
+        assertThat(window.count()).isEqualTo(1);
+        assertThat(window.mean()).isEqualTo(2.0);
+        assertThat(window.stddev()).isNaN();
+        assertThat(window.min()).isEqualTo(2.0);
+        assertThat(window.max()).isEqualTo(2.0);
+
+        // When
+        window.add(4.0);
+
+        // Then
+        assertThat(window.mean()).isEqualTo(3.0);
+        assertThat(window.stddev()).isCloseTo(Math.sqrt(2), within(1e-12));
+    }
+
+    @Test
+    @DisplayName("Glissement : identique au recalcul complet sur les dernières valeurs")
+    void matchesNaiveComputation() {
+        // Given
+        int size = 17;
+        RollingWindow window = new RollingWindow(size);
+        Random random = new Random(42);
+        double[] history = new double[2000];
+
+        for (int i = 0; i < history.length; i++) {
+            // Marche aléatoire autour d'un niveau élevé, pire cas pour l'arrondi
+            history[i] = 1000 + (i == 0 ? 0 : history[i - 1] - 1000) + random.nextGaussian() * 0.01;
+
+            // When
+            window.add(history[i]);
+
+            // Then
+            double[] expected = Arrays.copyOfRange(history, Math.max(0, i + 1 - size), i + 1);
+            double mean = Arrays.stream(expected).average().orElseThrow();
+            assertThat(window.count()).isEqualTo(expected.length);
+            assertThat(window.mean()).isCloseTo(mean, within(1e-9));
+            assertThat(window.min()).isEqualTo(Arrays.stream(expected).min().orElseThrow());
+            assertThat(window.max()).isEqualTo(Arrays.stream(expected).max().orElseThrow());
+            if (expected.length > 1) {
+                double variance = Arrays.stream(expected).map(v -> (v - mean) * (v - mean)).sum() / (expected.length - 1);
+                assertThat(window.stddev()).isCloseTo(Math.sqrt(variance), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Taille invalide refusée")
+    void rejectsInvalidSize() {
+        assertThatThrownBy(() -> new RollingWindow(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
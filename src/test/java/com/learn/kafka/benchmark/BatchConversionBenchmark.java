@@ -0,0 +1,83 @@
+package com.learn.kafka.benchmark;
+
+import com.learn.kafka.convert.ConversionService;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.store.RateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion en lot de 10 000 lignes CSV {@code montant,source,cible} sur ~160 devises,
+ * lecture et écriture comprises : boucle scalaire contre Vector API
+ * ({@code vectorized=true}, avec {@code -Pbenchmark,vector} ; sans le profil {@code vector},
+ * les deux variantes passent par la boucle scalaire). Avec {@code -prof gc}, seuls les tampons par requête doivent
+ * apparaître dans {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchConversionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private ConversionService conversionService;
+    private RateSnapshot snapshot;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        conversionService = new ConversionService(vectorized);
+        List<String> codes = Currency.getAvailableCurrencies().stream()
+                .map(Currency::getCurrencyCode)
+                .sorted()
+                .limit(160)
+                .toList();
+        Random random = new Random(42);
+        Map<String, Double> rates = new HashMap<>();
+        codes.forEach(code -> rates.put(code, 0.001 + random.nextDouble() * 1000));
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("benchmark");
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp("2025-06-04T12:00:00");
+        exchangeRate.setRates(rates);
+        snapshot = RateSnapshot.of(exchangeRate);
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(random.nextInt(1_000_000)).append('.').append(random.nextInt(100)).append(',')
+                    .append(codes.get(random.nextInt(codes.size()))).append(',')
+                    .append(codes.get(random.nextInt(codes.size()))).append('\n');
+        }
+        body = csv.toString();
+    }
+
+    @Benchmark
+    public long convertCsv() throws IOException {
+        return conversionService.convert(snapshot, new StringReader(body), Writer.nullWriter());
+    }
+}
@@ -0,0 +1,86 @@
+package com.learn.kafka.benchmark;
+
+import com.learn.kafka.model.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions croisées {@code montant × to / from} sur 160 devises, chaque montant
+ * passant par toutes les paires successives : {@code double}, {@code BigDecimal}
+ * (arrondi au centime à chaque conversion) et {@link FixedPoint}. À lancer avec
+ * {@code -prof gc} : seule la variante {@code BigDecimal} alloue.
+ *
+ * <p>Chaque variante renvoie son montant final : l'écart entre {@code double} et les
+ * deux autres mesure l'erreur cumulée sur la chaîne de conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointConversionBenchmark {
+
+    private static final int CURRENCIES = 160;
+    private static final int AMOUNT_SCALE = 2;
+
+    private final double[] doubleRates = new double[CURRENCIES];
+    private final BigDecimal[] decimalRates = new BigDecimal[CURRENCIES];
+    private final long[] unscaledRates = new long[CURRENCIES];
+    private final int[] scales = new int[CURRENCIES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < CURRENCIES; i++) {
+            // Taux publiés à 4 à 6 décimales, de 0,0001 à ~20000 comme chez exchangerate-api
+            int scale = 4 + random.nextInt(3);
+            long unscaled = 1 + (long) (Math.pow(10, random.nextDouble() * 8) * Math.pow(10, scale - 4));
+            unscaledRates[i] = unscaled;
+            scales[i] = scale;
+            decimalRates[i] = BigDecimal.valueOf(unscaled, scale);
+            doubleRates[i] = FixedPoint.toDouble(unscaled, scale);
+        }
+    }
+
+    @Benchmark
+    public double doubleChain() {
+        double amount = 1000.00;
+        for (int i = 1; i < CURRENCIES; i++) {
+            amount = amount * doubleRates[i] / doubleRates[i - 1];
+        }
+        return amount;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalChain() {
+        BigDecimal amount = BigDecimal.valueOf(100000, AMOUNT_SCALE);
+        for (int i = 1; i < CURRENCIES; i++) {
+            amount = amount.multiply(decimalRates[i]).divide(decimalRates[i - 1], AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+        }
+        return amount;
+    }
+
+    @Benchmark
+    public long fixedPointChain() {
+        long amount = 100000;
+        for (int i = 1; i < CURRENCIES; i++) {
+            amount = FixedPoint.convert(amount, AMOUNT_SCALE, unscaledRates[i - 1], scales[i - 1],
+                    unscaledRates[i], scales[i], AMOUNT_SCALE);
+        }
+        return amount;
+    }
+}
@@ -0,0 +1,133 @@
+package com.learn.kafka.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Temps de démarrage de l'application extraite par le profil Maven {@code fast-start} :
+ * JVM seule, avec AOT, puis avec AOT et l'archive CDS. Chaque variante est lancée
+ * {@code runs} fois ; on retient la médiane du "process running for" de Spring Boot
+ * (lancement de la JVM jusqu'à la fin du démarrage du contexte). Kafka et Elasticsearch
+ * n'ont pas besoin d'être joignables : le processus est arrêté dès la ligne
+ * {@code Started}.
+ *
+ * <p>Le résultat est écrit dans {@code startup-report.properties} à côté du jar.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\S+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args.length > 0 ? args[0] : "target/fast-start");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path jar = findJar(directory);
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jvm", List.of());
+        variants.put("aot", List.of("-Dspring.aot.enabled=true"));
+        if (Files.exists(directory.resolve("application.jsa"))) {
+            variants.put("aot-cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=application.jsa"));
+        }
+
+        Map<String, Double> medians = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            double[] millis = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = run(directory, jar, variant.getValue());
+            }
+            Arrays.sort(millis);
+            medians.put(variant.getKey(), millis[runs / 2]);
+            System.out.printf(Locale.ROOT, "%-8s median %7.0f ms  min %7.0f ms  max %7.0f ms%n",
+                    variant.getKey(), millis[runs / 2], millis[0], millis[runs - 1]);
+        }
+        writeReport(medians, directory.resolve("startup-report.properties"));
+    }
+
+    private static Path findJar(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No extracted jar in " + directory
+                            + ", run mvn -Pfast-start package first"));
+        }
+    }
+
+    /**
+     * @return le temps de démarrage en millisecondes depuis le lancement de la JVM
+     */
+    private static double run(Path directory, Path jar, List<String> options) throws Exception {
+        Path data = Files.createTempDirectory("startup-benchmark");
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.addAll(List.of(
+                "-Dspring.profiles.active=fast-start",
+                "-Dserver.port=0",
+                "-Dspring.kafka.admin.auto-create=false",
+                "-Dexchange-rates.snapshot-log.path=" + data.resolve("snapshots.log"),
+                "-jar", jar.getFileName().toString()));
+
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            CompletableFuture<Double> started = CompletableFuture.supplyAsync(() -> awaitStarted(process));
+            return started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            Files.deleteIfExists(data.resolve("snapshots.log"));
+            Files.deleteIfExists(data);
+        }
+    }
+
+    private static double awaitStarted(Process process) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    return Double.parseDouble(matcher.group(2)) * 1000;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read application output", e);
+        }
+        throw new IllegalStateException("Application exited before startup, exit code "
+                + process.onExit().join().exitValue());
+    }
+
+    private static void writeReport(Map<String, Double> medians, Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write("# Médiane du temps de démarrage (ms), JVM lancée jusqu'au contexte démarré\n");
+            for (Map.Entry<String, Double> median : medians.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s.startup-ms=%.0f%n", median.getKey(), median.getValue()));
+            }
+        }
+    }
+}
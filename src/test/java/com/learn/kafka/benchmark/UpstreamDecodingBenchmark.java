@@ -0,0 +1,89 @@
+package com.learn.kafka.benchmark;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.provider.RateVector;
+import com.learn.kafka.provider.StreamingRateDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Décodage d'une réponse amont (~160 devises, format exchangerate-api, reçue en
+ * morceaux de 1 Ko) : binding Jackson de {@code bodyToMono(ExchangeRate.class)}
+ * contre {@link StreamingRateDecoder}. À lancer avec {@code -prof gc} pour comparer
+ * {@code gc.alloc.rate.norm} (octets alloués par fetch).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpstreamDecodingBenchmark {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final Jackson2JsonDecoder jacksonDecoder = new Jackson2JsonDecoder();
+    private final StreamingRateDecoder streamingDecoder = new StreamingRateDecoder(-1);
+    private final ResolvableType exchangeRateType = ResolvableType.forClass(ExchangeRate.class);
+    private final ResolvableType vectorType = ResolvableType.forClass(RateVector.class);
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"provider\":\"https://www.exchangerate-api.com\",")
+                .append("\"WARNING_UPGRADE_TO_V6\":\"https://www.exchangerate-api.com/docs/free\",")
+                .append("\"terms\":\"https://www.exchangerate-api.com/terms\",\"base\":\"USD\",")
+                .append("\"date\":\"2024-01-15\",\"time_last_updated\":1705276801,\"rates\":{");
+        Currency.getAvailableCurrencies().stream()
+                .map(Currency::getCurrencyCode)
+                .sorted()
+                .limit(160)
+                .forEach(code -> json.append('"').append(code).append("\":")
+                        .append(String.format(Locale.ROOT, "%.4f", 0.5 + code.hashCode() % 1000 / 7.0)).append(','));
+        json.setCharAt(json.length() - 1, '}');
+        body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object jacksonBinding() {
+        return jacksonDecoder.decodeToMono(chunks(), exchangeRateType, MediaType.APPLICATION_JSON, Map.of()).block();
+    }
+
+    @Benchmark
+    public Object streamingToExchangeRate() {
+        return streamingDecoder.decodeToMono(chunks(), exchangeRateType, MediaType.APPLICATION_JSON, Map.of()).block();
+    }
+
+    @Benchmark
+    public Object streamingToVector() {
+        return streamingDecoder.decodeToMono(chunks(), vectorType, MediaType.APPLICATION_JSON, Map.of()).block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        ByteBuffer.wrap(body, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, body.length - i * CHUNK_SIZE)).slice()));
+    }
+}
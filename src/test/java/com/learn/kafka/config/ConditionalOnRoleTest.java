@@ -0,0 +1,99 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.ProducerController;
+import com.learn.kafka.producer.MessageProducer;
+import com.learn.kafka.service.ExchangeRateService;
+import com.learn.kafka.service.ScheduledExchangeRateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests d'activation des beans par rôle")
+class ConditionalOnRoleTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(RoleBeans.class);
+
+    @Test
+    @DisplayName("Sans exchange-rates.roles - Tous les rôles, pas de synchronisation broadcast")
+    void allRolesByDefault() {
+        contextRunner.run(context -> assertThat(context.getBeanNamesForType(String.class))
+                .containsExactlyInAnyOrder("ingester", "indexer", "reader"));
+    }
+
+    @Test
+    @DisplayName("Reader seul - Synchronisation broadcast à la place de l'indexer")
+    void readerOnly() {
+        contextRunner
+                .withPropertyValues("exchange-rates.roles=reader")
+                .run(context -> assertThat(context.getBeanNamesForType(String.class))
+                        .containsExactlyInAnyOrder("reader", "readerSync"));
+    }
+
+    @Test
+    @DisplayName("Plusieurs rôles - Liste insensible à la casse")
+    void severalRoles() {
+        contextRunner
+                .withPropertyValues("exchange-rates.roles=Ingester, INDEXER")
+                .run(context -> assertThat(context.getBeanNamesForType(String.class))
+                        .containsExactlyInAnyOrder("ingester", "indexer"));
+    }
+
+    @Test
+    @DisplayName("Rôle inconnu - Démarrage refusé")
+    void unknownRole() {
+        contextRunner
+                .withPropertyValues("exchange-rates.roles=writer")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    @DisplayName("Reader seul - Ni scheduler, ni fetch, ni producteur")
+    void readerLeavesOutSchedulerAndProducers() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(SchedulingConfig.class, ScheduledExchangeRateService.class,
+                        ExchangeRateService.class, ProducerController.class, MessageProducer.class)
+                .withPropertyValues("exchange-rates.roles=reader")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).doesNotHaveBean(ScheduledTaskHolder.class);
+                    assertThat(context).doesNotHaveBean(ScheduledExchangeRateService.class);
+                    assertThat(context).doesNotHaveBean(ExchangeRateService.class);
+                    assertThat(context).doesNotHaveBean(ProducerController.class);
+                    assertThat(context).doesNotHaveBean(MessageProducer.class);
+                });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class RoleBeans {
+
+        @Bean
+        @ConditionalOnRole(Role.INGESTER)
+        String ingester() {
+            return "ingester";
+        }
+
+        @Bean
+        @ConditionalOnRole(Role.INDEXER)
+        String indexer() {
+            return "indexer";
+        }
+
+        @Bean
+        @ConditionalOnRole(Role.READER)
+        String reader() {
+            return "reader";
+        }
+
+        @Bean
+        @ConditionalOnRole(value = Role.READER, without = Role.INDEXER)
+        String readerSync() {
+            return "readerSync";
+        }
+    }
+}
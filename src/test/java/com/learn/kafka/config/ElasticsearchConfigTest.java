@@ -0,0 +1,93 @@
+package com.learn.kafka.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.elasticsearch.ElasticsearchProperties;
+import org.springframework.data.elasticsearch.client.ClientConfiguration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour ElasticsearchConfig")
+class ElasticsearchConfigTest {
+
+    private ElasticsearchProperties elasticsearchProperties;
+    private ElasticsearchClientProperties clientProperties;
+    private ElasticsearchConfig elasticsearchConfig;
+    private PoolingNHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchProperties = new ElasticsearchProperties();
+        clientProperties = new ElasticsearchClientProperties();
+        elasticsearchConfig = new ElasticsearchConfig(elasticsearchProperties, clientProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test des valeurs par défaut : localhost:9200, timeouts 1 s / 30 s")
+    void testDefaultClientConfiguration() {
+        // When
+        ClientConfiguration configuration = elasticsearchConfig.clientConfiguration();
+
+        // Then
+        assertThat(configuration.getEndpoints()).containsExactly(InetSocketAddress.createUnresolved("localhost", 9200));
+        assertThat(configuration.useSsl()).isFalse();
+        assertThat(configuration.getConnectTimeout()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(configuration.getSocketTimeout()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(configuration.getClientConfigurers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Test des hôtes, du SSL et des identifiants issus de spring.elasticsearch")
+    void testClientConfigurationFromProperties() {
+        // Given
+        elasticsearchProperties.setUris(List.of("https://es-1:9201", "https://es-2"));
+        elasticsearchProperties.setUsername("elastic");
+        elasticsearchProperties.setPassword("secret");
+        elasticsearchProperties.setConnectionTimeout(Duration.ofSeconds(3));
+
+        // When
+        ClientConfiguration configuration = elasticsearchConfig.clientConfiguration();
+
+        // Then
+        assertThat(configuration.getEndpoints()).containsExactly(
+                InetSocketAddress.createUnresolved("es-1", 9201), InetSocketAddress.createUnresolved("es-2", 9200));
+        assertThat(configuration.useSsl()).isTrue();
+        assertThat(configuration.getConnectTimeout()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(configuration.getDefaultHeaders().getFirst("Authorization")).startsWith("Basic ");
+    }
+
+    @Test
+    @DisplayName("Test du dimensionnement du pool et de ses métriques")
+    void testConnectionPoolAndMetrics() {
+        // Given
+        clientProperties.setMaxConnectionsPerRoute(8);
+        clientProperties.setMaxConnectionsTotal(24);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        connectionManager = elasticsearchConfig.elasticsearchConnectionManager();
+        elasticsearchConfig.elasticsearchConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        // Then
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(8);
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(24);
+        assertThat(registry.get("elasticsearch.client.connections").tag("state", "max").gauge().value()).isEqualTo(24);
+        assertThat(registry.get("elasticsearch.client.connections").tag("state", "leased").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.consumer.MessageConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Tests unitaires pour FastStartConfig")
+class FastStartConfigTest {
+
+    @Test
+    @DisplayName("lazyStartupBeans - Seuls les beans listés deviennent lazy")
+    void lazyStartupBeans() {
+        // Given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("messageProducer", new RootBeanDefinition(Object.class));
+        beanFactory.registerBeanDefinition("snapshotLog", new RootBeanDefinition(Object.class));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(FastStartConfig.LAZY_BEANS_PROPERTY, "messageProducer,unknownBean");
+
+        // When
+        FastStartConfig.lazyStartupBeans(environment).postProcessBeanFactory(beanFactory);
+
+        // Then
+        assertThat(beanFactory.getBeanDefinition("messageProducer").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("snapshotLog").isLazyInit()).isFalse();
+    }
+
+    @Test
+    @DisplayName("startDeferredListeners - Démarre le listener de démonstration après le démarrage")
+    void startDeferredListeners() {
+        // Given
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(MessageConsumer.LISTENER_ID)).thenReturn(container);
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getBean(KafkaListenerEndpointRegistry.class)).thenReturn(registry);
+        FastStartConfig config = new FastStartConfig();
+        ReflectionTestUtils.setField(config, "deferMessageConsumer", true);
+
+        // When
+        config.startDeferredListeners(new ApplicationReadyEvent(mock(), new String[0], context, null));
+
+        // Then
+        verify(container, timeout(TimeUnit.SECONDS.toMillis(5))).start();
+    }
+
+    @Test
+    @DisplayName("startDeferredListeners - Sans report, le listener est laissé à Spring Kafka")
+    void startDeferredListeners_Disabled() {
+        // Given
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+
+        // When
+        new FastStartConfig().startDeferredListeners(new ApplicationReadyEvent(mock(), new String[0], context, null));
+
+        // Then
+        verifyNoInteractions(context);
+    }
+}
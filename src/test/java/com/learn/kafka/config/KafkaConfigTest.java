@@ -63,6 +63,26 @@ class KafkaConfigTest {
         assertThat(kafkaTemplate.getProducerFactory()).isNotNull();
     }
 
+    @Test
+    @DisplayName("Test création du ProducerFactory compressé du backfill historique")
+    void testBackfillProducerFactory() {
+        // Given
+        HistoricalBackfillProperties properties = new HistoricalBackfillProperties();
+        properties.setCompression("lz4");
+
+        // When
+        ProducerFactory<String, ExchangeRate> producerFactory = kafkaConfig.backfillProducerFactory(properties);
+
+        // Then
+        assertThat(producerFactory.getConfigurationProperties())
+            .containsEntry(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092")
+            .containsEntry(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class)
+            .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+            .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 512 * 1024)
+            .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 100)
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    }
+
     @Test
     @DisplayName("Test création du ProducerFactory pour String")
     void testStringProducerFactory() {
@@ -0,0 +1,41 @@
+package com.learn.kafka.config;
+
+import com.learn.kafka.model.CurrencyStats;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour NativeRuntimeHints")
+class NativeRuntimeHintsTest {
+
+    @Test
+    @DisplayName("registerHints - Binding Jackson, entités, sérialiseurs Kafka et mappings Elasticsearch")
+    void registerHints() throws NoSuchMethodException {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(ExchangeRate.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ExchangeRate.class.getMethod("getRates")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(CurrencyStats.Window.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(RateAlert.class.getMethod("getChangePercent")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(JsonDeserializer.class.getConstructor()))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("elasticsearch/exchange-rates-mapping.json"))
+                .accepts(hints);
+    }
+}
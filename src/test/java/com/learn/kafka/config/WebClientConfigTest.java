@@ -1,27 +1,56 @@
 package com.learn.kafka.config;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.provider.RateVector;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Tests unitaires pour WebClientConfig")
 class WebClientConfigTest {
 
+    private UpstreamHttpProperties properties;
     private WebClientConfig webClientConfig;
+    private ConnectionProvider connectionProvider;
+    private WireMockServer wireMockServer;
 
     @BeforeEach
     void setUp() {
-        webClientConfig = new WebClientConfig();
+        properties = new UpstreamHttpProperties();
+        properties.setMetrics(false);
+        webClientConfig = new WebClientConfig(properties);
+        connectionProvider = webClientConfig.upstreamConnectionProvider();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        if (wireMockServer != null) {
+            wireMockServer.stop();
+        }
     }
 
     @Test
     @DisplayName("Test création du WebClient")
     void testWebClientCreation() {
         // When
-        WebClient webClient = webClientConfig.webClient();
+        WebClient webClient = webClientConfig.webClient(connectionProvider);
 
         // Then
         assertThat(webClient).isNotNull();
@@ -31,21 +60,19 @@ class WebClientConfigTest {
     @DisplayName("Test que le WebClient a la bonne URL de base")
     void testWebClientBaseUrl() {
         // When
-        WebClient webClient = webClientConfig.webClient();
+        WebClient webClient = webClientConfig.webClient(connectionProvider);
 
         // Then
         assertThat(webClient).isNotNull();
-        // On peut vérifier que le WebClient a été correctement configuré
-        // même si on ne peut pas directement vérifier l'URL de base
-        // (car c'est une propriété interne du WebClient)
+        assertThat(properties.getBaseUrl()).isEqualTo("https://api.exchangerate-api.com");
     }
 
     @Test
     @DisplayName("Test configuration multiple")
     void testMultipleWebClientCreation() {
         // When
-        WebClient webClient1 = webClientConfig.webClient();
-        WebClient webClient2 = webClientConfig.webClient();
+        WebClient webClient1 = webClientConfig.webClient(connectionProvider);
+        WebClient webClient2 = webClientConfig.webClient(connectionProvider);
 
         // Then
         assertThat(webClient1).isNotNull();
@@ -53,4 +80,88 @@ class WebClientConfigTest {
         // Chaque appel devrait créer une nouvelle instance
         assertThat(webClient1).isNotSameAs(webClient2);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test que le pool est dimensionné par la configuration")
+    void testConnectionPoolSizing() {
+        // Given
+        properties.setMaxConnections(4);
+
+        // When
+        ConnectionProvider provider = webClientConfig.upstreamConnectionProvider();
+
+        // Then
+        assertThat(provider.maxConnections()).isEqualTo(4);
+        provider.dispose();
+    }
+
+    @Test
+    @DisplayName("Test repli en HTTP/1.1 sur un serveur en clair")
+    void testHttp11FallbackOnPlainHttp() {
+        // Given
+        WebClient webClient = webClientAgainstStub("{\"rates\":{\"EUR\":0.85}}", 0);
+
+        // When / Then : deux appels successifs sur le même pool
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(webClient.get().uri("/v4/latest/USD").retrieve().bodyToMono(String.class))
+                    .assertNext(body -> assertThat(body).contains("EUR"))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    @DisplayName("Test que les réponses amont sont lues par le décodeur en flux")
+    void testStreamingRateDecoding() {
+        // Given
+        WebClient webClient = webClientAgainstStub("{\"base\":\"USD\",\"extra\":{\"x\":[1]},\"rates\":{\"EUR\":0.85}}", 0);
+
+        // When / Then
+        StepVerifier.create(webClient.get().uri("/v4/latest/USD").retrieve().bodyToMono(RateVector.class))
+                .assertNext(vector -> {
+                    assertThat(vector.getBaseCurrency()).isEqualTo("USD");
+                    assertThat(vector.size()).isEqualTo(1);
+                    assertThat(vector.value(0)).isEqualTo(0.85);
+                })
+                .verifyComplete();
+        StepVerifier.create(webClient.get().uri("/v4/latest/USD").retrieve().bodyToMono(ExchangeRate.class))
+                .assertNext(rate -> assertThat(rate.getRates()).containsEntry("EUR", 0.85))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test du timeout de réponse")
+    void testResponseTimeout() {
+        // Given
+        properties.setResponseTimeout(Duration.ofMillis(300));
+        WebClient webClient = webClientAgainstStub("{}", 2000);
+
+        // When / Then
+        StepVerifier.create(webClient.get().uri("/v4/latest/USD").retrieve().bodyToMono(String.class))
+                .expectError(WebClientRequestException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Test de la limite du corps bufferisé")
+    void testMaxInMemorySize() {
+        // Given
+        properties.setMaxInMemorySize(DataSize.ofBytes(64));
+        WebClient webClient = webClientAgainstStub("{\"rates\":{" + "\"EUR\":0.85,".repeat(20) + "\"USD\":1}}", 0);
+
+        // When / Then
+        StepVerifier.create(webClient.get().uri("/v4/latest/USD").retrieve().bodyToMono(String.class))
+                .expectErrorSatisfies(error -> assertThat(error).hasRootCauseInstanceOf(DataBufferLimitException.class))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private WebClient webClientAgainstStub(String body, int delayMillis) {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlEqualTo("/v4/latest/USD")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .withFixedDelay(delayMillis)));
+        properties.setBaseUrl(wireMockServer.baseUrl());
+        return webClientConfig.webClient(connectionProvider);
+    }
+}
@@ -0,0 +1,139 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@EmbeddedKafka(partitions = 1, topics = {"exchange-rates", "exchange-rates-derived"},
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+@DisplayName("Tests d'intégration pour ExactlyOnceConsumerConfig")
+class ExactlyOnceConsumerConfigTest {
+
+    private final EmbeddedKafkaBroker broker;
+    private ExactlyOnceConsumerConfig config;
+    private ConcurrentMessageListenerContainer<String, ExchangeRate> container;
+
+    ExactlyOnceConsumerConfigTest(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+    }
+
+    @BeforeEach
+    void setUp() {
+        config = new ExactlyOnceConsumerConfig();
+        config.bootstrapServers = broker.getBrokersAsString();
+        config.maxPollRecords = 100;
+        config.transactionIdPrefix = "test-tx-";
+        config.backoff = Duration.ofMillis(50);
+        config.maxBackoff = Duration.ofMillis(200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Échec puis relecture : offsets commités une fois, dérivés du lot annulé invisibles")
+    void failedBatchIsReplayedAndCommittedOnce() {
+        // Given
+        ProducerFactory<String, Object> derivedProducerFactory = config.derivedProducerFactory();
+        KafkaTemplate<String, Object> derivedKafkaTemplate = config.derivedKafkaTemplate(derivedProducerFactory);
+        container = config.exactlyOnceKafkaListenerContainerFactory(config.kafkaTransactionManager(derivedProducerFactory))
+                .createContainer("exchange-rates");
+        container.getContainerProperties().setGroupId("exactly-once-test");
+
+        AtomicInteger attempts = new AtomicInteger();
+        List<String> indexed = new CopyOnWriteArrayList<>();
+        container.getContainerProperties().setMessageListener(
+                (BatchAcknowledgingMessageListener<String, ExchangeRate>) (records, acknowledgment) -> {
+                    records.forEach(record -> derivedKafkaTemplate.send(
+                            new ProducerRecord<>("exchange-rates-derived", record.value().getId(), record.value().getId())));
+                    // Première tentative : Elasticsearch indisponible
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("Elasticsearch unavailable");
+                    }
+                    records.forEach(record -> indexed.add(record.value().getId()));
+                    acknowledgment.acknowledge();
+                });
+
+        container.start();
+        ContainerTestUtils.waitForAssignment(container, 1);
+        KafkaTemplate<String, ExchangeRate> producer = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+                "bootstrap.servers", broker.getBrokersAsString(),
+                "key.serializer", StringSerializer.class,
+                "value.serializer", JsonSerializer.class)));
+        for (int i = 0; i < 3; i++) {
+            producer.send("exchange-rates", snapshot("rate-" + i));
+        }
+
+        // When
+        producer.flush();
+
+        // Then
+        await().atMost(30, TimeUnit.SECONDS).until(() -> indexed.size() >= 3);
+        assertThat(indexed).containsExactly("rate-0", "rate-1", "rate-2");
+        assertThat(attempts.get()).isEqualTo(2);
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            OffsetAndMetadata committed = KafkaTestUtils.getCurrentOffset(
+                    broker.getBrokersAsString(), "exactly-once-test", "exchange-rates", 0);
+            assertThat(committed).isNotNull();
+            assertThat(committed.offset()).isEqualTo(3);
+        });
+        assertThat(readCommitted("exchange-rates-derived")).containsExactly("rate-0", "rate-1", "rate-2");
+    }
+
+    private List<String> readCommitted(String topic) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("derived-reader", "false", broker);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, topic);
+            ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5), 3);
+            return java.util.stream.StreamSupport.stream(records.spliterator(), false)
+                    .map(record -> record.value().replace("\"", ""))
+                    .toList();
+        }
+    }
+
+    private static ExchangeRate snapshot(String id) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId(id);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp("2024-01-15T10:00:00");
+        exchangeRate.setRates(Map.of("EUR", 0.91));
+        return exchangeRate;
+    }
+}
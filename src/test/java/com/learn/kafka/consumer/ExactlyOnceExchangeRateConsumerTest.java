@@ -0,0 +1,110 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.ElasticsearchService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ExactlyOnceExchangeRateConsumer")
+class ExactlyOnceExchangeRateConsumerTest {
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @Mock
+    private KafkaTemplate<String, Object> derivedKafkaTemplate;
+
+    @Mock
+    private ObjectProvider<DerivedTopicProducer> derivedTopicProducers;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private ExactlyOnceExchangeRateConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ExactlyOnceExchangeRateConsumer(elasticsearchService, derivedKafkaTemplate, derivedTopicProducers,
+                new FencingTokens());
+    }
+
+    @Test
+    @DisplayName("Lot indexé : dérivés puis acquittement")
+    @SuppressWarnings("unchecked")
+    void consume_AcknowledgesAfterIndexing() {
+        // Given
+        ExchangeRate first = snapshot("rate-1");
+        ExchangeRate second = snapshot(null);
+        when(elasticsearchService.saveExchangeRatesAsync(anyList())).thenAnswer(invocation -> ((List<ExchangeRate>) invocation
+                .getArgument(0)).stream().map(CompletableFuture::completedFuture).toList());
+        DerivedTopicProducer derived = rate -> List.of(new ProducerRecord<>("derived", rate.getId(), rate.getBaseCurrency()));
+        when(derivedTopicProducers.orderedStream()).thenAnswer(invocation -> Stream.of(derived));
+
+        // When
+        consumer.consumeExchangeRates(List.of(record(0, first), record(7, second)), acknowledgment);
+
+        // Then
+        ArgumentCaptor<List<ExchangeRate>> batch = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchService).saveExchangeRatesAsync(batch.capture());
+        assertThat(batch.getValue()).extracting(ExchangeRate::getId).containsExactly("rate-1", "exchange-rates-0-7");
+        verify(derivedKafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Écriture Elasticsearch en échec : ni acquittement ni dérivés")
+    void consume_FailsWithoutAcknowledging() {
+        // Given
+        when(elasticsearchService.saveExchangeRatesAsync(anyList())).thenReturn(List.of(
+                CompletableFuture.completedFuture(snapshot("rate-1")),
+                CompletableFuture.failedFuture(new IllegalStateException("mapper_parsing_exception"))));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.consumeExchangeRates(
+                List.of(record(0, snapshot("rate-1")), record(1, snapshot("rate-2"))), acknowledgment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not fully indexed");
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(derivedKafkaTemplate);
+    }
+
+    private static ConsumerRecord<String, ExchangeRate> record(long offset, ExchangeRate exchangeRate) {
+        return new ConsumerRecord<>("exchange-rates", 0, offset, null, exchangeRate);
+    }
+
+    private static ExchangeRate snapshot(String id) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId(id);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp("2024-01-15T10:00:00");
+        exchangeRate.setRates(Map.of("EUR", 0.91));
+        return exchangeRate;
+    }
+}
@@ -1,5 +1,7 @@
 package com.learn.kafka.consumer;
 
+import com.learn.kafka.config.ElasticsearchClientProperties;
+import com.learn.kafka.leader.FencingTokens;
 import com.learn.kafka.model.ExchangeRate;
 import com.learn.kafka.service.ElasticsearchService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,13 +10,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +31,12 @@ class ExchangeRateConsumerTest {
     @Mock
     private ElasticsearchService elasticsearchService;
 
+    @Spy
+    private FencingTokens fencingTokens = new FencingTokens();
+
+    @Spy
+    private ElasticsearchClientProperties clientProperties = new ElasticsearchClientProperties();
+
     @InjectMocks
     private ExchangeRateConsumer exchangeRateConsumer;
 
@@ -53,28 +66,29 @@ class ExchangeRateConsumerTest {
     @DisplayName("Test consumeExchangeRate - Succès")
     void testConsumeExchangeRate_Success() {
         // Given
-        when(elasticsearchService.saveExchangeRate(sampleExchangeRate))
-            .thenReturn(sampleExchangeRate);
+        when(elasticsearchService.saveExchangeRateAsync(sampleExchangeRate))
+            .thenReturn(CompletableFuture.completedFuture(sampleExchangeRate));
 
         // When
-        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate);
+        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate, 1L);
 
         // Then
-        verify(elasticsearchService, times(1)).saveExchangeRate(sampleExchangeRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(sampleExchangeRate);
+        assertThat(sampleExchangeRate.getVersion()).isEqualTo(1L);
     }
 
     @Test
     @DisplayName("Test consumeExchangeRate - Erreur Elasticsearch")
     void testConsumeExchangeRate_ElasticsearchError() {
         // Given
-        when(elasticsearchService.saveExchangeRate(sampleExchangeRate))
-            .thenThrow(new RuntimeException("Elasticsearch connection failed"));
+        when(elasticsearchService.saveExchangeRateAsync(sampleExchangeRate))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Elasticsearch connection failed")));
 
         // When
-        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate);
+        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate, 2L);
 
         // Then
-        verify(elasticsearchService, times(1)).saveExchangeRate(sampleExchangeRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(sampleExchangeRate);
     }
 
     @Test
@@ -85,14 +99,14 @@ class ExchangeRateConsumerTest {
         eurRate.setBaseCurrency("EUR");
         eurRate.setId("eur-id-456");
         
-        when(elasticsearchService.saveExchangeRate(eurRate))
-            .thenReturn(eurRate);
+        when(elasticsearchService.saveExchangeRateAsync(eurRate))
+            .thenReturn(CompletableFuture.completedFuture(eurRate));
 
         // When
-        exchangeRateConsumer.consumeExchangeRate(eurRate);
+        exchangeRateConsumer.consumeExchangeRate(eurRate, 3L);
 
         // Then
-        verify(elasticsearchService, times(1)).saveExchangeRate(eurRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(eurRate);
     }
 
     @Test
@@ -105,14 +119,14 @@ class ExchangeRateConsumerTest {
         emptyRate.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         emptyRate.setRates(new HashMap<>());
         
-        when(elasticsearchService.saveExchangeRate(emptyRate))
-            .thenReturn(emptyRate);
+        when(elasticsearchService.saveExchangeRateAsync(emptyRate))
+            .thenReturn(CompletableFuture.completedFuture(emptyRate));
 
         // When
-        exchangeRateConsumer.consumeExchangeRate(emptyRate);
+        exchangeRateConsumer.consumeExchangeRate(emptyRate, 4L);
 
         // Then
-        verify(elasticsearchService, times(1)).saveExchangeRate(emptyRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(emptyRate);
     }
 
     @Test
@@ -122,25 +136,71 @@ class ExchangeRateConsumerTest {
         ExchangeRate nullTimestampRate = createSampleExchangeRate();
         nullTimestampRate.setTimestamp(null);
         
-        when(elasticsearchService.saveExchangeRate(nullTimestampRate))
-            .thenReturn(nullTimestampRate);
+        when(elasticsearchService.saveExchangeRateAsync(nullTimestampRate))
+            .thenReturn(CompletableFuture.completedFuture(nullTimestampRate));
 
         // When
-        exchangeRateConsumer.consumeExchangeRate(nullTimestampRate);
+        exchangeRateConsumer.consumeExchangeRate(nullTimestampRate, 5L);
 
         // Then
-        verify(elasticsearchService, times(1)).saveExchangeRate(nullTimestampRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(nullTimestampRate);
     }
 
     @Test
     @DisplayName("Test consumeExchangeRate - Exception récupérée")
     void testConsumeExchangeRate_RuntimeException() {
         // Given
-        doThrow(new RuntimeException("Unexpected error")).when(elasticsearchService).saveExchangeRate(any());
+        doThrow(new RuntimeException("Unexpected error")).when(elasticsearchService).saveExchangeRateAsync(any());
 
         // When & Then - L'exception doit être gérée et loggée, pas propagée
-        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate);
+        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate, 6L);
         
-        verify(elasticsearchService, times(1)).saveExchangeRate(sampleExchangeRate);
+        verify(elasticsearchService, times(1)).saveExchangeRateAsync(sampleExchangeRate);
+    }
+
+    @Test
+    @DisplayName("Test consumeExchangeRate - Snapshot d'un leader déchu ignoré")
+    void testConsumeExchangeRate_StaleLeaderSkipped() {
+        // Given
+        ExchangeRate stale = createSampleExchangeRate();
+        stale.setId("stale-id");
+        when(fencingTokens.isStale(stale)).thenReturn(true);
+
+        // When
+        exchangeRateConsumer.consumeExchangeRate(stale, 7L);
+
+        // Then
+        verifyNoInteractions(elasticsearchService);
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Une écriture en attente occupe une place jusqu'à sa réponse")
+    void testConsumeExchangeRate_BoundsInFlightWrites() {
+        // Given
+        CompletableFuture<ExchangeRate> pending = new CompletableFuture<>();
+        when(elasticsearchService.saveExchangeRateAsync(sampleExchangeRate)).thenReturn(pending);
+        Semaphore inFlightWrites = (Semaphore) ReflectionTestUtils.getField(exchangeRateConsumer, "inFlightWrites");
+
+        // When
+        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate, 8L);
+
+        // Then
+        assertThat(inFlightWrites.availablePermits()).isEqualTo(clientProperties.getMaxInFlightWrites() - 1);
+        pending.completeExceptionally(new RuntimeException("Elasticsearch connection failed"));
+        assertThat(inFlightWrites.availablePermits()).isEqualTo(clientProperties.getMaxInFlightWrites());
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Place rendue si l'écriture échoue avant d'être envoyée")
+    void testConsumeExchangeRate_ReleasesSlotOnImmediateFailure() {
+        // Given
+        doThrow(new RuntimeException("Unexpected error")).when(elasticsearchService).saveExchangeRateAsync(any());
+        Semaphore inFlightWrites = (Semaphore) ReflectionTestUtils.getField(exchangeRateConsumer, "inFlightWrites");
+
+        // When
+        exchangeRateConsumer.consumeExchangeRate(sampleExchangeRate, 9L);
+
+        // Then
+        assertThat(inFlightWrites.availablePermits()).isEqualTo(clientProperties.getMaxInFlightWrites());
     }
-} 
\ No newline at end of file
+}
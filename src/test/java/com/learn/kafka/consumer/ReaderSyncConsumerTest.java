@@ -0,0 +1,173 @@
+package com.learn.kafka.consumer;
+
+import com.learn.kafka.analytics.RollingRateStatistics;
+import com.learn.kafka.config.RateStatsProperties;
+import com.learn.kafka.leader.FencingTokens;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.RateUpdatePublisher;
+import com.learn.kafka.service.SnapshotCadence;
+import com.learn.kafka.store.RateHistory;
+import com.learn.kafka.store.SnapshotLog;
+import com.learn.kafka.store.SnapshotVersions;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ReaderSyncConsumer")
+class ReaderSyncConsumerTest {
+
+    @Mock
+    private SnapshotLog snapshotLog;
+
+    @Mock
+    private RateHistory rateHistory;
+
+    @Mock
+    private RateUpdatePublisher rateUpdatePublisher;
+
+    @Mock
+    private RollingRateStatistics rollingRateStatistics;
+
+    @Mock
+    private SnapshotCadence snapshotCadence;
+
+    @Spy
+    private SnapshotVersions snapshotVersions = new SnapshotVersions(8);
+
+    @Spy
+    private FencingTokens fencingTokens = new FencingTokens();
+
+    @Spy
+    private RateStatsProperties statsProperties = new RateStatsProperties();
+
+    @InjectMocks
+    private ReaderSyncConsumer readerSyncConsumer;
+
+    @Test
+    @DisplayName("consumeExchangeRate - Snapshot nouveau appliqué aux vues locales et poussé aux abonnés")
+    void consumeExchangeRate_NewSnapshot() throws IOException {
+        // Given
+        ExchangeRate exchangeRate = createExchangeRate();
+        when(snapshotLog.append(exchangeRate)).thenReturn(true);
+        when(rateHistory.add(exchangeRate)).thenReturn(true);
+
+        // When
+        readerSyncConsumer.consumeExchangeRate(exchangeRate, 0, 1L);
+
+        // Then
+        verify(rollingRateStatistics).update(exchangeRate);
+        verify(snapshotCadence).observe(exchangeRate);
+        verify(rateUpdatePublisher).publish(exchangeRate);
+        assertThat(snapshotVersions.latest().version()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Snapshot rejoué après redémarrage non repoussé")
+    void consumeExchangeRate_ReplayedSnapshot() throws IOException {
+        // Given
+        ExchangeRate exchangeRate = createExchangeRate();
+        readerSyncConsumer.consumeExchangeRate(exchangeRate, 0, 2L);
+        clearInvocations(rollingRateStatistics, rateUpdatePublisher);
+        when(snapshotLog.append(exchangeRate)).thenReturn(false);
+
+        // When
+        readerSyncConsumer.consumeExchangeRate(exchangeRate, 0, 2L);
+
+        // Then
+        verify(rollingRateStatistics).update(exchangeRate);
+        verifyNoInteractions(rateUpdatePublisher);
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Échec du journal sans bloquer les autres vues")
+    void consumeExchangeRate_SnapshotLogFailure() throws IOException {
+        // Given
+        ExchangeRate exchangeRate = createExchangeRate();
+        when(snapshotLog.append(exchangeRate)).thenThrow(new IOException("disk full"));
+        when(rateHistory.add(exchangeRate)).thenReturn(true);
+
+        // When
+        readerSyncConsumer.consumeExchangeRate(exchangeRate, 0, 3L);
+
+        // Then
+        verify(rollingRateStatistics).update(exchangeRate);
+        verify(rateUpdatePublisher).publish(exchangeRate);
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Snapshot d'un leader déchu écarté")
+    void consumeExchangeRate_StaleFencingToken() {
+        // Given
+        ExchangeRate current = createExchangeRate();
+        current.setFencingToken(5L);
+        ExchangeRate stale = createExchangeRate();
+        stale.setFencingToken(4L);
+        readerSyncConsumer.consumeExchangeRate(current, 0, 4L);
+        clearInvocations(snapshotLog, rateHistory, rollingRateStatistics, rateUpdatePublisher);
+
+        // When
+        readerSyncConsumer.consumeExchangeRate(stale, 0, 5L);
+
+        // Then
+        verifyNoInteractions(snapshotLog, rateHistory, rollingRateStatistics, rateUpdatePublisher);
+    }
+
+    @Test
+    @DisplayName("onPartitionsAssigned - Recule du rejeu ou de la plus grande fenêtre, sans passer sous zéro")
+    void onPartitionsAssigned() {
+        // Given
+        ReflectionTestUtils.setField(readerSyncConsumer, "replay", 3L);
+        statsProperties.setWindows(List.of(2, 5));
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+
+        // When
+        readerSyncConsumer.onPartitionsAssigned(Map.of(
+                new TopicPartition("exchange-rates", 0), 10L,
+                new TopicPartition("exchange-rates", 1), 1L), callback);
+
+        // Then
+        verify(callback).seek("exchange-rates", 0, 4L);
+        verify(callback).seek("exchange-rates", 1, 0L);
+    }
+
+    @Test
+    @DisplayName("consumeExchangeRate - Snapshot en deçà du rejeu : fenêtres réchauffées seulement")
+    void consumeExchangeRate_WarmupSnapshot() {
+        // Given
+        ReflectionTestUtils.setField(readerSyncConsumer, "replay", 1L);
+        readerSyncConsumer.onPartitionsAssigned(Map.of(new TopicPartition("exchange-rates", 0), 10L),
+                mock(ConsumerSeekCallback.class));
+        ExchangeRate exchangeRate = createExchangeRate();
+
+        // When
+        readerSyncConsumer.consumeExchangeRate(exchangeRate, 0, 5L);
+
+        // Then
+        verify(rollingRateStatistics).update(exchangeRate);
+        verifyNoInteractions(snapshotLog, rateHistory, rateUpdatePublisher);
+    }
+
+    private ExchangeRate createExchangeRate() {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId("id-1");
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+        rate.setRates(Map.of("EUR", 0.85));
+        return rate;
+    }
+}
@@ -1,8 +1,11 @@
 package com.learn.kafka.controller;
 
+import com.learn.kafka.config.FetchScheduleConfig;
 import com.learn.kafka.model.ExchangeRate;
 import com.learn.kafka.service.ElasticsearchService;
 import com.learn.kafka.service.ExchangeRateService;
+import com.learn.kafka.service.ManualFetchService;
+import com.learn.kafka.service.UpstreamQuotaExceededException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -25,7 +30,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
-@WebMvcTest(ExchangeRateController.class)
+// Limite par client relevée : le contexte, et donc le seau du client de test, est partagé par les tests
+@WebMvcTest(controllers = ExchangeRateController.class,
+        properties = "exchange-rates.fetch.manual.client-capacity=1000")
+@Import({ManualFetchService.class, FetchScheduleConfig.class})
 @DisplayName("Tests unitaires pour ExchangeRateController")
 class ExchangeRateControllerTest {
 
@@ -99,6 +107,23 @@ class ExchangeRateControllerTest {
         verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
     }
 
+    @Test
+    @DisplayName("GET /api/exchange-rates/fetch - Devrait retourner 429 quand le quota amont est épuisé")
+    void fetchExchangeRates_QuotaExceeded() throws Exception {
+        // Given
+        when(exchangeRateService.fetchAndPublishExchangeRates())
+            .thenReturn(Mono.error(new UpstreamQuotaExceededException(Duration.ofSeconds(42))));
+
+        // When & Then
+        mockMvc.perform(get("/api/exchange-rates/fetch"))
+            .andExpect(request().asyncStarted())
+            .andDo(result -> {
+                mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "42"));
+            });
+    }
+
     @Test
     @DisplayName("POST /api/exchange-rates/test-elasticsearch - Devrait tester Elasticsearch")
     void testElasticsearch_Success() throws Exception {
@@ -1,12 +1,25 @@
 package com.learn.kafka.controller;
 
+import com.learn.kafka.analytics.RollingRateStatistics;
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.convert.ConversionService;
+import com.learn.kafka.model.CurrencyStats;
 import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.service.SnapshotCadence;
+import com.learn.kafka.store.RateHistory;
+import com.learn.kafka.store.RateSnapshot;
+import com.learn.kafka.store.SnapshotLog;
+import com.learn.kafka.store.SnapshotVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
@@ -15,13 +28,21 @@ import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -29,6 +50,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProxyController.class)
+@Import({RatePayloadCache.class, ConversionService.class, ProxyControllerTest.Cadence.class})
 @DisplayName("Tests unitaires pour ProxyController")
 class ProxyControllerTest {
 
@@ -38,12 +60,29 @@ class ProxyControllerTest {
     @MockBean
     private ElasticsearchOperations elasticsearchOperations;
 
+    @MockBean
+    private SnapshotLog snapshotLog;
+
+    @MockBean
+    private RateHistory rateHistory;
+
+    @MockBean
+    private RollingRateStatistics rollingRateStatistics;
+
+    @MockBean
+    private SnapshotVersions snapshotVersions;
+
+    @Autowired
+    private RatePayloadCache ratePayloadCache;
+
     private ExchangeRate sampleExchangeRate;
     private SearchHits<ExchangeRate> mockSearchHits;
     private SearchHit<ExchangeRate> mockSearchHit;
 
     @BeforeEach
     void setUp() {
+        ratePayloadCache.clear();
+
         // Créer des données de test
         sampleExchangeRate = new ExchangeRate();
         sampleExchangeRate.setId("test-id-123");
@@ -398,4 +437,480 @@ class ProxyControllerTest {
         mockMvc.perform(get("/api/proxy/rate/XYZ"))
             .andExpect(status().isNotFound()); // XYZ n'existe pas dans les rates
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - Devrait servir le journal local sans interroger Elasticsearch")
+    void getLatestExchangeRates_FromSnapshotLog() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        SnapshotLog.Head head = head(SnapshotLog.tag(1L, "test-id-123"), 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value("test-id-123"))
+            .andExpect(jsonPath("$.rates.EUR").value(0.85));
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency} - Devrait lire le taux dans le journal local")
+    void getSpecificRate_FromSnapshotLog() throws Exception {
+        // Given
+        SnapshotLog.Head head = head("tag-1", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rate/eur"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0.85"));
+
+        mockMvc.perform(get("/api/proxy/rate/XYZ"))
+            .andExpect(status().isNotFound());
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency}/at - Devrait lire l'historique en mémoire")
+    void getRateAt_FromHistory() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        long at = Instant.parse("2025-06-04T14:03:00Z").toEpochMilli();
+        when(rateHistory.at(at)).thenReturn(RateSnapshot.of(sampleExchangeRate));
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rate/EUR/at").param("ts", "2025-06-04T14:03:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0.85"));
+
+        mockMvc.perform(get("/api/proxy/rate/XYZ/at").param("ts", String.valueOf(at)))
+            .andExpect(status().isNotFound());
+
+        verifyNoInteractions(snapshotLog, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency}/at - Hors rétention, devrait lire le journal local")
+    void getRateAt_FromSnapshotLog() throws Exception {
+        // Given
+        when(snapshotLog.at(Instant.parse("2025-01-01T00:00:00Z"))).thenReturn(sampleExchangeRate);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rate/gbp/at").param("ts", "2025-01-01T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0.75"));
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency}/at - En dernier recours, devrait interroger Elasticsearch")
+    void getRateAt_FromElasticsearch() throws Exception {
+        // Given
+        when(elasticsearchOperations.search(any(Query.class), eq(ExchangeRate.class)))
+            .thenReturn(mockSearchHits);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rate/JPY/at").param("ts", "2025-01-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("110.0"));
+
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(ExchangeRate.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency}/at - Devrait rejeter un timestamp invalide")
+    void getRateAt_InvalidTimestamp() throws Exception {
+        mockMvc.perform(get("/api/proxy/rate/EUR/at").param("ts", "hier"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(rateHistory, snapshotLog, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - Devrait exposer un ETag fort et un Cache-Control")
+    void getLatestExchangeRates_EtagAndCacheControl() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp(RateTimestamps.format(Instant.now()));
+        long nanos = RateTimestamps.toEpochNanos(sampleExchangeRate.getTimestamp());
+        String tag = SnapshotLog.tag(nanos, "test-id-123");
+        SnapshotLog.Head head = head(tag, nanos, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + tag + "\""))
+            .andExpect(header().string("Cache-Control", matchesPattern("max-age=1[012]\\d, public")));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - If-None-Match à jour : 304 sans lire le snapshot")
+    void getLatestExchangeRates_NotModified() throws Exception {
+        // Given
+        SnapshotLog.Head head = head("tag-1", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates").header("If-None-Match", "\"tag-1\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"tag-1\""))
+            .andExpect(header().string("Cache-Control", "max-age=0, public"))
+            .andExpect(content().string(""));
+
+        verify(head, never()).exchangeRate();
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - Devrait compresser en gzip une seule fois par snapshot")
+    void getLatestExchangeRates_Gzip() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        long nanos = RateTimestamps.toEpochNanos("2025-06-04T14:00:00");
+        String tag = SnapshotLog.tag(nanos, "test-id-123");
+        SnapshotLog.Head head = head(tag, nanos, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            byte[] body = mockMvc.perform(get("/api/proxy/latest-rates").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"" + tag + "-gzip\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("\"id\":\"test-id-123\"")
+                    .contains("\"EUR\":0.85");
+            }
+        }
+
+        // Then
+        verify(head, times(1)).exchangeRate();
+
+        mockMvc.perform(get("/api/proxy/latest-rates")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", "\"" + tag + "-gzip\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rate/{currency} - If-None-Match à jour : 304 sans Elasticsearch")
+    void getSpecificRate_NotModified() throws Exception {
+        // Given
+        SnapshotLog.Head head = head("tag-1", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rate/EUR").header("If-None-Match", "\"tag-1\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"tag-1\""));
+
+        mockMvc.perform(get("/api/proxy/rate/EUR").header("If-None-Match", "\"tag-0\""))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0.85"));
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - Depuis Elasticsearch, l'ETag est celui du document")
+    void getLatestExchangeRates_ElasticsearchEtag() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        String tag = SnapshotLog.tag(RateTimestamps.toEpochNanos("2025-06-04T14:00:00"), "test-id-123");
+        when(elasticsearchOperations.search(any(Query.class), eq(ExchangeRate.class)))
+            .thenReturn(mockSearchHits);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates").header("If-None-Match", "\"" + tag + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rates - Devrait servir plusieurs devises d'un même snapshot depuis le cache")
+    void getRates_FromSnapshotLogCached() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        long nanos = RateTimestamps.toEpochNanos("2025-06-04T14:00:00");
+        String tag = SnapshotLog.tag(nanos, "test-id-123");
+        SnapshotLog.Head head = head(tag, nanos, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "eur,JPY,XYZ"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + tag + "\""))
+            .andExpect(jsonPath("$.rates.EUR").value(0.85))
+            .andExpect(jsonPath("$.rates.JPY").value(110.0))
+            .andExpect(jsonPath("$.rates.GBP").doesNotExist())
+            .andExpect(jsonPath("$.base").value("USD"));
+
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "XYZ,JPY,EUR"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rates.EUR").value(0.85));
+
+        verify(head, times(1)).exchangeRate();
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rates - Un nouveau snapshot invalide les réponses en cache")
+    void getRates_InvalidatedByNewSnapshot() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        ExchangeRate next = new ExchangeRate();
+        next.setId("test-id-456");
+        next.setBaseCurrency("USD");
+        next.setTimestamp("2025-06-04T14:02:00");
+        next.setRates(Map.of("EUR", 0.86));
+        long nanos = RateTimestamps.toEpochNanos("2025-06-04T14:00:00");
+        long nextNanos = RateTimestamps.toEpochNanos("2025-06-04T14:02:00");
+        SnapshotLog.Head head = head(SnapshotLog.tag(nanos, "test-id-123"), nanos, sampleExchangeRate);
+        SnapshotLog.Head nextHead = head(SnapshotLog.tag(nextNanos, "test-id-456"), nextNanos, next);
+        when(snapshotLog.head()).thenReturn(head, nextHead);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "EUR"))
+            .andExpect(jsonPath("$.rates.EUR").value(0.85));
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "EUR"))
+            .andExpect(jsonPath("$.rates.EUR").value(0.86));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rates - Journal vide, devrait interroger Elasticsearch une seule fois")
+    void getRates_FromElasticsearch() throws Exception {
+        // Given
+        when(elasticsearchOperations.search(any(Query.class), eq(ExchangeRate.class)))
+            .thenReturn(mockSearchHits);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "GBP,EUR"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rates.GBP").value(0.75))
+            .andExpect(jsonPath("$.rates.EUR").value(0.85));
+
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(ExchangeRate.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/rates - Devrait rejeter une liste de devises vide et répondre 304 à jour")
+    void getRates_BadRequestAndNotModified() throws Exception {
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", " , "))
+            .andExpect(status().isBadRequest());
+
+        SnapshotLog.Head head = head("tag-1", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "EUR").header("If-None-Match", "\"tag-1\""))
+            .andExpect(status().isNotModified());
+
+        verify(head, never()).exchangeRate();
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/stats/{currency} - Devrait renvoyer les statistiques glissantes")
+    void getStats_Success() throws Exception {
+        // Given
+        CurrencyStats stats = new CurrencyStats();
+        stats.setCurrency("EUR");
+        stats.setRate(0.85);
+        stats.setSamples(12);
+        stats.setEwma(Map.of("hl30", 0.84));
+        when(rollingRateStatistics.get("EUR")).thenReturn(Optional.of(stats));
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/stats/eur"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currency").value("EUR"))
+            .andExpect(jsonPath("$.samples").value(12))
+            .andExpect(jsonPath("$.ewma.hl30").value(0.84));
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/stats/{currency} - Devise sans statistiques, devrait renvoyer 404")
+    void getStats_NotFound() throws Exception {
+        // Given
+        when(rollingRateStatistics.get("XYZ")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/stats/XYZ"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/convert - Conversion croisée contre le dernier snapshot de l'historique")
+    void convert_Success() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        when(rateHistory.latest()).thenReturn(RateSnapshot.of(sampleExchangeRate));
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/convert").param("amount", "100").param("from", "eur").param("to", "GBP"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.result").value(100 * 0.75 / 0.85))
+            .andExpect(jsonPath("$.rate").value(0.75 / 0.85))
+            .andExpect(jsonPath("$.snapshotId").value("test-id-123"));
+
+        mockMvc.perform(get("/api/proxy/convert").param("amount", "100").param("from", "USD").param("to", "XYZ"))
+            .andExpect(status().isNotFound());
+        verifyNoInteractions(snapshotLog, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/convert - Sans historique, devrait lire le journal local")
+    void convert_FromSnapshotLog() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        SnapshotLog.Head head = head("tag", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/convert").param("amount", "2").param("from", "USD").param("to", "JPY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.result").value(220.0));
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("POST /api/proxy/convert - Lot CSV converti ligne à ligne, lignes invalides vides")
+    void convertBatch_Success() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        when(rateHistory.latest()).thenReturn(RateSnapshot.of(sampleExchangeRate));
+        String body = "amount,from,to\r\n100,USD,EUR\r\n10,EUR,XYZ\r\n85,eur,usd\r\n";
+
+        // When & Then
+        mockMvc.perform(post("/api/proxy/convert").contentType("text/csv").content(body))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(content().string((100 * 0.85) + "\n\n" + (85 / 0.85) + "\n"));
+    }
+
+    @Test
+    @DisplayName("POST /api/proxy/convert - Aucun snapshot, devrait renvoyer 404")
+    void convertBatch_NoSnapshot() throws Exception {
+        // Given
+        when(elasticsearchOperations.search(any(Query.class), eq(ExchangeRate.class))).thenReturn(mockSearchHits);
+        when(mockSearchHits.hasSearchHits()).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(post("/api/proxy/convert").contentType("text/csv").content("1,USD,EUR\n"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("?version= - Toutes les lectures servies par le même snapshot retenu, même si un plus récent existe")
+    void pinnedVersion() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        sampleExchangeRate.setVersion(7L);
+        String tag = SnapshotLog.tag(RateTimestamps.toEpochNanos("2025-06-04T14:00:00"), "test-id-123");
+        when(snapshotVersions.get(7L)).thenReturn(
+                new SnapshotVersions.Version(7L, tag, sampleExchangeRate, RateSnapshot.of(sampleExchangeRate)));
+        SnapshotLog.Head head = head("newer-tag", 1L, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates").param("version", "7"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "7"))
+            .andExpect(header().string("ETag", "\"" + tag + "\""))
+            .andExpect(jsonPath("$.version").value(7))
+            .andExpect(jsonPath("$.id").value("test-id-123"));
+
+        mockMvc.perform(get("/api/proxy/rate/eur").param("version", "7"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "7"))
+            .andExpect(content().string("0.85"));
+
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "GBP,EUR").param("version", "7"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(7))
+            .andExpect(jsonPath("$.rates.GBP").value(0.75))
+            .andExpect(jsonPath("$.rates.JPY").doesNotExist());
+
+        mockMvc.perform(get("/api/proxy/convert").param("amount", "100").param("from", "EUR").param("to", "GBP")
+                .param("version", "7"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "7"))
+            .andExpect(jsonPath("$.result").value(100 * 0.75 / 0.85));
+
+        mockMvc.perform(post("/api/proxy/convert").param("version", "7").contentType("text/csv").content("1,USD,GBP\n"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "7"))
+            .andExpect(content().string("0.75\n"));
+
+        verify(head, never()).exchangeRate();
+        verifyNoInteractions(rateHistory, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("?version= - 410 pour une version sortie de l'anneau, 404 pour une version inconnue")
+    void pinnedVersion_NotRetained() throws Exception {
+        // Given
+        when(snapshotVersions.isBeforeOldest(3L)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates").param("version", "3"))
+            .andExpect(status().isGone());
+        mockMvc.perform(get("/api/proxy/rate/EUR").param("version", "3"))
+            .andExpect(status().isGone());
+        mockMvc.perform(get("/api/proxy/rates").param("symbols", "EUR").param("version", "99"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/proxy/convert").param("version", "99").contentType("text/csv").content("1,USD,EUR\n"))
+            .andExpect(status().isNotFound());
+        verifyNoInteractions(snapshotLog, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/latest-rates - Version du dernier snapshot exposée pour les lectures suivantes")
+    void getLatestExchangeRates_ExposesVersion() throws Exception {
+        // Given
+        sampleExchangeRate.setTimestamp("2025-06-04T14:00:00");
+        long nanos = RateTimestamps.toEpochNanos("2025-06-04T14:00:00");
+        String tag = SnapshotLog.tag(nanos, "test-id-123");
+        SnapshotLog.Head head = head(tag, nanos, sampleExchangeRate);
+        when(snapshotLog.head()).thenReturn(head);
+        when(snapshotVersions.latest()).thenReturn(
+                new SnapshotVersions.Version(42L, tag, sampleExchangeRate, RateSnapshot.of(sampleExchangeRate)));
+
+        // When & Then
+        mockMvc.perform(get("/api/proxy/latest-rates"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "42"))
+            .andExpect(jsonPath("$.version").value(42));
+
+        mockMvc.perform(get("/api/proxy/rate/EUR"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ProxyController.VERSION_HEADER, "42"));
+    }
+
+    private static SnapshotLog.Head head(String tag, long epochNanos, ExchangeRate exchangeRate) {
+        SnapshotLog.Head head = mock(SnapshotLog.Head.class);
+        when(head.tag()).thenReturn(tag);
+        when(head.epochNanos()).thenReturn(epochNanos);
+        when(head.exchangeRate()).thenReturn(exchangeRate);
+        when(head.rate(any())).thenAnswer(invocation -> {
+            Double rate = exchangeRate.getRates().get(invocation.<String>getArgument(0));
+            return rate == null ? OptionalDouble.empty() : OptionalDouble.of(rate);
+        });
+        return head;
+    }
+
+    @TestConfiguration
+    static class Cadence {
+
+        @Bean
+        SnapshotCadence snapshotCadence() {
+            return new SnapshotCadence(new FetchScheduleProperties());
+        }
+    }
+}
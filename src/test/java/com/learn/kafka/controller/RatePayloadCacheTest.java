@@ -0,0 +1,51 @@
+package com.learn.kafka.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RatePayloadCache")
+class RatePayloadCacheTest {
+
+    private static RatePayloadCache.Payload payload(String tag, long epochMillis) {
+        return new RatePayloadCache.Payload(tag, epochMillis, new byte[]{1});
+    }
+
+    @Test
+    @DisplayName("LRU - L'entrée la moins récemment lue est évincée")
+    void evictsLeastRecentlyUsed() {
+        // Given
+        RatePayloadCache cache = new RatePayloadCache(2);
+        cache.put("EUR", payload("t1", 1));
+        cache.put("GBP", payload("t1", 1));
+
+        // When
+        cache.get("t1", "EUR");
+        cache.put("JPY", payload("t1", 1));
+
+        // Then
+        assertThat(cache.get("t1", "EUR")).isNotNull();
+        assertThat(cache.get("t1", "GBP")).isNull();
+        assertThat(cache.get("t1", "JPY")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Invalidation - Un nouveau snapshot vide le cache, un ancien est ignoré")
+    void invalidatedByNewSnapshot() {
+        // Given
+        RatePayloadCache cache = new RatePayloadCache(8);
+        cache.put("EUR", payload("t1", 1));
+        cache.put("GBP", payload("t1", 1));
+
+        // When
+        cache.put("EUR", payload("t2", 2));
+        cache.put("GBP", payload("t1", 1));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("t1", "EUR")).isNull();
+        assertThat(cache.get("t2", "EUR")).isNotNull();
+        assertThat(cache.get("t2", "GBP")).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.learn.kafka.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.kafka.alert.RateAlertPublisher;
+import com.learn.kafka.config.RateAlertProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateAlert;
+import com.learn.kafka.service.RateUpdatePublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RateStreamController")
+class RateStreamControllerTest {
+
+    private RateUpdatePublisher rateUpdatePublisher;
+    private RateAlertPublisher rateAlertPublisher;
+    private RateStreamController rateStreamController;
+
+    @BeforeEach
+    void setUp() {
+        rateUpdatePublisher = new RateUpdatePublisher(new ObjectMapper());
+        rateAlertPublisher = new RateAlertPublisher(new RateAlertProperties());
+        rateStreamController = new RateStreamController(rateUpdatePublisher, rateAlertPublisher);
+        ReflectionTestUtils.setField(rateStreamController, "heartbeat", Duration.ofMillis(50));
+    }
+
+    private ExchangeRate createExchangeRate(String id) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+        rate.setRates(Map.of("EUR", 0.85, "GBP", 0.75));
+        return rate;
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/stream - Devrait pousser les snapshots filtrés en SSE")
+    void streamRates_FilteredEvents() {
+        // Given
+        rateUpdatePublisher.publish(createExchangeRate("id-1"));
+
+        // When & Then
+        StepVerifier.create(rateStreamController.streamRates("gbp").filter(event -> event.data() != null))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("rate");
+                    assertThat(event.id()).endsWith("-id-1");
+                    assertThat(event.data()).contains("\"GBP\":0.75").doesNotContain("EUR");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/stream - Devrait émettre un keep-alive sans snapshot")
+    void streamRates_Heartbeat() {
+        StepVerifier.create(rateStreamController.streamRates(null))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("keep-alive"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("GET /api/proxy/alerts/stream - Devrait pousser les alertes levées après l'abonnement, filtrées")
+    void streamAlerts_FilteredEvents() {
+        // When & Then
+        StepVerifier.create(rateStreamController.streamAlerts("eur").filter(event -> event.data() != null))
+                .then(() -> {
+                    rateAlertPublisher.publish(alert("GBP"));
+                    rateAlertPublisher.publish(alert("EUR"));
+                })
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("alert");
+                    assertThat(event.data().getCurrency()).isEqualTo("EUR");
+                    assertThat(event.data().getType()).isEqualTo(RateAlert.Type.MISSING);
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static RateAlert alert(String currency) {
+        RateAlert alert = new RateAlert();
+        alert.setType(RateAlert.Type.MISSING);
+        alert.setCurrency(currency);
+        return alert;
+    }
+}
@@ -0,0 +1,68 @@
+package com.learn.kafka.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.service.RateUpdatePublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Tests unitaires pour RateWebSocketHandler")
+class RateWebSocketHandlerTest {
+
+    private RateUpdatePublisher rateUpdatePublisher;
+    private RateWebSocketHandler rateWebSocketHandler;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() {
+        rateUpdatePublisher = new RateUpdatePublisher(new ObjectMapper());
+        rateWebSocketHandler = new RateWebSocketHandler(rateUpdatePublisher);
+        ReflectionTestUtils.setField(rateWebSocketHandler, "sendTimeLimitMillis", 1000);
+        ReflectionTestUtils.setField(rateWebSocketHandler, "bufferSizeLimit", 65536);
+
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost:8080/ws/rates?symbols=EUR"));
+    }
+
+    private ExchangeRate createExchangeRate(String id) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+        rate.setRates(Map.of("EUR", 0.85, "GBP", 0.75));
+        return rate;
+    }
+
+    @Test
+    @DisplayName("Connexion - Devrait recevoir les snapshots filtrés jusqu'à la fermeture")
+    void sessionReceivesFilteredUpdates() throws Exception {
+        // Given
+        rateWebSocketHandler.afterConnectionEstablished(session);
+
+        // When
+        rateUpdatePublisher.publish(createExchangeRate("id-1"));
+
+        // Then
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(5000)).sendMessage(captor.capture());
+        assertThat(captor.getValue().getPayload()).contains("\"EUR\":0.85").doesNotContain("GBP");
+        assertThat(rateWebSocketHandler.getSubscriberCount()).isEqualTo(1);
+
+        rateWebSocketHandler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        assertThat(rateWebSocketHandler.getSubscriberCount()).isZero();
+    }
+}
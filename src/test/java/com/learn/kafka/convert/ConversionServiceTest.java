@@ -0,0 +1,125 @@
+package com.learn.kafka.convert;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.store.RateSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Tests unitaires pour ConversionService")
+class ConversionServiceTest {
+
+    private final RateSnapshot snapshot = RateSnapshot.of(exchangeRate());
+    private final ConversionService conversionService = new ConversionService(true);
+
+    @Test
+    @DisplayName("select - Boucle scalaire si elle est demandée ou sans le module jdk.incubator.vector")
+    void select() {
+        assertThat(ConversionService.select(false)).isSameAs(ScalarBatchConverter.INSTANCE);
+        // Avec le profil vector, couvert par VectorBatchConverterTest
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty());
+        assertThat(ConversionService.select(true)).isSameAs(ScalarBatchConverter.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("convert - Conversion unitaire, devise de base comprise")
+    void convert_Single() {
+        // When
+        Conversion conversion = conversionService.convert(snapshot, 100, "EUR", "JPY");
+
+        // Then
+        assertThat(conversion.rate()).isEqualTo(110.0 / 0.85);
+        assertThat(conversion.result()).isEqualTo(100 * 110.0 / 0.85);
+        assertThat(conversion.snapshotId()).isEqualTo("snapshot-1");
+        assertThat(conversionService.convert(snapshot, 1, "USD", "GBP").result()).isEqualTo(0.75);
+        assertThat(conversionService.convert(snapshot, 1, "USD", "XYZ")).isNull();
+    }
+
+    @Test
+    @DisplayName("convert - Lot en flux sur plusieurs paquets et lectures fragmentées, une ligne par ligne reçue")
+    void convert_Stream() throws IOException {
+        // Given
+        int rows = ConversionService.BATCH_SIZE * 2 + 17;
+        StringBuilder body = new StringBuilder(" amount , from , to\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            switch (i % 4) {
+                case 0 -> {
+                    body.append(i).append(".25,EUR,jpy\r\n");
+                    expected.append((i + 0.25) * 110.0 / 0.85);
+                }
+                case 1 -> {
+                    body.append(" ").append(i).append(" , usd , GBP \n");
+                    expected.append(i * 0.75);
+                }
+                case 2 -> body.append("abc,EUR,GBP\n");
+                default -> body.append(i).append(",EUR\n");
+            }
+            expected.append('\n');
+        }
+        StringWriter out = new StringWriter();
+
+        // When
+        long converted = conversionService.convert(snapshot, new TrickleReader(body.toString()), out);
+
+        // Then
+        assertThat(converted).isEqualTo(rows);
+        assertThat(out.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("convert - Dernière ligne sans fin de ligne, ligne trop longue refusée")
+    void convert_Edges() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        conversionService.convert(snapshot, new StringReader("2,USD,JPY"), out);
+
+        // Then
+        assertThat(out.toString()).isEqualTo("220.0\n");
+        assertThatThrownBy(() -> conversionService.convert(snapshot,
+                new StringReader("1".repeat(10_000) + ",USD,EUR\n"), new StringWriter()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ExchangeRate exchangeRate() {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId("snapshot-1");
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+        rate.setRates(Map.of("EUR", 0.85, "GBP", 0.75, "JPY", 110.0));
+        return rate;
+    }
+
+    /**
+     * Rend le corps par morceaux de 7 caractères, comme un corps reçu en plusieurs paquets.
+     */
+    private static final class TrickleReader extends Reader {
+
+        private final StringReader delegate;
+
+        TrickleReader(String content) {
+            this.delegate = new StringReader(content);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return delegate.read(buffer, offset, Math.min(length, 7));
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.learn.kafka.convert;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.store.RateSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compilé et exécuté avec le profil {@code vector} seulement (module {@code jdk.incubator.vector}).
+ */
+@DisplayName("Tests unitaires pour VectorBatchConverter")
+class VectorBatchConverterTest {
+
+    @Test
+    @DisplayName("select - Vector API retenue quand le module est chargé")
+    void select() {
+        assertThat(ConversionService.select(true)).isInstanceOf(VectorBatchConverter.class);
+    }
+
+    @Test
+    @DisplayName("Versions vectorielle et scalaire identiques au bit près, reliquat compris")
+    void vectorMatchesScalar() {
+        // Given
+        RateTable table = RateTable.of(RateSnapshot.of(exchangeRate()));
+        Random random = new Random(42);
+        ConversionBatch batch = new ConversionBatch(1003);
+        while (!batch.isFull()) {
+            batch.add(random.nextDouble() * 1_000_000, random.nextInt(table.rates().length), random.nextInt(table.rates().length));
+        }
+        double[] expected = new double[batch.size()];
+
+        // When
+        ScalarBatchConverter.INSTANCE.convert(table.rates(), batch);
+        for (int i = 0; i < batch.size(); i++) {
+            expected[i] = batch.result(i);
+        }
+        new VectorBatchConverter().convert(table.rates(), batch);
+
+        // Then
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(Double.doubleToRawLongBits(batch.result(i))).isEqualTo(Double.doubleToRawLongBits(expected[i]));
+        }
+    }
+
+    private static ExchangeRate exchangeRate() {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId("snapshot-1");
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+        rate.setRates(Map.of("EUR", 0.85, "GBP", 0.75, "JPY", 110.0));
+        return rate;
+    }
+}
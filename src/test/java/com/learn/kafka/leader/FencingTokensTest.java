@@ -0,0 +1,43 @@
+package com.learn.kafka.leader;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour FencingTokens")
+class FencingTokensTest {
+
+    private final FencingTokens fencingTokens = new FencingTokens();
+
+    @Test
+    @DisplayName("isStale - Jeton plus petit que le plus grand vu écarté, égal ou plus grand accepté")
+    void isStale() {
+        // Given
+        fencingTokens.isStale(snapshot(3L));
+
+        // When / Then
+        assertThat(fencingTokens.isStale(snapshot(3L))).isFalse();
+        assertThat(fencingTokens.isStale(snapshot(2L))).isTrue();
+        assertThat(fencingTokens.isStale(snapshot(4L))).isFalse();
+        assertThat(fencingTokens.isStale(snapshot(3L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("isStale - Snapshot sans jeton toujours accepté")
+    void isStale_WithoutToken() {
+        // Given
+        fencingTokens.isStale(snapshot(7L));
+
+        // When / Then
+        assertThat(fencingTokens.isStale(snapshot(null))).isFalse();
+    }
+
+    private static ExchangeRate snapshot(Long fencingToken) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + fencingToken);
+        exchangeRate.setFencingToken(fencingToken);
+        return exchangeRate;
+    }
+}
@@ -0,0 +1,104 @@
+package com.learn.kafka.leader;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@EmbeddedKafka(partitions = 1, topics = LeaderElectionConfig.LEADER_TOPIC)
+@DisplayName("Tests d'intégration pour LeaderElectionConfig")
+class LeaderElectionConfigTest {
+
+    private final EmbeddedKafkaBroker broker;
+    private final List<KafkaMessageListenerContainer<String, String>> containers = new ArrayList<>();
+
+    LeaderElectionConfigTest(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+    }
+
+    @Test
+    @DisplayName("Un seul leader, bascule à l'arrêt avec un jeton de fencing plus grand")
+    void singleLeaderAndFailover() {
+        // Given
+        LeaderElection first = start("leader-test");
+        LeaderElection second = start("leader-test");
+        await().atMost(30, TimeUnit.SECONDS).until(() -> first.isLeader() || second.isLeader());
+        await().during(2, TimeUnit.SECONDS).atMost(5, TimeUnit.SECONDS)
+                .until(() -> first.isLeader() != second.isLeader());
+        LeaderElection leader = first.isLeader() ? first : second;
+        LeaderElection follower = leader == first ? second : first;
+        long leaderToken = leader.fencingToken();
+        assertThat(follower.fencingToken()).isNull();
+
+        // When
+        containers.get(leader == first ? 0 : 1).stop();
+
+        // Then
+        await().atMost(30, TimeUnit.SECONDS).until(follower::isLeader);
+        assertThat(leader.isLeader()).isFalse();
+        assertThat(follower.fencingToken()).isGreaterThan(leaderToken);
+    }
+
+    @Test
+    @DisplayName("Groupe supprimé puis recréé : le jeton du nouveau leader reste plus grand")
+    void recreatedGroupKeepsTokensIncreasing() throws Exception {
+        // Given
+        LeaderElection first = start("leader-recreated");
+        await().atMost(30, TimeUnit.SECONDS).until(first::isLeader);
+        long firstToken = first.fencingToken();
+        containers.get(0).stop();
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            admin.deleteConsumerGroups(List.of("leader-recreated")).all().get(30, TimeUnit.SECONDS);
+        }
+
+        // When
+        LeaderElection second = start("leader-recreated");
+
+        // Then
+        await().atMost(30, TimeUnit.SECONDS).until(second::isLeader);
+        assertThat(second.fencingToken()).isGreaterThan(firstToken);
+    }
+
+    @Test
+    @DisplayName("Élection désactivée - Toujours leader, sans jeton")
+    void disabled() {
+        // Given
+        LeaderElection leaderElection = new LeaderElection(false, null, Duration.ZERO);
+
+        // When / Then
+        assertThat(leaderElection.isLeader()).isTrue();
+        assertThat(leaderElection.fencingToken()).isNull();
+    }
+
+    private LeaderElection start(String groupId) {
+        LeaderElectionConfig config = new LeaderElectionConfig();
+        config.bootstrapServers = broker.getBrokersAsString();
+        config.enabled = true;
+        config.groupId = groupId;
+        config.sessionTimeout = Duration.ofSeconds(6);
+        LeaderElection leaderElection = config.leaderElection();
+        KafkaMessageListenerContainer<String, String> container = config.leaderElectionContainer(leaderElection);
+        containers.add(container);
+        container.start();
+        return leaderElection;
+    }
+}
@@ -0,0 +1,80 @@
+package com.learn.kafka.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Référence de performance versionnée ({@code loadtest/baseline.properties}) :
+ * pour chaque scénario, un débit et un p99. Un résultat régresse s'il descend
+ * sous le débit de référence, ou dépasse le p99 de référence, de plus de
+ * {@code tolerance}.
+ */
+final class LoadBaseline {
+
+    static final String RESOURCE = "/loadtest/baseline.properties";
+
+    private final Properties properties;
+    private final double tolerance;
+
+    private LoadBaseline(Properties properties) {
+        this.properties = properties;
+        this.tolerance = Double.parseDouble(properties.getProperty("tolerance", "0.5"));
+    }
+
+    static LoadBaseline load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadBaseline.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return new LoadBaseline(properties);
+    }
+
+    /**
+     * @return la description de chaque régression, vide si tous les scénarios tiennent la référence
+     */
+    List<String> regressions(Map<String, LoadRunner.Stats> results) {
+        List<String> regressions = new ArrayList<>();
+        for (LoadRunner.Stats stats : results.values()) {
+            String throughput = properties.getProperty(stats.name() + ".throughput");
+            if (throughput != null && stats.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput %.1f req/s below baseline %s req/s",
+                        stats.name(), stats.throughput(), throughput));
+            }
+            String p99 = properties.getProperty(stats.name() + ".p99-ms");
+            if (p99 != null && stats.p99Millis() > Double.parseDouble(p99) * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms above baseline %s ms",
+                        stats.name(), stats.p99Millis(), p99));
+            }
+            if (stats.errors() > 0) {
+                regressions.add(stats.name() + " had " + stats.errors() + " errors");
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Écrit le résultat au format de la référence, pour pouvoir le promouvoir tel quel.
+     */
+    static void writeReport(Map<String, LoadRunner.Stats> results, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write("# Résultat du dernier tir, copiable dans src/test/resources" + RESOURCE + "\n");
+            for (LoadRunner.Stats stats : results.values()) {
+                writer.write(String.format(Locale.ROOT, "%s.throughput=%.1f%n", stats.name(), stats.throughput()));
+                if (stats.maxMillis() > 0) {
+                    writer.write(String.format(Locale.ROOT, "%s.p99-ms=%.2f%n", stats.name(), stats.p99Millis()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.learn.kafka.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Injecteur en boucle fermée : {@code users} utilisateurs virtuels enchaînent des
+ * opérations tirées selon les poids des scénarios. Les latences de la phase de
+ * chauffe ne sont pas comptées.
+ */
+final class LoadRunner {
+
+    interface Action {
+        void run() throws Exception;
+    }
+
+    record Scenario(String name, int weight, Action action) {
+    }
+
+    record Stats(String name, long count, long errors, double throughput,
+                 double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %8d req %6d err %10.1f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  max %8.2f ms",
+                    name, count, errors, throughput, p50Millis, p95Millis, p99Millis, maxMillis);
+        }
+    }
+
+    private LoadRunner() {
+    }
+
+    static Map<String, Stats> run(List<Scenario> scenarios, int users, Duration warmup, Duration duration)
+            throws Exception {
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one scenario needs a positive weight");
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        List<Future<Recorder[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                futures.add(executor.submit(() -> runUser(scenarios, totalWeight, measureFrom, deadline)));
+            }
+        }
+
+        Map<String, Stats> results = new LinkedHashMap<>();
+        double seconds = duration.toNanos() / 1e9;
+        for (int s = 0; s < scenarios.size(); s++) {
+            Recorder merged = new Recorder();
+            for (Future<Recorder[]> future : futures) {
+                merged.merge(future.get()[s]);
+            }
+            results.put(scenarios.get(s).name(), merged.stats(scenarios.get(s).name(), seconds));
+        }
+        return results;
+    }
+
+    private static Recorder[] runUser(List<Scenario> scenarios, int totalWeight, long measureFrom, long deadline) {
+        Recorder[] recorders = new Recorder[scenarios.size()];
+        Arrays.setAll(recorders, i -> new Recorder());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.nanoTime();
+        while (now < deadline) {
+            int index = pick(scenarios, random.nextInt(totalWeight));
+            boolean failed = false;
+            try {
+                scenarios.get(index).action().run();
+            } catch (Exception e) {
+                failed = true;
+            }
+            long end = System.nanoTime();
+            if (now >= measureFrom && end <= deadline) {
+                recorders[index].record(end - now, failed);
+            }
+            now = end;
+        }
+        return recorders;
+    }
+
+    private static int pick(List<Scenario> scenarios, int ticket) {
+        for (int i = 0; i < scenarios.size(); i++) {
+            ticket -= scenarios.get(i).weight();
+            if (ticket < 0) {
+                return i;
+            }
+        }
+        return scenarios.size() - 1;
+    }
+
+    /**
+     * Latences brutes d'un utilisateur pour un scénario ; fusionnées et triées en fin de tir.
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean failed) {
+            if (failed) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Stats stats(String name, double seconds) {
+            Arrays.sort(latencies, 0, count);
+            return new Stats(name, count, errors, count / seconds,
+                    percentile(0.50), percentile(0.95), percentile(0.99),
+                    count == 0 ? 0 : latencies[count - 1] / 1e6);
+        }
+
+        private double percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(count - 1, Math.ceil(quantile * count) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.learn.kafka.loadtest;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.model.RateTimestamps;
+import com.learn.kafka.service.ExchangeRateService;
+import com.learn.kafka.store.SnapshotLog;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tir de charge reproductible : application complète sur Kafka embarqué, Elasticsearch
+ * remplacé par un stand-in en mémoire à latence fixe. Lancé uniquement par le profil
+ * Maven {@code load-test} ; paramétrable par propriétés système :
+ * <ul>
+ *     <li>{@code load.users}, {@code load.warmup}, {@code load.duration} : injecteur</li>
+ *     <li>{@code load.mix} : poids des scénarios, ex. {@code latest=50,rate=30,rates=15,write=5}</li>
+ *     <li>{@code load.ingest.records} : taille du lot de la phase d'ingestion</li>
+ *     <li>{@code load.es.latency-ms} : latence simulée d'une écriture Elasticsearch</li>
+ * </ul>
+ * Le résultat est écrit dans {@code target/load-test/report.properties} et comparé à
+ * {@code loadtest/baseline.properties}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "exchange-rates.snapshot-log.path=target/load-test/snapshots-${random.uuid}.log",
+                // Écritures synchrones pour passer par le stand-in Elasticsearch
+                "exchange-rates.elasticsearch.async-writes=false",
+                // Les logs par requête fausseraient la mesure
+                "logging.level.com.learn.kafka=WARN",
+                "logging.level.com.learn.kafka.loadtest=INFO",
+                "logging.level.org.apache.kafka=WARN"
+        })
+@EmbeddedKafka(partitions = 1, topics = "exchange-rates", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+@DisplayName("Tir de charge ProxyController / ExchangeRateConsumer")
+@Slf4j
+class ProxyLoadTest {
+
+    private static final List<String> CURRENCIES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .sorted()
+            .limit(160)
+            .toList();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private KafkaTemplate<String, ExchangeRate> exchangeRateKafkaTemplate;
+
+    @Autowired
+    private SnapshotLog snapshotLog;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+
+    @TestConfiguration
+    static class StandIns {
+
+        @Bean
+        @Primary
+        @SuppressWarnings("unchecked")
+        ElasticsearchOperations elasticsearchStandIn(@Value("${load.es.latency-ms:2}") long latencyMillis) {
+            ElasticsearchOperations operations = mock(ElasticsearchOperations.class, withSettings().stubOnly());
+            SearchHits<ExchangeRate> noHits = mock(SearchHits.class, withSettings().stubOnly());
+            when(operations.save(any(ExchangeRate.class))).thenAnswer(invocation -> {
+                Thread.sleep(latencyMillis);
+                return invocation.getArgument(0);
+            });
+            when(operations.search(any(Query.class), eq(ExchangeRate.class))).thenReturn(noHits);
+            return operations;
+        }
+
+        // Pas d'appel au fournisseur réel pendant le tir
+        @Bean
+        @Primary
+        ExchangeRateService exchangeRateServiceStandIn() {
+            ExchangeRateService service = mock(ExchangeRateService.class, withSettings().stubOnly());
+            when(service.fetchAndPublishExchangeRates()).thenReturn(Mono.empty());
+            return service;
+        }
+    }
+
+    @Test
+    @DisplayName("Ingestion puis mix lecture/écriture, sans régression par rapport à la référence")
+    void loadTest() throws Exception {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (Arrays.asList(container.getContainerProperties().getTopics()).contains("exchange-rates")) {
+                ContainerTestUtils.waitForAssignment(container, 1);
+            }
+        }
+
+        Map<String, LoadRunner.Stats> results = new LinkedHashMap<>();
+        results.put("ingest", ingest(Integer.getInteger("load.ingest.records", 2000)));
+        results.putAll(LoadRunner.run(scenarios(System.getProperty("load.mix", "latest=50,rate=30,rates=15,write=5")),
+                Integer.getInteger("load.users", 32),
+                Duration.parse(System.getProperty("load.warmup", "PT3S")),
+                Duration.parse(System.getProperty("load.duration", "PT10S"))));
+
+        results.values().forEach(stats -> log.info("{}", stats));
+        LoadBaseline.writeReport(results, Path.of("target/load-test/report.properties"));
+
+        assertThat(LoadBaseline.load().regressions(results)).isEmpty();
+    }
+
+    /**
+     * Envoie un lot de snapshots d'un coup et mesure le débit du consumer jusqu'à
+     * ce que le journal local les ait tous enregistrés.
+     */
+    private LoadRunner.Stats ingest(int records) {
+        int initial = snapshotLog.size();
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> sends = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            sends.add(exchangeRateKafkaTemplate.send("exchange-rates", nextSnapshot()));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        await().atMost(5, TimeUnit.MINUTES).pollInterval(Duration.ofMillis(20))
+                .until(() -> snapshotLog.size() >= initial + records);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new LoadRunner.Stats("ingest", records, 0, records / seconds, 0, 0, 0, 0);
+    }
+
+    private List<LoadRunner.Scenario> scenarios(String mix) {
+        Map<String, LoadRunner.Action> actions = Map.of(
+                "latest", () -> get("/api/proxy/latest-rates"),
+                "rate", () -> get("/api/proxy/rate/EUR"),
+                "rates", () -> get("/api/proxy/rates?symbols=EUR,GBP,JPY,CHF,CAD"),
+                "write", () -> exchangeRateKafkaTemplate.send("exchange-rates", nextSnapshot()).get());
+
+        List<LoadRunner.Scenario> scenarios = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            LoadRunner.Action action = actions.get(parts[0]);
+            if (action == null) {
+                throw new IllegalArgumentException("Unknown load scenario " + parts[0] + ", expected one of " + actions.keySet());
+            }
+            scenarios.add(new LoadRunner.Scenario(parts[0], Integer.parseInt(parts[1]), action));
+        }
+        return scenarios;
+    }
+
+    private void get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+    }
+
+    private ExchangeRate nextSnapshot() {
+        Map<String, Double> rates = new HashMap<>(CURRENCIES.size() * 2);
+        for (int i = 0; i < CURRENCIES.size(); i++) {
+            rates.put(CURRENCIES.get(i), 0.5 + i + Math.random());
+        }
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId(UUID.randomUUID().toString());
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(RateTimestamps.format(Instant.ofEpochMilli(clock.incrementAndGet())));
+        exchangeRate.setRates(rates);
+        return exchangeRate;
+    }
+}
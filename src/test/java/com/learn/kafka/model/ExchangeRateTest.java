@@ -9,9 +9,11 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Tests unitaires pour le modèle ExchangeRate")
 class ExchangeRateTest {
@@ -165,4 +167,40 @@ class ExchangeRateTest {
         assertThat(exchangeRate.getRates()).isNotNull();
         assertThat(exchangeRate.getRates()).isEmpty();
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Virgule fixe : sérialisation exacte et omise quand absente")
+    void testFixedPointJson() throws JsonProcessingException {
+        // Given
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setRates(Map.of("EUR", 0.912));
+        String withoutFixedPoint = objectMapper.writeValueAsString(exchangeRate);
+        exchangeRate.setScaledRates(Map.of("EUR", 912345678901234567L));
+        exchangeRate.setRateScales(Map.of("EUR", 18));
+
+        // When
+        ExchangeRate roundTrip = objectMapper.readValue(objectMapper.writeValueAsString(exchangeRate), ExchangeRate.class);
+
+        // Then
+        assertThat(withoutFixedPoint).doesNotContain("scaledRates").doesNotContain("rateScales");
+        assertThat(roundTrip.getScaledRates()).containsExactly(Map.entry("EUR", 912345678901234567L));
+        assertThat(roundTrip.getRateScales()).containsExactly(Map.entry("EUR", 18));
+    }
+
+    @Test
+    @DisplayName("Conversion en virgule fixe entre devises du snapshot et depuis la base")
+    void testFixedPointConvert() {
+        // Given
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setScaledRates(Map.of("EUR", 912L, "JPY", 14637L));
+        exchangeRate.setRateScales(Map.of("EUR", 3, "JPY", 2));
+
+        // When / Then : 100,00 EUR -> JPY = 100 × 146,37 / 0,912 = 16049,3421...
+        assertThat(exchangeRate.convert(10000, 2, "EUR", "JPY", 2)).isEqualTo(1604934L);
+        assertThat(exchangeRate.convert(1, 0, "USD", "EUR", 3)).isEqualTo(912L);
+        assertThat(exchangeRate.withRatesFor(List.of("JPY")).convert(1, 0, "USD", "JPY", 0)).isEqualTo(146L);
+        assertThatThrownBy(() -> exchangeRate.convert(1, 0, "USD", "GBP", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("GBP");
+    }
+}
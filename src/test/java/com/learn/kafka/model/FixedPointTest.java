@@ -0,0 +1,117 @@
+package com.learn.kafka.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour FixedPoint")
+class FixedPointTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "146.37, 14637, 2",
+            "1, 1, 0",
+            "-0.5, -5, 1",
+            "7.9E-1, 79, 2",
+            "1.5e+2, 150, 0",
+            "1.50, 150, 2",
+            "0.000000000000000001, 1, 18"
+    })
+    @DisplayName("scale / unscaled - Précision publiée conservée, exposant compris")
+    void parse(String text, long unscaled, int scale) {
+        // When
+        char[] chars = ("[" + text + "]").toCharArray();
+        int parsedScale = FixedPoint.scale(chars, 1, text.length());
+
+        // Then
+        assertThat(parsedScale).isEqualTo(scale);
+        assertThat(FixedPoint.unscaled(chars, 1, text.length(), parsedScale)).isEqualTo(unscaled);
+        assertThat(FixedPoint.toDouble(unscaled, scale)).isEqualTo(Double.parseDouble(text));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0.0000000000000000001", "99999999999999999999", "1e400", "1.2.3x"})
+    @DisplayName("unscaled - Nombres sans représentation exacte")
+    void parse_NotRepresentable(String text) {
+        // When
+        char[] chars = text.toCharArray();
+        long unscaled = FixedPoint.unscaled(chars, 0, chars.length, FixedPoint.scale(chars, 0, chars.length));
+
+        // Then
+        assertThat(unscaled).isEqualTo(FixedPoint.NOT_REPRESENTABLE);
+    }
+
+    @Test
+    @DisplayName("convert - Identique à BigDecimal arrondi au pair le plus proche")
+    void convert_MatchesBigDecimal() {
+        // Given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long amount = random.nextLong() >> (1 + random.nextInt(63));
+            int amountScale = random.nextInt(7);
+            long fromRate = 1 + (random.nextLong() >>> (2 + random.nextInt(62)));
+            int fromScale = random.nextInt(13);
+            long toRate = 1 + (random.nextLong() >>> (2 + random.nextInt(62)));
+            int toScale = random.nextInt(13);
+            int resultScale = random.nextInt(9);
+            BigDecimal expected = BigDecimal.valueOf(amount, amountScale)
+                    .multiply(BigDecimal.valueOf(toRate, toScale))
+                    .divide(BigDecimal.valueOf(fromRate, fromScale), resultScale, RoundingMode.HALF_EVEN);
+
+            // When
+            Long actual;
+            try {
+                actual = FixedPoint.convert(amount, amountScale, fromRate, fromScale, toRate, toScale, resultScale);
+            } catch (ArithmeticException e) {
+                actual = null;
+            }
+
+            // Then
+            if (expected.unscaledValue().bitLength() < 63 && actual == null) {
+                // Seul refus admis pour un résultat représentable : diviseur mis à l'échelle hors d'un long
+                assertThat(BigDecimal.valueOf(fromRate).scaleByPowerOfTen(
+                        amountScale + toScale - fromScale - resultScale).toBigInteger().bitLength())
+                        .as("convert(%d, %d, %d, %d, %d, %d, %d)",
+                                amount, amountScale, fromRate, fromScale, toRate, toScale, resultScale)
+                        .isGreaterThanOrEqualTo(63);
+            } else if (actual != null) {
+                assertThat(actual)
+                        .as("convert(%d, %d, %d, %d, %d, %d, %d)",
+                                amount, amountScale, fromRate, fromScale, toRate, toScale, resultScale)
+                        .isEqualTo(expected.unscaledValue().longValueExact());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("convert - Égalité à mi-chemin arrondie au pair, signe conservé")
+    void convert_HalfEven() {
+        assertThat(FixedPoint.convert(25, 1, 1, 0, 1, 0, 0)).isEqualTo(2L);
+        assertThat(FixedPoint.convert(35, 1, 1, 0, 1, 0, 0)).isEqualTo(4L);
+        assertThat(FixedPoint.convert(-25, 1, 1, 0, 1, 0, 0)).isEqualTo(-2L);
+        // 1 / 3 à 4 décimales, sans erreur cumulée sur l'aller-retour d'un taux publié
+        assertThat(FixedPoint.convert(1, 0, 3, 0, 1, 0, 4)).isEqualTo(3333L);
+        assertThat(FixedPoint.convert(FixedPoint.convert(10000, 2, 912, 3, 14637, 2, 2), 2, 14637, 2, 912, 3, 2))
+                .isEqualTo(10000L);
+    }
+
+    @Test
+    @DisplayName("convert - Dépassement et taux invalides refusés")
+    void convert_Errors() {
+        assertThatThrownBy(() -> FixedPoint.convert(Long.MAX_VALUE, 0, 1, 0, 2, 0, 0))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.convert(1, 0, 1, 0, 1, 0, 19))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.convert(1, 0, 0, 0, 1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.learn.kafka.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RateTimestamps")
+class RateTimestampsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "2025-06-04T14:03:00.123Z",
+            "2025-06-04T16:03:00.123+02:00",
+            "2025-06-04T09:03:00.123-05:00",
+            "2025-06-04T14:03:00.123"
+    })
+    @DisplayName("toEpochMillis - Instant UTC, décalage explicite ou timestamp sans fuseau lu en UTC")
+    void toEpochMillis(String timestamp) {
+        // When
+        long millis = RateTimestamps.toEpochMillis(timestamp);
+
+        // Then
+        assertThat(millis).isEqualTo(Instant.parse("2025-06-04T14:03:00.123Z").toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("toEpochNanos - Un instant émis par Instant.toString() se trie comme l'instant lui-même")
+    void toEpochNanos_InstantString() {
+        // Given
+        Instant earlier = Instant.parse("2025-06-04T14:03:00.000000001Z");
+        Instant later = earlier.plusNanos(1);
+
+        // When / Then
+        assertThat(RateTimestamps.toEpochNanos(earlier.toString())).isEqualTo(RateTimestamps.toEpochNanos(earlier));
+        assertThat(RateTimestamps.toEpochNanos(later.toString())).isGreaterThan(RateTimestamps.toEpochNanos(earlier.toString()));
+    }
+}
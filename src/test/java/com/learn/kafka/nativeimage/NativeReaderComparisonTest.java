@@ -0,0 +1,175 @@
+package com.learn.kafka.nativeimage;
+
+import com.learn.kafka.KafkaApplication;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.store.SnapshotLog;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Compare les réponses du binaire natif ({@code mvn -Pnative -DskipTests native:compile}) à
+ * celles de l'application sur la JVM, toutes deux en profil {@code reader} sur le même journal
+ * local. Kafka et Elasticsearch sont volontairement injoignables : seules les lectures locales
+ * sont comparées. Ignoré tant que le binaire n'existe pas ; un autre chemin peut être donné
+ * par {@code -Dnative.image=...}.
+ */
+@EnabledIf("nativeImageAvailable")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Réponses identiques entre image native et JVM (profil reader)")
+@Slf4j
+class NativeReaderComparisonTest {
+
+    private static final Path NATIVE_IMAGE = Path.of(System.getProperty("native.image", "target/kafka-reader"));
+
+    @TempDir
+    static Path tempDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Process nativeProcess;
+    private ConfigurableApplicationContext jvmContext;
+    private int nativePort;
+    private int jvmPort;
+
+    static boolean nativeImageAvailable() {
+        return Files.isExecutable(NATIVE_IMAGE);
+    }
+
+    @BeforeAll
+    void startBothRuntimes() throws Exception {
+        Path seed = tempDir.resolve("seed.log");
+        try (SnapshotLog snapshotLog = SnapshotLog.open(seed, 1 << 16, 2)) {
+            for (int minute = 0; minute < 3; minute++) {
+                snapshotLog.append(createExchangeRate("id-" + minute, String.format("2025-06-04T12:%02d:00", minute),
+                        0.85 + minute / 100.0));
+            }
+        }
+        Path nativeLog = Files.copy(seed, tempDir.resolve("native.log"));
+        Path jvmLog = Files.copy(seed, tempDir.resolve("jvm.log"));
+
+        nativePort = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(NATIVE_IMAGE.toAbsolutePath().toString());
+        command.addAll(arguments(nativePort, nativeLog));
+        long start = System.nanoTime();
+        nativeProcess = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(tempDir.resolve("native.out").toFile())
+                .start();
+        awaitListening(nativePort);
+        log.info("Native reader listening after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        jvmPort = freePort();
+        jvmContext = new SpringApplicationBuilder(KafkaApplication.class)
+                .run(arguments(jvmPort, jvmLog).toArray(String[]::new));
+    }
+
+    @AfterAll
+    void stopBothRuntimes() throws Exception {
+        if (jvmContext != null) {
+            jvmContext.close();
+        }
+        if (nativeProcess != null) {
+            nativeProcess.destroy();
+            nativeProcess.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/proxy/test",
+            "/api/proxy/latest-rates",
+            "/api/proxy/rate/EUR",
+            "/api/proxy/rates?symbols=EUR,GBP,JPY",
+            "/api/proxy/rates?symbols=jpy,eur",
+            "/api/proxy/rate/EUR/at?ts=2025-06-04T12:01:30Z",
+            "/api/proxy/rate/EUR/at?ts=not-a-date",
+            "/api/proxy/convert?amount=100&from=EUR&to=JPY"
+    })
+    @DisplayName("Statut, type, ETag et corps identiques")
+    void sameResponse(String path) throws Exception {
+        // When
+        HttpResponse<byte[]> nativeResponse = get(nativePort, path);
+        HttpResponse<byte[]> jvmResponse = get(jvmPort, path);
+
+        // Then
+        assertThat(nativeResponse.statusCode()).isEqualTo(jvmResponse.statusCode());
+        assertThat(header(nativeResponse, "Content-Type")).isEqualTo(header(jvmResponse, "Content-Type"));
+        assertThat(header(nativeResponse, "ETag")).isEqualTo(header(jvmResponse, "ETag"));
+        assertThat(new String(nativeResponse.body())).isEqualTo(new String(jvmResponse.body()));
+    }
+
+    private static List<String> arguments(int port, Path snapshotLog) {
+        return List.of(
+                "--spring.profiles.active=reader",
+                "--server.port=" + port,
+                "--exchange-rates.snapshot-log.path=" + snapshotLog,
+                "--spring.kafka.bootstrap-servers=localhost:1",
+                "--spring.elasticsearch.uris=http://localhost:1",
+                "--logging.level.com.learn.kafka=WARN");
+    }
+
+    private void awaitListening(int port) {
+        await().atMost(Duration.ofSeconds(60)).pollInterval(Duration.ofMillis(10)).until(() -> {
+            assertThat(nativeProcess.isAlive())
+                    .as("native image exited, see %s", tempDir.resolve("native.out"))
+                    .isTrue();
+            try {
+                get(port, "/api/proxy/test");
+                return true;
+            } catch (ConnectException e) {
+                return false;
+            }
+        });
+    }
+
+    private HttpResponse<byte[]> get(int port, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String header(HttpResponse<?> response, String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ExchangeRate createExchangeRate(String id, String timestamp, double eur) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp(timestamp);
+        rate.setRates(Map.of("EUR", eur, "GBP", 0.75, "JPY", 110.0));
+        return rate;
+    }
+}
@@ -0,0 +1,165 @@
+package com.learn.kafka.provider;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learn.kafka.provider.HistoricalRateSource.DatedRates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour les sources historiques")
+class HistoricalRateSourceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 1, 15);
+    private static final LocalDate DAY_2 = LocalDate.of(2024, 1, 16);
+    private static final LocalDate DAY_3 = LocalDate.of(2024, 1, 17);
+
+    private WireMockServer wireMockServer;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    @DisplayName("HTTP : une requête par jour, réponses réémises dans l'ordre des dates")
+    void http_ReadsEachDayInOrder() {
+        // Given : le premier jour répond le plus tard
+        stub("/2024-01-15?from=USD", 200, "{\"base\":\"USD\",\"date\":\"2024-01-15\",\"rates\":{\"EUR\":0.91}}", 300);
+        stub("/2024-01-16?from=USD", 200, "{\"base\":\"USD\",\"date\":\"2024-01-16\",\"rates\":{\"EUR\":0.92}}", 0);
+        stub("/2024-01-17?from=USD", 200, "{\"base\":\"USD\",\"date\":\"2024-01-17\",\"rates\":{\"EUR\":0.93}}", 0);
+
+        // When
+        List<DatedRates> rates = httpSource(3).read(DAY_1, DAY_3).collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(rates).extracting(DatedRates::date).containsExactly(DAY_1, DAY_2, DAY_3);
+        assertThat(rates.get(0).rates().value(0)).isEqualTo(0.91);
+        assertThat(rates.get(2).rates().getBaseCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("HTTP : un jour inconnu est sauté, une erreur serveur est retentée")
+    void http_SkipsMissingDaysAndRetries() {
+        // Given
+        stub("/2024-01-15?from=USD", 404, "{\"message\":\"not found\"}", 0);
+        wireMockServer.stubFor(get(urlEqualTo("/2024-01-16?from=USD")).inScenario("flaky").whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503)).willSetStateTo("recovered"));
+        wireMockServer.stubFor(get(urlEqualTo("/2024-01-16?from=USD")).inScenario("flaky").whenScenarioStateIs("recovered")
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/json")
+                        .withBody("{\"base\":\"USD\",\"rates\":{\"EUR\":0.92}}")));
+
+        // When
+        List<DatedRates> rates = httpSource(2).read(DAY_1, DAY_2).collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(rates).extracting(DatedRates::date).containsExactly(DAY_2);
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/2024-01-16?from=USD")));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/2024-01-15?from=USD")));
+    }
+
+    @Test
+    @DisplayName("HTTP : un jour sans publication, servi avec les taux d'une autre date, est sauté")
+    void http_SkipsDaysPublishedUnderAnotherDate() {
+        // Given : samedi et dimanche renvoient les taux du vendredi
+        LocalDate friday = LocalDate.of(2024, 1, 19);
+        LocalDate monday = LocalDate.of(2024, 1, 22);
+        String fridayRates = "{\"base\":\"USD\",\"date\":\"2024-01-19\",\"rates\":{\"EUR\":0.91}}";
+        stub("/2024-01-19?from=USD", 200, fridayRates, 0);
+        stub("/2024-01-20?from=USD", 200, fridayRates, 0);
+        stub("/2024-01-21?from=USD", 200, fridayRates, 0);
+        stub("/2024-01-22?from=USD", 200, "{\"base\":\"USD\",\"date\":\"2024-01-22\",\"rates\":{\"EUR\":0.92}}", 0);
+
+        // When
+        List<DatedRates> rates = httpSource(2).read(friday, monday).collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(rates).extracting(DatedRates::date).containsExactly(friday, monday);
+    }
+
+    @Test
+    @DisplayName("NDJSON : un objet par ligne, filtré sur la plage demandée")
+    void file_ReadsNdjson() throws IOException {
+        // Given
+        Path dump = Files.writeString(tempDir.resolve("rates.ndjson"), """
+                {"date":"2024-01-14","base":"USD","rates":{"EUR":0.90}}
+                {"date":"2024-01-15","base":"USD","rates":{"EUR":0.91,"GBP":0.79}}
+
+                {"date":"2024-01-16","base":"USD","rates":{"EUR":0.92}}
+                """);
+
+        // When
+        List<DatedRates> rates = new FileHistoricalRateSource(dump, new StreamingRateDecoder(-1))
+                .read(DAY_1, DAY_3).collectList().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rates).extracting(DatedRates::date).containsExactly(DAY_1, DAY_2);
+        assertThat(rates.get(0).rates().size()).isEqualTo(2);
+        assertThat(rates.get(0).rates().getBaseCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("CSV : en-tête de devises, cellules vides ignorées")
+    void file_ReadsCsv() throws IOException {
+        // Given
+        Path dump = Files.writeString(tempDir.resolve("rates.csv"), """
+                date,EUR,gbp,JPY
+                2024-01-15,0.91,0.79,147.5
+                2024-01-16,0.92,,148.1
+                """);
+
+        // When
+        List<DatedRates> rates = new FileHistoricalRateSource(dump, new StreamingRateDecoder(-1))
+                .read(DAY_1, DAY_3).collectList().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rates).extracting(DatedRates::date).containsExactly(DAY_1, DAY_2);
+        assertThat(rates.get(0).rates().currency(1)).isEqualTo("GBP");
+        assertThat(rates.get(1).rates().size()).isEqualTo(2);
+        assertThat(rates.get(1).rates().value(1)).isEqualTo(148.1);
+        assertThat(rates.get(1).rates().getBaseCurrency()).isNull();
+    }
+
+    private HttpHistoricalRateSource httpSource(int parallelism) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl(wireMockServer.baseUrl())
+                .codecs(codecs -> codecs.customCodecs().register(new StreamingRateDecoder(-1)))
+                .build();
+        return new HttpHistoricalRateSource(webClient, "/{date}?from={base}", "USD", parallelism,
+                Duration.ofSeconds(5), 2, Duration.ofMillis(10));
+    }
+
+    private void stub(String url, int status, String body, int delayMillis) {
+        wireMockServer.stubFor(get(urlEqualTo(url)).willReturn(aResponse()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .withFixedDelay(delayMillis)));
+    }
+}
@@ -0,0 +1,195 @@
+package com.learn.kafka.provider;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learn.kafka.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour MultiSourceRateFetcher")
+class MultiSourceRateFetcherTest {
+
+    private WireMockServer wireMockServer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    @DisplayName("FIRST : le fournisseur le plus rapide l'emporte")
+    void fetch_FirstStrategyFastestWins() {
+        // Given
+        stub("/slow", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.80}}", 1500);
+        stub("/fast", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.85}}", 0);
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.FIRST, provider("slow", "/slow"), provider("fast", "/fast"));
+
+        // When / Then
+        StepVerifier.create(fetcher.fetch())
+                .assertNext(rate -> {
+                    assertThat(rate.getRates()).containsEntry("EUR", 0.85);
+                    assertThat(rate.getSources()).containsEntry("EUR", "fast");
+                    assertThat(rate.getBaseCurrency()).isEqualTo("USD");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("MEDIAN : médiane basse par devise, fournisseur retenu tracé")
+    void fetch_MedianStrategy() {
+        // Given
+        stub("/a", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.80,\"GBP\":0.70}}", 0);
+        stub("/b", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.90,\"GBP\":0.72}}", 0);
+        stub("/c", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.85}}", 0);
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.MEDIAN,
+                provider("a", "/a"), provider("b", "/b"), provider("c", "/c"));
+
+        // When
+        ExchangeRate rate = fetcher.fetch().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rate).isNotNull();
+        assertThat(rate.getRates()).containsEntry("EUR", 0.85).containsEntry("GBP", 0.70);
+        assertThat(rate.getSources()).containsEntry("EUR", "c").containsEntry("GBP", "a");
+        assertThat(rate.getProviderLatencies()).containsOnlyKeys("a", "b", "c");
+    }
+
+    @Test
+    @DisplayName("Une source cotant contre une autre base est écartée, même si elle répond la première")
+    void fetch_OtherBaseRejected() {
+        // Given
+        stub("/eur", "{\"base\":\"EUR\",\"rates\":{\"USD\":1.10,\"GBP\":0.85}}", 0);
+        stub("/a", "{\"base\":\"USD\",\"rates\":{\"EUR\":0.85,\"GBP\":0.75}}", 200);
+        stub("/b", "{\"base\":\"usd\",\"rates\":{\"EUR\":0.86,\"GBP\":0.76}}", 200);
+        MultiSourceRateFetcher median = fetcher(MergeStrategy.MEDIAN,
+                provider("eur", "/eur"), provider("a", "/a"), provider("b", "/b"));
+        MultiSourceRateFetcher first = fetcher(MergeStrategy.FIRST, provider("eur", "/eur"), provider("a", "/a"));
+
+        // When
+        ExchangeRate merged = median.fetch().block(Duration.ofSeconds(5));
+        ExchangeRate fastest = first.fetch().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(merged).isNotNull();
+        assertThat(merged.getBaseCurrency()).isEqualTo("USD");
+        assertThat(merged.getRates()).containsOnlyKeys("EUR", "GBP").containsEntry("GBP", 0.75);
+        assertThat(merged.getProviderLatencies()).containsOnlyKeys("a", "b");
+        assertThat(fastest).isNotNull();
+        assertThat(fastest.getSources()).containsEntry("EUR", "a");
+        assertThat(meterRegistry.find("exchange.provider.fetch").tag("provider", "eur").tag("outcome", "rejected").timer())
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("Heures de mise à jour : la plus récente publiée, la prochaine au plus tôt")
+    void fetch_UpdateHints() {
+        // Given
+        stub("/a", "{\"time_last_update_unix\":100,\"time_next_update_unix\":900,\"rates\":{\"EUR\":0.85}}", 0);
+        stub("/b", "{\"time_last_update_unix\":200,\"time_next_update_unix\":500,\"rates\":{\"EUR\":0.86}}", 0);
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.MEDIAN, provider("a", "/a"), provider("b", "/b"));
+
+        // When
+        ExchangeRate rate = fetcher.fetch().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rate).isNotNull();
+        assertThat(rate.getProviderLastUpdate()).isEqualTo(200L);
+        assertThat(rate.getProviderNextUpdate()).isEqualTo(500L);
+    }
+
+    @Test
+    @DisplayName("QUORUM : les devises sans accord suffisant sont écartées")
+    void fetch_QuorumDropsDisagreement() {
+        // Given
+        stub("/a", "{\"rates\":{\"EUR\":0.850,\"JPY\":150.0}}", 0);
+        stub("/b", "{\"rates\":{\"EUR\":0.851,\"JPY\":140.0}}", 0);
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.QUORUM, provider("a", "/a"), provider("b", "/b"));
+
+        // When
+        ExchangeRate rate = fetcher.fetch().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rate).isNotNull();
+        assertThat(rate.getRates()).containsOnlyKeys("EUR");
+    }
+
+    @Test
+    @DisplayName("Un fournisseur hors délai ou en erreur est ignoré")
+    void fetch_TimeoutAndErrorExcluded() {
+        // Given
+        stub("/ok", "{\"rates\":{\"EUR\":0.85}}", 0);
+        stub("/late", "{\"rates\":{\"EUR\":0.10}}", 3000);
+        wireMockServer.stubFor(get(urlEqualTo("/down")).willReturn(aResponse().withStatus(503)));
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.MEDIAN,
+                provider("ok", "/ok"), provider("late", "/late"), provider("down", "/down"));
+
+        // When
+        ExchangeRate rate = fetcher.fetch().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(rate).isNotNull();
+        assertThat(rate.getRates()).containsEntry("EUR", 0.85);
+        assertThat(rate.getProviderLatencies()).containsOnlyKeys("ok");
+        assertThat(meterRegistry.find("exchange.provider.fetch").tag("provider", "down").tag("outcome", "error").timer())
+                .isNotNull();
+        assertThat(meterRegistry.find("exchange.provider.fetch").tag("provider", "ok").tag("outcome", "success").timer())
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("Erreur si aucun fournisseur ne répond")
+    void fetch_AllProvidersFailed() {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo("/down")).willReturn(aResponse().withStatus(500)));
+        MultiSourceRateFetcher fetcher = fetcher(MergeStrategy.QUORUM, provider("down", "/down"));
+
+        // When / Then
+        StepVerifier.create(fetcher.fetch())
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Au moins un fournisseur est requis")
+    void constructor_RequiresProvider() {
+        assertThatThrownBy(() -> new MultiSourceRateFetcher(List.of(), MergeStrategy.FIRST, "USD", 1, 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void stub(String path, String body, int delayMillis) {
+        wireMockServer.stubFor(get(urlEqualTo(path)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .withFixedDelay(delayMillis)));
+    }
+
+    private RateProvider provider(String name, String path) {
+        return new HttpRateProvider(name, WebClient.create(wireMockServer.baseUrl()), path, Duration.ofSeconds(2));
+    }
+
+    private MultiSourceRateFetcher fetcher(MergeStrategy strategy, RateProvider... providers) {
+        return new MultiSourceRateFetcher(List.of(providers), strategy, "USD", 2, 0.005, meterRegistry);
+    }
+}
@@ -0,0 +1,200 @@
+package com.learn.kafka.provider;
+
+import com.learn.kafka.model.ExchangeRate;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour StreamingRateDecoder")
+class StreamingRateDecoderTest {
+
+    private static final String RESPONSE = """
+            {"provider":"https://www.exchangerate-api.com","terms":"https://www.exchangerate-api.com/terms",
+             "base":"USD","date":"2024-01-15","time_last_updated":1705276801,
+             "meta":{"rates":{"XXX":1.0},"tags":["a",{"b":[1,2]}]},
+             "rates":{"USD":1,"EUR":0.912,"JPY":146.37,"usd":2.0,"GBP":7.9E-1,"NUL":null}}
+            """;
+
+    private final StreamingRateDecoder decoder = new StreamingRateDecoder(-1);
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    @Test
+    @DisplayName("Décodage de l'objet rates, champs inconnus et imbriqués ignorés")
+    void decode_RatesOnly() {
+        // When
+        ExchangeRate rate = (ExchangeRate) decoder.decodeToMono(Flux.just(buffer(RESPONSE)),
+                ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+        // Then
+        assertThat(rate).isNotNull();
+        assertThat(rate.getBaseCurrency()).isEqualTo("USD");
+        assertThat(rate.getRates()).containsOnly(
+                Map.entry("USD", 1.0), Map.entry("EUR", 0.912), Map.entry("JPY", 146.37), Map.entry("GBP", 0.79));
+    }
+
+    @Test
+    @DisplayName("Résultat identique quel que soit le découpage du corps")
+    void decode_ChunkBoundaries() {
+        for (int chunk : new int[]{1, 3, 7, 64}) {
+            // Given
+            List<NettyDataBuffer> buffers = chunks(RESPONSE, chunk);
+
+            // When
+            RateVector vector = (RateVector) decoder.decodeToMono(Flux.fromIterable(buffers),
+                    ResolvableType.forClass(RateVector.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+            // Then
+            assertThat(vector).isNotNull();
+            assertThat(vector.size()).isEqualTo(4);
+            assertThat(vector.currency(2)).isEqualTo("JPY");
+            assertThat(vector.value(2)).isEqualTo(146.37);
+            assertThat(buffers).allSatisfy(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isZero());
+        }
+    }
+
+    @Test
+    @DisplayName("Format open.er-api : base_code et conversion_rates")
+    void decode_AlternativeFieldNames() {
+        // Given
+        String body = "{\"result\":\"success\",\"base_code\":\"EUR\",\"conversion_rates\":{\"USD\":1.09}}";
+
+        // When
+        ExchangeRate rate = (ExchangeRate) decoder.decode(buffer(body),
+                ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of());
+
+        // Then
+        assertThat(rate.getBaseCurrency()).isEqualTo("EUR");
+        assertThat(rate.getRates()).containsOnly(Map.entry("USD", 1.09));
+    }
+
+    @Test
+    @DisplayName("Heures de mise à jour annoncées par le fournisseur")
+    void decode_UpdateHints() {
+        // Given
+        String body = "{\"time_last_update_unix\":1705276801,\"time_next_update_unix\":1705363201,"
+                + "\"base_code\":\"USD\",\"rates\":{\"EUR\":0.91}}";
+
+        // When
+        ExchangeRate rate = (ExchangeRate) decoder.decode(buffer(body),
+                ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of());
+        ExchangeRate v4 = (ExchangeRate) decoder.decode(buffer(RESPONSE),
+                ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of());
+
+        // Then
+        assertThat(rate.getProviderLastUpdate()).isEqualTo(1705276801L);
+        assertThat(rate.getProviderNextUpdate()).isEqualTo(1705363201L);
+        assertThat(v4.getProviderLastUpdate()).isEqualTo(1705276801L);
+        assertThat(v4.getProviderNextUpdate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Virgule fixe : mantisse et décimales publiées, quel que soit le découpage")
+    void decode_FixedPoint() {
+        // Given
+        StreamingRateDecoder fixedPoint = new StreamingRateDecoder(-1, true);
+        String body = RESPONSE.replace("\"NUL\":null", "\"XAU\":0.0000000000000000001");
+
+        for (int chunk : new int[]{1, 5, 64}) {
+            // When
+            ExchangeRate rate = (ExchangeRate) fixedPoint.decodeToMono(Flux.fromIterable(chunks(body, chunk)),
+                    ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+            // Then
+            assertThat(rate).isNotNull();
+            assertThat(rate.getScaledRates()).containsOnly(
+                    Map.entry("USD", 1L), Map.entry("EUR", 912L), Map.entry("JPY", 14637L), Map.entry("GBP", 79L));
+            assertThat(rate.getRateScales()).containsOnly(
+                    Map.entry("USD", 0), Map.entry("EUR", 3), Map.entry("JPY", 2), Map.entry("GBP", 2));
+            // Plus de 18 décimales : seulement en double
+            assertThat(rate.getRates()).containsKey("XAU");
+        }
+    }
+
+    @Test
+    @DisplayName("Sans virgule fixe, aucun taux en virgule fixe publié")
+    void decode_FixedPointDisabled() {
+        // When
+        ExchangeRate rate = (ExchangeRate) decoder.decode(buffer(RESPONSE),
+                ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of());
+
+        // Then
+        assertThat(rate.getScaledRates()).isNull();
+        assertThat(rate.getRateScales()).isNull();
+    }
+
+    @Test
+    @DisplayName("Corps vide : aucun élément")
+    void decode_EmptyBody() {
+        StepVerifier.create(decoder.decodeToMono(Flux.empty(),
+                        ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Corps tronqué ou invalide : DecodingException")
+    void decode_MalformedBody() {
+        StepVerifier.create(decoder.decodeToMono(Flux.just(buffer("{\"rates\":{\"EUR\":0.9")),
+                        ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DecodingException.class)
+                .verify();
+        StepVerifier.create(decoder.decodeToMono(Flux.just(buffer("{\"rates\":}")),
+                        ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Corps au-delà de la limite : DataBufferLimitException et buffers libérés")
+    void decode_LimitExceeded() {
+        // Given
+        StreamingRateDecoder limited = new StreamingRateDecoder(16);
+        List<NettyDataBuffer> buffers = chunks(RESPONSE, 8);
+
+        // When / Then
+        StepVerifier.create(limited.decodeToMono(Flux.fromIterable(buffers),
+                        ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DataBufferLimitException.class)
+                .verify();
+        assertThat(buffers.get(0).getNativeBuffer().refCnt()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cibles et types MIME pris en charge")
+    void canDecode() {
+        assertThat(decoder.canDecode(ResolvableType.forClass(ExchangeRate.class), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(RateVector.class), null)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(ExchangeRate.class), MediaType.TEXT_HTML)).isFalse();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private DataBuffer buffer(String content) {
+        return bufferFactory.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<NettyDataBuffer> chunks(String content, int size) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        List<NettyDataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            NettyDataBuffer buffer = bufferFactory.allocateBuffer(size);
+            buffer.write(bytes, offset, Math.min(size, bytes.length - offset));
+            buffers.add(buffer);
+        }
+        return buffers;
+    }
+}
@@ -0,0 +1,210 @@
+package com.learn.kafka.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesAsyncClient;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.ForcemergeRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.TranslogDurability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour BackfillModeService")
+class BackfillModeServiceTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @Mock
+    private ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    @Mock
+    private ElasticsearchIndicesAsyncClient indicesAsyncClient;
+
+    @Mock
+    private ObjectProvider<ElasticsearchService> elasticsearchServiceProvider;
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @InjectMocks
+    private BackfillModeService backfillModeService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        lenient().when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        lenient().when(elasticsearchAsyncClient.indices()).thenReturn(indicesAsyncClient);
+        // Index v2 avec des réglages explicites, v1 sans : les valeurs par défaut s'appliquent
+        lenient().when(indicesClient.getSettings(any(GetIndicesSettingsRequest.class)))
+                .thenReturn(GetIndicesSettingsResponse.of(response -> response.result(Map.of(
+                        "exchange_rates_v2", IndexState.of(state -> state.settings(IndexSettings.of(settings -> settings
+                                .index(IndexSettings.of(index -> index
+                                        .refreshInterval(time -> time.time("5s"))
+                                        .numberOfReplicas("2"))))))))));
+        lenient().when(indicesAsyncClient.forcemerge(any(ForcemergeRequest.class)))
+                .thenReturn(new CompletableFuture<>());
+        lenient().when(elasticsearchServiceProvider.getIfAvailable()).thenReturn(elasticsearchService);
+        lenient().when(elasticsearchService.flushBulk()).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    @DisplayName("enter - Relève les réglages et désactive refresh, réplicas et fsync par requête")
+    void enter_AppliesBackfillSettings() throws IOException {
+        // When
+        Map<String, BackfillModeService.LiveSettings> captured = backfillModeService.enter();
+
+        // Then
+        assertThat(backfillModeService.isActive()).isTrue();
+        assertThat(captured).containsEntry("exchange_rates_v2",
+                new BackfillModeService.LiveSettings("5s", "2", TranslogDurability.Request));
+        PutIndicesSettingsRequest request = capturePutSettings(1).get(0);
+        assertThat(request.index()).containsExactly("exchange_rates");
+        assertThat(request.settings().refreshInterval().time()).isEqualTo("-1");
+        assertThat(request.settings().numberOfReplicas()).isEqualTo("0");
+        assertThat(request.settings().translog().durability()).isEqualTo(TranslogDurability.Async);
+
+        // Une seconde entrée ne relève pas les réglages de backfill comme réglages de service
+        backfillModeService.enter();
+        verify(indicesClient, times(1)).getSettings(any(GetIndicesSettingsRequest.class));
+    }
+
+    @Test
+    @DisplayName("exit - Rétablit les réglages relevés, rafraîchit et lance le force-merge")
+    void exit_RestoresLiveSettings() throws IOException {
+        // Given
+        backfillModeService.enter();
+
+        // When
+        backfillModeService.exit();
+
+        // Then
+        assertThat(backfillModeService.isActive()).isFalse();
+        PutIndicesSettingsRequest restore = capturePutSettings(2).get(1);
+        assertThat(restore.index()).containsExactly("exchange_rates_v2");
+        assertThat(restore.settings().refreshInterval().time()).isEqualTo("5s");
+        assertThat(restore.settings().numberOfReplicas()).isEqualTo("2");
+        assertThat(restore.settings().translog().durability()).isEqualTo(TranslogDurability.Request);
+        verify(indicesClient).refresh(any(RefreshRequest.class));
+        ArgumentCaptor<ForcemergeRequest> forcemerge = ArgumentCaptor.forClass(ForcemergeRequest.class);
+        verify(indicesAsyncClient).forcemerge(forcemerge.capture());
+        assertThat(forcemerge.getValue().maxNumSegments()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("exit - Attend le tampon bulk avant de rétablir les réglages et de rafraîchir")
+    void exit_FlushesBulkBufferFirst() throws IOException {
+        // Given
+        backfillModeService.enter();
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        when(elasticsearchService.flushBulk()).thenAnswer(invocation -> {
+            assertThat(backfillModeService.isActive()).isFalse();
+            return pending.completeAsync(() -> null);
+        });
+
+        // When
+        backfillModeService.exit();
+
+        // Then
+        assertThat(pending).isDone();
+        InOrder order = inOrder(elasticsearchService, indicesClient);
+        order.verify(elasticsearchService).flushBulk();
+        order.verify(indicesClient).putSettings(any(PutIndicesSettingsRequest.class));
+        order.verify(indicesClient).refresh(any(RefreshRequest.class));
+    }
+
+    @Test
+    @DisplayName("exit - Reste en mode backfill si les réglages ne peuvent être rétablis")
+    void exit_RestoreFailureKeepsMode() throws IOException {
+        // Given
+        backfillModeService.enter();
+        when(indicesClient.putSettings(any(PutIndicesSettingsRequest.class))).thenThrow(new IOException("Connection refused"));
+
+        // When / Then
+        assertThatThrownBy(() -> backfillModeService.exit()).isInstanceOf(IOException.class);
+        assertThat(backfillModeService.isActive()).isTrue();
+        verify(indicesClient, never()).refresh(any(RefreshRequest.class));
+    }
+
+    @Test
+    @DisplayName("exit - Sans effet hors mode backfill")
+    void exit_WhenInactive() throws IOException {
+        // When
+        Map<String, BackfillModeService.LiveSettings> restored = backfillModeService.exit();
+
+        // Then
+        assertThat(restored).isEmpty();
+        verify(indicesClient, never()).putSettings(any(PutIndicesSettingsRequest.class));
+    }
+
+    @Test
+    @DisplayName("restoreOnShutdown - Rétablit les réglages sans force-merge")
+    void restoreOnShutdown() throws IOException {
+        // Given
+        backfillModeService.enter();
+
+        // When
+        backfillModeService.restoreOnShutdown();
+
+        // Then
+        assertThat(backfillModeService.isActive()).isFalse();
+        capturePutSettings(2);
+        verifyNoInteractions(indicesAsyncClient);
+    }
+
+    @Test
+    @DisplayName("Réglages absents : valeurs par défaut d'Elasticsearch")
+    void liveSettings_Defaults() {
+        assertThat(BackfillModeService.LiveSettings.of(IndexSettings.of(settings -> settings)))
+                .isEqualTo(new BackfillModeService.LiveSettings("1s", "1", TranslogDurability.Request));
+    }
+
+    @Test
+    @DisplayName("Endpoint et option --backfill-mode")
+    void endpointAndRunner() throws IOException {
+        // Given
+        BackfillModeEndpoint endpoint = new BackfillModeEndpoint(backfillModeService);
+        BackfillModeRunner runner = new BackfillModeRunner(backfillModeService);
+
+        // When / Then
+        runner.run(new DefaultApplicationArguments("--other"));
+        assertThat(endpoint.info()).containsEntry("active", false);
+        runner.run(new DefaultApplicationArguments("--backfill-mode"));
+        assertThat(endpoint.info()).containsEntry("active", true);
+        assertThat(endpoint.toggle(false)).containsEntry("active", false).containsKey("restored");
+    }
+
+    private List<PutIndicesSettingsRequest> capturePutSettings(int times) throws IOException {
+        ArgumentCaptor<PutIndicesSettingsRequest> request = ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        verify(indicesClient, times(times)).putSettings(request.capture());
+        return request.getAllValues();
+    }
+}
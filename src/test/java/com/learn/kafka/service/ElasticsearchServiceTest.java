@@ -1,19 +1,42 @@
 package com.learn.kafka.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.util.ObjectBuilder;
+import com.learn.kafka.config.ElasticsearchClientProperties;
+import com.learn.kafka.model.CurrencyStats;
 import com.learn.kafka.model.ExchangeRate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -27,6 +50,15 @@ class ElasticsearchServiceTest {
     @Mock
     private ElasticsearchOperations elasticsearchOperations;
 
+    @Mock
+    private ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    @Spy
+    private ElasticsearchClientProperties clientProperties = new ElasticsearchClientProperties();
+
+    @Mock
+    private BackfillModeService backfillModeService;
+
     @InjectMocks
     private ElasticsearchService elasticsearchService;
 
@@ -167,4 +199,214 @@ class ElasticsearchServiceTest {
         assertThat(result).isNotNull();
         verify(elasticsearchOperations, times(1)).save(any(ExchangeRate.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("saveExchangeRateAsync - Devrait indexer le document converti via le client asynchrone")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void saveExchangeRateAsync_Success() throws Exception {
+        // Given
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        when(elasticsearchAsyncClient.index(any(Function.class)))
+            .thenReturn(CompletableFuture.completedFuture(IndexResponse.of(response -> response
+                .id("test-id-123").index("exchange_rates").result(Result.Created)
+                .primaryTerm(1L).seqNo(1L).version(1L)
+                .shards(shards -> shards.total(1).successful(1).failed(0)))));
+
+        // When
+        ExchangeRate result = elasticsearchService.saveExchangeRateAsync(sampleExchangeRate).get();
+
+        // Then
+        assertThat(result).isSameAs(sampleExchangeRate);
+        ArgumentCaptor<Function> request = ArgumentCaptor.forClass(Function.class);
+        verify(elasticsearchAsyncClient).index(request.capture());
+        IndexRequest<Map<String, Object>> indexRequest = ((ObjectBuilder<IndexRequest<Map<String, Object>>>)
+            request.getValue().apply(new IndexRequest.Builder<>())).build();
+        assertThat(indexRequest.index()).isEqualTo("exchange_rates");
+        assertThat(indexRequest.id()).isEqualTo("test-id-123");
+        assertThat(indexRequest.document()).containsEntry("baseCurrency", "USD").containsKey("rates");
+        verify(elasticsearchOperations, never()).save(any(ExchangeRate.class));
+    }
+
+    @Test
+    @DisplayName("saveExchangeRateAsync - Devrait propager l'échec du client asynchrone")
+    @SuppressWarnings("unchecked")
+    void saveExchangeRateAsync_Failure() {
+        // Given
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        when(elasticsearchAsyncClient.index(any(Function.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+
+        // When & Then
+        assertThat(elasticsearchService.saveExchangeRateAsync(sampleExchangeRate))
+            .failsWithin(Duration.ofSeconds(1))
+            .withThrowableOfType(ExecutionException.class)
+            .withRootCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("saveExchangeRateAsync - Devrait écrire en synchrone si async-writes est désactivé")
+    void saveExchangeRateAsync_SyncFallback() throws Exception {
+        // Given
+        clientProperties.setAsyncWrites(false);
+        when(elasticsearchOperations.save(sampleExchangeRate)).thenReturn(sampleExchangeRate);
+
+        // When
+        ExchangeRate result = elasticsearchService.saveExchangeRateAsync(sampleExchangeRate).get();
+
+        // Then
+        assertThat(result).isSameAs(sampleExchangeRate);
+        verifyNoInteractions(elasticsearchAsyncClient);
+    }
+
+    @Test
+    @DisplayName("saveExchangeRateAsync - Devrait regrouper les écritures en bulk en mode backfill")
+    void saveExchangeRateAsync_BulkInBackfillMode() throws Exception {
+        // Given
+        clientProperties.setBulkSize(2);
+        when(backfillModeService.isActive()).thenReturn(true);
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        when(elasticsearchAsyncClient.bulk(any(BulkRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(response -> response
+                .errors(true).took(3)
+                .items(bulkItem("test-id-123", false), bulkItem("second-id", true)))));
+        ExchangeRate second = new ExchangeRate();
+        second.setId("second-id");
+        second.setBaseCurrency("USD");
+
+        // When
+        CompletableFuture<ExchangeRate> first = elasticsearchService.saveExchangeRateAsync(sampleExchangeRate);
+        CompletableFuture<ExchangeRate> failed = elasticsearchService.saveExchangeRateAsync(second);
+
+        // Then
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchAsyncClient).bulk(request.capture());
+        assertThat(request.getValue().operations()).hasSize(2);
+        assertThat(request.getValue().operations().get(0).index().id()).isEqualTo("test-id-123");
+        assertThat(first.get()).isSameAs(sampleExchangeRate);
+        assertThat(failed).isCompletedExceptionally();
+        verify(elasticsearchAsyncClient, never()).index(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("saveExchangeRateAsync - Un lot incomplet part après bulk-linger")
+    void saveExchangeRateAsync_BulkLinger() {
+        // Given
+        clientProperties.setBulkLinger(Duration.ofMillis(20));
+        when(backfillModeService.isActive()).thenReturn(true);
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        when(elasticsearchAsyncClient.bulk(any(BulkRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(response -> response
+                .errors(false).took(1).items(bulkItem("test-id-123", false)))));
+
+        // When
+        CompletableFuture<ExchangeRate> result = elasticsearchService.saveExchangeRateAsync(sampleExchangeRate);
+
+        // Then
+        assertThat(result).succeedsWithin(Duration.ofSeconds(2)).isSameAs(sampleExchangeRate);
+    }
+
+    @Test
+    @DisplayName("flushBulk - Envoie le tampon et se termine avec la requête bulk en cours")
+    void flushBulk_CompletesWithPendingBulk() {
+        // Given
+        clientProperties.setBulkLinger(Duration.ofMinutes(1));
+        when(backfillModeService.isActive()).thenReturn(true);
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        CompletableFuture<BulkResponse> bulk = new CompletableFuture<>();
+        when(elasticsearchAsyncClient.bulk(any(BulkRequest.class))).thenReturn(bulk);
+        CompletableFuture<ExchangeRate> write = elasticsearchService.saveExchangeRateAsync(sampleExchangeRate);
+
+        // When
+        CompletableFuture<Void> flushed = elasticsearchService.flushBulk();
+
+        // Then
+        verify(elasticsearchAsyncClient).bulk(any(BulkRequest.class));
+        assertThat(flushed).isNotDone();
+        bulk.complete(BulkResponse.of(response -> response
+            .errors(false).took(1).items(bulkItem("test-id-123", false))));
+        assertThat(flushed).isCompleted();
+        assertThat(write).isCompleted();
+        assertThat(elasticsearchService.flushBulk()).isCompleted();
+    }
+
+    @Test
+    @DisplayName("saveExchangeRatesAsync - Un lot, une requête bulk, un futur par snapshot")
+    void saveExchangeRatesAsync_OneBulkPerBatch() {
+        // Given
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(elasticsearchOperations.getIndexCoordinatesFor(ExchangeRate.class))
+            .thenReturn(IndexCoordinates.of("exchange_rates"));
+        when(elasticsearchAsyncClient.bulk(any(BulkRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(response -> response
+                .errors(true).took(2)
+                .items(bulkItem("test-id-123", false), bulkItem("second-id", true)))));
+        ExchangeRate second = new ExchangeRate();
+        second.setId("second-id");
+
+        // When
+        List<CompletableFuture<ExchangeRate>> results =
+            elasticsearchService.saveExchangeRatesAsync(List.of(sampleExchangeRate, second));
+
+        // Then
+        verify(elasticsearchAsyncClient, times(1)).bulk(any(BulkRequest.class));
+        verifyNoInteractions(backfillModeService);
+        assertThat(results.get(0)).isCompletedWithValue(sampleExchangeRate);
+        assertThat(results.get(1)).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("saveExchangeRatesAsync - Un snapshot sans id est refusé")
+    void saveExchangeRatesAsync_RequiresIds() {
+        // Given
+        sampleExchangeRate.setId(null);
+
+        // When / Then
+        assertThatThrownBy(() -> elasticsearchService.saveExchangeRatesAsync(List.of(sampleExchangeRate)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(elasticsearchAsyncClient);
+    }
+
+    @Test
+    @DisplayName("saveCurrencyStats - Devrait créer l'index une seule fois puis indexer le lot")
+    void saveCurrencyStats_CreatesIndexOnce() {
+        // Given
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(elasticsearchOperations.indexOps(CurrencyStats.class)).thenReturn(indexOperations);
+        when(indexOperations.exists()).thenReturn(false);
+        List<CurrencyStats> stats = List.of(new CurrencyStats());
+
+        // When
+        elasticsearchService.saveCurrencyStats(stats);
+        elasticsearchService.saveCurrencyStats(stats);
+
+        // Then
+        verify(indexOperations, times(1)).createWithMapping();
+        verify(elasticsearchOperations, times(2)).save(stats);
+    }
+
+    private static BulkResponseItem bulkItem(String id, boolean failed) {
+        return BulkResponseItem.of(item -> {
+            item.operationType(OperationType.Index).index("exchange_rates").id(id).status(failed ? 400 : 201);
+            if (failed) {
+                item.error(error -> error.type("mapper_parsing_exception").reason("failed to parse"));
+            }
+            return item;
+        });
+    }
+}
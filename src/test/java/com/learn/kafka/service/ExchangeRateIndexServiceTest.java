@@ -0,0 +1,259 @@
+package com.learn.kafka.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.PutIndexTemplateRequest;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.reindex.ReindexRequest;
+import org.springframework.data.elasticsearch.core.reindex.ReindexResponse;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ExchangeRateIndexService")
+class ExchangeRateIndexServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations entityIndexOps;
+
+    @Mock
+    private IndexOperations aliasIndexOps;
+
+    @Mock
+    private IndexOperations targetIndexOps;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @InjectMocks
+    private ExchangeRateIndexService exchangeRateIndexService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exchangeRateIndexService, "indexVersion", 2);
+        ReflectionTestUtils.setField(exchangeRateIndexService, "manageTemplate", true);
+        lenient().when(elasticsearchOperations.indexOps(ExchangeRate.class)).thenReturn(entityIndexOps);
+        lenient().when(elasticsearchOperations.indexOps(IndexCoordinates.of("exchange_rates"))).thenReturn(aliasIndexOps);
+        lenient().when(elasticsearchOperations.indexOps(IndexCoordinates.of("exchange_rates_v2"))).thenReturn(targetIndexOps);
+        lenient().when(entityIndexOps.createSettings(ExchangeRate.class)).thenReturn(new Settings());
+        lenient().when(entityIndexOps.createMapping(ExchangeRate.class)).thenReturn(Document.create());
+        lenient().when(entityIndexOps.putIndexTemplate(any())).thenReturn(true);
+        lenient().when(elasticsearchClient.indices()).thenReturn(indicesClient);
+    }
+
+    @Test
+    @DisplayName("putIndexTemplate - Devrait cibler tous les index exchange_rates*")
+    void putIndexTemplate_UsesPatternAndMapping() {
+        // When
+        boolean acknowledged = exchangeRateIndexService.putIndexTemplate();
+
+        // Then
+        ArgumentCaptor<PutIndexTemplateRequest> captor = ArgumentCaptor.forClass(PutIndexTemplateRequest.class);
+        verify(entityIndexOps).putIndexTemplate(captor.capture());
+        assertThat(acknowledged).isTrue();
+        assertThat(captor.getValue().name()).isEqualTo("exchange_rates_template");
+        assertThat(captor.getValue().indexPatterns()).containsExactly("exchange_rates*");
+    }
+
+    @Test
+    @DisplayName("installTemplateOnStartup - Ne doit pas propager les erreurs Elasticsearch")
+    void installTemplateOnStartup_SwallowsErrors() {
+        // Given
+        when(entityIndexOps.putIndexTemplate(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        // When & Then
+        exchangeRateIndexService.installTemplateOnStartup();
+        verify(entityIndexOps).putIndexTemplate(any());
+    }
+
+    @Test
+    @DisplayName("start - Installe le template dans une phase antérieure aux containers Kafka")
+    void start_InstallsTemplateBeforeListenerContainers() {
+        // When
+        exchangeRateIndexService.start();
+
+        // Then
+        verify(entityIndexOps).putIndexTemplate(any());
+        assertThat(exchangeRateIndexService.isRunning()).isTrue();
+        assertThat(exchangeRateIndexService.getPhase()).isLessThan(AbstractMessageListenerContainer.DEFAULT_PHASE);
+    }
+
+    @Test
+    @DisplayName("migrate - Devrait réindexer l'index legacy, le bloquer en écriture avant le rattrapage puis le remplacer par l'alias")
+    void migrate_FromLegacyIndex() throws IOException {
+        // Given
+        when(aliasIndexOps.exists()).thenReturn(true);
+        when(aliasIndexOps.getAliasesForIndex("exchange_rates")).thenReturn(Map.of("exchange_rates", Set.of()));
+        when(targetIndexOps.exists()).thenReturn(false);
+        ReindexResponse response = ReindexResponse.builder().withCreated(10).build();
+        when(elasticsearchOperations.reindex(any(ReindexRequest.class))).thenReturn(response);
+
+        // When
+        long copied = exchangeRateIndexService.migrate();
+
+        // Then
+        assertThat(copied).isEqualTo(20);
+        verify(targetIndexOps).create();
+        InOrder order = inOrder(elasticsearchOperations, indicesClient, aliasIndexOps);
+        order.verify(elasticsearchOperations).reindex(any(ReindexRequest.class));
+        ArgumentCaptor<PutIndicesSettingsRequest> block = ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        order.verify(indicesClient).putSettings(block.capture());
+        order.verify(elasticsearchOperations).reindex(any(ReindexRequest.class));
+        ArgumentCaptor<AliasActions> captor = ArgumentCaptor.forClass(AliasActions.class);
+        order.verify(aliasIndexOps).alias(captor.capture());
+        assertThat(block.getValue().index()).containsExactly("exchange_rates");
+        assertThat(block.getValue().settings().blocks().write()).isTrue();
+        assertThat(captor.getValue().getActions())
+                .hasSize(2)
+                .hasExactlyElementsOfTypes(AliasAction.RemoveIndex.class, AliasAction.Add.class);
+    }
+
+    @Test
+    @DisplayName("migrate - Depuis une version précédente, bloque l'ancien index avant le rattrapage et déplace l'alias")
+    void migrate_FromPreviousVersion() throws IOException {
+        // Given
+        when(aliasIndexOps.exists()).thenReturn(true);
+        when(aliasIndexOps.getAliasesForIndex("exchange_rates")).thenReturn(Map.of("exchange_rates_v1", Set.of()));
+        when(targetIndexOps.exists()).thenReturn(true);
+        ReindexResponse response = ReindexResponse.builder().withCreated(4).build();
+        when(elasticsearchOperations.reindex(any(ReindexRequest.class))).thenReturn(response);
+
+        // When
+        long copied = exchangeRateIndexService.migrate();
+
+        // Then
+        assertThat(copied).isEqualTo(8);
+        verify(elasticsearchOperations, times(2)).reindex(any(ReindexRequest.class));
+        ArgumentCaptor<PutIndicesSettingsRequest> block = ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        verify(indicesClient).putSettings(block.capture());
+        assertThat(block.getValue().index()).containsExactly("exchange_rates_v1");
+        ArgumentCaptor<AliasActions> captor = ArgumentCaptor.forClass(AliasActions.class);
+        verify(aliasIndexOps).alias(captor.capture());
+        assertThat(captor.getValue().getActions())
+                .hasExactlyElementsOfTypes(AliasAction.Remove.class, AliasAction.Add.class);
+    }
+
+    @Test
+    @DisplayName("migrate - Avec un fuseau legacy, convertit les timestamps sans fuseau en instants UTC")
+    void migrate_ConvertsLegacyTimestamps() {
+        // Given
+        ReflectionTestUtils.setField(exchangeRateIndexService, "legacyTimestampZone", "Europe/Paris");
+        when(aliasIndexOps.exists()).thenReturn(true);
+        when(aliasIndexOps.getAliasesForIndex("exchange_rates")).thenReturn(Map.of("exchange_rates_v1", Set.of()));
+        when(targetIndexOps.exists()).thenReturn(true);
+        when(elasticsearchOperations.reindex(any(ReindexRequest.class)))
+                .thenReturn(ReindexResponse.builder().withCreated(1).build());
+
+        // When
+        exchangeRateIndexService.migrate();
+
+        // Then
+        ArgumentCaptor<ReindexRequest> request = ArgumentCaptor.forClass(ReindexRequest.class);
+        verify(elasticsearchOperations, times(2)).reindex(request.capture());
+        assertThat(request.getValue().getScript().getSource())
+                .startsWith("ctx._source.remove('_class')")
+                .contains("ZoneId.of('Europe/Paris')");
+    }
+
+    @Test
+    @DisplayName("migrate - Fuseau legacy inconnu : échec avant toute écriture")
+    void migrate_RejectsUnknownLegacyZone() {
+        // Given
+        ReflectionTestUtils.setField(exchangeRateIndexService, "legacyTimestampZone", "Mars/Olympus");
+
+        // When / Then
+        assertThatThrownBy(() -> exchangeRateIndexService.migrate()).isInstanceOf(DateTimeException.class);
+        verify(elasticsearchOperations, never()).reindex(any());
+    }
+
+    @Test
+    @DisplayName("migrate - Lève le blocage en écriture si le rattrapage échoue")
+    void migrate_LiftsWriteBlockOnFailure() throws IOException {
+        // Given
+        when(aliasIndexOps.exists()).thenReturn(true);
+        when(aliasIndexOps.getAliasesForIndex("exchange_rates")).thenReturn(Map.of("exchange_rates", Set.of()));
+        when(targetIndexOps.exists()).thenReturn(true);
+        when(elasticsearchOperations.reindex(any(ReindexRequest.class)))
+                .thenReturn(ReindexResponse.builder().withCreated(10).build())
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // When & Then
+        assertThatThrownBy(() -> exchangeRateIndexService.migrate()).hasMessage("Connection refused");
+        ArgumentCaptor<PutIndicesSettingsRequest> captor = ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        verify(indicesClient, times(2)).putSettings(captor.capture());
+        List<Boolean> blocks = captor.getAllValues().stream()
+                .map(request -> request.settings().blocks().write())
+                .toList();
+        assertThat(blocks).containsExactly(true, false);
+        verify(aliasIndexOps, never()).alias(any());
+    }
+
+    @Test
+    @DisplayName("migrate - Ne fait rien si l'alias pointe déjà vers la version courante")
+    void migrate_AlreadyMigrated() {
+        // Given
+        when(aliasIndexOps.exists()).thenReturn(true);
+        when(aliasIndexOps.getAliasesForIndex("exchange_rates")).thenReturn(Map.of("exchange_rates_v2", Set.of()));
+
+        // When
+        long copied = exchangeRateIndexService.migrate();
+
+        // Then
+        assertThat(copied).isZero();
+        verify(elasticsearchOperations, never()).reindex(any());
+        verify(aliasIndexOps, never()).alias(any());
+    }
+
+    @Test
+    @DisplayName("migrate - Sur un cluster vide, crée l'index versionné et l'alias")
+    void migrate_FreshCluster() {
+        // Given
+        when(aliasIndexOps.exists()).thenReturn(false);
+        when(targetIndexOps.exists()).thenReturn(false);
+
+        // When
+        long copied = exchangeRateIndexService.migrate();
+
+        // Then
+        assertThat(copied).isZero();
+        verify(targetIndexOps).create();
+        verify(elasticsearchOperations, never()).reindex(any());
+        ArgumentCaptor<AliasActions> captor = ArgumentCaptor.forClass(AliasActions.class);
+        verify(aliasIndexOps).alias(captor.capture());
+        assertThat(captor.getValue().getActions()).hasExactlyElementsOfTypes(AliasAction.Add.class);
+    }
+}
@@ -1,5 +1,7 @@
 package com.learn.kafka.service;
 
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.leader.LeaderElection;
 import com.learn.kafka.model.ExchangeRate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -14,6 +17,7 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -42,6 +46,16 @@ class ExchangeRateServiceTest {
     @Mock
     private KafkaTemplate<String, ExchangeRate> exchangeRateKafkaTemplate;
 
+    // Élection désactivée : toujours leader, sans jeton
+    @Spy
+    private LeaderElection leaderElection = new LeaderElection(false, null, Duration.ZERO);
+
+    @Spy
+    private TokenBucket upstreamQuota = new TokenBucket(100, Duration.ofMinutes(1));
+
+    @Spy
+    private UpdateCadence updateCadence = new UpdateCadence(new FetchScheduleProperties());
+
     @InjectMocks
     private ExchangeRateService exchangeRateService;
 
@@ -267,4 +281,23 @@ class ExchangeRateServiceTest {
         // Then - Vérifier que le bon path a été utilisé
         verify(requestHeadersUriSpec, times(1)).uri("/v4/latest/USD");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("fetchAndPublishExchangeRates - Quota épuisé : aucun appel amont")
+    void fetchAndPublishExchangeRates_QuotaExhausted() {
+        // Given
+        TokenBucket quota = new TokenBucket(1, Duration.ofMinutes(1));
+        quota.tryAcquire();
+        ExchangeRateService service = new ExchangeRateService(webClient, exchangeRateKafkaTemplate,
+                leaderElection, quota, updateCadence);
+
+        // When & Then
+        StepVerifier.create(service.fetchAndPublishExchangeRates())
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(UpstreamQuotaExceededException.class)
+                .extracting(e -> ((UpstreamQuotaExceededException) e).getRetryAfter())
+                .satisfies(retryAfter -> assertThat(retryAfter).isPositive()))
+            .verify();
+        verifyNoInteractions(webClient, exchangeRateKafkaTemplate);
+    }
+}
@@ -0,0 +1,70 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.UpstreamHttpProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour HistoricalBackfillRunner")
+class HistoricalBackfillRunnerTest {
+
+    @Mock
+    private HistoricalBackfillService historicalBackfillService;
+
+    @Mock
+    private UpstreamHttpProperties upstreamHttpProperties;
+
+    @InjectMocks
+    private HistoricalBackfillRunner historicalBackfillRunner;
+
+    @Test
+    @DisplayName("run - Sans --backfill-history, aucun backfill ni arrêt")
+    void run_WithoutOption() {
+        // When
+        historicalBackfillRunner.run(new DefaultApplicationArguments("--from=2024-01-01"));
+
+        // Then
+        verifyNoInteractions(historicalBackfillService);
+        assertThat(historicalBackfillRunner.executed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("run - Plage publiée : code de sortie 0")
+    void run_Success() {
+        // Given
+        LocalDate from = LocalDate.parse("2024-01-01");
+        LocalDate to = LocalDate.parse("2024-01-31");
+        when(historicalBackfillService.run(from, to))
+            .thenReturn(new HistoricalBackfillService.Result(from, to, 31, Duration.ofSeconds(2)));
+
+        // When
+        historicalBackfillRunner.run(new DefaultApplicationArguments("--backfill-history", "--from=2024-01-01", "--to=2024-01-31"));
+
+        // Then
+        assertThat(historicalBackfillRunner.executed()).isTrue();
+        assertThat(historicalBackfillRunner.getExitCode()).isZero();
+    }
+
+    @Test
+    @DisplayName("run - Option --from absente : code de sortie 1, sans arrêter la JVM")
+    void run_MissingFrom() {
+        // When
+        historicalBackfillRunner.run(new DefaultApplicationArguments("--backfill-history"));
+
+        // Then
+        verifyNoInteractions(historicalBackfillService);
+        assertThat(historicalBackfillRunner.executed()).isTrue();
+        assertThat(historicalBackfillRunner.getExitCode()).isEqualTo(1);
+    }
+}
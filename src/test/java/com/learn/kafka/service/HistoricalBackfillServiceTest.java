@@ -0,0 +1,193 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.HistoricalBackfillProperties;
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.provider.HistoricalRateSource;
+import com.learn.kafka.provider.HistoricalRateSource.DatedRates;
+import com.learn.kafka.provider.HttpHistoricalRateSource;
+import com.learn.kafka.provider.RateVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour HistoricalBackfillService")
+class HistoricalBackfillServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private HttpHistoricalRateSource httpHistoricalRateSource;
+
+    @Mock
+    private KafkaTemplate<String, ExchangeRate> backfillKafkaTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private HistoricalBackfillProperties properties;
+    private HistoricalBackfillService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HistoricalBackfillProperties();
+        properties.setBatchSize(2);
+        properties.setCheckpointPath(tempDir.resolve("backfill.checkpoint"));
+        service = new HistoricalBackfillService(httpHistoricalRateSource, backfillKafkaTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("Un snapshot par jour, id déterministe et timestamp à minuit")
+    void run_PublishesOneSnapshotPerDay() {
+        // Given
+        when(backfillKafkaTemplate.send(eq("exchange-rates"), anyString(), any(ExchangeRate.class))).thenReturn(acked());
+
+        // When
+        HistoricalBackfillService.Result result = service.run(source("test", 3, -1), FROM, FROM.plusDays(2));
+
+        // Then
+        ArgumentCaptor<ExchangeRate> captor = ArgumentCaptor.forClass(ExchangeRate.class);
+        verify(backfillKafkaTemplate, times(3)).send(eq("exchange-rates"), anyString(), captor.capture());
+        ExchangeRate first = captor.getAllValues().get(0);
+        assertThat(first.getId()).isEqualTo("USD-2024-01-01");
+        assertThat(first.getBaseCurrency()).isEqualTo("USD");
+        assertThat(first.getTimestamp()).isEqualTo("2024-01-01T00:00:00Z");
+        assertThat(first.getRates()).containsEntry("EUR", 0.9);
+        assertThat(result.published()).isEqualTo(3);
+        assertThat(result.lastCompleted()).isEqualTo(FROM.plusDays(2));
+    }
+
+    @Test
+    @DisplayName("Id et timestamp tirés de la date publiée par le fournisseur")
+    void toExchangeRate_UsesPublishedDate() {
+        // Given
+        DatedRates dated = dated(FROM);
+        dated.rates().setDate("2023-12-29");
+
+        // When
+        ExchangeRate exchangeRate = service.toExchangeRate(dated);
+
+        // Then
+        assertThat(exchangeRate.getId()).isEqualTo("USD-2023-12-29");
+        assertThat(exchangeRate.getTimestamp()).isEqualTo("2023-12-29T00:00:00Z");
+    }
+
+    @Test
+    @DisplayName("Interruption : la relance reprend après le dernier lot acquitté")
+    void run_ResumesAfterLastAcknowledgedBatch() {
+        // Given : le 3e envoi échoue, le premier lot (2 jours) est acquitté
+        AtomicInteger sends = new AtomicInteger();
+        when(backfillKafkaTemplate.send(eq("exchange-rates"), anyString(), any(ExchangeRate.class)))
+                .thenAnswer(invocation -> sends.incrementAndGet() == 3
+                        ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                        : acked());
+        LocalDate to = FROM.plusDays(4);
+        assertThatThrownBy(() -> service.run(source("test", 5, -1), FROM, to)).hasMessageContaining("broker down");
+
+        // When
+        HistoricalBackfillService.Result result = service.run(source("test", 5, -1), FROM, to);
+
+        // Then
+        assertThat(result.resumedFrom()).isEqualTo(FROM.plusDays(2));
+        assertThat(result.published()).isEqualTo(3);
+        assertThat(result.lastCompleted()).isEqualTo(to);
+        assertThat(service.run(source("test", 5, -1), FROM, to).published()).isZero();
+    }
+
+    @Test
+    @DisplayName("Le point de reprise est propre à la source et à la date de début")
+    void run_CheckpointIsScopedBySource() {
+        // Given
+        when(backfillKafkaTemplate.send(eq("exchange-rates"), anyString(), any(ExchangeRate.class))).thenReturn(acked());
+        service.run(source("a", 2, -1), FROM, FROM.plusDays(1));
+
+        // When
+        HistoricalBackfillService.Result result = service.run(source("b", 2, -1), FROM, FROM.plusDays(1));
+
+        // Then
+        assertThat(result.resumedFrom()).isEqualTo(FROM);
+        assertThat(result.published()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Des dates non croissantes interrompent le backfill")
+    void run_RejectsOutOfOrderDates() {
+        // Given : un seul lot, jamais complet
+        properties.setBatchSize(10);
+
+        // When / Then
+        assertThatThrownBy(() -> service.run(source("test", 3, 1), FROM, FROM.plusDays(2)))
+                .hasMessageContaining("out of order");
+        verify(backfillKafkaTemplate, never()).send(anyString(), anyString(), any(ExchangeRate.class));
+    }
+
+    @Test
+    @DisplayName("Sans source explicite, l'endpoint HTTP est utilisé")
+    void run_DefaultsToHttpSource() {
+        // Given
+        when(httpHistoricalRateSource.id()).thenReturn("http");
+        when(httpHistoricalRateSource.read(FROM, FROM)).thenReturn(Flux.empty());
+
+        // When
+        HistoricalBackfillService.Result result = service.run(FROM, FROM);
+
+        // Then
+        assertThat(result.published()).isZero();
+        assertThat(result.lastCompleted()).isEqualTo(FROM.minusDays(1));
+    }
+
+    /**
+     * @param repeatAt indice du jour réémis à la place du suivant, -1 pour des dates croissantes
+     */
+    private static HistoricalRateSource source(String id, int days, int repeatAt) {
+        return new HistoricalRateSource() {
+            @Override
+            public String id() {
+                return id;
+            }
+
+            @Override
+            public Flux<DatedRates> read(LocalDate from, LocalDate to) {
+                List<LocalDate> dates = FROM.datesUntil(FROM.plusDays(days))
+                        .filter(date -> !date.isBefore(from) && !date.isAfter(to))
+                        .toList();
+                return Flux.range(0, dates.size())
+                        .map(i -> dated(dates.get(i == repeatAt + 1 && repeatAt >= 0 ? repeatAt : i)));
+            }
+        };
+    }
+
+    private static DatedRates dated(LocalDate date) {
+        RateVector rates = new RateVector(1);
+        rates.add("EUR", 0.9);
+        return new DatedRates(date, rates);
+    }
+
+    private static CompletableFuture<SendResult<String, ExchangeRate>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.learn.kafka.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour IndexMigrationRunner")
+class IndexMigrationRunnerTest {
+
+    @Mock
+    private ExchangeRateIndexService exchangeRateIndexService;
+
+    @InjectMocks
+    private IndexMigrationRunner indexMigrationRunner;
+
+    @Test
+    @DisplayName("run - Sans --migrate-index, aucune migration ni arrêt")
+    void run_WithoutOption() {
+        // When
+        indexMigrationRunner.run(new DefaultApplicationArguments("--server.port=8081"));
+
+        // Then
+        verifyNoInteractions(exchangeRateIndexService);
+        assertThat(indexMigrationRunner.executed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("run - Migration réussie : code de sortie 0")
+    void run_Success() {
+        // Given
+        when(exchangeRateIndexService.migrate()).thenReturn(10L);
+
+        // When
+        indexMigrationRunner.run(new DefaultApplicationArguments("--migrate-index"));
+
+        // Then
+        assertThat(indexMigrationRunner.executed()).isTrue();
+        assertThat(indexMigrationRunner.getExitCode()).isZero();
+    }
+
+    @Test
+    @DisplayName("run - Migration en échec : code de sortie 1, sans arrêter la JVM")
+    void run_Failure() {
+        // Given
+        when(exchangeRateIndexService.migrate()).thenThrow(new IllegalStateException("Reindex failed"));
+
+        // When
+        indexMigrationRunner.run(new DefaultApplicationArguments("--migrate-index"));
+
+        // Then
+        assertThat(indexMigrationRunner.executed()).isTrue();
+        assertThat(indexMigrationRunner.getExitCode()).isEqualTo(1);
+    }
+}
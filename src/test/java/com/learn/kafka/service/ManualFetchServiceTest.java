@@ -0,0 +1,123 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ManualFetchService")
+class ManualFetchServiceTest {
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    private final FetchScheduleProperties properties = new FetchScheduleProperties();
+    private ManualFetchService manualFetchService;
+
+    @BeforeEach
+    void setUp() {
+        properties.getManual().setClientCapacity(2);
+        manualFetchService = new ManualFetchService(exchangeRateService, properties);
+    }
+
+    @Test
+    @DisplayName("fetch - Appels concurrents : un seul fetch amont, même résultat pour tous")
+    void fetch_SingleFlight() {
+        // Given
+        Sinks.One<ExchangeRate> upstream = Sinks.one();
+        when(exchangeRateService.fetchAndPublishExchangeRates()).thenReturn(upstream.asMono());
+        ExchangeRate fetched = snapshot(LocalDateTime.now(ZoneOffset.UTC));
+
+        // When
+        Mono<ExchangeRate> first = manualFetchService.fetch("client-a");
+        Mono<ExchangeRate> second = manualFetchService.fetch("client-b");
+        upstream.tryEmitValue(fetched);
+
+        // Then
+        assertThat(first.block(Duration.ofSeconds(1))).isSameAs(fetched);
+        assertThat(second.block(Duration.ofSeconds(1))).isSameAs(fetched);
+        verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
+    }
+
+    @Test
+    @DisplayName("fetch - Fetch terminé : l'appel suivant en relance un")
+    void fetch_NewFlightAfterCompletion() {
+        // Given
+        when(exchangeRateService.fetchAndPublishExchangeRates())
+                .thenReturn(Mono.error(new IllegalStateException("upstream down")), Mono.just(snapshot(LocalDateTime.now(ZoneOffset.UTC))));
+
+        // When / Then
+        StepVerifier.create(manualFetchService.fetch("client-a")).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(manualFetchService.fetch("client-a")).expectNextCount(1).verifyComplete();
+        verify(exchangeRateService, times(2)).fetchAndPublishExchangeRates();
+    }
+
+    @Test
+    @DisplayName("fetch - Dernier snapshot frais resservi sans appel amont")
+    void fetch_FreshSnapshot() {
+        // Given
+        ExchangeRate latest = snapshot(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(5));
+        when(exchangeRateService.getLatestPublished()).thenReturn(latest);
+
+        // When / Then
+        assertThat(manualFetchService.fetch("client-a").block(Duration.ofSeconds(1))).isSameAs(latest);
+        verify(exchangeRateService, never()).fetchAndPublishExchangeRates();
+    }
+
+    @Test
+    @DisplayName("isFresh - Ancien snapshot frais tant que la prochaine mise à jour annoncée n'est pas passée")
+    void isFresh_ProviderHint() {
+        // Given
+        long now = System.currentTimeMillis();
+        ExchangeRate latest = snapshot(LocalDateTime.now(ZoneOffset.UTC).minusHours(1));
+
+        // When / Then
+        assertThat(manualFetchService.isFresh(latest, now)).isFalse();
+        latest.setProviderNextUpdate(now / 1000 + 600);
+        assertThat(manualFetchService.isFresh(latest, now)).isTrue();
+    }
+
+    @Test
+    @DisplayName("fetch - Limite par client, sans effet sur les autres clients")
+    void fetch_PerClientRateLimit() {
+        // Given
+        ExchangeRate latest = snapshot(LocalDateTime.now(ZoneOffset.UTC));
+        when(exchangeRateService.getLatestPublished()).thenReturn(latest);
+        manualFetchService.fetch("client-a").block();
+        manualFetchService.fetch("client-a").block();
+
+        // When / Then
+        StepVerifier.create(manualFetchService.fetch("client-a"))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(ClientRateLimitExceededException.class)
+                        .hasMessageContaining("client-a"))
+                .verify();
+        StepVerifier.create(manualFetchService.fetch("client-b")).expectNext(latest).verifyComplete();
+    }
+
+    private static ExchangeRate snapshot(LocalDateTime timestamp) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + timestamp);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        exchangeRate.setRates(Map.of("EUR", 0.91));
+        return exchangeRate;
+    }
+}
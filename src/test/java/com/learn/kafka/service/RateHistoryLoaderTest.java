@@ -0,0 +1,120 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.model.ExchangeRate;
+import com.learn.kafka.store.RateHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour RateHistoryLoader")
+class RateHistoryLoaderTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ExchangeRate createExchangeRate(String id, LocalDateTime timestamp) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp(timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("EUR", 0.85);
+        rate.setRates(rates);
+        return rate;
+    }
+
+    @Test
+    @DisplayName("load - Devrait charger les snapshots de la fenêtre de rétention")
+    @SuppressWarnings("unchecked")
+    void load_Success() {
+        // Given
+        RateHistory rateHistory = new RateHistory(Duration.ofDays(1));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        SearchHit<ExchangeRate> first = mock(SearchHit.class);
+        SearchHit<ExchangeRate> second = mock(SearchHit.class);
+        when(first.getContent()).thenReturn(createExchangeRate("a", now.minusHours(2)));
+        when(second.getContent()).thenReturn(createExchangeRate("b", now.minusHours(1)));
+
+        SearchHitsIterator<ExchangeRate> hits = mock(SearchHitsIterator.class);
+        when(hits.hasNext()).thenReturn(true, true, false);
+        when(hits.next()).thenReturn(first, second);
+        doCallRealMethod().when(hits).forEachRemaining(any());
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ExchangeRate.class))).thenReturn(hits);
+
+        // When
+        int loaded = new RateHistoryLoader(elasticsearchOperations, rateHistory).load();
+
+        // Then
+        assertThat(loaded).isEqualTo(2);
+        assertThat(rateHistory.latest().getId()).isEqualTo("b");
+        verify(hits).close();
+    }
+
+    @Test
+    @DisplayName("loadOnStartup - Ne doit pas empêcher le démarrage si Elasticsearch est indisponible")
+    void loadOnStartup_ElasticsearchDown() {
+        // Given
+        RateHistory rateHistory = new RateHistory(Duration.ofDays(1));
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ExchangeRate.class)))
+            .thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        new RateHistoryLoader(elasticsearchOperations, rateHistory).loadOnStartup();
+
+        // Then
+        assertThat(rateHistory.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("loadOnStartup - En mode asynchrone, charge l'historique hors du thread de démarrage")
+    @SuppressWarnings("unchecked")
+    void loadOnStartup_Async() {
+        // Given
+        RateHistory rateHistory = new RateHistory(Duration.ofDays(1));
+        SearchHit<ExchangeRate> hit = mock(SearchHit.class);
+        when(hit.getContent()).thenReturn(createExchangeRate("a", LocalDateTime.now(ZoneOffset.UTC).minusHours(1)));
+        SearchHitsIterator<ExchangeRate> hits = mock(SearchHitsIterator.class);
+        when(hits.hasNext()).thenReturn(true, false);
+        when(hits.next()).thenReturn(hit);
+        doCallRealMethod().when(hits).forEachRemaining(any());
+        Thread caller = Thread.currentThread();
+        List<Thread> searchThreads = new CopyOnWriteArrayList<>();
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ExchangeRate.class))).thenAnswer(invocation -> {
+            searchThreads.add(Thread.currentThread());
+            return hits;
+        });
+        RateHistoryLoader loader = new RateHistoryLoader(elasticsearchOperations, rateHistory);
+        ReflectionTestUtils.setField(loader, "loadAsync", true);
+
+        // When
+        loader.loadOnStartup();
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> rateHistory.size() == 1);
+        assertThat(searchThreads).hasSize(1).doesNotContain(caller);
+    }
+}
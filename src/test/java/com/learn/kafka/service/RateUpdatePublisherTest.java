@@ -0,0 +1,83 @@
+package com.learn.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RateUpdatePublisher")
+class RateUpdatePublisherTest {
+
+    private RateUpdatePublisher rateUpdatePublisher;
+
+    @BeforeEach
+    void setUp() {
+        rateUpdatePublisher = new RateUpdatePublisher(new ObjectMapper());
+    }
+
+    private ExchangeRate createExchangeRate(String id, double eur) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("EUR", eur);
+        rates.put("GBP", 0.75);
+        rates.put("JPY", 110.0);
+        rate.setRates(rates);
+        return rate;
+    }
+
+    @Test
+    @DisplayName("updates - Un nouvel abonné reçoit le dernier snapshot puis les suivants")
+    void updates_ReplaysLatestThenStreams() {
+        // Given
+        rateUpdatePublisher.publish(createExchangeRate("id-1", 0.85));
+        rateUpdatePublisher.publish(createExchangeRate("id-2", 0.86));
+
+        // When & Then
+        StepVerifier.create(rateUpdatePublisher.updates().map(update -> update.getExchangeRate().getId()))
+                .expectNext("id-2")
+                .then(() -> rateUpdatePublisher.publish(createExchangeRate("id-3", 0.87)))
+                .expectNext("id-3")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("payload - Sérialisé une fois par filtre et partagé entre abonnés")
+    void payload_SharedPerFilter() {
+        // Given
+        rateUpdatePublisher.publish(createExchangeRate("id-1", 0.85));
+        RateUpdatePublisher.RateUpdate update = rateUpdatePublisher.updates().blockFirst(Duration.ofSeconds(5));
+
+        // When
+        String full = update.payload(Set.of());
+        String filtered = update.payload(Set.of("EUR", "XYZ"));
+
+        // Then
+        assertThat(full).contains("\"id\":\"id-1\"").contains("\"GBP\":0.75");
+        assertThat(filtered).contains("\"EUR\":0.85").doesNotContain("GBP").doesNotContain("XYZ");
+        assertThat(update.payload(Set.of())).isSameAs(full);
+        assertThat(update.payload(Set.of("XYZ", "EUR"))).isSameAs(filtered);
+        assertThat(update.getTag()).endsWith("-id-1");
+    }
+
+    @Test
+    @DisplayName("parseSymbols - Normalise la liste de devises")
+    void parseSymbols() {
+        assertThat(RateUpdatePublisher.parseSymbols(null)).isEmpty();
+        assertThat(RateUpdatePublisher.parseSymbols(" ")).isEmpty();
+        assertThat(RateUpdatePublisher.parseSymbols("eur, GBP,,jpy")).containsExactlyInAnyOrder("EUR", "GBP", "JPY");
+    }
+}
@@ -1,5 +1,7 @@
 package com.learn.kafka.service;
 
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.leader.LeaderElection;
 import com.learn.kafka.model.ExchangeRate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -7,14 +9,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.support.SimpleTriggerContext;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +34,19 @@ class ScheduledExchangeRateServiceTest {
     @Mock
     private ExchangeRateService exchangeRateService;
 
+    // Élection désactivée : toujours leader, sans jeton
+    @Spy
+    private LeaderElection leaderElection = new LeaderElection(false, null, Duration.ZERO);
+
+    @Spy
+    private FetchScheduleProperties properties = new FetchScheduleProperties();
+
+    @Spy
+    private UpdateCadence updateCadence = new UpdateCadence(new FetchScheduleProperties());
+
+    @Spy
+    private TokenBucket upstreamQuota = new TokenBucket(10, Duration.ofMinutes(1));
+
     @InjectMocks
     private ScheduledExchangeRateService scheduledExchangeRateService;
 
@@ -92,60 +115,98 @@ class ScheduledExchangeRateServiceTest {
     }
 
     @Test
-    @DisplayName("Test fetchExchangeRatesForTesting - Succès")
-    void testFetchExchangeRatesForTesting_Success() {
+    @DisplayName("Test avec service qui retourne null")
+    void testWithNullResponse() {
         // Given
         when(exchangeRateService.fetchAndPublishExchangeRates())
-            .thenReturn(Mono.just(sampleExchangeRate));
+            .thenReturn(null);
+
+        // When & Then - Should handle null gracefully
+        try {
+            scheduledExchangeRateService.fetchExchangeRatesAutomatically();
+            verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
+        } catch (Exception e) {
+            // Expected behavior when service returns null
+        }
+    }
+
+    @Test
+    @DisplayName("Instance non leader - Aucun fetch planifié")
+    void testFetchSkippedWhenNotLeader() {
+        // Given
+        ScheduledExchangeRateService follower = new ScheduledExchangeRateService(
+                exchangeRateService, new LeaderElection(true, null, Duration.ZERO), updateCadence, upstreamQuota, properties);
 
         // When
-        scheduledExchangeRateService.fetchExchangeRatesForTesting();
+        follower.fetchExchangeRatesAutomatically();
 
         // Then
-        verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
+        verifyNoInteractions(exchangeRateService);
     }
 
     @Test
-    @DisplayName("Test fetchExchangeRatesForTesting - Erreur")
-    void testFetchExchangeRatesForTesting_Error() {
+    @DisplayName("nextExecution - Premier fetch au démarrage")
+    void nextExecution_FirstRun() {
         // Given
-        when(exchangeRateService.fetchAndPublishExchangeRates())
-            .thenReturn(Mono.error(new RuntimeException("Erreur de test")));
+        Instant now = Instant.parse("2025-06-04T12:00:00Z");
+
+        // When / Then
+        assertThat(scheduledExchangeRateService.nextExecution(new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC))))
+                .isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("nextExecution - Délai de la cadence plus un jitter d'au plus 10 %")
+    void nextExecution_CadenceWithJitter() {
+        // Given
+        Instant now = Instant.parse("2025-06-04T12:00:00Z");
+        SimpleTriggerContext context = new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC));
+        context.update(now, now, now);
 
         // When
-        scheduledExchangeRateService.fetchExchangeRatesForTesting();
+        Instant next = scheduledExchangeRateService.nextExecution(context);
 
         // Then
-        verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
+        assertThat(Duration.between(now, next)).isBetween(Duration.ofMinutes(2), Duration.ofSeconds(132));
     }
 
     @Test
-    @DisplayName("Test fetchExchangeRatesForTesting - Service retourne empty")
-    void testFetchExchangeRatesForTesting_Empty() {
+    @DisplayName("nextExecution - Instance non leader : vérification rapprochée plutôt qu'un intervalle complet")
+    void nextExecution_StandbyPollWhenNotLeader() {
         // Given
-        when(exchangeRateService.fetchAndPublishExchangeRates())
-            .thenReturn(Mono.empty());
+        Instant now = Instant.parse("2025-06-04T12:00:00Z");
+        SimpleTriggerContext context = new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC));
+        context.update(now, now, now);
+        ScheduledExchangeRateService follower = new ScheduledExchangeRateService(
+                exchangeRateService, new LeaderElection(true, null, Duration.ZERO), updateCadence, upstreamQuota, properties);
 
         // When
-        scheduledExchangeRateService.fetchExchangeRatesForTesting();
+        Instant next = follower.nextExecution(context);
 
         // Then
-        verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
+        assertThat(next).isEqualTo(now.plus(properties.getStandbyPoll()));
+        verifyNoInteractions(updateCadence);
     }
 
     @Test
-    @DisplayName("Test avec service qui retourne null")
-    void testWithNullResponse() {
+    @DisplayName("nextExecution - Quota épuisé : pas avant le prochain jeton")
+    void nextExecution_QuotaExhausted() {
         // Given
-        when(exchangeRateService.fetchAndPublishExchangeRates())
-            .thenReturn(null);
-
-        // When & Then - Should handle null gracefully
-        try {
-            scheduledExchangeRateService.fetchExchangeRatesAutomatically();
-            verify(exchangeRateService, times(1)).fetchAndPublishExchangeRates();
-        } catch (Exception e) {
-            // Expected behavior when service returns null
+        Instant now = Instant.parse("2025-06-04T12:00:00Z");
+        SimpleTriggerContext context = new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC));
+        context.update(now, now, now);
+        properties.setIntervalMs(1000);
+        properties.setMinInterval(Duration.ofMillis(100));
+        ScheduledExchangeRateService service = new ScheduledExchangeRateService(exchangeRateService, leaderElection,
+                new UpdateCadence(properties), upstreamQuota, properties);
+        while (upstreamQuota.tryAcquire()) {
+            // vide le seau
         }
+
+        // When
+        Instant next = service.nextExecution(context);
+
+        // Then
+        assertThat(Duration.between(now, next)).isGreaterThan(Duration.ofSeconds(30));
     }
-} 
\ No newline at end of file
+}
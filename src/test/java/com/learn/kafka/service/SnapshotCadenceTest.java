@@ -0,0 +1,65 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour SnapshotCadence")
+class SnapshotCadenceTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long T0 = 1_000 * MINUTE;
+
+    private final SnapshotCadence cadence = new SnapshotCadence(new FetchScheduleProperties());
+
+    @Test
+    @DisplayName("untilNext - Intervalle de base après le snapshot tant que la cadence est inconnue")
+    void untilNext_Unknown() {
+        // Given
+        cadence.observe(snapshot(T0, 0.91));
+
+        // When / Then
+        assertThat(cadence.untilNext(T0, T0 + MINUTE / 2)).isEqualTo(Duration.ofSeconds(90));
+        // Snapshot suivant en retard
+        assertThat(cadence.untilNext(T0, T0 + 3 * MINUTE)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("untilNext - Cadence apprise des changements de taux entre snapshots")
+    void untilNext_LearnedFromSnapshots() {
+        // Given : changements datés à T0 + 5 min puis T0 + 15 min
+        cadence.observe(snapshot(T0, 0.91));
+        cadence.observe(snapshot(T0 + 10 * MINUTE, 0.92));
+        cadence.observe(snapshot(T0 + 20 * MINUTE, 0.93));
+
+        // When / Then : prochain attendu à T0 + 25 min, plus la marge
+        assertThat(cadence.untilNext(T0 + 20 * MINUTE, T0 + 21 * MINUTE))
+                .isEqualTo(Duration.ofMinutes(4).plusSeconds(10));
+    }
+
+    @Test
+    @DisplayName("untilNext - Zéro pour un snapshot déjà remplacé, rejeu ignoré")
+    void untilNext_Superseded() {
+        // Given
+        cadence.observe(snapshot(T0 + MINUTE, 0.92));
+        cadence.observe(snapshot(T0, 0.91));
+
+        // When / Then
+        assertThat(cadence.untilNext(T0, T0)).isEqualTo(Duration.ZERO);
+        assertThat(cadence.untilNext(T0 + MINUTE, T0 + MINUTE)).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    private static ExchangeRate snapshot(long epochMillis, double eur) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setTimestamp(Instant.ofEpochMilli(epochMillis).toString());
+        exchangeRate.setRates(Map.of("EUR", eur));
+        return exchangeRate;
+    }
+}
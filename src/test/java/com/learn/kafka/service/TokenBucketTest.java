@@ -0,0 +1,46 @@
+package com.learn.kafka.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour TokenBucket")
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(10), nanos::get);
+
+    @Test
+    @DisplayName("tryAcquire - Rafale jusqu'à la capacité puis refus")
+    void tryAcquire_Burst() {
+        // When / Then
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.timeUntilAvailable()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Remplissage - Un jeton par intervalle, plafonné à la capacité")
+    void refill() {
+        // Given
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(14).toNanos());
+
+        // Then
+        assertThat(bucket.available()).isEqualTo(1);
+        assertThat(bucket.timeUntilAvailable()).isZero();
+        bucket.tryAcquire();
+        assertThat(bucket.timeUntilAvailable()).isEqualTo(Duration.ofSeconds(6));
+
+        nanos.addAndGet(Duration.ofHours(1).toNanos());
+        assertThat(bucket.available()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,74 @@
+package com.learn.kafka.service;
+
+import com.learn.kafka.config.FetchScheduleProperties;
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour UpdateCadence")
+class UpdateCadenceTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final UpdateCadence cadence = new UpdateCadence(new FetchScheduleProperties());
+
+    @Test
+    @DisplayName("nextDelay - Intervalle de base tant que rien n'est connu")
+    void nextDelay_Unknown() {
+        assertThat(cadence.nextDelay(0)).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("nextDelay - Heure annoncée par le fournisseur, plus la marge")
+    void nextDelay_ProviderHint() {
+        // Given
+        long now = 1_000 * MINUTE;
+        cadence.observe(snapshot(0.91, null, (now + 10 * MINUTE) / 1000), now);
+
+        // When / Then
+        assertThat(cadence.nextDelay(now)).isEqualTo(Duration.ofMinutes(10).plusSeconds(10));
+        // Heure passée sans nouvelle mise à jour : recherche à l'intervalle minimal
+        assertThat(cadence.nextDelay(now + 11 * MINUTE)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("nextDelay - Cadence apprise des mises à jour datées par le fournisseur")
+    void nextDelay_LearnedFromLastUpdate() {
+        // Given
+        cadence.observe(snapshot(0.91, MINUTE / 1000, null), 2 * MINUTE);
+        cadence.observe(snapshot(0.92, 11 * MINUTE / 1000, null), 12 * MINUTE);
+        cadence.observe(snapshot(0.92, 11 * MINUTE / 1000, null), 13 * MINUTE);
+
+        // When / Then
+        assertThat(cadence.learnedInterval()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(cadence.nextDelay(13 * MINUTE)).isEqualTo(Duration.ofMinutes(8).plusSeconds(10));
+        assertThat(cadence.nextDelay(22 * MINUTE)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("nextDelay - Cadence apprise des changements de taux, bornée par l'intervalle maximal")
+    void nextDelay_LearnedFromRates() {
+        // Given : changements vus entre 0 et 60 min puis entre 60 et 120 min
+        cadence.observe(snapshot(0.91, null, null), 0);
+        cadence.observe(snapshot(0.92, null, null), 60 * MINUTE);
+        cadence.observe(snapshot(0.93, null, null), 120 * MINUTE);
+
+        // When / Then
+        assertThat(cadence.learnedInterval()).isEqualTo(Duration.ofMinutes(60));
+        assertThat(cadence.nextDelay(120 * MINUTE)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private static ExchangeRate snapshot(double eur, Long lastUpdate, Long nextUpdate) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setRates(Map.of("EUR", eur));
+        exchangeRate.setProviderLastUpdate(lastUpdate);
+        exchangeRate.setProviderNextUpdate(nextUpdate);
+        return exchangeRate;
+    }
+}
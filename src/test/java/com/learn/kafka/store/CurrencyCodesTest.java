@@ -0,0 +1,68 @@
+package com.learn.kafka.store;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour CurrencyCodes")
+class CurrencyCodesTest {
+
+    @Test
+    @DisplayName("ordinal / code - Aller-retour sur des codes ISO")
+    void roundTrip() {
+        for (String code : new String[]{"AAA", "EUR", "USD", "JPY", "ZZZ"}) {
+            int ordinal = CurrencyCodes.ordinal(code);
+            assertThat(ordinal).isBetween(0, CurrencyCodes.COUNT - 1);
+            assertThat(CurrencyCodes.code(ordinal)).isEqualTo(code);
+        }
+        assertThat(CurrencyCodes.ordinal("AAA")).isZero();
+        assertThat(CurrencyCodes.ordinal("ZZZ")).isEqualTo(CurrencyCodes.COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("ordinal - Rejette les codes invalides")
+    void invalidCodes() {
+        assertThat(CurrencyCodes.ordinal(null)).isEqualTo(-1);
+        assertThat(CurrencyCodes.ordinal("EU")).isEqualTo(-1);
+        assertThat(CurrencyCodes.ordinal("eur")).isEqualTo(-1);
+        assertThat(CurrencyCodes.ordinal("EURO")).isEqualTo(-1);
+        assertThatThrownBy(() -> CurrencyCodes.code(CurrencyCodes.COUNT))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("ordinal - Depuis un tampon de caractères, minuscules acceptées")
+    void ordinalFromChars() {
+        char[] chars = "1,eur,USD,E1R".toCharArray();
+        assertThat(CurrencyCodes.ordinal(chars, 2, 3)).isEqualTo(CurrencyCodes.ordinal("EUR"));
+        assertThat(CurrencyCodes.ordinal(chars, 6, 3)).isEqualTo(CurrencyCodes.ordinal("USD"));
+        assertThat(CurrencyCodes.ordinal(chars, 10, 3)).isEqualTo(-1);
+        assertThat(CurrencyCodes.ordinal(chars, 2, 4)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("unsupported - Compte les taux écartés par structure")
+    void unsupportedIsCounted() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            // When
+            CurrencyCodes.unsupported("btc", "snapshot-log");
+            CurrencyCodes.unsupported("btc", "snapshot-log");
+            CurrencyCodes.unsupported("XAU1", "provider");
+
+            // Then
+            assertThat(registry.counter(CurrencyCodes.UNSUPPORTED_METRIC, "store", "snapshot-log").count())
+                .isEqualTo(2);
+            assertThat(registry.counter(CurrencyCodes.UNSUPPORTED_METRIC, "store", "provider").count())
+                .isEqualTo(1);
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
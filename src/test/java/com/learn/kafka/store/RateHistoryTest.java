@@ -0,0 +1,130 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RateHistory")
+class RateHistoryTest {
+
+    private RateHistory rateHistory;
+
+    @BeforeEach
+    void setUp() {
+        rateHistory = new RateHistory(Duration.ofHours(1));
+    }
+
+    private ExchangeRate createExchangeRate(String id, String timestamp, double eur) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp(timestamp);
+
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("EUR", eur);
+        rates.put("GBP", 0.75);
+        rate.setRates(rates);
+        return rate;
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("at - Retourne le dernier snapshot avant l'instant demandé")
+    void pointInTimeLookup() {
+        // Given
+        rateHistory.add(createExchangeRate("a", "2025-06-04T14:00:00", 0.85));
+        rateHistory.add(createExchangeRate("b", "2025-06-04T14:02:00", 0.86));
+        rateHistory.add(createExchangeRate("c", "2025-06-04T14:04:00", 0.87));
+
+        // Then
+        assertThat(rateHistory.at(millis("2025-06-04T13:59:59Z"))).isNull();
+        assertThat(rateHistory.at(millis("2025-06-04T14:00:00Z")).getId()).isEqualTo("a");
+        assertThat(rateHistory.at(millis("2025-06-04T14:03:00Z")).rate("EUR")).hasValue(0.86);
+        assertThat(rateHistory.at(millis("2025-06-05T00:00:00Z")).getId()).isEqualTo("c");
+        assertThat(rateHistory.latest().getId()).isEqualTo("c");
+    }
+
+    @Test
+    @DisplayName("add - Les snapshots hors ordre sont insérés à leur place")
+    void outOfOrderInsert() {
+        // Given
+        rateHistory.add(createExchangeRate("a", "2025-06-04T14:00:00", 0.85));
+        rateHistory.add(createExchangeRate("c", "2025-06-04T14:04:00", 0.87));
+
+        // When
+        boolean added = rateHistory.add(createExchangeRate("b", "2025-06-04T14:02:00", 0.86));
+
+        // Then
+        assertThat(added).isTrue();
+        assertThat(rateHistory.size()).isEqualTo(3);
+        assertThat(rateHistory.at(millis("2025-06-04T14:03:00Z")).getId()).isEqualTo("b");
+        assertThat(rateHistory.latest().getId()).isEqualTo("c");
+    }
+
+    @Test
+    @DisplayName("add - Ignore les doublons (rejeu Kafka)")
+    void duplicatesIgnored() {
+        rateHistory.add(createExchangeRate("a", "2025-06-04T14:00:00", 0.85));
+
+        assertThat(rateHistory.add(createExchangeRate("a", "2025-06-04T14:00:00", 0.85))).isFalse();
+        assertThat(rateHistory.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("add - Évince les snapshots sortis de la fenêtre de rétention")
+    void retentionWindow() {
+        // Given
+        rateHistory.add(createExchangeRate("old", "2025-06-04T12:00:00", 0.80));
+        rateHistory.add(createExchangeRate("a", "2025-06-04T13:30:00", 0.85));
+
+        // When
+        rateHistory.add(createExchangeRate("b", "2025-06-04T14:00:00", 0.86));
+
+        // Then
+        assertThat(rateHistory.size()).isEqualTo(2);
+        assertThat(rateHistory.at(millis("2025-06-04T12:30:00Z"))).isNull();
+        assertThat(rateHistory.add(createExchangeRate("older", "2025-06-04T11:00:00", 0.79))).isFalse();
+    }
+
+    @Test
+    @DisplayName("addAll - Au-delà de la capacité initiale, le tableau est compacté et agrandi")
+    void growsBeyondInitialCapacity() {
+        // Given
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (int second = 0; second < 1000; second++) {
+            rates.add(createExchangeRate("id-" + second,
+                    String.format("2025-06-04T14:%02d:%02d", second / 60, second % 60), 0.85));
+        }
+
+        // When
+        int added = rateHistory.addAll(rates);
+
+        // Then
+        assertThat(added).isEqualTo(1000);
+        assertThat(rateHistory.size()).isEqualTo(1000);
+        assertThat(rateHistory.at(millis("2025-06-04T14:10:00.500Z")).getId()).isEqualTo("id-600");
+    }
+
+    @Test
+    @DisplayName("add - Le tableau d'ordinaux est partagé entre snapshots identiques")
+    void ordinalsShared() {
+        rateHistory.add(createExchangeRate("a", "2025-06-04T14:00:00", 0.85));
+        rateHistory.add(createExchangeRate("b", "2025-06-04T14:02:00", 0.86));
+
+        assertThat(rateHistory.latest().getOrdinals())
+            .isSameAs(rateHistory.at(millis("2025-06-04T14:00:00Z")).getOrdinals());
+    }
+}
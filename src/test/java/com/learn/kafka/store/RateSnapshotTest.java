@@ -0,0 +1,51 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour RateSnapshot")
+class RateSnapshotTest {
+
+    private ExchangeRate createExchangeRate() {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId("test-id-123");
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp("2025-06-04T12:00:00");
+
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("JPY", 110.0);
+        rates.put("EUR", 0.85);
+        rates.put("GBP", 0.75);
+        rates.put("invalid", 1.0);
+        rate.setRates(rates);
+        return rate;
+    }
+
+    @Test
+    @DisplayName("of - Trie les devises par ordinal et ignore les codes invalides")
+    void sortedByOrdinal() {
+        RateSnapshot snapshot = RateSnapshot.of(createExchangeRate());
+
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.getOrdinals()).isSorted();
+        assertThat(snapshot.rate("EUR")).hasValue(0.85);
+        assertThat(snapshot.rate("JPY")).hasValue(110.0);
+        assertThat(snapshot.rate("CHF")).isEmpty();
+        assertThat(snapshot.getEpochMillis()).isEqualTo(1749038400000L);
+    }
+
+    @Test
+    @DisplayName("toExchangeRate - Aller-retour sans perte")
+    void roundTrip() {
+        ExchangeRate exchangeRate = createExchangeRate();
+        exchangeRate.getRates().remove("invalid");
+
+        assertThat(RateSnapshot.of(exchangeRate).toExchangeRate()).isEqualTo(exchangeRate);
+    }
+}
@@ -0,0 +1,305 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour SnapshotLog")
+class SnapshotLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SnapshotLog snapshotLog;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshotLog = SnapshotLog.open(tempDir.resolve("snapshots.log"), 1024, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        snapshotLog.close();
+    }
+
+    private ExchangeRate createExchangeRate(String id, String timestamp, double eur) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp(timestamp);
+
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("EUR", eur);
+        rates.put("GBP", 0.75);
+        rates.put("JPY", 110.0);
+        rate.setRates(rates);
+        return rate;
+    }
+
+    @Test
+    @DisplayName("Journal vide - Aucune lecture possible")
+    void emptyLog() {
+        assertThat(snapshotLog.size()).isZero();
+        assertThat(snapshotLog.latest()).isNull();
+        assertThat(snapshotLog.latestRate("EUR")).isEmpty();
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:00:00Z"))).isNull();
+    }
+
+    @Test
+    @DisplayName("head - Identité, date et taux du même snapshot malgré un ajout entre deux lectures")
+    void head_ReadsOneSnapshot() throws IOException {
+        // Given
+        assertThat(snapshotLog.head()).isNull();
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00Z", 0.85));
+        SnapshotLog.Head head = snapshotLog.head();
+
+        // When
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:02:00Z", 0.86));
+
+        // Then
+        assertThat(head.tag()).isEqualTo(SnapshotLog.tag(head.epochNanos(), "id-1"));
+        assertThat(head.epochNanos()).isEqualTo(Instant.parse("2025-06-04T12:00:00Z").toEpochMilli() * 1_000_000);
+        assertThat(head.exchangeRate().getId()).isEqualTo("id-1");
+        assertThat(head.rate("EUR")).hasValue(0.85);
+        assertThat(snapshotLog.head().tag()).isEqualTo(snapshotLog.latestTag());
+    }
+
+    @Test
+    @DisplayName("append puis latest - Le snapshot relu est identique")
+    void appendAndReadLatest() throws IOException {
+        // Given
+        ExchangeRate rate = createExchangeRate("id-1", "2025-06-04T12:00:00.123456789", 0.85);
+
+        // When
+        boolean appended = snapshotLog.append(rate);
+
+        // Then
+        assertThat(appended).isTrue();
+        assertThat(snapshotLog.size()).isEqualTo(1);
+        assertThat(snapshotLog.latest()).isEqualTo(rate);
+        assertThat(snapshotLog.latestRate("EUR")).hasValue(0.85);
+        assertThat(snapshotLog.latestRate("JPY")).hasValue(110.0);
+        assertThat(snapshotLog.latestRate("XYZ")).isEmpty();
+        assertThat(snapshotLog.latestRate("eur")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("at / rateAt - Retourne le dernier snapshot avant l'instant demandé")
+    void pointInTimeLookup() throws IOException {
+        // Given - index creux d'un snapshot sur deux
+        for (int minute = 0; minute < 10; minute++) {
+            snapshotLog.append(createExchangeRate("id-" + minute,
+                    String.format("2025-06-04T12:%02d:00", minute), 0.80 + minute / 100.0));
+        }
+
+        // Then
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T11:59:59Z"))).isNull();
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:00:00Z")).getId()).isEqualTo("id-0");
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:03:30Z")).getId()).isEqualTo("id-3");
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:04:00Z")).getId()).isEqualTo("id-4");
+        assertThat(snapshotLog.at(Instant.parse("2025-06-05T00:00:00Z")).getId()).isEqualTo("id-9");
+        assertThat(snapshotLog.rateAt("EUR", Instant.parse("2025-06-04T12:07:10Z"))).hasValue(0.80 + 7 / 100.0);
+    }
+
+    @Test
+    @DisplayName("append - Ignore les doublons et les snapshots plus anciens")
+    void appendSkipsDuplicatesAndOutOfOrder() throws IOException {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+
+        // When & Then
+        assertThat(snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85))).isFalse();
+        assertThat(snapshotLog.append(createExchangeRate("id-0", "2025-06-04T11:00:00", 0.84))).isFalse();
+        assertThat(snapshotLog.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("append - Refuse un snapshot sans timestamp")
+    void appendRejectsMissingTimestamp() {
+        ExchangeRate rate = createExchangeRate("id-1", null, 0.85);
+
+        assertThatThrownBy(() -> snapshotLog.append(rate))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Réouverture - Les snapshots persistés sont relus et le fichier s'agrandit")
+    void reopenAfterGrowth() throws IOException {
+        // Given - plus de snapshots que la capacité initiale de 1 Ko
+        for (int minute = 0; minute < 20; minute++) {
+            snapshotLog.append(createExchangeRate("id-" + minute,
+                    String.format("2025-06-04T12:%02d:00", minute), 0.85));
+        }
+        snapshotLog.close();
+
+        // When
+        snapshotLog = SnapshotLog.open(tempDir.resolve("snapshots.log"), 1024, 2);
+
+        // Then
+        assertThat(snapshotLog.size()).isEqualTo(20);
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-19");
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:10:30Z")).getId()).isEqualTo("id-10");
+        assertThat(snapshotLog.append(createExchangeRate("id-19", "2025-06-04T12:19:00", 0.85))).isFalse();
+    }
+
+    @Test
+    @DisplayName("replaceWith - Le journal reconstruit remplace l'ancien et survit à la réouverture")
+    void replaceWithInstallsRebuiltLog() throws IOException {
+        // Given
+        snapshotLog.append(createExchangeRate("id-x", "2025-06-04T11:30:00", 0.80));
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:01:00", 0.86));
+        SnapshotLog rebuilt = snapshotLog.openSibling("rebuild");
+        rebuilt.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        rebuilt.append(createExchangeRate("id-2", "2025-06-04T12:01:00", 0.86));
+
+        // When
+        snapshotLog.replaceWith(rebuilt);
+        snapshotLog.close();
+        snapshotLog = SnapshotLog.open(tempDir.resolve("snapshots.log"), 1024, 2);
+
+        // Then
+        assertThat(snapshotLog.size()).isEqualTo(2);
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T11:45:00Z"))).isNull();
+        assertThat(snapshotLog.at(Instant.parse("2025-06-04T12:00:30Z")).getId()).isEqualTo("id-1");
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-2");
+        assertThat(tempDir.resolve("snapshots.log.rebuild")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("replaceWith - Les snapshots ajoutés pendant la reconstruction sont conservés")
+    void replaceWithKeepsSnapshotsAppendedDuringRebuild() throws IOException {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        SnapshotLog rebuilt = snapshotLog.openSibling("rebuild");
+        rebuilt.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:01:00", 0.86));
+
+        // When
+        snapshotLog.replaceWith(rebuilt);
+
+        // Then
+        assertThat(snapshotLog.size()).isEqualTo(2);
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-2");
+        assertThat(snapshotLog.latestRate("EUR")).hasValue(0.86);
+        assertThat(snapshotLog.append(createExchangeRate("id-3", "2025-06-04T12:02:00", 0.87))).isTrue();
+    }
+
+    @Test
+    @DisplayName("replaceWith - L'ancien mapping, encore lu par d'autres threads, n'est pas réécrit")
+    void replaceWithKeepsPreviousMappingIntact() throws IOException {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        MappedByteBuffer previous = (MappedByteBuffer) ReflectionTestUtils.getField(snapshotLog, "buffer");
+        long previousNanos = previous.getLong(8);
+        SnapshotLog rebuilt = snapshotLog.openSibling("rebuild");
+        rebuilt.append(createExchangeRate("id-0", "2025-06-04T11:00:00", 0.84));
+
+        // When
+        snapshotLog.replaceWith(rebuilt);
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:05:00", 0.86));
+
+        // Then
+        assertThat(previous.getInt(0)).isEqualTo(SnapshotLog.MAGIC);
+        assertThat(previous.getLong(8)).isEqualTo(previousNanos);
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-2");
+    }
+
+    @Test
+    @DisplayName("discard - Un journal reconstruit abandonné laisse le journal en service intact")
+    void discardKeepsServingLog() throws IOException {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        SnapshotLog rebuilt = snapshotLog.openSibling("rebuild");
+        rebuilt.append(createExchangeRate("id-0", "2025-06-04T11:00:00", 0.84));
+
+        // When
+        rebuilt.discard();
+
+        // Then
+        assertThat(tempDir.resolve("snapshots.log.rebuild")).doesNotExist();
+        assertThat(snapshotLog.size()).isEqualTo(1);
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-1");
+    }
+
+    @Test
+    @DisplayName("latestTag - Change à chaque snapshot et survit à la réouverture")
+    void latestTag() throws IOException {
+        // Given
+        assertThat(snapshotLog.latestTag()).isNull();
+        assertThat(snapshotLog.latestEpochNanos()).isEqualTo(-1);
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        String first = snapshotLog.latestTag();
+
+        // When
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:02:00", 0.86));
+        String second = snapshotLog.latestTag();
+        snapshotLog.close();
+        snapshotLog = SnapshotLog.open(tempDir.resolve("snapshots.log"), 1024, 2);
+
+        // Then
+        assertThat(first).isNotEqualTo(second).endsWith("-id-1");
+        assertThat(snapshotLog.latestTag()).isEqualTo(second);
+        assertThat(snapshotLog.latestEpochNanos())
+                .isEqualTo(Instant.parse("2025-06-04T12:02:00Z").toEpochMilli() * 1_000_000);
+    }
+
+    @Test
+    @DisplayName("openAsync - Journal vu vide jusqu'au chargement, complet ensuite")
+    void openAsyncLoadsInBackground() throws Exception {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:01:00", 0.86));
+        snapshotLog.close();
+        List<Runnable> tasks = new ArrayList<>();
+
+        // When
+        snapshotLog = SnapshotLog.openAsync(tempDir.resolve("snapshots.log"), 1024, 2, tasks::add);
+
+        // Then
+        assertThat(snapshotLog.size()).isZero();
+        assertThat(snapshotLog.latest()).isNull();
+        assertThat(snapshotLog.loaded()).isNotDone();
+
+        tasks.forEach(Runnable::run);
+        assertThat(snapshotLog.loaded()).isCompleted();
+        assertThat(snapshotLog.size()).isEqualTo(2);
+        assertThat(snapshotLog.latest().getId()).isEqualTo("id-2");
+    }
+
+    @Test
+    @DisplayName("openAsync - Une écriture avant la fin du chargement termine le chargement")
+    void appendBeforeAsyncLoadCompletes() throws Exception {
+        // Given
+        snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        snapshotLog.close();
+        List<Runnable> tasks = new ArrayList<>();
+        snapshotLog = SnapshotLog.openAsync(tempDir.resolve("snapshots.log"), 1024, 2, tasks::add);
+
+        // When
+        boolean replayed = snapshotLog.append(createExchangeRate("id-1", "2025-06-04T12:00:00", 0.85));
+        boolean appended = snapshotLog.append(createExchangeRate("id-2", "2025-06-04T12:01:00", 0.86));
+        tasks.forEach(Runnable::run);
+
+        // Then - le chargement en retard ne rejoue pas le fichier une seconde fois
+        assertThat(replayed).isFalse();
+        assertThat(appended).isTrue();
+        assertThat(snapshotLog.loaded()).isCompleted();
+        assertThat(snapshotLog.size()).isEqualTo(2);
+    }
+}
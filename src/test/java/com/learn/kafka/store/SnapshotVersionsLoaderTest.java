@@ -0,0 +1,117 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour SnapshotVersionsLoader")
+class SnapshotVersionsLoaderTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("exchange-rates", 0);
+
+    @Mock
+    private ConsumerFactory<String, ExchangeRate> exchangeRateConsumerFactory;
+
+    @Test
+    @DisplayName("load - Derniers snapshots du topic, version = offset, leader déchu écarté")
+    void load_LastSnapshotsOfTopic() {
+        // Given
+        SnapshotVersions snapshotVersions = new SnapshotVersions(3);
+        MockConsumer<String, ExchangeRate> consumer = consumer(5);
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(2, "2024-01-15T10:00:00", 7L));
+            consumer.addRecord(record(3, "2024-01-15T10:02:00", 6L));
+            consumer.addRecord(record(4, "2024-01-15T10:04:00", 7L));
+        });
+
+        // When
+        int retained = new SnapshotVersionsLoader(snapshotVersions, exchangeRateConsumerFactory).load();
+
+        // Then
+        assertThat(retained).isEqualTo(2);
+        assertThat(snapshotVersions.latest().version()).isEqualTo(4L);
+        assertThat(snapshotVersions.get(2L)).isNotNull();
+        assertThat(snapshotVersions.get(3L)).isNull();
+        assertThat(consumer.closed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("load - Version plus récente déjà ajoutée par le consumer : conservée seule")
+    void load_KeepsNewerLiveVersion() {
+        // Given
+        SnapshotVersions snapshotVersions = new SnapshotVersions(3);
+        ExchangeRate live = record(5, "2024-01-15T10:06:00", null).value();
+        live.setVersion(5L);
+        snapshotVersions.add(live);
+        MockConsumer<String, ExchangeRate> consumer = consumer(5);
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(2, "2024-01-15T10:00:00", null));
+            consumer.addRecord(record(3, "2024-01-15T10:02:00", null));
+            consumer.addRecord(record(4, "2024-01-15T10:04:00", null));
+        });
+
+        // When
+        int retained = new SnapshotVersionsLoader(snapshotVersions, exchangeRateConsumerFactory).load();
+
+        // Then
+        assertThat(retained).isZero();
+        assertThat(snapshotVersions.size()).isEqualTo(1);
+        assertThat(snapshotVersions.latest().version()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("loadOnStartup - Ne doit pas propager les erreurs Kafka")
+    void loadOnStartup_SwallowsErrors() {
+        // Given
+        when(exchangeRateConsumerFactory.createConsumer(isNull(), eq("snapshot-versions-load"), isNull(), any()))
+                .thenThrow(new IllegalStateException("Kafka unavailable"));
+        SnapshotVersions snapshotVersions = new SnapshotVersions(3);
+
+        // When
+        new SnapshotVersionsLoader(snapshotVersions, exchangeRateConsumerFactory).loadOnStartup();
+
+        // Then
+        assertThat(snapshotVersions.size()).isZero();
+    }
+
+    private MockConsumer<String, ExchangeRate> consumer(long endOffset) {
+        MockConsumer<String, ExchangeRate> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions("exchange-rates", List.of(
+                new PartitionInfo("exchange-rates", 0, Node.noNode(), new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, endOffset));
+        when(exchangeRateConsumerFactory.createConsumer(isNull(), eq("snapshot-versions-load"), isNull(), any()))
+                .thenReturn(consumer);
+        return consumer;
+    }
+
+    private static ConsumerRecord<String, ExchangeRate> record(long offset, String timestamp, Long fencingToken) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setId("id-" + offset);
+        exchangeRate.setBaseCurrency("USD");
+        exchangeRate.setTimestamp(timestamp);
+        exchangeRate.setRates(Map.of("EUR", 0.91));
+        exchangeRate.setFencingToken(fencingToken);
+        return new ConsumerRecord<>("exchange-rates", 0, offset, null, exchangeRate);
+    }
+}
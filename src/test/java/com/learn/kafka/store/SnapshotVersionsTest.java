@@ -0,0 +1,76 @@
+package com.learn.kafka.store;
+
+import com.learn.kafka.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour SnapshotVersions")
+class SnapshotVersionsTest {
+
+    private final SnapshotVersions snapshotVersions = new SnapshotVersions(3);
+
+    private static ExchangeRate createExchangeRate(long version, String id, String timestamp, double eur) {
+        ExchangeRate rate = new ExchangeRate();
+        rate.setId(id);
+        rate.setBaseCurrency("USD");
+        rate.setTimestamp(timestamp);
+        rate.setRates(Map.of("EUR", eur, "GBP", 0.75));
+        rate.setVersion(version);
+        return rate;
+    }
+
+    @Test
+    @DisplayName("get - Chaque version retenue relit le même snapshot, ETag du journal compris")
+    void get() {
+        // Given
+        ExchangeRate first = createExchangeRate(10, "a", "2025-06-04T14:00:00", 0.85);
+        snapshotVersions.add(first);
+        snapshotVersions.add(createExchangeRate(12, "b", "2025-06-04T14:02:00", 0.86));
+
+        // When
+        SnapshotVersions.Version version = snapshotVersions.get(10);
+
+        // Then
+        assertThat(version.exchangeRate()).isSameAs(first);
+        assertThat(version.snapshot().rate("EUR")).hasValue(0.85);
+        assertThat(version.tag()).isEqualTo(SnapshotLog.tag(version.snapshot().getEpochMillis() * 1_000_000, "a"));
+        assertThat(snapshotVersions.get(11)).isNull();
+        assertThat(snapshotVersions.latest().version()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("add - Au-delà de la capacité, les plus anciennes versions quittent l'anneau")
+    void add_EvictsOldest() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            snapshotVersions.add(createExchangeRate(i, "id-" + i, "2025-06-04T14:0" + i + ":00", 0.85 + i / 100.0));
+        }
+
+        // Then
+        assertThat(snapshotVersions.size()).isEqualTo(3);
+        assertThat(snapshotVersions.get(1)).isNull();
+        assertThat(snapshotVersions.isBeforeOldest(1)).isTrue();
+        assertThat(snapshotVersions.get(2).exchangeRate().getId()).isEqualTo("id-2");
+        assertThat(snapshotVersions.isBeforeOldest(5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("add - Snapshot rejoué ou plus ancien que le dernier retenu ignoré")
+    void add_IgnoresReplayedAndOlder() {
+        // Given
+        snapshotVersions.add(createExchangeRate(5, "a", "2025-06-04T14:02:00", 0.85));
+
+        // Then
+        assertThat(snapshotVersions.add(createExchangeRate(5, "a", "2025-06-04T14:02:00", 0.85))).isFalse();
+        assertThat(snapshotVersions.add(createExchangeRate(6, "backfill", "2025-06-03T14:00:00", 0.80))).isFalse();
+        assertThat(snapshotVersions.add(createExchangeRate(7, "b", "2025-06-04T14:04:00", 0.86))).isTrue();
+        assertThat(snapshotVersions.latest().exchangeRate().getId()).isEqualTo("b");
+        assertThatThrownBy(() -> snapshotVersions.add(new ExchangeRate()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}